@@ -0,0 +1,154 @@
+package rs.playgroundmath.pathmaster3000.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+//Poredi JMH rezultat (-rf json) sa sačuvanim baseline-om i završava se sa greškom ako je neki benchmark sporiji
+//od dozvoljenog procenta, ili alocira više memorije po operaciji (kada je pokrenut sa -prof gc)
+//Svi benchmark-ovi su AverageTime, pa je manji rezultat bolji
+//Sporiji znači i van šuma merenja: razlika mora biti veća od zbirne greške oba merenja (scoreError iz JMH,
+//interval poverenja 99.9%), inače bi benchmark-ovi od nekoliko nanosekundi padali bez ikakve promene u kodu
+//Greška iz jednog pokretanja ne vidi razliku između pokretanja (drugi procesi na mašini, drugačiji JIT), pa se
+//benchmark koji izgleda sporiji ponovo meri (ako je zadat jar) i pada samo ako je sporiji u svakom merenju -
+//šum samo produžava vreme, a prava regresija se ponavlja. Alokacija ne zavisi od šuma i ne meri se ponovo
+//JSON se čita regularnim izrazima - format JMH rezultata je stabilan, a modul ne zavisi od JSON biblioteke
+public final class BaselineCheck {
+
+    //Razlika u alokaciji manja od ovoga je šum (npr. poravnanje objekata)
+    private static final double ALLOCATION_NOISE_BYTES = 16;
+    //Broj ponovnih merenja benchmark-a koji izgleda sporiji
+    private static final int RERUNS = 2;
+
+    private static final Pattern BENCHMARK = Pattern.compile("\"benchmark\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern PARAMS = Pattern.compile("\"params\"\\s*:\\s*\\{([^}]*)}");
+    private static final Pattern PARAM = Pattern.compile("\"([^\"]+)\"\\s*:\\s*\"([^\"]*)\"");
+    private static final Pattern SCORE = Pattern.compile(
+            "\"primaryMetric\"\\s*:\\s*\\{\\s*\"score\"\\s*:\\s*([^,\\s]+)\\s*,\\s*\"scoreError\"\\s*:\\s*([^,\\s]+)");
+    private static final Pattern ALLOCATION = Pattern.compile("gc\\.alloc\\.rate\\.norm\"\\s*:\\s*\\{\\s*\"score\"\\s*:\\s*([^,\\s]+)");
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCheck <baseline.json> <result.json> [allowed slowdown %]"
+                    + " [benchmarks.jar JMH options for re-measuring]");
+            System.exit(2);
+        }
+        Map<String, double[]> baseline = read(args[0]);
+        Map<String, double[]> result = read(args[1]);
+        double allowed = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        String jar = args.length > 3 ? args[3] : null;
+        List<String> options = args.length > 4 ? Arrays.asList(args).subList(4, args.length) : List.of();
+
+        int regressions = 0;
+        for (Map.Entry<String, double[]> entry : result.entrySet()) {
+            double[] before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW   %s: %.3f%n", entry.getKey(), entry.getValue()[0]);
+                continue;
+            }
+            double[] after = entry.getValue();
+            boolean allocates = !Double.isNaN(before[1]) && !Double.isNaN(after[1])
+                    && after[1] - before[1] > ALLOCATION_NOISE_BYTES;
+            boolean slower = isSlower(before, after, allowed);
+            for (int rerun = 1; slower && !allocates && jar != null && rerun <= RERUNS; rerun++) {
+                print("RERUN", entry.getKey(), before, after, "");
+                after = measure(jar, options, entry.getKey());
+                slower = isSlower(before, after, allowed);
+            }
+            if (slower || allocates) {
+                regressions++;
+            }
+            print(slower || allocates ? "FAIL " : "OK   ", entry.getKey(), before, after,
+                    allocates ? String.format(", allocation %.0f -> %.0f B/op", before[1], after[1]) : "");
+        }
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed");
+            System.exit(1);
+        }
+    }
+
+    private static boolean isSlower(double[] before, double[] after, double allowed) {
+        double change = (after[0] - before[0]) / before[0] * 100;
+        return change > allowed && after[0] - before[0] > Math.hypot(before[2], after[2]);
+    }
+
+    private static void print(String status, String key, double[] before, double[] after, String suffix) {
+        System.out.printf("%s %s: %.3f -> %.3f (%+.1f%%, noise +/-%.3f)%s%n", status, key, before[0], after[0],
+                (after[0] - before[0]) / before[0] * 100, Math.hypot(before[2], after[2]), suffix);
+    }
+
+    //Ponovo meri jedan benchmark sa jednim skupom parametara, istim JMH opcijama kao prvo merenje
+    //Ključ je "ime parametar=vrednost ...", kao u read
+    private static double[] measure(String jar, List<String> options, String key) throws IOException, InterruptedException {
+        String[] parts = key.split(" ");
+        Path json = Files.createTempFile("jmh-rerun", ".json");
+        try {
+            List<String> command = new ArrayList<>(List.of(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-jar", jar, "^" + Pattern.quote(parts[0]) + "$"));
+            for (int i = 1; i < parts.length; i++) {
+                command.add("-p");
+                command.add(parts[i]);
+            }
+            command.addAll(options);
+            command.addAll(List.of("-rf", "json", "-rff", json.toString()));
+            Process process = new ProcessBuilder(command).inheritIO().start();
+            if (process.waitFor() != 0) {
+                throw new IOException("Re-measuring " + key + " failed with exit code " + process.exitValue());
+            }
+            double[] score = read(json.toString()).get(key);
+            if (score == null) {
+                throw new IOException("Re-measuring " + key + " produced no result");
+            }
+            return score;
+        } finally {
+            Files.deleteIfExists(json);
+        }
+    }
+
+    //Ključ je ime benchmark-a sa parametrima, vrednost je [rezultat, alokacija po operaciji ili NaN, greška rezultata]
+    //Greška je 0 ako je JMH ne zna (npr. samo jedna iteracija merenja)
+    private static Map<String, double[]> read(String file) throws IOException {
+        String json = new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+        Map<String, double[]> scores = new LinkedHashMap<>();
+        //Svaki rezultat počinje poljem jmhVersion
+        String[] entries = json.split("\"jmhVersion\"");
+        for (int i = 1; i < entries.length; i++) {
+            String entry = entries[i];
+            Matcher benchmark = BENCHMARK.matcher(entry);
+            Matcher score = SCORE.matcher(entry);
+            if (!benchmark.find() || !score.find()) {
+                continue;
+            }
+            StringBuilder key = new StringBuilder(benchmark.group(1));
+            Matcher params = PARAMS.matcher(entry);
+            if (params.find()) {
+                Matcher param = PARAM.matcher(params.group(1));
+                while (param.find()) {
+                    key.append(' ').append(param.group(1)).append('=').append(param.group(2));
+                }
+            }
+            Matcher allocation = ALLOCATION.matcher(entry);
+            double error = number(score.group(2));
+            scores.put(key.toString(), new double[]{number(score.group(1)),
+                    allocation.find() ? number(allocation.group(1)) : Double.NaN, Double.isNaN(error) ? 0 : error});
+        }
+        return scores;
+    }
+
+    private static double number(String text) {
+        String value = text.replace("\"", "");
+        return "NaN".equals(value) ? Double.NaN : Double.parseDouble(value);
+    }
+}
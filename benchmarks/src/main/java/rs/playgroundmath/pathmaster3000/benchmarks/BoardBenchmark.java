@@ -0,0 +1,80 @@
+package rs.playgroundmath.pathmaster3000.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rs.playgroundmath.pathmaster3000.Board;
+import rs.playgroundmath.pathmaster3000.MoveJournal;
+import rs.playgroundmath.pathmaster3000.MoveResult;
+
+import java.util.concurrent.TimeUnit;
+
+//Hot path poteza: provera poteza (nekadašnji GameController.isValidMove), potez + undo (handleMove bez prikaza),
+//isti potez kroz dnevnik poteza, i generisanje nove table (nekadašnji GameGrid.generateRandomGrid)
+//Potez se uvek vraća sa undo, pa je stanje table isto u svakoj iteraciji
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({"5", "7", "32", "128", "1024"})
+    private int size;
+
+    //Dužina putanje pre poteza, u procentima polja table
+    @Param({"10", "90"})
+    private int pathPercent;
+
+    private Board board;
+    private MoveJournal journal;
+    private int next;
+    private int notAdjacent;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = BoardFixture.snakeBoard(size, pathPercent);
+        journal = new MoveJournal(board);
+        next = BoardFixture.snakeCell(size, board.getPathLength());
+        notAdjacent = board.getEnd();
+    }
+
+    @Benchmark
+    public MoveResult checkValidMove() {
+        return board.check(next);
+    }
+
+    @Benchmark
+    public MoveResult checkInvalidMove() {
+        return board.check(notAdjacent);
+    }
+
+    @Benchmark
+    public int moveAndUndo() {
+        board.move(next);
+        return board.undo();
+    }
+
+    //Dnevnik je kružni bafer, pa dugo merenje samo prepisuje najstarije događaje
+    @Benchmark
+    public int journalMoveAndUndo() {
+        journal.move(next);
+        return journal.undo();
+    }
+
+    @Benchmark
+    public Board generate() {
+        return Board.generate(size, size, seed++);
+    }
+}
@@ -0,0 +1,42 @@
+package rs.playgroundmath.pathmaster3000.benchmarks;
+
+import rs.playgroundmath.pathmaster3000.Board;
+
+import java.util.SplittableRandom;
+
+//Table za benchmark-ove - uvek iste za istu veličinu, sa putanjom zadate dužine
+//Start je u gornjem levom uglu, End u donjem desnom, a putanja ide zmijasto red po red (levo-desno, pa desno-levo)
+//Putanja nikada ne ulazi u poslednji red, pa sledeći korak zmije nikada nije End polje
+final class BoardFixture {
+
+    private static final long SEED = 3000;
+
+    private BoardFixture() {
+    }
+
+    static Board snakeBoard(int size, int pathPercent) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        byte[] cells = new byte[size * size];
+        for (int i = 1; i < cells.length - 1; i++) {
+            cells[i] = (byte) random.nextInt(10);
+        }
+        Board board = new Board(size, size, cells, 0, cells.length - 1);
+        int steps = Math.min(maxSteps(size), (int) ((long) cells.length * pathPercent / 100));
+        for (int i = 0; i < steps; i++) {
+            board.move(snakeCell(size, i + 1));
+        }
+        return board;
+    }
+
+    //Najduža zmija koja ostavlja mesto za još jedan korak i ne dira poslednji red
+    static int maxSteps(int size) {
+        return size * (size - 1) - 2;
+    }
+
+    //i-to polje zmije, snakeCell(size, 0) je Start
+    static int snakeCell(int size, int i) {
+        int row = i / size;
+        int column = i % size;
+        return row * size + (row % 2 == 0 ? column : size - 1 - column);
+    }
+}
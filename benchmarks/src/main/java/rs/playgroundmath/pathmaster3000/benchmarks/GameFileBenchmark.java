@@ -0,0 +1,56 @@
+package rs.playgroundmath.pathmaster3000.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rs.playgroundmath.pathmaster3000.BoardTheme;
+import rs.playgroundmath.pathmaster3000.GameFile;
+import rs.playgroundmath.pathmaster3000.SavedGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+//Čuvanje i učitavanje igre bez diska - samo kodiranje u .game format i dekodiranje (sa ponovnim igranjem putanje)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameFileBenchmark {
+
+    @Param({"5", "7", "32", "128", "1024"})
+    private int size;
+
+    @Param({"10", "90"})
+    private int pathPercent;
+
+    private SavedGame game;
+    private ByteBuffer encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = new SavedGame(BoardFixture.snakeBoard(size, pathPercent), 42, BoardTheme.DEFAULT_PATH_COLOR, "lightblue");
+        encoded = GameFile.encode(game);
+    }
+
+    @Benchmark
+    public ByteBuffer save() {
+        return GameFile.encode(game);
+    }
+
+    @Benchmark
+    public SavedGame load() throws IOException {
+        return GameFile.decode(encoded.duplicate());
+    }
+}
@@ -1,6 +1,7 @@
 module rs.playgroundmath.pathmaster3000 {
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.jfr;
 
 
     opens rs.playgroundmath.pathmaster3000 to javafx.fxml;
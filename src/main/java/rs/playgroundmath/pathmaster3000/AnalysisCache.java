@@ -0,0 +1,230 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Keš rezultata analize table - najbolja putanja (PathSolver) i predlog poteza (ReachabilityTracker.hint)
+//Ključ je par Zobrist heševa iz Board modela: heš rasporeda table i heš stanja (posećena polja + pozicija),
+//pa restart iste table, učitana igra ili ista zagonetka iz paketa pogađaju već izračunat rezultat
+//
+//Keš je ograničen brojem bajtova, a ne brojem unosa - putanja na velikoj tabli zauzima više od jednog predloga
+//Kada se prekorači granica, izbacuju se unosi koji najduže nisu korišćeni (LRU, LinkedHashMap u access order-u)
+//Može se sačuvati u fajl i učitati pri sledećem pokretanju (save / load)
+public final class AnalysisCache {
+
+    //Vrednost koju getHint vraća kada predlog nije u kešu (Board.NO_CELL je validan predlog - "nema poteza")
+    public static final int MISS = -2;
+
+    //Format fajla (big-endian): int magic "PMAC", int broj unosa, pa za svaki unos:
+    //long heš rasporeda, long heš stanja, int vrsta, int dužina, int[] podaci
+    static final int MAGIC = 0x504D4143;
+    //Približna cena unosa u memoriji bez podataka: ključ, vrednost, čvor mape i zaglavlje niza
+    private static final int ENTRY_OVERHEAD = 128;
+
+    //Vrsta analize - najbolja putanja, ili predlog poteza za dati broj poteza unapred (HINT + lookahead)
+    private static final int SOLUTION = 0;
+    private static final int HINT = 1;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, int[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+
+    public AnalysisCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    //Najbolja putanja od trenutnog stanja table, ili null ako nije u kešu
+    //Čuvaju se samo optimalni rezultati, pa se keširani rezultat ne razlikuje od ponovo izračunatog
+    public synchronized SolverResult getSolution(Board board) {
+        int[] data = lookup(board, SOLUTION);
+        if (data == null) {
+            return null;
+        }
+        //podaci: zbir, broj koraka, broj čvorova, pa putanja (prazna ako End nije dostižan)
+        //Isto stanje se može dobiti i drugim redosledom poteza, pa se pređeni deo putanje uzima sa table
+        int[] path = data.length > 3 ? Arrays.copyOfRange(data, 3, data.length) : null;
+        if (path != null) {
+            for (int i = 0; i < board.getPathLength(); i++) {
+                path[i] = board.getPathCell(i);
+            }
+        }
+        return new SolverResult(path, data[0], data[1], true, data[2], 0);
+    }
+
+    public synchronized void putSolution(Board board, SolverResult result) {
+        if (!result.isOptimal()) {
+            return;
+        }
+        int[] path = result.isSolvable() ? result.getPath() : new int[0];
+        int[] data = new int[3 + path.length];
+        data[0] = result.getSum();
+        data[1] = result.getSteps();
+        data[2] = (int) Math.min(Integer.MAX_VALUE, result.getNodes());
+        System.arraycopy(path, 0, data, 3, path.length);
+        store(new Key(board.getLayoutHash(), board.getPositionHash(), SOLUTION), data);
+    }
+
+    //Predlog poteza za trenutno stanje table, MISS ako nije u kešu
+    public synchronized int getHint(Board board, int lookahead) {
+        int[] data = lookup(board, HINT + lookahead);
+        return data == null ? MISS : data[0];
+    }
+
+    public synchronized void putHint(Board board, int lookahead, int hint) {
+        store(new Key(board.getLayoutHash(), board.getPositionHash(), HINT + lookahead), new int[]{hint});
+    }
+
+    private int[] lookup(Board board, int kind) {
+        int[] data = entries.get(new Key(board.getLayoutHash(), board.getPositionHash(), kind));
+        if (data == null) {
+            misses++;
+            GameMetrics.getInstance().increment("analysisCache.miss");
+        } else {
+            hits++;
+            GameMetrics.getInstance().increment("analysisCache.hit");
+        }
+        return data;
+    }
+
+    private void store(Key key, int[] data) {
+        int[] previous = entries.put(key, data);
+        if (previous != null) {
+            bytes -= weight(previous);
+        }
+        bytes += weight(data);
+        //Najstariji unosi su na početku mape
+        Iterator<int[]> iterator = entries.values().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            bytes -= weight(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private static long weight(int[] data) {
+        return ENTRY_OVERHEAD + (long) data.length * Integer.BYTES;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    //Približna zauzeta memorija u bajtovima
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    //Upisuje keš u fajl, od najstarijeg do poslednjeg korišćenog unosa, da bi učitavanje zadržalo LRU redosled
+    //Piše se u privremeni fajl koji zatim zamenjuje stari, pa prekid upisa ne ostavlja pokvaren keš
+    public synchronized void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            buffer.putInt(MAGIC);
+            buffer.putInt(entries.size());
+            for (Map.Entry<Key, int[]> entry : entries.entrySet()) {
+                int[] data = entry.getValue();
+                int length = 2 * Long.BYTES + 2 * Integer.BYTES + data.length * Integer.BYTES;
+                if (buffer.remaining() < length) {
+                    drain(channel, buffer);
+                    if (buffer.capacity() < length) {
+                        buffer = ByteBuffer.allocate(length);
+                    }
+                }
+                Key key = entry.getKey();
+                buffer.putLong(key.layout);
+                buffer.putLong(key.position);
+                buffer.putInt(key.kind);
+                buffer.putInt(data.length);
+                buffer.asIntBuffer().put(data);
+                buffer.position(buffer.position() + data.length * Integer.BYTES);
+            }
+            drain(channel, buffer);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    //Učitava keš iz fajla koji je napisao save; unosi preko granice veličine se odmah izbacuju
+    public static AnalysisCache load(Path file, long maxBytes) throws IOException {
+        AnalysisCache cache = new AnalysisCache(maxBytes);
+        if (!Files.exists(file)) {
+            return cache;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < 2 * Integer.BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a PathMaster analysis cache file: " + file);
+        }
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            if (buffer.remaining() < 2 * Long.BYTES + 2 * Integer.BYTES) {
+                throw new IOException("Truncated analysis cache file: " + file);
+            }
+            Key key = new Key(buffer.getLong(), buffer.getLong(), buffer.getInt());
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining() / Integer.BYTES) {
+                throw new IOException("Truncated analysis cache file: " + file);
+            }
+            int[] data = new int[length];
+            buffer.asIntBuffer().get(data);
+            buffer.position(buffer.position() + length * Integer.BYTES);
+            cache.store(key, data);
+        }
+        return cache;
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static final class Key {
+        private final long layout;
+        private final long position;
+        private final int kind;
+
+        Key(long layout, long position, int kind) {
+            this.layout = layout;
+            this.position = position;
+            this.kind = kind;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return layout == key.layout && position == key.position && kind == key.kind;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (position ^ position >>> 32) * 31 + (int) layout + kind;
+        }
+    }
+}
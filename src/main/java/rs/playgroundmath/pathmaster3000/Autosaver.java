@@ -0,0 +1,176 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+//Automatsko čuvanje igre u pozadini
+//JavaFX nit samo napravi snimak (GameSnapshot) i preda ga - kodiranje, upis na disk i fsync rade se na posebnoj niti,
+//pa spor disk ne zaustavlja igru
+//
+//Više snimaka u kratkom vremenu (npr. niz brzih poteza) se spaja: čeka se COALESCE_MILLIS i upisuje se samo poslednji
+//Svaki upis ide u privremeni fajl koji se posle fsync-a preimenuje (ATOMIC_MOVE), pa na disku nikada nema
+//polovično upisanog fajla
+//Čuva se nekoliko generacija: autosave-0.game je najnovija, pri svakom upisu se starije pomeraju za jedno mesto
+//
+//Pri normalnom zatvaranju aplikacije snimci se brišu, pa ako ih ima pri pokretanju, aplikacija nije ispravno zatvorena
+//i igraču se nudi nastavak poslednje igre (recover)
+public final class Autosaver implements Closeable {
+
+    private static final String FILE_PREFIX = "autosave-";
+    private static final String FILE_SUFFIX = ".game";
+    private static final long COALESCE_MILLIS = 250;
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+    private final Path directory;
+    private final int generations;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pathmaster-autosave");
+        thread.setDaemon(true);
+        return thread;
+    });
+    //Poslednji snimak koji još nije upisan - dok ovde ima snimka, upis je već zakazan
+    private final AtomicReference<GameSnapshot> pending = new AtomicReference<>();
+    private volatile boolean closed;
+
+    public Autosaver(Path directory, int generations) throws IOException {
+        if (generations < 1) {
+            throw new IllegalArgumentException("At least one autosave generation is required: " + generations);
+        }
+        this.directory = directory;
+        this.generations = generations;
+        Files.createDirectories(directory);
+    }
+
+    //Predaje snimak za čuvanje, poziva se sa JavaFX niti posle svakog poteza i periodično
+    //Ne čeka disk - samo zameni snimak koji čeka, a upis zakazuje samo ako već nije zakazan
+    public void submit(GameSnapshot snapshot) {
+        if (closed) {
+            return;
+        }
+        GameMetrics.getInstance().increment("autosave.submitted");
+        if (pending.getAndSet(snapshot) == null) {
+            writer.schedule(this::writePending, COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    //Čuva snimak u dati fajl na niti za čuvanje (Save Game iz menija), takođe preko privremenog fajla
+    public CompletableFuture<Void> saveAs(Path file, GameSnapshot snapshot) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                writeAtomically(file, GameFile.encode(snapshot.toSavedGame()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, writer);
+    }
+
+    private void writePending() {
+        GameSnapshot snapshot = pending.getAndSet(null);
+        if (snapshot == null || closed) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            ByteBuffer content = GameFile.encode(snapshot.toSavedGame());
+            Path temporary = writeTemporary(directory, content);
+            //Starije generacije se pomeraju za jedno mesto, najstarija se prepisuje
+            for (int i = generations - 1; i > 0; i--) {
+                Path newer = generation(i - 1);
+                if (Files.exists(newer)) {
+                    move(newer, generation(i));
+                }
+            }
+            move(temporary, generation(0));
+            GameMetrics.getInstance().increment("autosave.written");
+        } catch (IOException | RuntimeException e) {
+            GameMetrics.getInstance().increment("autosave.failed");
+            e.printStackTrace();
+        }
+        GameMetrics.getInstance().record("autosave.write", System.nanoTime() - started);
+    }
+
+    //Najnoviji ispravan snimak, ili null ako ga nema
+    //Generacija koja ne može da se pročita se preskače i uzima se sledeća starija
+    public SavedGame recover() {
+        for (int i = 0; i < generations; i++) {
+            Path file = generation(i);
+            if (Files.exists(file)) {
+                try {
+                    return GameFile.read(file);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        return null;
+    }
+
+    //Briše sve generacije, npr. kada igrač odbije nastavak ili se aplikacija ispravno zatvori
+    public void discard() {
+        for (int i = 0; i < generations; i++) {
+            try {
+                Files.deleteIfExists(generation(i));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    //Sačeka upis koji je u toku i briše snimke - posle ispravnog zatvaranja nema šta da se nastavi
+    @Override
+    public void close() {
+        closed = true;
+        writer.shutdown();
+        try {
+            writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        discard();
+    }
+
+    private Path generation(int index) {
+        return directory.resolve(FILE_PREFIX + index + FILE_SUFFIX);
+    }
+
+    private static void writeAtomically(Path file, ByteBuffer content) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        move(writeTemporary(parent, content), file);
+    }
+
+    //Upisuje sadržaj u privremeni fajl u istom folderu (preimenovanje je atomično samo u okviru istog diska)
+    private static Path writeTemporary(Path directory, ByteBuffer content) throws IOException {
+        Path temporary = Files.createTempFile(directory, FILE_PREFIX, ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        return temporary;
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
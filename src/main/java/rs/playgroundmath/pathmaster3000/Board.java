@@ -0,0 +1,392 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+//Headless model table - nema nikakve veze sa JavaFX-om
+//Polja su u jednom byte[] nizu red po red (row-major), pa se polje [x, y] nalazi na indeksu x * columns + y
+//GameGrid i GameController samo iscrtavaju ovo stanje, a sva pravila igre su ovde
+//Potez (move) ne alocira nikakve objekte, tako da se model može koristiti i za simulacije sa milionima poteza
+public class Board {
+
+    //Vrednost koja označava da polje ne postoji, npr. kada se traži indeks van mreže
+    public static final int NO_CELL = -1;
+    //Smerovi koraka između susednih polja - isti su u .game fajlu (GameFile) i u ReachabilityTracker-u
+    public static final int UP = 0;
+    public static final int RIGHT = 1;
+    public static final int DOWN = 2;
+    public static final int LEFT = 3;
+
+    private final int rows;
+    private final int columns;
+    //Vrednosti polja 0-9, Start i End polja imaju vrednost 0
+    private final byte[] cells;
+    private final int start;
+    private final int end;
+    //Posećena polja kao bitset - jedan bit po polju, 64 polja po long-u
+    private final CellBitSet visited;
+    //Putanja redom kako je igrač išao, path[0] je uvek Start polje
+    //Niz je alociran unapred za celu tablu, tako da potez ne alocira ništa
+    //Putanja se čuva u .game fajlu (GameFile), a bitset se pri učitavanju gradi iz nje
+    private final int[] path;
+    private int pathLength;
+    private int current;
+    //Zbir vrednosti posećenih polja i broj koraka (End polje se ne računa)
+    private int sum;
+    private int steps;
+    private boolean finished;
+    //Seed iz kog je tabla generisana - ista tabla se može napraviti ponovo, npr. za replay partije
+    private final long seed;
+    private final boolean seeded;
+    //Zobrist heš stanja - XOR ključeva posećenih polja i ključa polja na kom je igrač
+    //Menja se u O(1) pri svakom potezu i undo, pa isto stanje (ista posećena polja i ista pozicija) uvek ima isti heš,
+    //bez obzira kojim redom su polja obiđena - zato se analiza pozicije može keširati (AnalysisCache)
+    private long positionHash;
+    //Heš rasporeda table (veličina, vrednosti polja, Start i End), računa se pri prvom pozivu
+    private long layoutHash;
+    private boolean layoutHashed;
+
+    public Board(int rows, int columns, byte[] cells, int start, int end) {
+        this(rows, columns, cells, start, end, 0, false);
+    }
+
+    //Tabla sa poljima koja su već generisana iz seed-a, npr. pročitana iz paketa zagonetki (PuzzlePack)
+    Board(int rows, int columns, byte[] cells, int start, int end, long seed, boolean seeded) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Board must have at least one row and one column");
+        }
+        if (cells.length != rows * columns) {
+            throw new IllegalArgumentException("Expected " + rows * columns + " cells, got " + cells.length);
+        }
+        if (start < 0 || start >= cells.length || end < 0 || end >= cells.length || start == end) {
+            throw new IllegalArgumentException("Start and End must be two different cells on the board");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.cells = cells;
+        this.start = start;
+        this.end = end;
+        this.visited = new CellBitSet(cells.length);
+        this.path = new int[cells.length];
+        this.seed = seed;
+        this.seeded = seeded;
+        reset();
+    }
+
+    //Generiše tablu iz seed-a - ista logika kao stari GameGrid.generateRandomGrid
+    //Start i End se biraju nasumično (End se bira ponovo dok ne bude različit od Start), ostala polja dobijaju cifru 0-9
+    //SplittableRandom daje isti niz brojeva za isti seed na svakoj JVM, pa je ista tabla uvek ista
+    public static Board generate(int rows, int columns, long seed) {
+        if (rows <= 0 || columns <= 0 || (long) rows * columns < 2 || (long) rows * columns > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid board size " + rows + "x" + columns);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        int size = rows * columns;
+        int start = random.nextInt(size);
+        int end;
+        do {
+            end = random.nextInt(size);
+        } while (end == start);
+
+        byte[] cells = new byte[size];
+        for (int i = 0; i < size; i++) {
+            if (i != start && i != end) {
+                cells[i] = (byte) random.nextInt(10);
+            }
+        }
+        return new Board(rows, columns, cells, start, end, seed, true);
+    }
+
+    //Nova tabla sa istim poljima, Start i End poljem, ali bez putanje
+    //Niz polja se deli jer se posle kreiranja table nikada ne menja
+    //Heš rasporeda se takođe prenosi, jer je raspored isti
+    public Board freshCopy() {
+        Board copy = new Board(rows, columns, cells, start, end, seed, seeded);
+        copy.layoutHash = layoutHash;
+        copy.layoutHashed = layoutHashed;
+        return copy;
+    }
+
+    //Vraća tablu na početno stanje - putanja se briše, igrač stoji na Start polju
+    //Brišu se samo polja putanje, pa reset košta O(dužina putanje), a ne O(broj polja)
+    public void reset() {
+        for (int i = 0; i < pathLength; i++) {
+            visited.clear(path[i]);
+        }
+        pathLength = 0;
+        current = start;
+        positionHash = currentKey(start);
+        markVisited(start);
+        sum = 0;
+        steps = 0;
+        finished = false;
+    }
+
+    //Proverava da li je potez na polje validan, bez menjanja stanja
+    public MoveResult check(int index) {
+        if (index < 0 || index >= cells.length) {
+            return MoveResult.OUT_OF_BOUNDS;
+        }
+        if (finished) {
+            return MoveResult.GAME_OVER;
+        }
+        if (!isAdjacent(current, index)) {
+            return MoveResult.NOT_ADJACENT;
+        }
+        if (isVisited(index)) {
+            return MoveResult.ALREADY_VISITED;
+        }
+        return index == end ? MoveResult.FINISHED : MoveResult.ACCEPTED;
+    }
+
+    public boolean canMove(int index) {
+        return check(index).isAccepted();
+    }
+
+    //Pomera igrača na polje ako je potez validan
+    //End polje završava igru i ne ulazi u zbir ni u broj koraka
+    public MoveResult move(int index) {
+        MoveResult result = check(index);
+        if (!result.isAccepted()) {
+            return result;
+        }
+        positionHash ^= currentKey(current) ^ currentKey(index);
+        current = index;
+        markVisited(index);
+        if (result == MoveResult.FINISHED) {
+            finished = true;
+        } else {
+            sum += cells[index];
+            steps++;
+        }
+        return result;
+    }
+
+    //Primenjuje niz poteza odjednom, npr. putanju nacrtanu prevlačenjem miša (SegmentInput)
+    //Potezi se proveravaju i primenjuju redom, a niz se prekida na prvom potezu koji nije dozvoljen -
+    //primenjeni deo ostaje, pa je stanje isto kao da su potezi odigrani jedan po jedan do prvog neispravnog
+    //Vraća broj primenjenih poteza
+    public int applySegment(int[] segment, int offset, int length) {
+        int applied = 0;
+        while (applied < length && move(segment[offset + applied]).isAccepted()) {
+            applied++;
+        }
+        return applied;
+    }
+
+    //Vraća poslednji potez - igrač se vraća na prethodno polje putanje
+    //Vraća indeks polja sa kog se igrač vratio, ili NO_CELL ako je igrač na Start polju
+    public int undo() {
+        if (pathLength <= 1) {
+            return NO_CELL;
+        }
+        int index = path[--pathLength];
+        visited.clear(index);
+        if (index == end) {
+            finished = false;
+        } else {
+            sum -= cells[index];
+            steps--;
+        }
+        current = path[pathLength - 1];
+        positionHash ^= visitedKey(index) ^ currentKey(index) ^ currentKey(current);
+        return index;
+    }
+
+    //Dva polja su susedna ako su u istom redu jedno do drugog ili u istoj koloni jedno ispod drugog
+    //Ranije se to računalo preko koordinata: |newX - currentX| + |newY - currentY| == 1
+    //Sa indeksima je razlika susednih polja u redu 1, a u koloni tačno columns
+    //Kolona se proverava prva, jer na tabli sa jednom kolonom je i razlika 1 korak kroz kolonu
+    public boolean isAdjacent(int from, int to) {
+        int difference = to - from;
+        if (difference == columns || difference == -columns) {
+            return true;
+        }
+        if (difference == 1 || difference == -1) {
+            return from / columns == to / columns;
+        }
+        return false;
+    }
+
+    //Smer koraka između dva susedna polja (UP, RIGHT, DOWN ili LEFT)
+    public int direction(int from, int to) {
+        int difference = to - from;
+        if (difference == -columns) {
+            return UP;
+        } else if (difference == columns) {
+            return DOWN;
+        } else if (difference == 1) {
+            return RIGHT;
+        }
+        return LEFT;
+    }
+
+    //Susedno polje u datom smeru, ili NO_CELL ako je van table
+    public int neighbor(int cell, int direction) {
+        int row = rowOf(cell);
+        int column = columnOf(cell);
+        switch (direction) {
+            case UP:
+                return index(row - 1, column);
+            case RIGHT:
+                return index(row, column + 1);
+            case DOWN:
+                return index(row + 1, column);
+            default:
+                return index(row, column - 1);
+        }
+    }
+
+    public boolean isVisited(int index) {
+        return visited.get(index);
+    }
+
+    private void markVisited(int index) {
+        visited.set(index);
+        path[pathLength++] = index;
+        positionHash ^= visitedKey(index);
+    }
+
+    //Zobrist ključevi se ne čuvaju u tabeli nego se računaju iz indeksa polja funkcijom mešanja,
+    //pa ne zauzimaju memoriju ni na ogromnim tablama i isti su pri svakom pokretanju (heševi se mogu čuvati u fajlu)
+    private static long visitedKey(int index) {
+        return mix(index * 0x9E3779B97F4A7C15L + 0x5851F42D4C957F2DL);
+    }
+
+    private static long currentKey(int index) {
+        return mix(index * 0x9E3779B97F4A7C15L + 0x14057B7EF767814FL);
+    }
+
+    //Heš pozicije na kojoj je putanja samo Start polje
+    static long startHash(int start) {
+        return currentKey(start) ^ visitedKey(start);
+    }
+
+    //Heš pozicije posle koraka sa polja from na polje to, iz heša pre koraka
+    //XOR je sam sebi inverz, pa isti poziv iz heša posle koraka vraća heš pre koraka
+    static long stepHash(long hash, int from, int to) {
+        return hash ^ currentKey(from) ^ currentKey(to) ^ visitedKey(to);
+    }
+
+    private static long cellKey(int index, int value) {
+        return mix((index * 16L + value) * 0x9E3779B97F4A7C15L + 0x2545F4914F6CDD1DL);
+    }
+
+    //Funkcija mešanja iz SplittableRandom-a (MurmurHash3 fmix64, varijanta 13)
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    //Rezultat se računa kao zbir / broj koraka, isto kao u GameController-u ranije
+    public int calculateScore() {
+        return steps > 0 ? sum / steps : 0;
+    }
+
+    public int index(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return NO_CELL;
+        }
+        return row * columns + column;
+    }
+
+    public int rowOf(int index) {
+        return index / columns;
+    }
+
+    public int columnOf(int index) {
+        return index % columns;
+    }
+
+    public int getValue(int index) {
+        return cells[index];
+    }
+
+    public boolean isStart(int index) {
+        return index == start;
+    }
+
+    public boolean isEnd(int index) {
+        return index == end;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    public int getCurrent() {
+        return current;
+    }
+
+    public int getSum() {
+        return sum;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    //Da li je tabla generisana iz seed-a (table učitane iz starih fajlova nemaju seed)
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    //Heš trenutnog stanja - posećena polja i pozicija igrača, bez rasporeda table
+    public long getPositionHash() {
+        return positionHash;
+    }
+
+    //Heš rasporeda table - iste dimenzije, vrednosti polja, Start i End daju isti heš
+    //Računa se jednom, O(broj polja)
+    public long getLayoutHash() {
+        if (!layoutHashed) {
+            long hash = mix(((long) rows << 32 | columns) + 0x632BE59BD9B4E019L) ^ currentKey(start) ^ visitedKey(end);
+            for (int i = 0; i < cells.length; i++) {
+                hash ^= cellKey(i, cells[i]);
+            }
+            layoutHash = hash;
+            layoutHashed = true;
+        }
+        return layoutHash;
+    }
+
+    //Broj polja u putanji, uključujući Start polje
+    public int getPathLength() {
+        return pathLength;
+    }
+
+    //Vraća i-to polje putanje, getPathCell(0) je Start
+    public int getPathCell(int i) {
+        return path[i];
+    }
+
+    //Kopija putanje (od Start polja do trenutnog), npr. za snimak igre koji se čuva u pozadini
+    public int[] copyPath() {
+        return Arrays.copyOf(path, pathLength);
+    }
+}
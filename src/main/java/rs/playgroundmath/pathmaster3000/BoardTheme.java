@@ -0,0 +1,36 @@
+package rs.playgroundmath.pathmaster3000;
+
+//Boje table - boja polja van putanje i boja putanje
+//Tema se primenjuje na celu tablu odjednom: u GridPane prikazu kao jedan stil na korenu table
+//(boje su CSS promenljive -pm-game-color i -pm-path-color iz board.css), a Canvas prikaz ih čita direktno
+public final class BoardTheme {
+
+    public static final String DEFAULT_PATH_COLOR = "yellow";
+
+    //null znači da polja van putanje zadržavaju podrazumevani izgled
+    private final String gameColor;
+    private final String pathColor;
+
+    public BoardTheme(String gameColor, String pathColor) {
+        this.gameColor = gameColor;
+        this.pathColor = pathColor == null ? DEFAULT_PATH_COLOR : pathColor;
+    }
+
+    public String getGameColor() {
+        return gameColor;
+    }
+
+    public String getPathColor() {
+        return pathColor;
+    }
+
+    public boolean hasGameColor() {
+        return gameColor != null;
+    }
+
+    //Inline stil za koren table - postavlja samo vrednosti CSS promenljivih
+    public String toStyle() {
+        String style = "-pm-path-color: " + pathColor + ";";
+        return gameColor == null ? style : style + " -pm-game-color: " + gameColor + ";";
+    }
+}
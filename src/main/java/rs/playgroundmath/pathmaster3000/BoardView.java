@@ -0,0 +1,42 @@
+package rs.playgroundmath.pathmaster3000;
+
+import javafx.scene.layout.Region;
+
+import java.util.function.IntConsumer;
+
+//Način na koji se tabla iscrtava na ekranu
+//GameController ne zna da li su polja dugmići u GridPane-u ili se crtaju na Canvas-u,
+//on samo javlja koje polje je promenjeno i dobija indeks polja na koje je igrač kliknuo
+//Promenjena polja se ne iscrtavaju odmah, nego se skupljaju i iscrtavaju jednom po pulsu
+public interface BoardView {
+
+    //UI element koji se prikazuje u centru ekrana
+    Region getNode();
+
+    //Povezuje prikaz sa novom tablom (restart, nova veličina, novi Start/End) - postojeći čvorovi se koriste ponovo
+    void bind(Board board);
+
+    //Handler koji dobija indeks kliknutog polja (red * broj kolona + kolona)
+    void setOnCellClicked(IntConsumer handler);
+
+    //Handler koji dobija segment poteza nacrtan prevlačenjem miša ili strelicama (SegmentInput), jednom po pulsu
+    //Polja promenjena tokom handler-a se iscrtavaju u istom pulsu
+    void setOnSegment(SegmentHandler handler);
+
+    //Javlja da se stanje polja u Board modelu promenilo (npr. postalo je deo putanje)
+    void cellChanged(int index);
+
+    //Menja boje cele table odjednom
+    void applyTheme(BoardTheme theme);
+
+    //Ističe polje predloženo kao sledeći potez, Board.NO_CELL uklanja predlog
+    void showHint(int index);
+
+    //Odbacuje prikaz - zakazano iscrtavanje se zaustavlja, a čvorovi se vraćaju u CellNodePool ako ga prikaz koristi
+    void release();
+
+    //Prima segment poteza - niz se posle poziva koristi ponovo, pa ga handler ne sme čuvati
+    interface SegmentHandler {
+        void accept(int[] cells, int length);
+    }
+}
@@ -0,0 +1,378 @@
+package rs.playgroundmath.pathmaster3000;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.util.function.IntConsumer;
+
+//Prikaz table na jednom Canvas-u, za table od 100x100 polja i veće
+//Umesto jednog dugmeta po polju, polja se crtaju kao pravougaonici:
+// - crta se samo deo table koji je trenutno vidljiv, a pri potezu samo polje koje se promenilo
+// - i promenjena polja i ponovno crtanje vidljivog dela se skupljaju i crtaju jednom po pulsu
+// - klik se preračunava u polje aritmetikom, bez handler-a po polju
+// - desnim (ili srednjim) tasterom miša se tabla pomera, točkićem se zumira
+// - prevlačenjem levim tasterom ili strelicama se crta putanja (SegmentInput), polje se opet dobija aritmetikom
+public class CanvasBoardView implements BoardView {
+
+    //Iste dimenzije kao dugmići u GridPane prikazu - polje 50px i razmak 5px
+    private static final double CELL_SIZE = 50;
+    private static final double GAP = 5;
+    private static final double PITCH = CELL_SIZE + GAP;
+    //Polje nikada nije manje od 2px, da se na ogromnim tablama ne bi crtali milioni polja odjednom
+    private static final double MIN_SCALE = 2 / CELL_SIZE;
+    private static final double MAX_SCALE = 4;
+    private static final double ZOOM_FACTOR = 1.1;
+    //Ispod ove veličine polja se ne ispisuju cifre
+    private static final double MIN_TEXT_CELL_SIZE = 14;
+
+    private static final Color DEFAULT_CELL_COLOR = Color.web("#dddddd");
+    private static final Color START_COLOR = Color.GREEN;
+    private static final Color END_COLOR = Color.RED;
+    private static final Color HINT_COLOR = Color.DODGERBLUE;
+
+    private Board board;
+    private final Canvas canvas = new Canvas();
+    private final Pane container = new Pane(canvas);
+
+    //Pozicija gornjeg levog ugla polja [0, 0] na ekranu i faktor zuma
+    private double offsetX;
+    private double offsetY;
+    private double scale = 1;
+    private boolean fitted;
+
+    private Color gameColor = DEFAULT_CELL_COLOR;
+    private Color pathColor = Color.web(BoardTheme.DEFAULT_PATH_COLOR);
+    private IntConsumer clickHandler;
+    private int hintCell = Board.NO_CELL;
+    private DirtyCellQueue dirtyCells;
+    private final SegmentInput segmentInput = new SegmentInput(this::flushCells);
+
+    //Više pomeranja ili zumiranja u istom frejmu se crta samo jednom
+    private boolean redrawScheduled;
+    private final AnimationTimer redrawPulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            redrawScheduled = false;
+            redraw();
+        }
+    };
+
+    private double lastDragX;
+    private double lastDragY;
+
+    public CanvasBoardView(Board board) {
+        this.board = board;
+        this.dirtyCells = new DirtyCellQueue(board.getCellCount(), this::paintCell);
+        segmentInput.bind(board);
+
+        //Canvas nije deo layout-a, on samo prati veličinu kontejnera
+        //Tako kontejner može da se smanji ispod veličine Canvas-a
+        canvas.setManaged(false);
+        canvas.widthProperty().bind(container.widthProperty());
+        canvas.heightProperty().bind(container.heightProperty());
+        canvas.widthProperty().addListener((observable, oldValue, newValue) -> onResize());
+        canvas.heightProperty().addListener((observable, oldValue, newValue) -> onResize());
+
+        container.setMinSize(0, 0);
+        container.setPrefSize(Math.min(boardWidth(), 500), Math.min(boardHeight(), 500));
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(container.widthProperty());
+        clip.heightProperty().bind(container.heightProperty());
+        container.setClip(clip);
+
+        container.addEventHandler(MouseEvent.MOUSE_PRESSED, this::onMousePressed);
+        container.addEventHandler(MouseEvent.MOUSE_DRAGGED, this::onMouseDragged);
+        container.addEventHandler(MouseEvent.MOUSE_RELEASED, this::onMouseReleased);
+        container.addEventHandler(MouseEvent.MOUSE_CLICKED, this::onMouseClicked);
+        container.addEventHandler(KeyEvent.KEY_PRESSED, this::onKeyPressed);
+        //Kontejner mora imati fokus da bi dobio strelice
+        container.setFocusTraversable(true);
+        container.addEventHandler(ScrollEvent.SCROLL, this::onScroll);
+    }
+
+    @Override
+    public Region getNode() {
+        return container;
+    }
+
+    //Ista Canvas površina crta novu tablu - tabla se ponovo smanjuje da stane na ekran i iscrtava se cela
+    @Override
+    public void bind(Board board) {
+        dirtyCells.cancel();
+        if (board.getCellCount() != this.board.getCellCount()) {
+            dirtyCells = new DirtyCellQueue(board.getCellCount(), this::paintCell);
+        }
+        this.board = board;
+        hintCell = Board.NO_CELL;
+        segmentInput.bind(board);
+        container.setPrefSize(Math.min(boardWidth(), 500), Math.min(boardHeight(), 500));
+        fitted = false;
+        if (canvas.getWidth() > 0 && canvas.getHeight() > 0) {
+            fitToView();
+            fitted = true;
+        }
+        requestRedraw();
+    }
+
+    @Override
+    public void setOnCellClicked(IntConsumer handler) {
+        this.clickHandler = handler;
+    }
+
+    @Override
+    public void setOnSegment(SegmentHandler handler) {
+        segmentInput.setHandler(handler);
+    }
+
+    //Polja promenjena segmentom se crtaju odmah, u istom pulsu u kom je segment primenjen
+    private void flushCells() {
+        dirtyCells.flush();
+    }
+
+    @Override
+    public void cellChanged(int index) {
+        dirtyCells.mark(index);
+    }
+
+    @Override
+    public void applyTheme(BoardTheme theme) {
+        gameColor = theme.hasGameColor() ? Color.web(theme.getGameColor()) : DEFAULT_CELL_COLOR;
+        pathColor = Color.web(theme.getPathColor());
+        requestRedraw();
+    }
+
+    //Staro i novo predloženo polje se ponovo crtaju
+    @Override
+    public void showHint(int index) {
+        if (hintCell != Board.NO_CELL) {
+            dirtyCells.mark(hintCell);
+        }
+        hintCell = index;
+        if (index != Board.NO_CELL) {
+            dirtyCells.mark(index);
+        }
+    }
+
+    @Override
+    public void release() {
+        redrawPulse.stop();
+        redrawScheduled = false;
+        dirtyCells.cancel();
+        segmentInput.cancel();
+    }
+
+    //Crta se samo promenjeno polje, i to samo ako je vidljivo
+    private void paintCell(int index) {
+        if (isVisible(index)) {
+            GraphicsContext gc = canvas.getGraphicsContext2D();
+            prepareText(gc);
+            drawCell(gc, index);
+        }
+    }
+
+    //Vraća indeks polja ispod tačke na Canvas-u, ili Board.NO_CELL ako je tačka u razmaku između polja ili van table
+    public int cellAt(double x, double y) {
+        double pitch = PITCH * scale;
+        double boardX = x - offsetX;
+        double boardY = y - offsetY;
+        if (boardX < 0 || boardY < 0) {
+            return Board.NO_CELL;
+        }
+        int column = (int) (boardX / pitch);
+        int row = (int) (boardY / pitch);
+        double cellSize = CELL_SIZE * scale;
+        if (boardX - column * pitch > cellSize || boardY - row * pitch > cellSize) {
+            return Board.NO_CELL;
+        }
+        return board.index(row, column);
+    }
+
+    //Pomera prikaz tako da je polje na sredini ekrana, npr. da bi se pratio igrač na velikoj tabli
+    public void centerOn(int index) {
+        double pitch = PITCH * scale;
+        offsetX = canvas.getWidth() / 2 - (board.columnOf(index) * pitch + CELL_SIZE * scale / 2);
+        offsetY = canvas.getHeight() / 2 - (board.rowOf(index) * pitch + CELL_SIZE * scale / 2);
+        requestRedraw();
+    }
+
+    private void onResize() {
+        if (!fitted && canvas.getWidth() > 0 && canvas.getHeight() > 0) {
+            fitToView();
+            fitted = true;
+        }
+        requestRedraw();
+    }
+
+    private void requestRedraw() {
+        if (!redrawScheduled) {
+            redrawScheduled = true;
+            redrawPulse.start();
+        }
+    }
+
+    //Na početku se cela tabla smanjuje da stane na ekran (ali ne ispod MIN_SCALE) i centrira se
+    private void fitToView() {
+        double fit = Math.min(canvas.getWidth() / boardWidth(), canvas.getHeight() / boardHeight());
+        scale = clamp(Math.min(1, fit));
+        offsetX = (canvas.getWidth() - boardWidth() * scale) / 2;
+        offsetY = (canvas.getHeight() - boardHeight() * scale) / 2;
+    }
+
+    //Iscrtava samo polja koja su vidljiva u trenutnom prozoru
+    private void redraw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        if (canvas.getWidth() == 0 || canvas.getHeight() == 0) {
+            return;
+        }
+        double pitch = PITCH * scale;
+        int firstColumn = Math.max(0, (int) Math.floor(-offsetX / pitch));
+        int lastColumn = Math.min(board.getColumns() - 1, (int) Math.floor((canvas.getWidth() - offsetX) / pitch));
+        int firstRow = Math.max(0, (int) Math.floor(-offsetY / pitch));
+        int lastRow = Math.min(board.getRows() - 1, (int) Math.floor((canvas.getHeight() - offsetY) / pitch));
+
+        prepareText(gc);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                drawCell(gc, board.index(row, column));
+            }
+        }
+    }
+
+    private void prepareText(GraphicsContext gc) {
+        gc.setFont(Font.font(14 * Math.min(scale, 2)));
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+    }
+
+    private void drawCell(GraphicsContext gc, int index) {
+        double size = CELL_SIZE * scale;
+        double x = offsetX + board.columnOf(index) * PITCH * scale;
+        double y = offsetY + board.rowOf(index) * PITCH * scale;
+
+        String text;
+        Color textColor = Color.BLACK;
+        if (board.isStart(index)) {
+            gc.setFill(START_COLOR);
+            text = "Start";
+            textColor = Color.WHITE;
+        } else if (board.isEnd(index)) {
+            gc.setFill(board.isVisited(index) ? pathColor : END_COLOR);
+            text = "End";
+            textColor = board.isVisited(index) ? Color.BLACK : Color.WHITE;
+        } else {
+            gc.setFill(board.isVisited(index) ? pathColor : gameColor);
+            text = String.valueOf(board.getValue(index));
+        }
+        gc.fillRect(x, y, size, size);
+        //Okvir predloga se crta unutar polja, da bi ga ponovno crtanje polja potpuno obrisalo
+        if (index == hintCell) {
+            double width = Math.max(1, 3 * scale);
+            gc.setStroke(HINT_COLOR);
+            gc.setLineWidth(width);
+            gc.strokeRect(x + width / 2, y + width / 2, size - width, size - width);
+        }
+
+        if (size >= MIN_TEXT_CELL_SIZE) {
+            gc.setFill(textColor);
+            gc.fillText(text, x + size / 2, y + size / 2);
+        }
+    }
+
+    private boolean isVisible(int index) {
+        double pitch = PITCH * scale;
+        double x = offsetX + board.columnOf(index) * pitch;
+        double y = offsetY + board.rowOf(index) * pitch;
+        double size = CELL_SIZE * scale;
+        return x + size >= 0 && y + size >= 0 && x <= canvas.getWidth() && y <= canvas.getHeight();
+    }
+
+    private void onMousePressed(MouseEvent event) {
+        lastDragX = event.getX();
+        lastDragY = event.getY();
+        if (event.getButton() == MouseButton.PRIMARY) {
+            container.requestFocus();
+            segmentInput.press(cellAt(event.getX(), event.getY()));
+        }
+    }
+
+    //Pomeranje table desnim ili srednjim tasterom miša, a levim se crta putanja
+    //Pritisnuti tasteri se čitaju iz stanja miša, jer getButton() tokom prevlačenja nije pouzdan
+    //(npr. kada se tokom prevlačenja pritisne i drugi taster)
+    private void onMouseDragged(MouseEvent event) {
+        if (event.isPrimaryButtonDown()) {
+            segmentInput.drag(cellAt(event.getX(), event.getY()));
+            return;
+        }
+        if (!event.isSecondaryButtonDown() && !event.isMiddleButtonDown()) {
+            return;
+        }
+        offsetX += event.getX() - lastDragX;
+        offsetY += event.getY() - lastDragY;
+        lastDragX = event.getX();
+        lastDragY = event.getY();
+        requestRedraw();
+    }
+
+    private void onMouseReleased(MouseEvent event) {
+        if (event.getButton() == MouseButton.PRIMARY) {
+            segmentInput.release();
+        }
+    }
+
+    private void onKeyPressed(KeyEvent event) {
+        if (segmentInput.keyPressed(event)) {
+            event.consume();
+        }
+    }
+
+    //Klik levim tasterom se preračunava u polje - red i kolona se dobijaju deljenjem sa veličinom polja
+    private void onMouseClicked(MouseEvent event) {
+        if (event.getButton() != MouseButton.PRIMARY || !event.isStillSincePress() || clickHandler == null) {
+            return;
+        }
+        int index = cellAt(event.getX(), event.getY());
+        if (index != Board.NO_CELL) {
+            clickHandler.accept(index);
+        }
+    }
+
+    //Zumiranje točkićem, tako da tačka ispod kursora ostane na istom mestu
+    private void onScroll(ScrollEvent event) {
+        if (event.getDeltaY() == 0) {
+            return;
+        }
+        double newScale = clamp(event.getDeltaY() > 0 ? scale * ZOOM_FACTOR : scale / ZOOM_FACTOR);
+        double factor = newScale / scale;
+        offsetX = event.getX() - (event.getX() - offsetX) * factor;
+        offsetY = event.getY() - (event.getY() - offsetY) * factor;
+        scale = newScale;
+        requestRedraw();
+        event.consume();
+    }
+
+    private double boardWidth() {
+        return board.getColumns() * PITCH - GAP;
+    }
+
+    private double boardHeight() {
+        return board.getRows() * PITCH - GAP;
+    }
+
+    private static double clamp(double value) {
+        return Math.max(MIN_SCALE, Math.min(MAX_SCALE, value));
+    }
+}
@@ -0,0 +1,96 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+//Skup polja table spakovan u long[] - jedan bit po polju, red po red (row-major)
+//Provera, dodavanje i brisanje su O(1) i ne alociraju ništa, bez obzira na veličinu table
+//Za razliku od Set<int[]>, ovde se isto polje ne može dodati dva puta
+public final class CellBitSet implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int size;
+    private final long[] words;
+
+    public CellBitSet(int size) {
+        this.size = size;
+        this.words = new long[(size + 63) >>> 6];
+    }
+
+    //Pravi skup iz sačuvanih long vrednosti, npr. pri učitavanju igre
+    public static CellBitSet fromWords(int size, long[] words) {
+        CellBitSet set = new CellBitSet(size);
+        if (words.length != set.words.length) {
+            throw new IllegalArgumentException("Expected " + set.words.length + " words, got " + words.length);
+        }
+        System.arraycopy(words, 0, set.words, 0, words.length);
+        return set;
+    }
+
+    public boolean get(int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public void set(int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+
+    public void clear(int index) {
+        words[index >>> 6] &= ~(1L << index);
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    //Broj polja u skupu
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    //Vraća prvo polje u skupu počev od indeksa from, ili -1 ako takvo ne postoji
+    public int nextSetBit(int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int wordIndex = from >>> 6;
+        long word = words[wordIndex] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int index = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                return index < size ? index : -1;
+            }
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    //Kopija unutrašnjih long vrednosti - serijalizovani oblik skupa
+    public long[] toWords() {
+        return words.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CellBitSet)) return false;
+        CellBitSet other = (CellBitSet) o;
+        return size == other.size && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * size + Arrays.hashCode(words);
+    }
+}
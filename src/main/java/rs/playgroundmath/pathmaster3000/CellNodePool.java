@@ -0,0 +1,52 @@
+package rs.playgroundmath.pathmaster3000;
+
+import javafx.css.PseudoClass;
+import javafx.scene.control.Button;
+
+import java.util.ArrayDeque;
+
+//Zajednički skup dugmića za polja, za više tabli u istoj sesiji (SessionManager)
+//Kada tabla ode sa ekrana, njeni dugmići se vraćaju ovde, a tabla koja dolazi na ekran ih uzima umesto da pravi nove
+//Tako broj dugmića zavisi od broja tabli koje su na ekranu, a ne od broja tabli u sesiji
+//Koristi se samo iz JavaFX niti
+public final class CellNodePool {
+
+    //Više od ovoliko dugmića se ne čuva, višak se prepušta GC-u
+    private static final int MAX_POOLED = 4096;
+    private static final PseudoClass PATH = PseudoClass.getPseudoClass("path");
+    private static final PseudoClass HINT = PseudoClass.getPseudoClass("hint");
+
+    private final ArrayDeque<Button> free = new ArrayDeque<>();
+
+    //Dugme u početnom stanju - samo CSS klasa cell, bez teksta, pseudo klasa i akcije
+    public Button acquire() {
+        Button button = free.poll();
+        if (button != null) {
+            GameMetrics.getInstance().increment("pool.reused");
+            return button;
+        }
+        GameMetrics.getInstance().increment("pool.created");
+        button = new Button();
+        button.setPrefSize(50, 50);
+        button.getStyleClass().add("cell");
+        return button;
+    }
+
+    //Vraća dugme u skup - briše se sve što je tabla postavila
+    public void release(Button button) {
+        if (free.size() >= MAX_POOLED) {
+            return;
+        }
+        button.setOnAction(null);
+        button.setText(null);
+        button.getStyleClass().setAll("button", "cell");
+        button.pseudoClassStateChanged(PATH, false);
+        button.pseudoClassStateChanged(HINT, false);
+        free.push(button);
+    }
+
+    //Broj slobodnih dugmića
+    public int size() {
+        return free.size();
+    }
+}
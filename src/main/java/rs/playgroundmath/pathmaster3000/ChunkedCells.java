@@ -0,0 +1,74 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+//Vrednosti polja beskrajne table (EndlessBoard), podeljene u kvadratne delove (chunk) od CHUNK_SIZE x CHUNK_SIZE polja
+//Delovi se ne prave unapred - cifre dela se generišu tek kada se prvi put zatraže, iz seed-a table i koordinata dela,
+//pa isti deo uvek ima iste cifre
+//U memoriji se čuva najviše maxChunks delova; deo koji se najduže nije koristio se izbacuje i, ako zatreba ponovo,
+//generiše se isti kao pre. Memorija zato ne zavisi od veličine table, a generisanje dela traje nekoliko mikrosekundi
+final class ChunkedCells {
+
+    static final int CHUNK_BITS = 6;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final long seed;
+    private final int maxChunks;
+    //Delovi po ključu (red dela u gornjih 32 bita, kolona dela u donjih), redom od najduže nekorišćenog
+    private final Map<Long, byte[]> chunks;
+    //Poslednji korišćeni deo - uzastopna polja su skoro uvek u istom delu, pa se mapa retko pretražuje
+    private long lastKey = -1;
+    private byte[] lastChunk;
+    private long generated;
+
+    ChunkedCells(long seed, int maxChunks) {
+        this.seed = seed;
+        this.maxChunks = maxChunks;
+        this.chunks = new LinkedHashMap<>(maxChunks * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                return size() > ChunkedCells.this.maxChunks;
+            }
+        };
+    }
+
+    //Cifra 0-9 polja, koordinate moraju biti nenegativne
+    int get(int row, int column) {
+        long key = (long) (row >>> CHUNK_BITS) << 32 | (column >>> CHUNK_BITS);
+        if (key != lastKey) {
+            byte[] chunk = chunks.get(key);
+            if (chunk == null) {
+                chunk = generate(key);
+                chunks.put(key, chunk);
+            }
+            lastKey = key;
+            lastChunk = chunk;
+        }
+        return lastChunk[(row & CHUNK_MASK) << CHUNK_BITS | (column & CHUNK_MASK)];
+    }
+
+    //Cifre dela iz seed-a table i ključa dela - seed se meša sa ključem, pa susedni delovi nemaju sličan niz brojeva
+    private byte[] generate(long key) {
+        SplittableRandom random = new SplittableRandom(Board.mix(seed ^ Board.mix(key + 0x3C6EF372FE94F82BL)));
+        byte[] chunk = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = (byte) random.nextInt(10);
+        }
+        generated++;
+        GameMetrics.getInstance().increment("endless.chunk.generated");
+        return chunk;
+    }
+
+    //Broj delova trenutno u memoriji
+    int getLoadedChunks() {
+        return chunks.size();
+    }
+
+    //Koliko puta je deo generisan, uključujući ponovno generisanje izbačenih delova
+    long getGeneratedChunks() {
+        return generated;
+    }
+}
@@ -0,0 +1,113 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.util.Arrays;
+
+//Skup polja zadatih koordinatama (red, kolona), za table prevelike za CellBitSet
+//Memorija zavisi samo od broja polja u skupu, a ne od veličine table
+//Koordinate se pakuju u jedan long (red u gornjih 32 bita) i čuvaju u otvorenoj heš tabeli bez objekata -
+//provera, dodavanje i brisanje su O(1) u proseku i ne alociraju ništa osim pri povećanju tabele
+final class CoordinateSet {
+
+    //Prazno mesto u tabeli - koordinate su nenegativne, pa nijedno polje nema ovaj ključ
+    private static final long EMPTY = -1L;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] keys = newTable(INITIAL_CAPACITY);
+    private int mask = INITIAL_CAPACITY - 1;
+    private int size;
+
+    boolean contains(int row, int column) {
+        long key = key(row, column);
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long current = keys[slot];
+            if (current == key) {
+                return true;
+            }
+            if (current == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    //Vraća false ako je polje već u skupu
+    boolean add(int row, int column) {
+        long key = key(row, column);
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        //Tabela je najviše do pola puna
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return true;
+    }
+
+    //Brisanje pomera naredne ključeve unazad (backward shift), pa tabela nema obrisane oznake koje usporavaju pretragu
+    boolean remove(int row, int column) {
+        long key = key(row, column);
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            //Ključ sme da pređe u rupu samo ako mu je početno mesto ciklično izvan (rupa, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return true;
+    }
+
+    //Prazni skup i vraća tabelu na početnu veličinu
+    void clear() {
+        keys = newTable(INITIAL_CAPACITY);
+        mask = INITIAL_CAPACITY - 1;
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] old = keys;
+        keys = newTable(old.length * 2);
+        mask = keys.length - 1;
+        for (long key : old) {
+            if (key != EMPTY) {
+                int slot = slot(key);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    private int slot(long key) {
+        return (int) Board.mix(key) & mask;
+    }
+
+    private static long key(int row, int column) {
+        return (long) row << 32 | (column & 0xFFFFFFFFL);
+    }
+
+    private static long[] newTable(int capacity) {
+        long[] table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+}
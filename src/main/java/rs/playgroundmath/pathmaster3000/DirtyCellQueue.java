@@ -0,0 +1,74 @@
+package rs.playgroundmath.pathmaster3000;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+//Red polja koja treba ponovo iscrtati
+//Polja se samo označe, a iscrtavaju se jednom po pulsu (frejmu), pa više promena istog polja
+//u istom frejmu košta kao jedna, a potez iscrtava tačno jedno polje
+final class DirtyCellQueue {
+
+    private final CellBitSet marked;
+    private final IntConsumer painter;
+    private int[] queue = new int[64];
+    private int size;
+    private boolean scheduled;
+
+    //AnimationTimer se pokreće samo kada ima promena i zaustavlja se posle iscrtavanja
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            scheduled = false;
+            flush();
+        }
+    };
+
+    DirtyCellQueue(int cellCount, IntConsumer painter) {
+        this.marked = new CellBitSet(cellCount);
+        this.painter = painter;
+    }
+
+    //Označava polje za iscrtavanje u sledećem pulsu
+    void mark(int index) {
+        if (marked.get(index)) {
+            return;
+        }
+        marked.set(index);
+        if (size == queue.length) {
+            queue = Arrays.copyOf(queue, size * 2);
+        }
+        queue[size++] = index;
+        if (!scheduled) {
+            scheduled = true;
+            pulse.start();
+        }
+    }
+
+    //Iscrtava sva označena polja odmah, trajanje iscrtavanja se beleži u GameMetrics ("render.flush")
+    void flush() {
+        if (size == 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            int index = queue[i];
+            marked.clear(index);
+            painter.accept(index);
+        }
+        size = 0;
+        GameMetrics.getInstance().record("render.flush", System.nanoTime() - started);
+    }
+
+    //Zaustavlja zakazano iscrtavanje, npr. kada se prikaz odbaci
+    void cancel() {
+        pulse.stop();
+        scheduled = false;
+        for (int i = 0; i < size; i++) {
+            marked.clear(queue[i]);
+        }
+        size = 0;
+    }
+}
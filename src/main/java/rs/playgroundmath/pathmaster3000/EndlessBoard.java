@@ -0,0 +1,243 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+//Model beskrajne table - tabla sa milionima (i milijardama) polja koja se nikada ne pravi cela
+//Cifre polja daje ChunkedCells (delovi table iz seed-a, po potrebi), posećena polja su u CoordinateSet-u,
+//a putanja je niz smerova od 2 bita - memorija zavisi samo od dužine putanje i broja delova u memoriji,
+//a ne od veličine table
+//Start je na sredini table, a End je na udaljenosti endDistance koraka (po redovima i kolonama) u smeru iz seed-a
+//Pravila su ista kao za Board: potez na susedno neposećeno polje, End završava igru i ne ulazi u zbir
+public final class EndlessBoard {
+
+    //Koliko delova table se najviše čuva u memoriji - 256 delova od 64x64 polja je 1 MB
+    public static final int DEFAULT_MAX_CHUNKS = 256;
+    public static final int DEFAULT_END_DISTANCE = 256;
+
+    private static final int UP = 0;
+    private static final int RIGHT = 1;
+    private static final int DOWN = 2;
+    private static final int LEFT = 3;
+
+    private final int rows;
+    private final int columns;
+    private final long seed;
+    private final ChunkedCells cells;
+    private final int startRow;
+    private final int startColumn;
+    private final int endRow;
+    private final int endColumn;
+
+    private final CoordinateSet visited = new CoordinateSet();
+    //Smerovi koraka, 32 koraka po long-u
+    private long[] directions = new long[16];
+    private int steps;
+    private int currentRow;
+    private int currentColumn;
+    //Zbir može preći int na putanji od stotinu miliona koraka
+    private long sum;
+    private boolean finished;
+
+    public EndlessBoard(int rows, int columns, long seed) {
+        this(rows, columns, seed, DEFAULT_END_DISTANCE, DEFAULT_MAX_CHUNKS);
+    }
+
+    public EndlessBoard(int rows, int columns, long seed, int endDistance, int maxChunks) {
+        if (rows <= 0 || columns <= 0 || (long) rows * columns < 2) {
+            throw new IllegalArgumentException("Invalid board size " + rows + "x" + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.seed = seed;
+        this.cells = new ChunkedCells(seed, maxChunks);
+        this.startRow = rows / 2;
+        this.startColumn = columns / 2;
+
+        //End se bira iz seed-a: udaljenost se deli na redove i kolone, smer se bira nasumično, pa se ograniči na tablu
+        SplittableRandom random = new SplittableRandom(seed);
+        int rowDistance = random.nextInt(endDistance + 1);
+        int columnDistance = endDistance - rowDistance;
+        int row = clamp(startRow + (random.nextBoolean() ? rowDistance : -rowDistance), rows);
+        int column = clamp(startColumn + (random.nextBoolean() ? columnDistance : -columnDistance), columns);
+        //Na maloj tabli End može da padne na Start, tada se pomera na susedno polje
+        if (row == startRow && column == startColumn) {
+            if (columns > 1) {
+                column = startColumn + 1 < columns ? startColumn + 1 : startColumn - 1;
+            } else {
+                row = startRow + 1 < rows ? startRow + 1 : startRow - 1;
+            }
+        }
+        this.endRow = row;
+        this.endColumn = column;
+        reset();
+    }
+
+    //Vraća tablu na početno stanje - igrač stoji na Start polju
+    public void reset() {
+        visited.clear();
+        Arrays.fill(directions, 0L);
+        steps = 0;
+        sum = 0;
+        finished = false;
+        currentRow = startRow;
+        currentColumn = startColumn;
+        visited.add(startRow, startColumn);
+    }
+
+    public boolean contains(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns;
+    }
+
+    //Proverava da li je potez validan, bez menjanja stanja - ista pravila kao Board.check
+    public MoveResult check(int row, int column) {
+        if (!contains(row, column)) {
+            return MoveResult.OUT_OF_BOUNDS;
+        }
+        if (finished) {
+            return MoveResult.GAME_OVER;
+        }
+        if (Math.abs(row - currentRow) + Math.abs(column - currentColumn) != 1) {
+            return MoveResult.NOT_ADJACENT;
+        }
+        if (visited.contains(row, column)) {
+            return MoveResult.ALREADY_VISITED;
+        }
+        return isEnd(row, column) ? MoveResult.FINISHED : MoveResult.ACCEPTED;
+    }
+
+    public MoveResult move(int row, int column) {
+        MoveResult result = check(row, column);
+        if (!result.isAccepted()) {
+            return result;
+        }
+        int direction = row < currentRow ? UP : row > currentRow ? DOWN : column > currentColumn ? RIGHT : LEFT;
+        if ((steps >>> 5) == directions.length) {
+            directions = Arrays.copyOf(directions, directions.length * 2);
+        }
+        directions[steps >>> 5] |= (long) direction << ((steps & 31) * 2);
+        steps++;
+        visited.add(row, column);
+        currentRow = row;
+        currentColumn = column;
+        if (result == MoveResult.FINISHED) {
+            finished = true;
+        } else {
+            sum += getValue(row, column);
+        }
+        return result;
+    }
+
+    //Vraća poslednji potez - igrač ide korak unazad po zapisanom smeru
+    //Vraća false ako je igrač na Start polju
+    public boolean undo() {
+        if (steps == 0) {
+            return false;
+        }
+        steps--;
+        int word = steps >>> 5;
+        int shift = (steps & 31) * 2;
+        int direction = (int) (directions[word] >>> shift) & 3;
+        directions[word] &= ~(3L << shift);
+        visited.remove(currentRow, currentColumn);
+        if (finished) {
+            finished = false;
+        } else {
+            sum -= getValue(currentRow, currentColumn);
+        }
+        switch (direction) {
+            case UP:
+                currentRow++;
+                break;
+            case DOWN:
+                currentRow--;
+                break;
+            case RIGHT:
+                currentColumn--;
+                break;
+            default:
+                currentColumn++;
+                break;
+        }
+        return true;
+    }
+
+    //Cifra polja, Start i End imaju vrednost 0 kao u Board modelu
+    public int getValue(int row, int column) {
+        if (isStart(row, column) || isEnd(row, column)) {
+            return 0;
+        }
+        return cells.get(row, column);
+    }
+
+    public boolean isVisited(int row, int column) {
+        return visited.contains(row, column);
+    }
+
+    public boolean isStart(int row, int column) {
+        return row == startRow && column == startColumn;
+    }
+
+    public boolean isEnd(int row, int column) {
+        return row == endRow && column == endColumn;
+    }
+
+    //Broj koraka - End polje se ne računa, isto kao Board.getSteps
+    public int getSteps() {
+        return finished ? steps - 1 : steps;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public int calculateScore() {
+        int counted = getSteps();
+        return counted > 0 ? (int) (sum / counted) : 0;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getCurrentRow() {
+        return currentRow;
+    }
+
+    public int getCurrentColumn() {
+        return currentColumn;
+    }
+
+    public int getEndRow() {
+        return endRow;
+    }
+
+    public int getEndColumn() {
+        return endColumn;
+    }
+
+    //Broj delova table trenutno u memoriji
+    public int getLoadedChunks() {
+        return cells.getLoadedChunks();
+    }
+
+    public long getGeneratedChunks() {
+        return cells.getGeneratedChunks();
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+}
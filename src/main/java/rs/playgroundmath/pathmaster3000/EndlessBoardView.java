@@ -0,0 +1,245 @@
+package rs.playgroundmath.pathmaster3000;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+//Prikaz beskrajne table (EndlessBoard) na jednom Canvas-u
+//Crta se samo deo table koji je na ekranu - polja se čitaju iz modela, koji delove table pravi po potrebi
+//Prikaz prati igrača: kada se igrač približi ivici ekrana, tabla se centrira na njega
+//Desnim (ili srednjim) tasterom miša se tabla pomera, točkićem se zumira, kao u CanvasBoardView
+public class EndlessBoardView {
+
+    //Kliknuto polje zadato redom i kolonom - indeks polja ne staje u int na ovako velikoj tabli
+    public interface CellHandler {
+        void clicked(int row, int column);
+    }
+
+    private static final double CELL_SIZE = 50;
+    private static final double GAP = 5;
+    private static final double PITCH = CELL_SIZE + GAP;
+    //Polje nikada nije manje od 8px, da se na ekranu ne bi crtale stotine hiljada polja
+    private static final double MIN_SCALE = 8 / CELL_SIZE;
+    private static final double MAX_SCALE = 2;
+    private static final double ZOOM_FACTOR = 1.1;
+    private static final double MIN_TEXT_CELL_SIZE = 14;
+    //Koliko polja od ivice ekrana igrač sme da priđe pre nego što se prikaz centrira na njega
+    private static final int FOLLOW_MARGIN = 2;
+
+    private static final Color CELL_COLOR = Color.web("#dddddd");
+    private static final Color START_COLOR = Color.GREEN;
+    private static final Color END_COLOR = Color.RED;
+    private static final Color PATH_COLOR = Color.web(BoardTheme.DEFAULT_PATH_COLOR);
+    private static final Color CURRENT_COLOR = Color.DODGERBLUE;
+
+    private final EndlessBoard board;
+    private final Canvas canvas = new Canvas();
+    private final Pane container = new Pane(canvas);
+
+    //Polje (u delovima polja) koje je u gornjem levom uglu ekrana i faktor zuma
+    private double originRow;
+    private double originColumn;
+    private double scale = 1;
+    private boolean centered;
+    private CellHandler clickHandler;
+
+    private boolean redrawScheduled;
+    private final AnimationTimer redrawPulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            redrawScheduled = false;
+            redraw();
+        }
+    };
+
+    private double lastDragX;
+    private double lastDragY;
+
+    public EndlessBoardView(EndlessBoard board) {
+        this.board = board;
+        canvas.setManaged(false);
+        canvas.widthProperty().bind(container.widthProperty());
+        canvas.heightProperty().bind(container.heightProperty());
+        canvas.widthProperty().addListener((observable, oldValue, newValue) -> onResize());
+        canvas.heightProperty().addListener((observable, oldValue, newValue) -> onResize());
+
+        container.setMinSize(0, 0);
+        container.setPrefSize(800, 600);
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(container.widthProperty());
+        clip.heightProperty().bind(container.heightProperty());
+        container.setClip(clip);
+
+        container.addEventHandler(MouseEvent.MOUSE_PRESSED, this::onMousePressed);
+        container.addEventHandler(MouseEvent.MOUSE_DRAGGED, this::onMouseDragged);
+        container.addEventHandler(MouseEvent.MOUSE_CLICKED, this::onMouseClicked);
+        container.addEventHandler(ScrollEvent.SCROLL, this::onScroll);
+    }
+
+    public Region getNode() {
+        return container;
+    }
+
+    public void setOnCellClicked(CellHandler handler) {
+        this.clickHandler = handler;
+    }
+
+    //Poziva se posle svakog poteza - ako je igrač blizu ivice, prikaz se centrira na njega
+    public void playerMoved() {
+        double pitch = PITCH * scale;
+        double visibleRows = canvas.getHeight() / pitch;
+        double visibleColumns = canvas.getWidth() / pitch;
+        double row = board.getCurrentRow() - originRow;
+        double column = board.getCurrentColumn() - originColumn;
+        if (row < FOLLOW_MARGIN || row > visibleRows - FOLLOW_MARGIN - 1
+                || column < FOLLOW_MARGIN || column > visibleColumns - FOLLOW_MARGIN - 1) {
+            centerOnPlayer();
+        }
+        requestRedraw();
+    }
+
+    public void centerOnPlayer() {
+        double pitch = PITCH * scale;
+        originRow = board.getCurrentRow() + 0.5 - canvas.getHeight() / pitch / 2;
+        originColumn = board.getCurrentColumn() + 0.5 - canvas.getWidth() / pitch / 2;
+        requestRedraw();
+    }
+
+    public void requestRedraw() {
+        if (!redrawScheduled) {
+            redrawScheduled = true;
+            redrawPulse.start();
+        }
+    }
+
+    //Zaustavlja zakazano iscrtavanje, npr. kada se prozor zatvori
+    public void release() {
+        redrawPulse.stop();
+        redrawScheduled = false;
+    }
+
+    private void onResize() {
+        if (!centered && canvas.getWidth() > 0 && canvas.getHeight() > 0) {
+            centered = true;
+            centerOnPlayer();
+        }
+        requestRedraw();
+    }
+
+    //Crta samo vidljiva polja - polja van table ostaju prazna
+    private void redraw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        double pitch = PITCH * scale;
+        double size = CELL_SIZE * scale;
+        long firstRow = Math.max(0, (long) Math.floor(originRow));
+        long lastRow = Math.min(board.getRows() - 1L, (long) Math.floor(originRow + canvas.getHeight() / pitch));
+        long firstColumn = Math.max(0, (long) Math.floor(originColumn));
+        long lastColumn = Math.min(board.getColumns() - 1L, (long) Math.floor(originColumn + canvas.getWidth() / pitch));
+
+        gc.setFont(Font.font(14 * Math.min(scale, 2)));
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        for (long r = firstRow; r <= lastRow; r++) {
+            int row = (int) r;
+            double y = (row - originRow) * pitch;
+            for (long c = firstColumn; c <= lastColumn; c++) {
+                int column = (int) c;
+                double x = (column - originColumn) * pitch;
+                drawCell(gc, row, column, x, y, size);
+            }
+        }
+    }
+
+    private void drawCell(GraphicsContext gc, int row, int column, double x, double y, double size) {
+        String text;
+        Color textColor = Color.BLACK;
+        boolean visited = board.isVisited(row, column);
+        if (board.isStart(row, column)) {
+            gc.setFill(START_COLOR);
+            text = "Start";
+            textColor = Color.WHITE;
+        } else if (board.isEnd(row, column)) {
+            gc.setFill(visited ? PATH_COLOR : END_COLOR);
+            text = "End";
+            textColor = visited ? Color.BLACK : Color.WHITE;
+        } else {
+            gc.setFill(visited ? PATH_COLOR : CELL_COLOR);
+            text = null;
+        }
+        gc.fillRect(x, y, size, size);
+        if (row == board.getCurrentRow() && column == board.getCurrentColumn()) {
+            double width = Math.max(1, 3 * scale);
+            gc.setStroke(CURRENT_COLOR);
+            gc.setLineWidth(width);
+            gc.strokeRect(x + width / 2, y + width / 2, size - width, size - width);
+        }
+        if (size >= MIN_TEXT_CELL_SIZE) {
+            gc.setFill(textColor);
+            //Cifra se pretvara u tekst tek ovde, samo za polja koja su dovoljno velika da se tekst vidi
+            gc.fillText(text != null ? text : String.valueOf(board.getValue(row, column)), x + size / 2, y + size / 2);
+        }
+    }
+
+    private void onMousePressed(MouseEvent event) {
+        lastDragX = event.getX();
+        lastDragY = event.getY();
+    }
+
+    private void onMouseDragged(MouseEvent event) {
+        if (event.getButton() != MouseButton.SECONDARY && event.getButton() != MouseButton.MIDDLE) {
+            return;
+        }
+        double pitch = PITCH * scale;
+        originColumn -= (event.getX() - lastDragX) / pitch;
+        originRow -= (event.getY() - lastDragY) / pitch;
+        lastDragX = event.getX();
+        lastDragY = event.getY();
+        requestRedraw();
+    }
+
+    //Klik se preračunava u red i kolonu; klik u razmak između polja ili van table se ignoriše
+    private void onMouseClicked(MouseEvent event) {
+        if (event.getButton() != MouseButton.PRIMARY || !event.isStillSincePress() || clickHandler == null) {
+            return;
+        }
+        double pitch = PITCH * scale;
+        double boardRow = originRow + event.getY() / pitch;
+        double boardColumn = originColumn + event.getX() / pitch;
+        long row = (long) Math.floor(boardRow);
+        long column = (long) Math.floor(boardColumn);
+        double cellFraction = CELL_SIZE / PITCH;
+        if (boardRow - row > cellFraction || boardColumn - column > cellFraction
+                || row < 0 || row >= board.getRows() || column < 0 || column >= board.getColumns()) {
+            return;
+        }
+        clickHandler.clicked((int) row, (int) column);
+    }
+
+    //Zumiranje točkićem, tako da tačka ispod kursora ostane na istom mestu
+    private void onScroll(ScrollEvent event) {
+        if (event.getDeltaY() == 0) {
+            return;
+        }
+        double newScale = Math.max(MIN_SCALE, Math.min(MAX_SCALE,
+                event.getDeltaY() > 0 ? scale * ZOOM_FACTOR : scale / ZOOM_FACTOR));
+        double pitch = PITCH * scale;
+        double newPitch = PITCH * newScale;
+        originRow += event.getY() / pitch - event.getY() / newPitch;
+        originColumn += event.getX() / pitch - event.getX() / newPitch;
+        scale = newScale;
+        requestRedraw();
+        event.consume();
+    }
+}
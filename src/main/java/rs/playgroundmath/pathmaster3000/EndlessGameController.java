@@ -0,0 +1,125 @@
+package rs.playgroundmath.pathmaster3000;
+
+import javafx.scene.control.Alert;
+import javafx.scene.control.Label;
+
+//Upravlja igrom na beskrajnoj tabli (EndlessBoard, EndlessBoardView) - potezi, undo, vreme i statistike
+//Vreme se računa kao u GameController-u: GameStopwatch, a prikaz se osvežava iz zajedničkog GameClock-a
+//Neispravan klik ne otvara alert, nego se razlog prikazuje u statusnoj liniji, jer se na velikoj tabli lako promaši polje
+public class EndlessGameController {
+
+    private final EndlessBoard board;
+    private final EndlessBoardView view;
+    private final Label scoreLabel = new Label("Score: 0");
+    private final Label statsLabel = new Label();
+    private final GameStopwatch stopwatch = new GameStopwatch();
+    private final GameClock.Listener clockListener = now -> onClockTick();
+    private long shownSecond = -1;
+
+    public EndlessGameController(EndlessBoard board) {
+        this.board = board;
+        this.view = new EndlessBoardView(board);
+        view.setOnCellClicked(this::handleMove);
+        startClock();
+        updateStats(null);
+    }
+
+    private void handleMove(int row, int column) {
+        long started = System.nanoTime();
+        MoveResult result = board.move(row, column);
+        GameMetrics metrics = GameMetrics.getInstance();
+        metrics.record("endless.move", System.nanoTime() - started);
+        metrics.increment(result.isAccepted() ? "move.accepted" : "move.rejected");
+        if (!result.isAccepted()) {
+            updateStats(result);
+            return;
+        }
+        view.playerMoved();
+        scoreLabel.setText("Score: " + board.calculateScore());
+        if (result == MoveResult.FINISHED) {
+            stopClock();
+            updateStats(null);
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Game Over");
+            alert.setHeaderText(null);
+            alert.setContentText("Congratulations! Final score: " + board.calculateScore() + " after " + board.getSteps() + " steps");
+            alert.showAndWait();
+            return;
+        }
+        updateStats(null);
+    }
+
+    public void undo() {
+        boolean wasFinished = board.isFinished();
+        if (!board.undo()) {
+            return;
+        }
+        if (wasFinished) {
+            startClock();
+        }
+        view.playerMoved();
+        scoreLabel.setText("Score: " + board.calculateScore());
+        updateStats(null);
+    }
+
+    public void restart() {
+        board.reset();
+        stopwatch.reset(0);
+        startClock();
+        view.centerOnPlayer();
+        scoreLabel.setText("Score: 0");
+        updateStats(null);
+    }
+
+    public void centerOnPlayer() {
+        view.centerOnPlayer();
+    }
+
+    private void startClock() {
+        stopwatch.start();
+        GameClock.getInstance().subscribe(clockListener);
+    }
+
+    private void stopClock() {
+        stopwatch.stop();
+        GameClock.getInstance().unsubscribe(clockListener);
+    }
+
+    private void onClockTick() {
+        if (stopwatch.getElapsedSeconds() != shownSecond) {
+            updateStats(null);
+        }
+    }
+
+    //Statistike, smer do End polja i broj delova table u memoriji; rejected je razlog odbijenog poteza ili null
+    private void updateStats(MoveResult rejected) {
+        shownSecond = stopwatch.getElapsedSeconds();
+        int rowsToEnd = board.getEndRow() - board.getCurrentRow();
+        int columnsToEnd = board.getEndColumn() - board.getCurrentColumn();
+        String toEnd = board.isFinished() ? "End reached"
+                : String.format("End: %d %s, %d %s", Math.abs(rowsToEnd), rowsToEnd < 0 ? "up" : "down",
+                Math.abs(columnsToEnd), columnsToEnd < 0 ? "left" : "right");
+        statsLabel.setText(String.format("Path Length: %d, Sum: %d, Time: %ds, %s, chunks in memory: %d%s",
+                board.getSteps(), board.getSum(), shownSecond, toEnd, board.getLoadedChunks(),
+                rejected != null ? " - invalid move (" + rejected.name().toLowerCase().replace('_', ' ') + ")" : ""));
+    }
+
+    public EndlessBoardView getView() {
+        return view;
+    }
+
+    public Label getScoreLabel() {
+        return scoreLabel;
+    }
+
+    public Label getStatsLabel() {
+        return statsLabel;
+    }
+
+    //Odjavljuje igru sa sata, poziva se kada se prozor zatvori
+    public void dispose() {
+        stopwatch.stop();
+        GameClock.getInstance().unsubscribe(clockListener);
+        view.release();
+    }
+}
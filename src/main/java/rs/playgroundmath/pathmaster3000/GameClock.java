@@ -0,0 +1,73 @@
+package rs.playgroundmath.pathmaster3000;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Jedan sat za celu aplikaciju, umesto posebnog Timeline-a u svakom kontroleru
+//Igre koje teku se prijave (subscribe), a kada se zaustave, završe ili zamene novom igrom, odjave se (unsubscribe)
+//Svi prijavljeni dobijaju otkucaj u istom pulsu; kada nema prijavljenih, sat je zaustavljen i ne košta ništa
+//Koristi se samo iz JavaFX niti
+public final class GameClock {
+
+    //Prijavljena igra - dobija trenutno vreme (System.nanoTime) jednom po pulsu
+    public interface Listener {
+        void tick(long nowNanos);
+    }
+
+    private static final GameClock INSTANCE = new GameClock();
+
+    private final List<Listener> listeners = new ArrayList<>();
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            GameEvents.ClockTickEvent event = new GameEvents.ClockTickEvent();
+            event.begin();
+            long nowNanos = System.nanoTime();
+            //Unazad, da bi listener mogao da se odjavi tokom otkucaja
+            for (int i = listeners.size() - 1; i >= 0; i--) {
+                if (i < listeners.size()) {
+                    listeners.get(i).tick(nowNanos);
+                }
+            }
+            GameMetrics.getInstance().record("clock.tick", System.nanoTime() - nowNanos);
+            if (event.shouldCommit()) {
+                event.subscribers = listeners.size();
+                event.commit();
+            }
+        }
+    };
+    private boolean running;
+
+    private GameClock() {
+    }
+
+    public static GameClock getInstance() {
+        return INSTANCE;
+    }
+
+    public void subscribe(Listener listener) {
+        if (listeners.contains(listener)) {
+            return;
+        }
+        listeners.add(listener);
+        if (!running) {
+            running = true;
+            pulse.start();
+        }
+    }
+
+    public void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty() && running) {
+            running = false;
+            pulse.stop();
+        }
+    }
+
+    //Broj igara koje trenutno teku
+    public int getSubscriberCount() {
+        return listeners.size();
+    }
+}
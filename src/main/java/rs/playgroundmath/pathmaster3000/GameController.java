@@ -1,170 +1,468 @@
 package rs.playgroundmath.pathmaster3000;
 
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.scene.control.Alert;
-import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.layout.GridPane;
-import javafx.util.Duration;
 
-import java.io.Serializable;
-import java.util.HashSet;
-import java.util.Set;
-
-public class GameController implements Serializable {
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class GameController {
+
+    //Koliko najviše sme da traje računanje najboljeg mogućeg rezultata na kraju igre
+    private static final java.time.Duration SOLVER_BUDGET = java.time.Duration.ofMillis(500);
+    //Ako je podešen (-Dpathmaster.journalDir=...), dnevnik svake partije se upisuje u fajl u tom folderu
+    private static final String JOURNAL_DIR_PROPERTY = "pathmaster.journalDir";
+    //Koliko poteza unapred se proverava za predlog sledećeg poteza
+    private static final int HINT_LOOKAHEAD = 4;
+    //Igra koja traje se automatski čuva i posle svakog poteza i na svakih AUTOSAVE_SECONDS sekundi
+    private static final int AUTOSAVE_SECONDS = 30;
+    //Upis na rang listu i računanje najboljeg mogućeg rezultata na kraju igre rade na pozadinskoj niti,
+    //jer upis u fajl rang liste i PathSolver (do SOLVER_BUDGET) ne smeju da zaustave JavaFX nit
+    private static final ExecutorService GAME_OVER_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pathmaster-game-over");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final String DEAD_END_MESSAGE =
+            "End can no longer be reached from here. Undo your last moves or restart the game.";
 
     private final GameGrid gameGrid;
-    private transient Label scoreLabel;
-    private transient Label statsLabel;
-    private int currentX, currentY;
-    private int score;
-    private int steps;
-    private final Set<int[]> visitedCells;
-    private String pathColor = "yellow";
-    private transient Timeline timer;
-    private int timeElapsed;
+    private Label scoreLabel;
+    private Label statsLabel;
+    private String pathColor = BoardTheme.DEFAULT_PATH_COLOR;
+    //Boja polja van putanje, null dok je korisnik ne promeni
+    private String gameColor;
+    //Vreme partije se računa iz monotonog sata, a prikaz se osvežava iz zajedničkog GameClock-a
+    private final GameStopwatch stopwatch = new GameStopwatch();
+    private final GameClock.Listener clockListener = now -> onClockTick();
+    //Sekunda koja je poslednja prikazana, labela se menja samo kada se ona promeni
+    private long shownSecond = -1;
+    //Dnevnik poteza trenutne partije - svi potezi idu kroz njega, pa se mogu vratiti (undo) i ponovo odigrati
+    private MoveJournal journal;
+    //Prati da li je End još dostižan, posle svakog poteza
+    private ReachabilityTracker reachability;
+    //Lokalna rang lista, null ako nije dostupna
+    private Leaderboard leaderboard;
+    //Keš analiza (najbolji rezultat, predlog poteza) deljen između partija, null ako se ne koristi
+    private AnalysisCache analysisCache;
+    //Partija se upisuje na rang listu samo prvi put kada se završi, a ne ponovo posle undo/redo
+    private boolean recorded;
+    //Automatsko čuvanje u pozadini, null ako se ne koristi
+    private Autosaver autosaver;
+    //Tabla bez putanje za snimke igre - pravi se jednom po tabli, a snimci je dele
+    private Board snapshotLayout;
+    //Kapacitet dnevnika poteza u memoriji - manji za table u sesiji sa više tabli (SessionManager)
+    private final int journalCapacity;
+    //Igra je pauzirana jer nije na ekranu, vreme je zaustavljeno
+    private boolean paused;
 
     //Ovo je konstruktor game controller klase
     //Ova klasa će upravljati ovim stvarima
     public GameController(GameGrid gameGrid) {
+        this(gameGrid, MoveJournal.DEFAULT_CAPACITY);
+    }
+
+    //Konstruktor sa zadatim kapacitetom dnevnika poteza (stepen dvojke)
+    public GameController(GameGrid gameGrid, int journalCapacity) {
         this.gameGrid = gameGrid;
+        this.journalCapacity = journalCapacity;
         this.scoreLabel = new Label("Score: 0");
-        this.visitedCells = new HashSet<>();
         resetGame();
-        initializeTimer();
+    }
+
+    //Konstruktor za učitanu igru - tabla već ima putanju, pa se igra ne resetuje nego nastavlja
+    public GameController(GameGrid gameGrid, SavedGame savedGame) {
+        this.gameGrid = gameGrid;
+        this.journalCapacity = MoveJournal.DEFAULT_CAPACITY;
+        this.stopwatch.reset(savedGame.getTimeElapsed());
+        this.pathColor = savedGame.getPathColor() == null ? BoardTheme.DEFAULT_PATH_COLOR : savedGame.getPathColor();
+        this.gameColor = savedGame.getGameColor();
+        this.scoreLabel = new Label("Score: " + calculateScore());
+        this.journal = createJournal(gameGrid.getBoard(), journalCapacity);
+        this.reachability = new ReachabilityTracker(gameGrid.getBoard());
+        attachView();
+        if (!gameGrid.getBoard().isFinished()) {
+            startClock();
+        }
     }
 
     // Ovo je metoda koja resetuje stanje igre, resetovanje znači vratiti sve vrednosti na početnu vrednost
     public void resetGame() {
         //score, korati, vreme se vraćaju na 0
         //posećena polja sa čiste itd...zaustavlja se timer
-        score = 0;
-        steps = 0;
-        timeElapsed = 0;
-        visitedCells.clear();
-        currentX = gameGrid.getStartX();
-        currentY = gameGrid.getStartY();
-        initializeGame();
-        if (timer != null) {
-            timer.stop();
-            timer.playFromStart();
+        //Stanje putanje se čuva u Board modelu, pa se on resetuje
+        stopClock();
+        stopwatch.reset(0);
+        recorded = false;
+        //Restart iste table se upisuje u isti dnevnik, a za novu tablu se počinje novi dnevnik
+        //Polja putanje iste table se označe za ponovno iscrtavanje, a prikaz nove table je već povezan sa njom (bind)
+        Board board = gameGrid.getBoard();
+        if (journal != null && journal.getBoard() == board) {
+            if (gameGrid.hasView()) {
+                paintPath();
+            }
+            journal.reset();
+        } else {
+            if (journal != null) {
+                journal.close();
+            }
+            board.reset();
+            journal = createJournal(board, journalCapacity);
+            reachability = new ReachabilityTracker(board);
+            snapshotLayout = null;
         }
+        scoreLabel.setText("Score: " + calculateScore());
+        attachView();
+        startClock();
+        autosave();
     }
 
     // Ova metoda inicira igru
     private void initializeGame() {
-        GridPane gridPane = gameGrid.getGrid();
-
-        //Kreira se grid odnosno mreža igre
-        //I opet se koristi ona dvostruka petlja koja prolazi kroz sve dugmiće na ekranu
-        for (int i = 0; i < gameGrid.getGrid().getRowCount(); i++) {
-            for (int j = 0; j < gameGrid.getGrid().getColumnCount(); j++) {
-                //uzima se dugme koje je trenutno u petlji
-                //dakle pozicije dugmadi su 0,0   0,1   0,2   1,0   1,1   1,2   2,0   2,1   2,2 itd...
-                Button button = (Button) gridPane.getChildren().get(i * gameGrid.getGrid().getColumnCount() + j);
-
-                //Dugme se prilagodava da se može kliknut
-                // i poziva se setOnAction akcija
-                // do znači da svako dugme koje se klikne, nešto bi trebalo da se desi
-                button.setOnAction(event -> handleMove(button));
-            }
+        //Prikaz table javlja indeks polja na koje je igrač kliknuo
+        //Ne zavisi od toga da li je tabla iscrtana dugmićima ili na Canvas-u
+        gameGrid.getView().setOnCellClicked(this::handleMove);
+        gameGrid.getView().setOnSegment(this::handleSegment);
+    }
+
+    //Ponovo povezuje kontroler sa prikazom table, npr. posle promene načina iscrtavanja
+    //Tabla u sesiji koja nije na ekranu nema prikaz, pa se povezuje tek kada ga dobije (SessionGame.activate)
+    public void attachView() {
+        if (!gameGrid.hasView()) {
+            return;
         }
+        initializeGame();
+        gameGrid.getView().applyTheme(getTheme());
+        paintPath();
     }
 
 
-    //Ova metoda inicira timer
-    //Koristi se Timeline klasa koja se instancira u obekat
-    private void initializeTimer() {
-        timer = new Timeline(new KeyFrame(Duration.seconds(1), event -> {
-            timeElapsed++;
+    //Pokreće vreme partije i prijavljuje igru na zajednički sat
+    //Ranije je svaki kontroler imao svoj Timeline koji je nastavljao da radi i posle zamene kontrolera
+    private void startClock() {
+        paused = false;
+        stopwatch.start();
+        GameClock.getInstance().subscribe(clockListener);
+    }
+
+    //Zaustavlja vreme i odjavljuje igru sa sata - zaustavljena ili završena igra ne dobija otkucaje
+    private void stopClock() {
+        paused = false;
+        stopwatch.stop();
+        GameClock.getInstance().unsubscribe(clockListener);
+        updateStats();
+    }
+
+    //Poziva se jednom po pulsu, labela se menja samo kada se promeni prikazana sekunda
+    private void onClockTick() {
+        if (stopwatch.getElapsedSeconds() != shownSecond) {
             updateStats();
-        }));
-        timer.setCycleCount(Animation.INDEFINITE);
-        timer.play();
+            if (shownSecond % AUTOSAVE_SECONDS == 0) {
+                autosave();
+            }
+        }
+    }
+
+    //Predaje snimak trenutnog stanja za čuvanje u pozadini, na JavaFX niti se samo kopira putanja
+    private void autosave() {
+        if (autosaver == null) {
+            return;
+        }
+        long started = System.nanoTime();
+        autosaver.submit(snapshot());
+        GameMetrics.getInstance().record("autosave.snapshot", System.nanoTime() - started);
     }
 
-    //Ova metoda postavlja trenutnu poziciju na kojoj je igrač
-    //Ona nam je potrebna kako bi detektovali koji su sve ispravni mogući sledeći koraci
-    public void setCurrentPosition(int x, int y) {
-        this.currentX = x;
-        this.currentY = y;
-        //Ovde se dodaje trenutna pozicija u posećena polja tj putanju
-        visitedCells.add(new int[]{x, y});
+    //Nepromenljiv snimak igre koji se može čuvati na drugoj niti
+    public GameSnapshot snapshot() {
+        Board board = gameGrid.getBoard();
+        if (snapshotLayout == null) {
+            snapshotLayout = board.freshCopy();
+        }
+        return new GameSnapshot(snapshotLayout, board.copyPath(), getTimeElapsed(), pathColor, gameColor);
+    }
+
+    //Pauzira igru koja nije na ekranu (npr. tabla u drugom tabu) - vreme staje i igra se odjavljuje sa sata,
+    //pa neaktivna igra ne radi ništa po frejmu
+    public void pause() {
+        if (stopwatch.isRunning()) {
+            stopwatch.stop();
+            GameClock.getInstance().unsubscribe(clockListener);
+            paused = true;
+        }
+    }
+
+    //Nastavlja igru pauziranu sa pause - završena igra i igra u ćorsokaku ostaju zaustavljene
+    public void resume() {
+        if (paused) {
+            startClock();
+        }
     }
 
-    //radi akciju pomeranja putanje tj klika dugmića, poziva se u onom gore setOnAction()
-    private void handleMove(Button button) {
-        int newX = GridPane.getRowIndex(button);
-        int newY = GridPane.getColumnIndex(button);
+    //radi akciju pomeranja putanje tj klika na polje, poziva se iz prikaza table
+    //Vreme provere poteza i vreme označavanja polja za iscrtavanje se mere posebno (GameEvents.MoveEvent, GameMetrics)
+    private void handleMove(int index) {
+        Board board = gameGrid.getBoard();
+        GameEvents.MoveEvent event = new GameEvents.MoveEvent();
+        event.begin();
+        long started = System.nanoTime();
+        gameGrid.getView().showHint(Board.NO_CELL);
 
-        //proverava da li je trenutna pozicija validna
+        //Board proverava da li je potez validan i odmah ga primenjuje
         //ako nije, prikazuje se alert da je neispravan pokret
-        if (!isValidMove(newX, newY)) {
+        MoveResult result = journal.move(index);
+        long validated = System.nanoTime();
+        if (result.isAccepted()) {
+            gameGrid.getView().cellChanged(index);
+        }
+        long restyled = System.nanoTime();
+        recordMove(event, index, result, validated - started, restyled - validated);
+        if (!result.isAccepted()) {
             showAlert("Invalid Move", "You can only move to adjacent fields!");
             return;
         }
+        autosave();
 
-        setCurrentPosition(newX, newY);
-        button.setStyle("-fx-background-color: " + pathColor + ";");
-
-        if ("End".equals(button.getText())) {
-            if (timer != null) timer.stop();
-
+        if (result == MoveResult.FINISHED) {
             // U odnosu na proslu verziju
             // ovde sam zamenio da se timer zaustavi čim se završi igra
             // a ne tek nakom zatvaranja modala koji prikazuje finalni rezultat
+            finishGame();
+            return;
+        }
+
+        scoreLabel.setText("Score: " + calculateScore());
+        updateStats();
+        checkDeadEnd();
+    }
 
-            showAlert("Game Over", "Congratulations! Final score: " + calculateScore());
+    //Segment poteza nacrtan prevlačenjem ili strelicama (SegmentInput), poziva se jednom po pulsu
+    //Segment se primenjuje odjednom i prekida na prvom nedozvoljenom potezu, bez alert-a - putanja se samo ne produžava dalje
+    //Polja, rezultat, statistike i automatsko čuvanje se menjaju jednom za ceo segment
+    //Poruke o kraju igre se prikazuju posle pulsa, jer showAndWait nije dozvoljen tokom animacije,
+    //a upis na rang listu i PathSolver rade na pozadinskoj niti (finishGame), pa ne zaustavljaju puls
+    private void handleSegment(int[] cells, int length) {
+        Board board = gameGrid.getBoard();
+        long started = System.nanoTime();
+        gameGrid.getView().showHint(Board.NO_CELL);
+        int from = board.getPathLength();
+        int applied = journal.moveSegment(cells, 0, length);
+        for (int i = from; i < board.getPathLength(); i++) {
+            gameGrid.getView().cellChanged(board.getPathCell(i));
+        }
+        GameMetrics metrics = GameMetrics.getInstance();
+        metrics.add("move.accepted", applied);
+        if (applied < length) {
+            metrics.increment("move.rejected");
+        }
+        metrics.record("move.segment", System.nanoTime() - started);
+        if (applied == 0) {
             return;
         }
+        autosave();
 
-        try {
-            score += Integer.parseInt(button.getText());
-        } catch (NumberFormatException ignored) {
+        if (board.isFinished()) {
+            finishGame();
+            return;
+        }
+
+        scoreLabel.setText("Score: " + calculateScore());
+        updateStats();
+        if (!reachability.isEndReachable()) {
+            stopClock();
+            Platform.runLater(() -> showAlert("Dead End", DEAD_END_MESSAGE));
+        }
+    }
+
+    //Završava partiju - vreme se zaustavlja odmah, a poruka sa mestom na rang listi i najboljim mogućim rezultatom
+    //se prikazuje kada pozadinska nit završi upis i računanje
+    //Na JavaFX niti se uzimaju samo rezultat i kopija table bez putanje, jer se tabla posle može menjati (undo)
+    private void finishGame() {
+        Board board = gameGrid.getBoard();
+        stopClock();
+        journal.flush();
+        int score = calculateScore();
+        Leaderboard leaderboard = recorded ? null : this.leaderboard;
+        LeaderboardEntry entry = leaderboard == null ? null : LeaderboardEntry.of(board, getTimeElapsed());
+        if (leaderboard != null) {
+            recorded = true;
+        }
+        AnalysisCache analysisCache = this.analysisCache;
+        Board fresh = board.freshCopy();
+        CompletableFuture.supplyAsync(() -> rankText(leaderboard, entry) + bestScoreText(analysisCache, fresh),
+                GAME_OVER_EXECUTOR).whenComplete((text, error) -> {
+                    if (error != null) {
+                        error.printStackTrace();
+                    }
+                    String details = text == null ? "" : text;
+                    Platform.runLater(() -> showAlert("Game Over", "Congratulations! Final score: " + score + details));
+                });
+    }
+
+    private void recordMove(GameEvents.MoveEvent event, int index, MoveResult result, long validationNanos, long restyleNanos) {
+        GameMetrics metrics = GameMetrics.getInstance();
+        metrics.increment(result.isAccepted() ? "move.accepted" : "move.rejected");
+        metrics.record("move.validation", validationNanos);
+        metrics.record("move.restyle", restyleNanos);
+        if (event.shouldCommit()) {
+            event.cell = index;
+            event.result = result.name();
+            event.validationNanos = validationNanos;
+            event.restyleNanos = restyleNanos;
+            event.pathLength = gameGrid.getBoard().getPathLength();
+            event.commit();
+        }
+    }
+
+    //Ako End više nije dostižan, vreme se zaustavlja i igrač se obaveštava, umesto da igra samo stoji
+    //Vreme ponovo kreće tek kada undo vrati igru u stanje iz kog je End dostižan
+    private void checkDeadEnd() {
+        if (!reachability.isEndReachable()) {
+            stopClock();
+            showAlert("Dead End", DEAD_END_MESSAGE);
+        }
+    }
+
+    //Ističe predloženi sledeći potez - potez posle kog je End i dalje dostižan, sa najboljim prosekom nekoliko poteza unapred
+    public void showHint() {
+        Board board = gameGrid.getBoard();
+        if (board.isFinished()) {
+            return;
+        }
+        int hint = analysisCache == null ? AnalysisCache.MISS : analysisCache.getHint(board, HINT_LOOKAHEAD);
+        if (hint == AnalysisCache.MISS) {
+            hint = reachability.hint(HINT_LOOKAHEAD);
+            if (analysisCache != null) {
+                analysisCache.putHint(board, HINT_LOOKAHEAD, hint);
+            }
+        }
+        if (hint == Board.NO_CELL) {
+            showAlert("Dead End", DEAD_END_MESSAGE);
+            return;
+        }
+        gameGrid.getView().showHint(hint);
+    }
+
+    //Vraća poslednji potez - polje se ponovo iscrtava, a ako je igra bila završena, vreme ponovo teče
+    //Ako je End i posle vraćenog poteza nedostižan, vreme ostaje zaustavljeno i igrač se ponovo obaveštava
+    public void undo() {
+        int index = journal.undo();
+        if (index == Board.NO_CELL) {
+            return;
         }
+        gameGrid.getView().showHint(Board.NO_CELL);
+        gameGrid.getView().cellChanged(index);
+        scoreLabel.setText("Score: " + calculateScore());
+        updateStats();
+        autosave();
+        if (reachability.isEndReachable()) {
+            startClock();
+        } else {
+            checkDeadEnd();
+        }
+    }
 
-        steps++;
+    //Ponovo igra potez vraćen sa undo
+    //Ako je ponovljeni potez stigao do End polja, partija se završava isto kao posle klika (finishGame)
+    public void redo() {
+        int index = journal.redo();
+        if (index == Board.NO_CELL) {
+            return;
+        }
+        gameGrid.getView().showHint(Board.NO_CELL);
+        gameGrid.getView().cellChanged(index);
+        autosave();
+        if (gameGrid.getBoard().isFinished()) {
+            finishGame();
+            return;
+        }
         scoreLabel.setText("Score: " + calculateScore());
         updateStats();
+        checkDeadEnd();
+    }
+
+    //Dnevnik za novu partiju, sa fajlom ako je podešen folder za dnevnike
+    //Ako fajl ne može da se otvori, dnevnik radi samo u memoriji
+    private static MoveJournal createJournal(Board board, int capacity) {
+        MoveJournal journal = new MoveJournal(board, capacity);
+        String directory = System.getProperty(JOURNAL_DIR_PROPERTY);
+        if (directory != null) {
+            Path file = Paths.get(directory, "game-" + System.currentTimeMillis() + "-" + System.nanoTime() + ".pmj");
+            try {
+                journal.openFile(file);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return journal;
     }
 
-    //Ova metoda proverava da li je kliknut dugmić validan, odnosno, dugmić mora biti u nizu, ne može po dijagonali, ne može sa razmacima
-    //kao parametre prosledjuju se koordinate novog dugmića - seti se, dugmić se u matrici predstavlja kao [0,0], [0,1], [0,2], [1,0], [1,1], [1,2], [2,0], [2,1], [2,2]
-    /*
-    Na primer imas 4x4 matricu
-    [0,0] [0,1] [0,2] [0,3]
-    [1,0] [1,1] [1,2] [1,3]
-    [2,0] [2,1] [2,2] [2,3]
-    [3,0] [3,1] [3,2] [3,3]
+    //Odjavljuje igru sa sata i zatvara dnevnik, poziva se kada se kontroler zamenjuje novim (nova igra, učitavanje)
+    //Posle ovoga sat više ne drži referencu na kontroler, pa se stara tabla može osloboditi
+    public void dispose() {
+        stopwatch.stop();
+        GameClock.getInstance().unsubscribe(clockListener);
+        journal.close();
+    }
 
-    Ako ti je trenutna pozicija [0,1] a kliknula si na dugme [2,2]
-    logika ispod kaze (2 - 0) + (2 - 1) = 3, 3 nije jednako 1, dakle nije validan move
+    //Upisuje završenu partiju na rang listu i vraća njeno mesto za poruku na kraju igre
+    //Poziva se na pozadinskoj niti (finishGame), bez rang liste ili za već upisanu partiju vraća prazan tekst
+    private static String rankText(Leaderboard leaderboard, LeaderboardEntry result) {
+        if (leaderboard == null) {
+            return "";
+        }
+        try {
+            LeaderboardEntry entry = leaderboard.add(result);
+            int rank = leaderboard.rank(entry);
+            int puzzleRank = leaderboard.puzzleRank(entry);
+            String text = rank > 0 ? "\nRank: #" + rank + " on " + entry.getRows() + "x" + entry.getColumns() : "";
+            if (puzzleRank > 0) {
+                text += "\nRank on this board: #" + puzzleRank;
+            }
+            return text;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return "";
+        }
+    }
 
-    kada bi izabrana dugme [0,2] bilo validno, bilo bi (0 - 0) + (2 - 1) = 1, jedan jeste jednako 1
-     */
-    private boolean isValidMove(int newX, int newY) {
-        return Math.abs(newX - currentX) + Math.abs(newY - currentY) == 1 &&
-                visitedCells.stream().noneMatch(cell -> cell[0] == newX && cell[1] == newY);
+    //Računa najbolji mogući rezultat za tablu, da bi igrač video koliko je blizu optimuma
+    //Solver radi samo za table do 64 polja, za veće se ovaj deo poruke ne prikazuje
+    //Ista tabla (restart, učitana igra, zagonetka iz paketa) se ne rešava ponovo nego se uzima iz keša
+    //Poziva se na pozadinskoj niti sa tablom bez putanje (finishGame)
+    private static String bestScoreText(AnalysisCache analysisCache, Board fresh) {
+        if (fresh.getCellCount() > PathSolver.MAX_CELLS) {
+            return "";
+        }
+        SolverResult best = analysisCache == null ? null : analysisCache.getSolution(fresh);
+        if (best == null) {
+            best = new PathSolver().solve(fresh, SOLVER_BUDGET);
+            if (analysisCache != null) {
+                analysisCache.putSolution(fresh, best);
+            }
+        }
+        return best.isSolvable() ? "\nBest possible score: " + best.getScore() : "";
     }
 
     //Ova metoda se poziva kada se završi igra i računa rezultat
-    //Opisano je u tekstu zadatka kako se računa rezultat
+    //Opisano je u tekstu zadatka kako se računa rezultat, a sam račun je u Board klasi
     private int calculateScore() {
-        // Ovde ponovo imaš onaj ternarni operator
-        // Prevod ove linije kora ti je: Ova metoda će vratiti:
-        // a. ako su koraci veći od 0 vrati score / koraci
-        // b. ako koraci nisu veći od 0 vrati 0
-        return steps > 0 ? score / steps : 0;
+        return gameGrid.getBoard().calculateScore();
     }
 
     //Ova metoda se poziva kada se završi igra i setuje statistike
     //void na početku ti znači da metoda ne praća nikakav rezultat nego samo setuje neku vrednost ili ovavlja neki posao
     void updateStats() {
+        shownSecond = stopwatch.getElapsedSeconds();
         if (statsLabel != null) {
+            Board board = gameGrid.getBoard();
             statsLabel.setText(String.format("Statistics: Path Length: %d, Sum: %d, Score: %d, Time: %ds",
-                    steps, score, calculateScore(), timeElapsed));
+                    board.getSteps(), board.getSum(), calculateScore(), shownSecond));
         }
     }
 
@@ -179,28 +477,47 @@ public class GameController implements Serializable {
     }
 
     //Ova metoda služi za promenu boje putanje
+    //Boja putanje je deo teme, pa se ne prolazi kroz polja putanje
     public void changePathColor(String color) {
         this.pathColor = color;
+        applyTheme();
+    }
 
-        GridPane gridPane = gameGrid.getGrid();
-
-        //Ovde se koristi drugačiji tip petlje
-        //takozvana foreach petlja
-        //u prevodu na srpski jezik, za svaki element u visitedCells, odnosno za svaki kliknuti dugmić promeni mi boju
-        for (int[] cell : visitedCells) {
-            int x = cell[0];
-            int y = cell[1];
-            Button button = (Button) gridPane.getChildren()
-                    .get(x * gridPane.getColumnCount() + y);
-            button.setStyle("-fx-background-color: " + pathColor + ";");
+    //Označava sva polja putanje za iscrtavanje, npr. kada se napravi novi prikaz table
+    //Prolazi se samo kroz putanju, a ne kroz celu tablu
+    //Start polje (path[0]) ostaje zeleno, ono nije deo putanje koju je igrač nacrtao
+    private void paintPath() {
+        Board board = gameGrid.getBoard();
+        for (int i = 1; i < board.getPathLength(); i++) {
+            gameGrid.getView().cellChanged(board.getPathCell(i));
         }
     }
 
+    //Trenutne boje table
+    private BoardTheme getTheme() {
+        return new BoardTheme(gameColor, pathColor);
+    }
+
     //getter metoda za scoreLabel
     public Label getScoreLabel() {
         return scoreLabel;
     }
 
+    //Rang lista na koju se upisuju završene partije
+    public void setLeaderboard(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
+    public void setAnalysisCache(AnalysisCache analysisCache) {
+        this.analysisCache = analysisCache;
+    }
+
+    //Automatsko čuvanje - trenutno stanje se odmah predaje, da bi i nova igra imala snimak
+    public void setAutosaver(Autosaver autosaver) {
+        this.autosaver = autosaver;
+        autosave();
+    }
+
     //setter metoda za scoreLabel
     public void setStatsLabel(Label statsLabel) {
         this.statsLabel = statsLabel;
@@ -208,27 +525,36 @@ public class GameController implements Serializable {
 
     //Ova metoda menja boju igre
     public void changeGameColor(String color) {
-        gameGrid.changeGameColor(color, visitedCells);
+        this.gameColor = color;
+        applyTheme();
     }
 
-    //Metoda za ponovno inicijalizaciju igre
-    public void reinitialize(GameGrid gameGrid) {
-        this.scoreLabel = new Label("Score: " + calculateScore());
-        this.statsLabel = new Label();
-        setStatsLabel(this.statsLabel);
+    //Primenjuje boje na prikaz table i meri koliko je to trajalo
+    private void applyTheme() {
+        GameEvents.ThemeChangeEvent event = new GameEvents.ThemeChangeEvent();
+        event.begin();
+        long started = System.nanoTime();
+        gameGrid.getView().applyTheme(getTheme());
+        GameMetrics.getInstance().record("theme.apply", System.nanoTime() - started);
+        if (event.shouldCommit()) {
+            event.gameColor = gameColor;
+            event.pathColor = pathColor;
+            event.commit();
+        }
+    }
 
-        GridPane gridPane = gameGrid.getGrid();
+    //Dnevnik poteza trenutne partije, npr. za ponovno igranje preko GameReplay
+    public MoveJournal getJournal() {
+        return journal;
+    }
 
-        for (int[] cell : visitedCells) {
-            int x = cell[0];
-            int y = cell[1];
-            Button button = (Button) gridPane.getChildren()
-                    .get(x * gameGrid.getGrid().getColumnCount() + y);
-            button.setStyle("-fx-background-color: " + pathColor + ";");
-        }
+    //Proteklo vreme partije u sekundama
+    public int getTimeElapsed() {
+        return (int) stopwatch.getElapsedSeconds();
+    }
 
-        initializeGame();
-        updateStats();
-        initializeTimer();
+    //Trenutno stanje igre za čuvanje u .game fajl
+    public SavedGame toSavedGame() {
+        return new SavedGame(gameGrid.getBoard(), getTimeElapsed(), pathColor, gameColor);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,96 @@
+package rs.playgroundmath.pathmaster3000;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+//JDK Flight Recorder događaji igre - potezi, pravljenje prikaza table, promena boja, čuvanje/učitavanje i otkucaji sata
+//Snimanje se uključuje standardno, npr. java -XX:StartFlightRecording=filename=game.jfr ...
+//pa se zastoji vide u JDK Mission Control-u pod kategorijom "PathMaster", umesto da se pogađa
+//Kada snimanje nije uključeno, begin/commit ne rade ništa, pa događaji ne usporavaju igru
+//Isti podaci se uvek skupljaju i u GameMetrics (brojači i histogrami), koji se mogu upisati u fajl na izlasku
+final class GameEvents {
+
+    private GameEvents() {
+    }
+
+    @Name("rs.playgroundmath.pathmaster3000.Move")
+    @Label("Move")
+    @Description("One click on a board cell - rule check and restyle of the changed cell")
+    @Category("PathMaster")
+    @StackTrace(false)
+    static final class MoveEvent extends Event {
+        @Label("Cell")
+        int cell;
+        @Label("Result")
+        String result;
+        @Label("Validation Time")
+        @Timespan
+        long validationNanos;
+        @Label("Restyle Time")
+        @Timespan
+        long restyleNanos;
+        @Label("Path Length")
+        int pathLength;
+    }
+
+    @Name("rs.playgroundmath.pathmaster3000.GridBuild")
+    @Label("Grid Build")
+    @Description("Creation of the board view - buttons in a GridPane or a Canvas")
+    @Category("PathMaster")
+    @StackTrace(false)
+    static final class GridBuildEvent extends Event {
+        @Label("Rows")
+        int rows;
+        @Label("Columns")
+        int columns;
+        @Label("Render Mode")
+        String renderMode;
+        @Label("Node Count")
+        int nodeCount;
+    }
+
+    @Name("rs.playgroundmath.pathmaster3000.ThemeChange")
+    @Label("Theme Change")
+    @Description("Change of the game or path color")
+    @Category("PathMaster")
+    @StackTrace(false)
+    static final class ThemeChangeEvent extends Event {
+        @Label("Game Color")
+        String gameColor;
+        @Label("Path Color")
+        String pathColor;
+    }
+
+    @Name("rs.playgroundmath.pathmaster3000.SaveLoad")
+    @Label("Save/Load")
+    @Description("Saving or loading a .game file")
+    @Category("PathMaster")
+    @StackTrace(false)
+    static final class SaveLoadEvent extends Event {
+        @Label("Operation")
+        String operation;
+        @Label("File")
+        String file;
+        @Label("Size")
+        @DataAmount
+        long bytes;
+        @Label("Success")
+        boolean success;
+    }
+
+    @Name("rs.playgroundmath.pathmaster3000.ClockTick")
+    @Label("Clock Tick")
+    @Description("One pulse of the shared game clock")
+    @Category("PathMaster")
+    @StackTrace(false)
+    static final class ClockTickEvent extends Event {
+        @Label("Running Games")
+        int subscribers;
+    }
+}
@@ -0,0 +1,267 @@
+package rs.playgroundmath.pathmaster3000;
+
+import rs.playgroundmath.pathmaster3000.legacy.LegacyGameReader;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+//Binarni format .game fajla, umesto Java serijalizacije
+//
+//Raspored (big-endian):
+//  int    magic "PM3K"
+//  short  verzija formata
+//  short  dužina ostatka zaglavlja u bajtovima (novije verzije mogu da dodaju polja, starije ih preskaču)
+//  int    redovi, kolone, Start, End, broj koraka putanje, proteklo vreme u sekundama
+//  byte   dužina + UTF-8 boja putanje, byte dužina + UTF-8 boja igre (0 ako nije menjana)
+//  byte   1 + long seed table, samo ako je tabla generisana iz seed-a (stariji fajlovi ovo nemaju)
+//  polja  dva polja po bajtu (nibble), red po red, prvo polje u nižih 4 bita
+//  putanja  smer svakog koraka u 2 bita (Board.UP, RIGHT, DOWN, LEFT: 0 gore, 1 desno, 2 dole, 3 levo), četiri koraka po bajtu
+//  int    CRC32 svih prethodnih bajtova
+//
+//Pri učitavanju se putanja ponovo odigrava kroz Board.move, pa fajl sa nedozvoljenim potezima ne može da se učita
+public final class GameFile {
+
+    public static final int MAGIC = 0x504D334B;
+    public static final int VERSION = 1;
+    //Početak Java serijalizovanog fajla (stari .game format)
+    private static final short JAVA_SERIALIZATION_MAGIC = (short) 0xACED;
+    //Zaglavlje posle polja za dužinu: 6 int-ova i dve dužine boja, bez samih boja
+    private static final int FIXED_HEADER_LENGTH = 6 * Integer.BYTES + 2;
+    //Zastavica i seed na kraju zaglavlja
+    private static final int SEED_LENGTH = 1 + Long.BYTES;
+    private static final byte SEED_FLAG = 1;
+    //Najveća dozvoljena tabla, da pokvaren fajl ne bi tražio ogromnu memoriju
+    static final long MAX_CELLS = 1L << 26;
+
+    private GameFile() {
+    }
+
+    public static void write(Path file, SavedGame game) throws IOException {
+        ByteBuffer buffer = encode(game);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    //Čita .game fajl u novom formatu, a stari Java serijalizovani fajl prebacuje u novi model
+    public static SavedGame read(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > MAX_CELLS) {
+                throw new IOException("Game file is too large: " + size + " bytes");
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // čita se dok se bafer ne popuni
+            }
+            buffer.flip();
+        }
+        if (buffer.remaining() >= 2 && buffer.getShort(0) == JAVA_SERIALIZATION_MAGIC) {
+            return LegacyGameReader.read(file);
+        }
+        return decode(buffer);
+    }
+
+    public static ByteBuffer encode(SavedGame game) {
+        Board board = game.getBoard();
+        byte[] pathColor = colorBytes(game.getPathColor());
+        byte[] gameColor = colorBytes(game.getGameColor());
+        int cellCount = board.getCellCount();
+        int steps = board.getPathLength() - 1;
+        int headerLength = FIXED_HEADER_LENGTH + pathColor.length + gameColor.length
+                + (board.isSeeded() ? SEED_LENGTH : 0);
+        int size = 8 + headerLength + (cellCount + 1) / 2 + (steps + 3) / 4 + Integer.BYTES;
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putShort((short) VERSION);
+        buffer.putShort((short) headerLength);
+        buffer.putInt(board.getRows());
+        buffer.putInt(board.getColumns());
+        buffer.putInt(board.getStart());
+        buffer.putInt(board.getEnd());
+        buffer.putInt(steps);
+        buffer.putInt(game.getTimeElapsed());
+        buffer.put((byte) pathColor.length).put(pathColor);
+        buffer.put((byte) gameColor.length).put(gameColor);
+        if (board.isSeeded()) {
+            buffer.put(SEED_FLAG).putLong(board.getSeed());
+        }
+
+        //Dva polja po bajtu, Start i End imaju vrednost 0
+        for (int i = 0; i < cellCount; i += 2) {
+            int low = board.getValue(i);
+            int high = i + 1 < cellCount ? board.getValue(i + 1) : 0;
+            buffer.put((byte) (low | high << 4));
+        }
+
+        //Svaki korak putanje je smer u odnosu na prethodno polje
+        int packed = 0;
+        for (int i = 1; i <= steps; i++) {
+            int direction = board.direction(board.getPathCell(i - 1), board.getPathCell(i));
+            packed |= direction << ((i - 1) % 4 * 2);
+            if (i % 4 == 0 || i == steps) {
+                buffer.put((byte) packed);
+                packed = 0;
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    public static SavedGame decode(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 8 + FIXED_HEADER_LENGTH + Integer.BYTES) {
+            throw new IOException("Game file is truncated");
+        }
+        int base = buffer.position();
+        int contentLength = buffer.remaining() - Integer.BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(base + contentLength));
+        if ((int) crc.getValue() != buffer.getInt(base + contentLength)) {
+            throw new IOException("Game file checksum mismatch");
+        }
+
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a PathMaster game file");
+        }
+        int version = buffer.getShort() & 0xFFFF;
+        if (version > VERSION) {
+            throw new IOException("Game file version " + version + " is newer than supported version " + VERSION);
+        }
+        int headerLength = buffer.getShort() & 0xFFFF;
+        int headerEnd = buffer.position() + headerLength;
+        if (headerLength < FIXED_HEADER_LENGTH || headerEnd > base + contentLength) {
+            throw new IOException("Invalid game file header length " + headerLength);
+        }
+        //Polja zaglavlja se čitaju samo do kraja zaglavlja - boje duže od zaglavlja ne smeju da uđu u polja table
+        int limit = buffer.limit();
+        buffer.limit(headerEnd);
+        int rows;
+        int columns;
+        int start;
+        int end;
+        int steps;
+        int timeElapsed;
+        String pathColor;
+        String gameColor;
+        boolean seeded;
+        long seed;
+        try {
+            rows = buffer.getInt();
+            columns = buffer.getInt();
+            start = buffer.getInt();
+            end = buffer.getInt();
+            steps = buffer.getInt();
+            timeElapsed = buffer.getInt();
+            pathColor = readColor(buffer);
+            gameColor = readColor(buffer);
+            //Seed postoji samo ako je ostalo mesta u zaglavlju
+            seeded = headerEnd - buffer.position() >= SEED_LENGTH && buffer.get() == SEED_FLAG;
+            seed = seeded ? buffer.getLong() : 0;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Game file header is truncated", e);
+        } finally {
+            buffer.limit(limit);
+        }
+        buffer.position(headerEnd);
+
+        if (rows <= 0 || columns <= 0 || (long) rows * columns > MAX_CELLS) {
+            throw new IOException("Invalid board size " + rows + "x" + columns);
+        }
+        int cellCount = rows * columns;
+        if (steps < 0 || steps >= cellCount || timeElapsed < 0) {
+            throw new IOException("Invalid game state");
+        }
+        if (buffer.remaining() - Integer.BYTES != (cellCount + 1) / 2 + (steps + 3) / 4) {
+            throw new IOException("Game file length does not match board size");
+        }
+
+        byte[] cells = new byte[cellCount];
+        for (int i = 0; i < cellCount; i += 2) {
+            int packed = buffer.get() & 0xFF;
+            cells[i] = (byte) (packed & 0x0F);
+            if (i + 1 < cellCount) {
+                cells[i + 1] = (byte) (packed >>> 4);
+            }
+        }
+        for (byte cell : cells) {
+            if (cell > 9) {
+                throw new IOException("Invalid cell value " + cell);
+            }
+        }
+
+        Board board;
+        try {
+            board = new Board(rows, columns, cells, start, end);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid board: " + e.getMessage(), e);
+        }
+        //Tabla sa seed-om se pravi ponovo iz seed-a, tako da zadrži seed (potreban za replay)
+        //Ako se polja ne poklapaju sa seed-om, fajl je menjan
+        if (seeded) {
+            Board generated = Board.generate(rows, columns, seed);
+            if (generated.getStart() != start || generated.getEnd() != end || !sameCells(generated, board)) {
+                throw new IOException("Board does not match its seed");
+            }
+            board = generated;
+        }
+
+        //Putanja se ponovo odigrava po pravilima igre
+        int packed = 0;
+        for (int i = 0; i < steps; i++) {
+            if (i % 4 == 0) {
+                packed = buffer.get() & 0xFF;
+            }
+            int direction = (packed >>> (i % 4 * 2)) & 3;
+            int next = board.neighbor(board.getCurrent(), direction);
+            if (next == Board.NO_CELL || !board.move(next).isAccepted()) {
+                throw new IOException("Invalid move " + (i + 1) + " in saved path");
+            }
+        }
+        return new SavedGame(board, timeElapsed, pathColor, gameColor);
+    }
+
+    private static boolean sameCells(Board a, Board b) {
+        for (int i = 0; i < a.getCellCount(); i++) {
+            if (a.getValue(i) != b.getValue(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] colorBytes(String color) {
+        if (color == null) {
+            return new byte[0];
+        }
+        byte[] bytes = color.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 255) {
+            throw new IllegalArgumentException("Color name is too long: " + color);
+        }
+        return bytes;
+    }
+
+    private static String readColor(ByteBuffer buffer) {
+        int length = buffer.get() & 0xFF;
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,113 +1,102 @@
 package rs.playgroundmath.pathmaster3000;
 
-import javafx.geometry.Pos;
-import javafx.scene.control.Button;
-import javafx.scene.layout.GridPane;
+import javafx.scene.Parent;
+import javafx.scene.layout.Region;
 
-import java.io.Serializable;
 import java.util.Random;
-import java.util.Set;
 
-public class GameGrid implements Serializable {
+public class GameGrid {
 
-    //Kreira GridPane odnosno mrežu sa poljima u igri
-    private transient GridPane grid;
-    //Definiše veličinu mreže - mreža je u kodu predstavljena kao dvodimenzionalni niz npr. 5x5 ili 7x7
-    private final int gridSize;
-    //Definiše stanje svih polja u igri
-    private final String[][] buttonStates;
-    //Definiše pocetak i kraj igre
-    private int startX, startY, endX, endY;
+    //Prikaz table na ekranu - GridPane sa dugmićima ili Canvas, u zavisnosti od načina iscrtavanja
+    private BoardView view;
+    private RenderMode renderMode;
+    //Definiše broj redova i kolona mreže - mreža ne mora biti kvadratna, može biti npr. 5x5, 7x7 ili 6x9
+    private int rows;
+    private int columns;
+    //Stanje svih polja u igri (vrednosti, Start, End, putanja) čuva headless Board model
+    //GameGrid samo iscrtava ono što je u modelu
+    private Board board;
+    //Zajednički skup dugmića kada je tabla deo sesije sa više tabli (SessionManager), inače null
+    private CellNodePool nodePool;
 
 
-    //Kreira konstruktor GameGrid klase
-    //U konstruktoru se definiše veličina mreže i pocetak i kraj igre
+    //Kreira konstruktor GameGrid klase za kvadratnu mrežu
     public GameGrid(int gridSize) {
-        this.gridSize = gridSize;
-        this.buttonStates = new String[gridSize][gridSize];
+        this(gridSize, gridSize);
+    }
+
+    //Konstruktor za mrežu proizvoljne veličine N x M
+    public GameGrid(int rows, int columns) {
+        this(rows, columns, RenderMode.GRID_PANE);
+    }
+
+    //Konstruktor za mrežu proizvoljne veličine sa izabranim načinom iscrtavanja
+    public GameGrid(int rows, int columns, RenderMode renderMode) {
+        this.rows = rows;
+        this.columns = columns;
+        this.renderMode = renderMode;
         initializeGrid();
     }
 
+    //Konstruktor za već postojeću tablu, npr. učitanu iz .game fajla
+    public GameGrid(Board board, RenderMode renderMode) {
+        this.rows = board.getRows();
+        this.columns = board.getColumns();
+        this.board = board;
+        this.renderMode = renderMode;
+        initializeGrid();
+    }
+
+    //Konstruktor za zagonetku iz paketa (PuzzlePack) - tabla se čita iz paketa, a ne generiše
+    public GameGrid(PuzzlePack pack, int index, RenderMode renderMode) {
+        this(pack.board(index), renderMode);
+    }
+
+    //Konstruktor za tablu u sesiji sa više tabli - prikaz se ne pravi odmah, nego tek kada tabla dođe na ekran
+    //(getView), i to od dugmića iz zajedničkog skupa
+    public GameGrid(Board board, CellNodePool nodePool) {
+        this.rows = board.getRows();
+        this.columns = board.getColumns();
+        this.board = board;
+        this.renderMode = RenderMode.GRID_PANE;
+        this.nodePool = nodePool;
+    }
+
     //Inicira grid odnosno mrežu igre
-    // Ako je igra prazna, generira se random grid sa dugmićima sa random vrednostima
-    //poziva se createGrid() metoda koja iscrtava grid na ekran - ona se bavi iscrtavanjem dugmića
+    // Ako tabla još ne postoji, generira se random tabla sa random vrednostima
+    //poziva se createGrid() metoda koja pravi prikaz table - dugmiće ili Canvas
     private void initializeGrid() {
-        if (isButtonStatesEmpty()) {
+        if (board == null) {
             generateRandomGrid();
         }
         createGrid();
     }
 
-    //Proverava da li su sva polja u igri prazna
-    //Ako su polja tj. dugmići prazni odnosno nisu popunjeni vraća true, u suprotnom vraća false
-    private boolean isButtonStatesEmpty() {
-        for (int i = 0; i < gridSize; i++) {
-            for (int j = 0; j < gridSize; j++) {
-                if (buttonStates[i][j] != null) {
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
-
-    //Generiše random grid sa dugmićima sa random vrednostima
+    //Generiše random tablu sa random vrednostima
     //Dakle, ova metoda ne generiše dugmiće i ne iscrtava ih na ekranu nego generiše
     // random vrednosti brojeva za te dugmiće
+    //Tabla se generiše iz random seed-a, tako da se svaka partija može ponovo odigrati (replay)
     private void generateRandomGrid() {
-        Random random = new Random();
-        startX = random.nextInt(gridSize);
-        startY = random.nextInt(gridSize);
-
-        do {
-            endX = random.nextInt(gridSize);
-            endY = random.nextInt(gridSize);
-        } while (startX == endX && startY == endY);
-
-        for (int i = 0; i < gridSize; i++) {
-            for (int j = 0; j < gridSize; j++) {
-                if (i == startX && j == startY) {
-                    buttonStates[i][j] = "Start";
-                } else if (i == endX && j == endY) {
-                    buttonStates[i][j] = "End";
-                } else {
-                    buttonStates[i][j] = String.valueOf(random.nextInt(10));
-                }
-            }
-        }
+        board = Board.generate(rows, columns, new Random().nextLong());
     }
 
-    //Ova metoda iscrtava grid na ekran
-    //grid je zapravo layout koji će se prikazati na ekranu
+    //Ova metoda pravi prikaz table na ekranu
+    //Sam prikaz (dugmići ili Canvas) je u GridPaneBoardView odnosno CanvasBoardView klasi
+    //Trajanje i broj napravljenih čvorova se beleže (GameEvents.GridBuildEvent, GameMetrics)
     private void createGrid() {
-        grid = new GridPane();
-        grid.setHgap(5);
-        grid.setVgap(5);
-        grid.setAlignment(Pos.CENTER);
-
-        // for predstavlja petlju (eng. loop) koja se koristi za iscrtavanje dugmića
-        // Koristi se dvostruka petlja zato što se iscrtava matrica, odnosno, dvodimenzionalni niz koji
-        // predstavlja mrežu ili mapu u igri
-        for (int i = 0; i < gridSize; i++) {
-            for (int j = 0; j < gridSize; j++) {
-                Button button = new Button();
-                button.setPrefSize(50, 50);
-
-                //Ovde se proverava da li je dugmić Start ili End
-                //Ako je state dugmića start ili end, ne iscrtava se broj nego se prikazuje Start ili End polja
-                // U igri crveno i zeleno polje
-                if ("Start".equals(buttonStates[i][j])) {
-                    button.setText("Start");
-                    button.setStyle("-fx-background-color: green; -fx-text-fill: white;");
-                } else if ("End".equals(buttonStates[i][j])) {
-                    button.setText("End");
-                    button.setStyle("-fx-background-color: red; -fx-text-fill: white;");
-                } else {
-                    button.setText(buttonStates[i][j]);
-                }
-
-                grid.add(button, j, i);
-            }
+        releaseView();
+        GameEvents.GridBuildEvent event = new GameEvents.GridBuildEvent();
+        event.begin();
+        long started = System.nanoTime();
+        view = getRenderMode() == RenderMode.CANVAS ? new CanvasBoardView(board) : new GridPaneBoardView(board, nodePool);
+        GameMetrics.getInstance().record("grid.build", System.nanoTime() - started);
+        if (event.shouldCommit()) {
+            Region node = view.getNode();
+            event.rows = rows;
+            event.columns = columns;
+            event.renderMode = renderMode.name();
+            event.nodeCount = 1 + (node instanceof Parent ? ((Parent) node).getChildrenUnmodifiable().size() : 0);
+            event.commit();
         }
     }
 
@@ -115,61 +104,87 @@ public class GameGrid implements Serializable {
     // Ovakve metode se obično nazivaju getter metodama - pošto je polje grid ove klase privatno
     // onda se onda metoda koja vraća grid odnosno mrežu igre naziva "getGrid"
     //Ovo se u obektno orijentiranom programiranju naziva enkapsulacija (da li je polje privatno ili javno / private ili public)
-    public GridPane getGrid() {
-        if (grid == null) {
+    public Region getGrid() {
+        return getView().getNode();
+    }
+
+    //Vraća prikaz table, pravi ga ako još ne postoji (npr. posle učitavanja igre)
+    public BoardView getView() {
+        if (view == null) {
             createGrid();
         }
-        return grid;
+        return view;
     }
 
-    //Ova metoda služi za funkcionalnost promene pozicije Start i End dugmića
-    public void randomizeStartAndEnd() {
-        generateRandomGrid();
+    //Odbacuje prikaz, npr. kada tabla ode sa ekrana - model table ostaje, a prikaz se ponovo pravi pri sledećem getView
+    public void releaseView() {
+        if (view != null) {
+            view.release();
+            view = null;
+        }
+    }
+
+    //Da li tabla trenutno ima prikaz
+    public boolean hasView() {
+        return view != null;
+    }
+
+    public RenderMode getRenderMode() {
+        return renderMode;
+    }
+
+    //Menja način iscrtavanja - stari prikaz se odbacuje i pravi se novi za istu tablu
+    public void setRenderMode(RenderMode renderMode) {
+        this.renderMode = renderMode;
         createGrid();
     }
 
+    //Ova metoda služi za funkcionalnost promene pozicije Start i End dugmića
+    public void randomizeStartAndEnd() {
+        regenerate(rows, columns);
+    }
 
-    //Ova metoda menja pozadinsku boju dugmića u igri
-    public void changeGameColor(String color, Set<int[]> visitedCells) {
-        //Ponovo se koristi dvostruka petlja
-        //Da bi se proverilo koji dugmići već nisu kliknuti (nisu u označenoj putanji)
-        //Tako da budemo sigurni da menjamo samo boju dugmića koji nisu u označenoj putanji
-        for (int i = 0; i < gridSize; i++) {
-            for (int j = 0; j < gridSize; j++) {
-                if (!isCellVisited(i, j, visitedCells) && !"Start".equals(buttonStates[i][j]) && !"End".equals(buttonStates[i][j])) {
-                    Button button = (Button) grid.getChildren().get(i * gridSize + j);
-                    button.setStyle("-fx-background-color: " + color + ";");
-                }
-            }
+    //Nova random tabla u istom prikazu - čvorovi prikaza se ne prave ponovo nego dobijaju nove vrednosti
+    //Ako se veličina promenila, dodaju se ili uklanjaju samo polja koja fale ili su višak
+    public void regenerate(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        generateRandomGrid();
+        if (view != null) {
+            long started = System.nanoTime();
+            view.bind(board);
+            GameMetrics.getInstance().record("grid.rebind", System.nanoTime() - started);
         }
     }
 
-    //Ova metoda proverava da li je dugmić kliknut, odnosno, da li je deo putanje ili nije
-    private boolean isCellVisited(int x, int y, Set<int[]> visitedCells) {
-        return visitedCells.stream().anyMatch(cell -> cell[0] == x && cell[1] == y);
+
+    //Vraća headless model table
+    public Board getBoard() {
+        return board;
     }
 
     //Ispod su sve 4 getter metode za propertije ove GameGrid klase
     public int getStartX() {
-        return startX;
+        return board.rowOf(board.getStart());
     }
 
     public int getStartY() {
-        return startY;
+        return board.columnOf(board.getStart());
     }
 
     public int getEndX() {
-        return endX;
+        return board.rowOf(board.getEnd());
     }
 
     public int getEndY() {
-        return endY;
+        return board.columnOf(board.getEnd());
     }
 
-    //Ova metoda se poziva kada se igra ponovo inicijalizira
-    public void reinitializeGrid() {
-        if (grid == null) {
-            createGrid();
-        }
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
     }
 }
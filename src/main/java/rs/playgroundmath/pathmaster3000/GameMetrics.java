@@ -0,0 +1,149 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+//Metrike unutar procesa - brojači i histogrami trajanja, po imenu (npr. "move.validation")
+//Za razliku od JFR događaja (GameEvents), uvek se skupljaju i koštaju samo nekoliko sabiranja,
+//pa se iz fajla na izlasku (-Dpathmaster.metricsFile=...) vidi gde je otišlo vreme i bez snimka
+//LongAdder se koristi jer metrike pišu i JavaFX nit i radne niti (npr. Tournament, PuzzleGenerator)
+public final class GameMetrics {
+
+    //Ako je podešen, metrike se upisuju u taj fajl kada se aplikacija zatvori
+    public static final String METRICS_FILE_PROPERTY = "pathmaster.metricsFile";
+
+    private static final GameMetrics INSTANCE = new GameMetrics();
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    private GameMetrics() {
+    }
+
+    public static GameMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public void increment(String name) {
+        counter(name).increment();
+    }
+
+    public void add(String name, long value) {
+        counter(name).add(value);
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    //Upisuje jedno trajanje u nanosekundama
+    public void record(String name, long nanos) {
+        histogram(name).record(nanos);
+    }
+
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    //Sve metrike kao tekst, sortirane po imenu, jedna po redu
+    public String dump() {
+        StringWriter text = new StringWriter();
+        PrintWriter out = new PrintWriter(text);
+        new TreeMap<>(counters).forEach((name, counter) -> out.printf("%s count=%d%n", name, counter.sum()));
+        new TreeMap<>(histograms).forEach((name, histogram) -> out.printf(
+                "%s count=%d mean=%.1fus p50<=%.1fus p99<=%.1fus max=%.1fus%n",
+                name, histogram.getCount(), histogram.getMeanNanos() / 1e3, histogram.getPercentileNanos(0.5) / 1e3,
+                histogram.getPercentileNanos(0.99) / 1e3, histogram.getMaxNanos() / 1e3));
+        out.flush();
+        return text.toString();
+    }
+
+    public void dumpTo(Path file) throws IOException {
+        Files.write(file, dump().getBytes(StandardCharsets.UTF_8));
+    }
+
+    //Upisuje metrike u fajl iz METRICS_FILE_PROPERTY, ako je podešen
+    public void dumpOnExit() {
+        String file = System.getProperty(METRICS_FILE_PROPERTY);
+        if (file == null) {
+            return;
+        }
+        try {
+            dumpTo(Path.of(file));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    //Histogram trajanja sa korpama po stepenima dvojke - korpa i sadrži trajanja od 2^i do 2^(i+1) - 1 nanosekundi
+    //Upis je jedan numberOfLeadingZeros i jedno sabiranje, bez alokacija i bez zaključavanja
+    //Percentil je zato gornja granica korpe, tj. tačan do na faktor 2, što je dovoljno za traženje zastoja
+    public static final class Histogram {
+
+        private final LongAdder[] buckets = new LongAdder[Long.SIZE];
+        private final LongAdder total = new LongAdder();
+        private volatile long max;
+
+        Histogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets[Long.SIZE - Long.numberOfLeadingZeros(value) - (value == 0 ? 0 : 1)].increment();
+            total.add(value);
+            if (value > max) {
+                synchronized (this) {
+                    if (value > max) {
+                        max = value;
+                    }
+                }
+            }
+        }
+
+        public long getCount() {
+            long count = 0;
+            for (LongAdder bucket : buckets) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+
+        public double getMeanNanos() {
+            long count = getCount();
+            return count == 0 ? 0 : (double) total.sum() / count;
+        }
+
+        public long getMaxNanos() {
+            return max;
+        }
+
+        //Gornja granica korpe u kojoj je dati percentil (0-1), ali ne veća od najvećeg upisanog trajanja
+        public long getPercentileNanos(double percentile) {
+            long count = getCount();
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i].sum();
+                if (seen >= Math.max(1, rank)) {
+                    long upper = i >= Long.SIZE - 2 ? Long.MAX_VALUE : (2L << i) - 1;
+                    return Math.min(upper, max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+//Ponovno igranje partije iz dnevnika poteza (MoveJournal)
+//Tabla se pravi iz istog seed-a, pa se događaji primenjuju redom kroz ista pravila igre (Board)
+//Nema JavaFX-a ni alokacija po potezu, pa se hiljade partija mogu odigrati u sekundi, npr. za proveru prijavljenog rezultata
+public final class GameReplay {
+
+    private final int rows;
+    private final int columns;
+    private final long seed;
+    private final boolean seeded;
+    private final long[] events;
+
+    GameReplay(int rows, int columns, long seed, boolean seeded, long[] events) {
+        this.rows = rows;
+        this.columns = columns;
+        this.seed = seed;
+        this.seeded = seeded;
+        this.events = events;
+    }
+
+    //Čita dnevnik iz fajla koji je pisao MoveJournal.openFile
+    //Nepotpun poslednji događaj (npr. igra je prekinuta usred upisa) se preskače
+    public static GameReplay read(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < MoveJournal.FILE_HEADER_LENGTH || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid journal file size: " + size + " bytes");
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // čita se dok se bafer ne popuni
+            }
+            buffer.flip();
+        }
+        if (buffer.getInt() != MoveJournal.FILE_MAGIC) {
+            throw new IOException("Not a PathMaster journal file");
+        }
+        int rows = buffer.getInt();
+        int columns = buffer.getInt();
+        boolean seeded = buffer.get() != 0;
+        long seed = buffer.getLong();
+        if (rows <= 0 || columns <= 0 || (long) rows * columns > Integer.MAX_VALUE) {
+            throw new IOException("Invalid board size " + rows + "x" + columns);
+        }
+        long[] events = new long[buffer.remaining() / Long.BYTES];
+        buffer.asLongBuffer().get(events);
+        return new GameReplay(rows, columns, seed, seeded, events);
+    }
+
+    //Pravi tablu iz seed-a i odigrava ceo dnevnik
+    public Board play() {
+        if (!seeded) {
+            throw new IllegalStateException("Journal board has no seed, use play(Board) with the original board");
+        }
+        return play(Board.generate(rows, columns, seed));
+    }
+
+    //Odigrava dnevnik na datoj tabli (mora biti na početnom stanju), npr. za table bez seed-a
+    //Događaj koji pravila igre ne dozvoljavaju znači da dnevnik ne odgovara tabli
+    public Board play(Board board) {
+        if (board.getRows() != rows || board.getColumns() != columns) {
+            throw new IllegalArgumentException("Journal is for a " + rows + "x" + columns + " board");
+        }
+        int[] redoStack = new int[board.getCellCount()];
+        int redoSize = 0;
+        for (int i = 0; i < events.length; i++) {
+            int event = MoveJournal.eventOf(events[i]);
+            boolean valid;
+            if (event == MoveJournal.UNDO) {
+                int index = board.undo();
+                valid = index != Board.NO_CELL;
+                if (valid) {
+                    redoStack[redoSize++] = index;
+                }
+            } else if (event == MoveJournal.REDO) {
+                valid = redoSize > 0 && board.move(redoStack[--redoSize]).isAccepted();
+            } else if (event == MoveJournal.RESET) {
+                board.reset();
+                redoSize = 0;
+                valid = true;
+            } else {
+                valid = board.move(event).isAccepted();
+                redoSize = 0;
+            }
+            if (!valid) {
+                throw new IllegalArgumentException("Journal event " + i + " (" + event + ") is not valid on this board");
+            }
+        }
+        return board;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public int getEventCount() {
+        return events.length;
+    }
+
+    public long getEvent(int i) {
+        return events[i];
+    }
+
+    //Proteklo vreme partije u milisekundama, po poslednjem događaju
+    public long getDurationMillis() {
+        return events.length == 0 ? 0 : MoveJournal.timeOf(events[events.length - 1]);
+    }
+
+    //Odigrava dnevnike iz komandne linije i ispisuje rezultat svake partije, npr. za proveru prijave "rezultat nije tačan"
+    public static void main(String[] args) {
+        for (String arg : args) {
+            try {
+                GameReplay replay = read(Paths.get(arg));
+                Board board = replay.play();
+                System.out.printf("%s: %dx%d seed=%d events=%d time=%dms steps=%d sum=%d score=%d finished=%b%n",
+                        arg, replay.getRows(), replay.getColumns(), replay.getSeed(), replay.getEventCount(),
+                        replay.getDurationMillis(), board.getSteps(), board.getSum(), board.calculateScore(),
+                        board.isFinished());
+            } catch (IOException | RuntimeException e) {
+                System.out.println(arg + ": " + e.getMessage());
+            }
+        }
+    }
+}
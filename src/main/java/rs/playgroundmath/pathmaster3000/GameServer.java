@@ -0,0 +1,228 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+//Server bez JavaFX-a - pravila igre (Board) preko tekstualnog protokola na TCP ili Unix socket-u
+//Protokol je opisan u ServerSession klasi, a LoadGenerator je klijent za merenje na localhost-u
+//
+//Svaka veza ima svoju nit koja blokira na čitanju: na Javi 21+ to je virtuelna nit, pa hiljade veza košta malo memorije,
+//a na starijim verzijama obična nit iz keširanog pool-a (virtuelne niti se traže preko refleksije, jer se projekat
+//prevodi za Javu 17)
+//Komande se čitaju u paketima: sve linije koje su stigle jednim čitanjem se izvrše, pa se svi odgovori pošalju jednim
+//upisom - klijent koji šalje više komandi bez čekanja (pipelining) tako dobija više poteza po sistemskom pozivu
+public final class GameServer implements Closeable {
+
+    public static final int DEFAULT_PORT = 7373;
+    private static final int BUFFER_SIZE = 8192;
+    private static final long STATS_INTERVAL_SECONDS = 10;
+    private static final byte[] LINE_TOO_LONG = "ERR line too long\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ServerSocketChannel serverChannel;
+    private final Path unixSocket;
+    private final ExecutorService connections = newConnectionExecutor("pathmaster-connection");
+    private final LongAdder moves = new LongAdder();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private volatile boolean closed;
+
+    //TCP server na datoj adresi
+    public GameServer(InetSocketAddress address) throws IOException {
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(address);
+        this.unixSocket = null;
+    }
+
+    //Server na Unix socket-u - stari fajl socket-a se briše pre pokretanja i posle zatvaranja
+    public GameServer(Path socketFile) throws IOException {
+        Files.deleteIfExists(socketFile);
+        this.serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        this.serverChannel.bind(UnixDomainSocketAddress.of(socketFile));
+        this.unixSocket = socketFile;
+    }
+
+    public SocketAddress getAddress() throws IOException {
+        return serverChannel.getLocalAddress();
+    }
+
+    //Prima veze dok se server ne zatvori, svaka veza dobija svoju nit
+    public void serve() throws IOException {
+        while (!closed) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            }
+            if (unixSocket == null) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+            connections.execute(() -> handle(channel));
+        }
+    }
+
+    //Čita linije dok klijent ne zatvori vezu ili ne pošalje QUIT
+    //Linija duža od ulaznog bafera je greška u protokolu i veza se zatvara
+    private void handle(SocketChannel channel) {
+        openConnections.incrementAndGet();
+        ServerSession session = new ServerSession();
+        ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+        long countedMoves = 0;
+        try (channel) {
+            while (!session.isClosed() && channel.read(in) >= 0) {
+                in.flip();
+                int lineStart = in.position();
+                for (int i = lineStart; i < in.limit() && !session.isClosed(); i++) {
+                    if (in.get(i) != '\n') {
+                        continue;
+                    }
+                    int required = session.maxResponseLength();
+                    if (out.remaining() < required) {
+                        flush(channel, out);
+                        if (out.capacity() < required) {
+                            out = ByteBuffer.allocate(required);
+                        }
+                    }
+                    session.execute(in, lineStart, i, out);
+                    lineStart = i + 1;
+                }
+                in.position(lineStart);
+                in.compact();
+                if (!in.hasRemaining()) {
+                    //Odgovori na prethodne linije mogu da popune out, pa se šalju pre poruke o grešci
+                    flush(channel, out);
+                    out.put(LINE_TOO_LONG);
+                    flush(channel, out);
+                    break;
+                }
+                flush(channel, out);
+                //Brojač se menja jednom po paketu komandi, a ne po potezu
+                long sessionMoves = session.getMoves();
+                moves.add(sessionMoves - countedMoves);
+                countedMoves = sessionMoves;
+            }
+        } catch (IOException e) {
+            //Klijent koji prekine vezu nije greška servera
+            if (!closed && channel.isOpen()) {
+                e.printStackTrace();
+            }
+        } finally {
+            openConnections.decrementAndGet();
+        }
+    }
+
+    private static void flush(SocketChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    //Ukupan broj MOVE komandi od pokretanja servera
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverChannel.close();
+        connections.shutdownNow();
+        if (unixSocket != null) {
+            Files.deleteIfExists(unixSocket);
+        }
+    }
+
+    //Jedna virtuelna nit po zadatku na Javi 21+, inače keširani pool daemon niti
+    static ExecutorService newConnectionExecutor(String threadName) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, threadName + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    //Server iz komandne linije:
+    //  GameServer [--port N] [--bind adresa] [--unix putanja]
+    //Podrazumevano sluša samo na localhost-u; svakih 10 sekundi ispisuje broj veza i poteza u sekundi
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        String bind = null;
+        String unix = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--bind":
+                    bind = args[i + 1];
+                    break;
+                case "--unix":
+                    unix = args[i + 1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        GameServer server = unix != null ? new GameServer(Paths.get(unix))
+                : new GameServer(new InetSocketAddress(bind != null ? InetAddress.getByName(bind) : InetAddress.getLoopbackAddress(), port));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }));
+
+        ScheduledExecutorService stats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pathmaster-server-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long[] lastMoves = new long[1];
+        stats.scheduleAtFixedRate(() -> {
+            long total = server.getMoves();
+            if (total != lastMoves[0] || server.getOpenConnections() > 0) {
+                System.out.printf("connections %d, moves/s %.0f%n", server.getOpenConnections(),
+                        (total - lastMoves[0]) / (double) STATS_INTERVAL_SECONDS);
+                lastMoves[0] = total;
+            }
+        }, STATS_INTERVAL_SECONDS, STATS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        System.out.println("PathMaster server listening on " + server.getAddress());
+        server.serve();
+    }
+}
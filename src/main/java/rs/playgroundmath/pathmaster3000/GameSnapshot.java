@@ -0,0 +1,42 @@
+package rs.playgroundmath.pathmaster3000;
+
+//Nepromenljiv snimak igre koji se pravi na JavaFX niti i predaje niti za čuvanje (Autosaver)
+//Polja table se ne kopiraju - deli se tabla bez putanje (layout), koja se posle kreiranja nikada ne menja
+//Kopira se samo putanja, pa snimak košta O(dužina putanje) i ne zavisi od veličine table
+//Tabla sa putanjom se ponovo gradi tek na niti za čuvanje (toSavedGame)
+public final class GameSnapshot {
+
+    private final Board layout;
+    private final int[] path;
+    private final int timeElapsed;
+    private final String pathColor;
+    private final String gameColor;
+
+    //layout mora biti tabla na kojoj se ništa ne igra, npr. board.freshCopy()
+    public GameSnapshot(Board layout, int[] path, int timeElapsed, String pathColor, String gameColor) {
+        this.layout = layout;
+        this.path = path;
+        this.timeElapsed = timeElapsed;
+        this.pathColor = pathColor;
+        this.gameColor = gameColor;
+    }
+
+    //Nova tabla sa putanjom iz snimka - potezi se ponovo odigravaju po pravilima igre
+    public SavedGame toSavedGame() {
+        Board board = layout.freshCopy();
+        for (int i = 1; i < path.length; i++) {
+            if (!board.move(path[i]).isAccepted()) {
+                throw new IllegalStateException("Invalid move " + i + " in snapshot path");
+            }
+        }
+        return new SavedGame(board, timeElapsed, pathColor, gameColor);
+    }
+
+    public int getPathLength() {
+        return path.length;
+    }
+
+    public int getTimeElapsed() {
+        return timeElapsed;
+    }
+}
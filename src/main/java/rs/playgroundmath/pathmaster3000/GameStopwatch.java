@@ -0,0 +1,58 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.util.function.LongSupplier;
+
+//Vreme jedne partije, bez JavaFX-a
+//Vreme se ne uvećava po otkucaju, nego se računa iz monotonog sata (System.nanoTime):
+//proteklo vreme = vreme iz prethodnih perioda + (sada - početak tekućeg perioda)
+//Zato zaustavljena štoperica ne košta ništa, a kašnjenje otkucaja ne menja izmereno vreme
+public final class GameStopwatch {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final LongSupplier clock;
+    //Vreme iz završenih perioda (pre poslednjeg pokretanja)
+    private long accumulatedNanos;
+    private long startedAt;
+    private boolean running;
+
+    public GameStopwatch() {
+        this(System::nanoTime);
+    }
+
+    public GameStopwatch(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public void start() {
+        if (!running) {
+            startedAt = clock.getAsLong();
+            running = true;
+        }
+    }
+
+    public void stop() {
+        if (running) {
+            accumulatedNanos += clock.getAsLong() - startedAt;
+            running = false;
+        }
+    }
+
+    //Postavlja proteklo vreme, npr. 0 za novu igru ili sačuvano vreme za učitanu igru; štoperica ostaje zaustavljena
+    public void reset(long elapsedSeconds) {
+        running = false;
+        accumulatedNanos = elapsedSeconds * NANOS_PER_SECOND;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getElapsedNanos() {
+        return running ? accumulatedNanos + clock.getAsLong() - startedAt : accumulatedNanos;
+    }
+
+    public long getElapsedSeconds() {
+        return getElapsedNanos() / NANOS_PER_SECOND;
+    }
+}
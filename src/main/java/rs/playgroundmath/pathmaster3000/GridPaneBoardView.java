@@ -0,0 +1,271 @@
+package rs.playgroundmath.pathmaster3000;
+
+import javafx.collections.ObservableList;
+import javafx.css.PseudoClass;
+import javafx.event.ActionEvent;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Region;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+//Klasičan prikaz table - jedno dugme po polju u GridPane-u
+//Izgled polja je u board.css: polja imaju CSS klase (cell, start, end), a polja putanje pseudo klasu :path
+//Zato potez menja samo pseudo klasu jednog dugmeta, a promena boja je jedan stil na korenu table
+//U sesiji sa više tabli dugmići se uzimaju iz zajedničkog CellNodePool-a, a board.css je jednom na korenu sesije
+//
+//Nova tabla (restart, nova veličina, novi Start/End) ne pravi novi prikaz - postojeći dugmići dobijaju nove vrednosti
+//(bind), a dodaju se ili uklanjaju samo dugmići za razliku u broju polja
+//Klikovi se ne hvataju na svakom dugmetu, nego jednim handler-om na GridPane-u: ActionEvent dugmeta putuje do
+//GridPane-a, a polje se računa iz reda i kolone dugmeta
+//Prevlačenje i strelice se hvataju filterima na GridPane-u i idu kroz SegmentInput, a polje ispod miša se
+//dobija iz rezultata pick-a, pa dugmići nemaju ni handler-e ni drag događaje po polju
+public class GridPaneBoardView implements BoardView {
+
+    static final String STYLESHEET = GridPaneBoardView.class.getResource("board.css").toExternalForm();
+    private static final PseudoClass PATH = PseudoClass.getPseudoClass("path");
+    private static final PseudoClass HINT = PseudoClass.getPseudoClass("hint");
+
+    private Board board;
+    private final GridPane grid;
+    private DirtyCellQueue dirtyCells;
+    private int hintCell = Board.NO_CELL;
+    //Zajednički skup dugmića, null ako prikaz pravi svoje dugmiće
+    private final CellNodePool nodePool;
+    private IntConsumer clickHandler;
+    private final SegmentInput segmentInput = new SegmentInput(this::flushCells);
+    //Otpuštanje tastera posle prevlačenja nije klik - ActionEvent dugmeta se tada preskače
+    private boolean suppressAction;
+
+    public GridPaneBoardView(Board board) {
+        this(board, null);
+    }
+
+    public GridPaneBoardView(Board board, CellNodePool nodePool) {
+        this.nodePool = nodePool;
+        this.grid = new GridPane();
+        createGrid();
+        bind(board);
+    }
+
+    //Ova metoda podešava grid koji se prikazuje na ekranu
+    //grid je zapravo layout koji će se prikazati na ekranu, a dugmići se dodaju u bind
+    private void createGrid() {
+        grid.setHgap(5);
+        grid.setVgap(5);
+        grid.setAlignment(Pos.CENTER);
+        if (nodePool == null) {
+            grid.getStylesheets().add(STYLESHEET);
+        }
+        grid.getStyleClass().add("board");
+        grid.addEventHandler(ActionEvent.ACTION, this::onAction);
+        grid.addEventFilter(MouseEvent.MOUSE_PRESSED, this::onMousePressed);
+        grid.addEventFilter(MouseEvent.MOUSE_DRAGGED, this::onMouseDragged);
+        grid.addEventFilter(MouseEvent.MOUSE_RELEASED, this::onMouseReleased);
+        grid.addEventFilter(KeyEvent.KEY_PRESSED, this::onKeyPressed);
+    }
+
+    //Povezuje prikaz sa tablom - postojeći dugmići se prepisuju, a dodaje se ili uklanja samo razlika u broju polja
+    //Dugmići su u listi red po red, pa je indeks dugmeta u listi isti kao indeks polja u Board modelu
+    @Override
+    public void bind(Board board) {
+        int cellCount = board.getCellCount();
+        if (dirtyCells != null) {
+            dirtyCells.cancel();
+        }
+        if (this.board == null || this.board.getCellCount() != cellCount) {
+            dirtyCells = new DirtyCellQueue(cellCount, this::updateCell);
+        }
+        this.board = board;
+        hintCell = Board.NO_CELL;
+        segmentInput.bind(board);
+
+        ObservableList<Node> children = grid.getChildren();
+        if (children.size() > cellCount) {
+            if (nodePool != null) {
+                for (int index = cellCount; index < children.size(); index++) {
+                    nodePool.release((Button) children.get(index));
+                }
+            }
+            children.remove(cellCount, children.size());
+        } else if (children.size() < cellCount) {
+            //Novi dugmići se dodaju jednom promenom liste, a ne jedan po jedan
+            List<Button> added = new ArrayList<>(cellCount - children.size());
+            for (int index = children.size(); index < cellCount; index++) {
+                added.add(newButton());
+            }
+            children.addAll(added);
+        }
+
+        // Svako polje dobija red, kolonu, tekst i CSS klase iz modela
+        // U igri crveno i zeleno polje su Start i End, za njih se ne ispisuje broj
+        for (int index = 0; index < cellCount; index++) {
+            bindCell(index);
+        }
+    }
+
+    private void bindCell(int index) {
+        Button button = getButton(index);
+        GridPane.setConstraints(button, board.columnOf(index), board.rowOf(index));
+        ObservableList<String> styleClass = button.getStyleClass();
+        styleClass.removeAll("start", "end");
+        if (board.isStart(index)) {
+            button.setText("Start");
+            styleClass.add("start");
+        } else if (board.isEnd(index)) {
+            button.setText("End");
+            styleClass.add("end");
+        } else {
+            button.setText(String.valueOf(board.getValue(index)));
+        }
+        button.pseudoClassStateChanged(PATH, board.isVisited(index) && !board.isStart(index));
+        button.pseudoClassStateChanged(HINT, false);
+    }
+
+    @Override
+    public Region getNode() {
+        return grid;
+    }
+
+    //Handler se samo pamti - svi klikovi idu kroz jedan handler na GridPane-u (onAction)
+    @Override
+    public void setOnCellClicked(IntConsumer handler) {
+        this.clickHandler = handler;
+    }
+
+    @Override
+    public void setOnSegment(SegmentHandler handler) {
+        segmentInput.setHandler(handler);
+    }
+
+    private void onAction(ActionEvent event) {
+        if (suppressAction) {
+            suppressAction = false;
+            return;
+        }
+        if (clickHandler == null || !(event.getTarget() instanceof Button)) {
+            return;
+        }
+        Button button = (Button) event.getTarget();
+        Integer row = GridPane.getRowIndex(button);
+        Integer column = GridPane.getColumnIndex(button);
+        if (row != null && column != null) {
+            clickHandler.accept(board.index(row, column));
+        }
+    }
+
+    private void onMousePressed(MouseEvent event) {
+        suppressAction = false;
+        if (event.getButton() == MouseButton.PRIMARY) {
+            segmentInput.press(cellUnder(event));
+        }
+    }
+
+    private void onMouseDragged(MouseEvent event) {
+        if (event.isPrimaryButtonDown()) {
+            segmentInput.drag(cellUnder(event));
+        }
+    }
+
+    private void onMouseReleased(MouseEvent event) {
+        if (event.getButton() == MouseButton.PRIMARY) {
+            suppressAction = segmentInput.release();
+        }
+    }
+
+    private void onKeyPressed(KeyEvent event) {
+        suppressAction = false;
+        if (segmentInput.keyPressed(event)) {
+            event.consume();
+        }
+    }
+
+    //Polje ispod miša - tokom prevlačenja događaj ide dugmetu na kom je taster pritisnut,
+    //ali pick rezultat je čvor ispod miša (dugme ili tekst u njemu)
+    private int cellUnder(MouseEvent event) {
+        Node node = event.getPickResult().getIntersectedNode();
+        while (node != null && node.getParent() != grid) {
+            node = node.getParent();
+        }
+        if (!(node instanceof Button)) {
+            return Board.NO_CELL;
+        }
+        Integer row = GridPane.getRowIndex(node);
+        Integer column = GridPane.getColumnIndex(node);
+        return row == null || column == null ? Board.NO_CELL : board.index(row, column);
+    }
+
+    //Polja promenjena segmentom se iscrtavaju odmah, u istom pulsu u kom je segment primenjen
+    private void flushCells() {
+        dirtyCells.flush();
+    }
+
+    @Override
+    public void cellChanged(int index) {
+        dirtyCells.mark(index);
+    }
+
+    //Boje su CSS promenljive, pa se tema primenjuje samo na koren table, bez prolaska kroz polja
+    @Override
+    public void applyTheme(BoardTheme theme) {
+        grid.setStyle(theme.toStyle());
+        if (theme.hasGameColor()) {
+            if (!grid.getStyleClass().contains("game-colored")) {
+                grid.getStyleClass().add("game-colored");
+            }
+        } else {
+            grid.getStyleClass().remove("game-colored");
+        }
+    }
+
+    //Predlog se prikazuje pseudo klasom :hint na jednom dugmetu
+    @Override
+    public void showHint(int index) {
+        if (hintCell != Board.NO_CELL) {
+            getButton(hintCell).pseudoClassStateChanged(HINT, false);
+        }
+        hintCell = index;
+        if (index != Board.NO_CELL) {
+            getButton(index).pseudoClassStateChanged(HINT, true);
+        }
+    }
+
+    //Dugmići uklonjeni iz mreže se vraćaju u skup, da ih uzme sledeća tabla
+    @Override
+    public void release() {
+        dirtyCells.cancel();
+        segmentInput.cancel();
+        if (nodePool != null) {
+            for (Node child : grid.getChildren()) {
+                nodePool.release((Button) child);
+            }
+        }
+        grid.getChildren().clear();
+    }
+
+    private Button newButton() {
+        if (nodePool != null) {
+            return nodePool.acquire();
+        }
+        Button button = new Button();
+        button.setPrefSize(50, 50);
+        button.getStyleClass().add("cell");
+        return button;
+    }
+
+    //Poziva se iz DirtyCellQueue jednom po pulsu, samo za promenjena polja
+    private void updateCell(int index) {
+        getButton(index).pseudoClassStateChanged(PATH, board.isVisited(index) && !board.isStart(index));
+    }
+
+    private Button getButton(int index) {
+        return (Button) grid.getChildren().get(index);
+    }
+}
@@ -1,26 +1,70 @@
 package rs.playgroundmath.pathmaster3000;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.Label;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
+import javafx.scene.control.TextInputDialog;
+import javafx.scene.input.KeyCombination;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
-import java.io.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class HelloApplication extends Application {
     // Konstante - FINAL polje označava da se vrednost ne može menjati
     private static final int DEFAULT_GRID_SIZE = 5;
-    // Polje koje označava veličinu mape
-    private int gridSize = DEFAULT_GRID_SIZE;
+    private static final int MAX_GRID_SIZE = 4096;
+    // Najveća tabla koja se crta dugmićima u GridPane-u - veće table se uvek crtaju na Canvas-u
+    private static final int MAX_GRID_PANE_CELLS = 64 * 64;
+    private static final Pattern GRID_SIZE_PATTERN = Pattern.compile("(\\d{1,4})\\s*[xX]\\s*(\\d{1,4})");
+    // Beskrajna tabla može imati do Integer.MAX_VALUE redova i kolona, jer se nikada ne pravi cela (EndlessBoard)
+    private static final Pattern ENDLESS_SIZE_PATTERN = Pattern.compile("(\\d{1,10})\\s*[xX]\\s*(\\d{1,10})");
+    private static final String DEFAULT_ENDLESS_SIZE = "1000000x1000000";
+    // Fajl rang liste, podrazumevano ~/.pathmaster3000/leaderboard.pml, a može se promeniti sa -Dpathmaster.leaderboard=...
+    private static final String LEADERBOARD_PROPERTY = "pathmaster.leaderboard";
+    private static final int LEADERBOARD_SHOWN = 10;
+    // Ako je podešen (-Dpathmaster.analysisCache=...), keš analiza se čuva u fajl i učitava pri sledećem pokretanju
+    private static final String ANALYSIS_CACHE_PROPERTY = "pathmaster.analysisCache";
+    private static final long ANALYSIS_CACHE_BYTES = 16L * 1024 * 1024;
+    // Režim za brzo pokretanje (-Dpathmaster.fastStartup=true, podešeno u profilu fast-startup u pom.xml):
+    // prva tabla se pravi iz unapred izabranog seed-a umesto nasumično
+    private static final String FAST_STARTUP_PROPERTY = "pathmaster.fastStartup";
+    private static final String FIRST_BOARD_SEED_PROPERTY = "pathmaster.firstBoardSeed";
+    private static final long FIRST_BOARD_SEED = 7;
+    // Folder za automatsko čuvanje, podrazumevano ~/.pathmaster3000/autosave, a može se promeniti sa -Dpathmaster.autosaveDir=...
+    private static final String AUTOSAVE_PROPERTY = "pathmaster.autosaveDir";
+    private static final int AUTOSAVE_GENERATIONS = 3;
+    // Sesija sa više tabli (npr. zid od 16 tabli za trening)
+    private static final int DEFAULT_SESSION_BOARDS = 16;
+    private static final int MAX_SESSION_BOARDS = 256;
+    // Polja koja označavaju veličinu mape - broj redova i kolona
+    private int gridRows = DEFAULT_GRID_SIZE;
+    private int gridColumns = DEFAULT_GRID_SIZE;
+    // Način iscrtavanja table - dugmići u GridPane-u ili Canvas za velike table
+    private RenderMode renderMode = RenderMode.GRID_PANE;
+    // Stavka menija za Canvas, prati renderMode i kada se režim promeni automatski zbog veličine table
+    private CheckMenuItem canvasRendererItem;
     // Polje koje če imati instanciranu vrednost GameGrid klase
     private GameGrid gameGrid;
     // Polje koje če imati instanciranu vrednost GameController klase
@@ -29,6 +73,14 @@ public class HelloApplication extends Application {
     private BorderPane root;
     // Polje koje če imati instanciranu vrednost Label klase
     private Label statsLabel;
+    // Lokalna rang lista završenih partija, null ako fajl ne može da se otvori
+    private Leaderboard leaderboard;
+    // Keš najboljih rezultata i predloga poteza, zajednički za sve partije
+    private AnalysisCache analysisCache;
+    // Automatsko čuvanje igre u pozadini, null ako folder ne može da se napravi
+    private Autosaver autosaver;
+    // Otvorene sesije sa više tabli, svaka u svom prozoru
+    private final List<SessionManager> sessions = new ArrayList<>();
     // Random klasa se koristi za generisanje random vrednosti poput ranom brojeva (nextInt() itd)
     private final Random random = new Random();
 
@@ -37,32 +89,170 @@ public class HelloApplication extends Application {
     }
 
     // Metoda koja se poziva kada se pokrene aplikacija
-    // Iscrtava se ekran i se inicijalizira igra
+    // Prozor se prikazuje odmah, prazan, a sve ostalo se radi posle prvog frejma, da korisnik što pre vidi prozor:
+    // prvo tabla (posle toga je igra interaktivna), pa tek onda meni, rang lista i keš analiza
+    // Vreme do svakog koraka se meri od starta JVM-a (StartupTimer)
     @Override
     public void start(Stage primaryStage) {
+        StartupTimer startup = new StartupTimer();
         primaryStage.setTitle("PathMaster 3000");
 
         root = new BorderPane();
-        initializeGame();
-
-        MenuBar menuBar = createMenu(primaryStage);
-        root.setTop(menuBar);
-
         Scene scene = new Scene(root, 500, 600);
         primaryStage.setScene(scene);
         primaryStage.show();
+        startup.stageShown();
+
+        StartupTimer.afterNextFrame(() -> {
+            startup.firstFrame();
+            initializeGame(firstBoard());
+            StartupTimer.afterNextFrame(() -> {
+                startup.interactive();
+                root.setTop(createMenu(primaryStage));
+                openLeaderboard();
+                loadAnalysisCache();
+                gameController.setLeaderboard(leaderboard);
+                gameController.setAnalysisCache(analysisCache);
+                // Snimak od prethodnog pokretanja se čita pre nego što nova igra prepiše generacije
+                // Pitanje se prikazuje posle pulsa, jer showAndWait nije dozvoljen tokom animacije
+                SavedGame recovered = openAutosaver();
+                if (recovered != null) {
+                    Platform.runLater(() -> offerRecovery(recovered));
+                } else if (autosaver != null) {
+                    gameController.setAutosaver(autosaver);
+                }
+            });
+        });
+    }
+
+    // Prva tabla - u režimu brzog pokretanja iz unapred izabranog seed-a, inače nasumična kao i svaka sledeća
+    private GameGrid firstBoard() {
+        if (!Boolean.getBoolean(FAST_STARTUP_PROPERTY)) {
+            return new GameGrid(gridRows, gridColumns, renderMode);
+        }
+        long seed = Long.getLong(FIRST_BOARD_SEED_PROPERTY, FIRST_BOARD_SEED);
+        return new GameGrid(Board.generate(gridRows, gridColumns, seed), renderMode);
+    }
+
+
+    // Poziva se kada se aplikacija zatvara - gasi se timer i dnevnik poteza se upisuje do kraja
+    // Metrike se upisuju u fajl ako je podešen -Dpathmaster.metricsFile=...
+    @Override
+    public void stop() {
+        if (gameController != null) {
+            gameController.dispose();
+        }
+        if (autosaver != null) {
+            autosaver.close();
+        }
+        for (SessionManager session : sessions) {
+            session.dispose();
+        }
+        if (leaderboard != null) {
+            try {
+                leaderboard.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        saveAnalysisCache();
+        GameMetrics.getInstance().dumpOnExit();
+    }
+
+    private void loadAnalysisCache() {
+        String file = System.getProperty(ANALYSIS_CACHE_PROPERTY);
+        analysisCache = new AnalysisCache(ANALYSIS_CACHE_BYTES);
+        if (file != null) {
+            try {
+                analysisCache = AnalysisCache.load(Paths.get(file), ANALYSIS_CACHE_BYTES);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void saveAnalysisCache() {
+        String file = System.getProperty(ANALYSIS_CACHE_PROPERTY);
+        if (file != null && analysisCache != null) {
+            try {
+                analysisCache.save(Paths.get(file));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // Otvara folder za automatsko čuvanje i vraća nezavršenu igru iz prethodnog pokretanja, ako je ima
+    // Snimak postoji samo ako se aplikacija prethodno nije ispravno zatvorila (Autosaver briše snimke u close)
+    private SavedGame openAutosaver() {
+        String property = System.getProperty(AUTOSAVE_PROPERTY);
+        Path directory = property != null ? Paths.get(property)
+                : Paths.get(System.getProperty("user.home"), ".pathmaster3000", "autosave");
+        try {
+            autosaver = new Autosaver(directory, AUTOSAVE_GENERATIONS);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        SavedGame recovered = autosaver.recover();
+        return recovered != null && !recovered.getBoard().isFinished() ? recovered : null;
+    }
+
+    // Nudi nastavak igre sačuvane pre pada aplikacije - ako igrač odbije, snimci se brišu i nastavlja se nova igra
+    private void offerRecovery(SavedGame recovered) {
+        Board board = recovered.getBoard();
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Restore Game");
+        alert.setHeaderText("PathMaster 3000 did not close properly last time.");
+        alert.setContentText(String.format("Restore the autosaved %dx%d game (%d steps, %ds)?",
+                board.getRows(), board.getColumns(), board.getSteps(), recovered.getTimeElapsed()));
+        if (alert.showAndWait().filter(ButtonType.OK::equals).isPresent()) {
+            startSavedGame(recovered);
+        } else {
+            autosaver.discard();
+            gameController.setAutosaver(autosaver);
+        }
     }
 
+    // Otvara rang listu - ako ne uspe, igra radi i bez nje
+    private void openLeaderboard() {
+        String property = System.getProperty(LEADERBOARD_PROPERTY);
+        Path file = property != null ? Paths.get(property)
+                : Paths.get(System.getProperty("user.home"), ".pathmaster3000", "leaderboard.pml");
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            leaderboard = Leaderboard.open(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 
     //Metoda koja inicira igru
     private void initializeGame() {
-        //Kreira se grid instanca, odnosno obekat klase GameGrid i prosledjuje se vrednost gridSize
-        // odnosno veličina mape
-        gameGrid = new GameGrid(gridSize);
+        //Kreira se grid instanca, odnosno obekat klase GameGrid i prosledjuje se veličina mape
+        // i način iscrtavanja
+        initializeGame(new GameGrid(gridRows, gridColumns, renderMode));
+    }
+
+    //Inicira igru na datoj tabli
+    private void initializeGame(GameGrid grid) {
+        gameGrid = grid;
+
+        //Prethodni kontroler se gasi - zaustavlja se njegov timer i zatvara dnevnik poteza
+        if (gameController != null) {
+            gameController.dispose();
+        }
 
         //Kreira se instanca klase GameController
         // Prosljeđuje se gameGrid odnosno mreža igre kojom treba upravljati
         gameController = new GameController(gameGrid);
+        gameController.setLeaderboard(leaderboard);
+        gameController.setAnalysisCache(analysisCache);
+        if (autosaver != null) {
+            gameController.setAutosaver(autosaver);
+        }
 
         //game grid se prikazuje u centru ekrana
         root.setCenter(gameGrid.getGrid());
@@ -98,6 +288,12 @@ public class HelloApplication extends Application {
         MenuItem resizeItem = new MenuItem("Change Grid Size");
         resizeItem.setOnAction(e -> changeGridSize());
 
+        MenuItem customSizeItem = new MenuItem("Custom Grid Size...");
+        customSizeItem.setOnAction(e -> changeGridSizeCustom());
+
+        MenuItem endlessItem = new MenuItem("Endless Board...");
+        endlessItem.setOnAction(e -> openEndlessBoard());
+
         MenuItem randomizeStartEndItem = new MenuItem("Randomize Start/End");
         randomizeStartEndItem.setOnAction(e -> randomizeStartAndEnd());
 
@@ -107,7 +303,28 @@ public class HelloApplication extends Application {
         MenuItem loadGameItem = new MenuItem("Load Game");
         loadGameItem.setOnAction(e -> loadGame(primaryStage));
 
-        gameMenu.getItems().addAll(restartItem, resizeItem, randomizeStartEndItem, saveGameItem, loadGameItem);
+        //Undo i redo idu kroz dnevnik poteza trenutne partije
+        MenuItem undoItem = new MenuItem("Undo Move");
+        undoItem.setAccelerator(KeyCombination.keyCombination("Shortcut+Z"));
+        undoItem.setOnAction(e -> gameController.undo());
+
+        MenuItem redoItem = new MenuItem("Redo Move");
+        redoItem.setAccelerator(KeyCombination.keyCombination("Shortcut+Y"));
+        redoItem.setOnAction(e -> gameController.redo());
+
+        //Predlog sledećeg poteza koji ne odseca put do End polja
+        MenuItem hintItem = new MenuItem("Hint");
+        hintItem.setAccelerator(KeyCombination.keyCombination("Shortcut+H"));
+        hintItem.setOnAction(e -> gameController.showHint());
+
+        MenuItem leaderboardItem = new MenuItem("Leaderboard");
+        leaderboardItem.setOnAction(e -> showLeaderboard());
+
+        MenuItem puzzleOfTheDayItem = new MenuItem("Puzzle of the Day...");
+        puzzleOfTheDayItem.setOnAction(e -> openPuzzleOfTheDay(primaryStage));
+
+        gameMenu.getItems().addAll(restartItem, resizeItem, customSizeItem, endlessItem, randomizeStartEndItem, undoItem, redoItem,
+                hintItem, saveGameItem, loadGameItem, puzzleOfTheDayItem, leaderboardItem);
 
         Menu settingsMenu = new Menu("Settings");
 
@@ -117,15 +334,145 @@ public class HelloApplication extends Application {
         MenuItem changePathColorItem = new MenuItem("Change Path Color");
         changePathColorItem.setOnAction(e -> changePathColor());
 
-        settingsMenu.getItems().addAll(changeGameColorItem, changePathColorItem);
+        canvasRendererItem = new CheckMenuItem("Canvas Renderer");
+        canvasRendererItem.setSelected(renderMode == RenderMode.CANVAS);
+        canvasRendererItem.setOnAction(e -> changeRenderMode(canvasRendererItem.isSelected()));
+
+        settingsMenu.getItems().addAll(changeGameColorItem, changePathColorItem, canvasRendererItem);
+
+        Menu sessionMenu = new Menu("Session");
+
+        MenuItem tabSessionItem = new MenuItem("New Tabbed Session...");
+        tabSessionItem.setOnAction(e -> openSession(SessionManager.Layout.TABS));
 
-        menuBar.getMenus().addAll(gameMenu, settingsMenu);
+        MenuItem wallSessionItem = new MenuItem("New Board Wall...");
+        wallSessionItem.setOnAction(e -> openSession(SessionManager.Layout.WALL));
+
+        sessionMenu.getItems().addAll(tabSessionItem, wallSessionItem);
+
+        menuBar.getMenus().addAll(gameMenu, settingsMenu, sessionMenu);
         return menuBar;
     }
 
-    // Metoda koja restartuje igru pozivanjem initializeGame metode
+    // Otvara novi prozor sa više igara trenutne veličine table - pita se samo koliko tabli
+    // Sve igre u prozoru dele sat, stil i dugmiće (SessionManager), a komande iz menija se odnose na izabranu tablu
+    private void openSession(SessionManager.Layout layout) {
+        TextInputDialog dialog = new TextInputDialog(String.valueOf(DEFAULT_SESSION_BOARDS));
+        dialog.setTitle("New Session");
+        dialog.setHeaderText(null);
+        dialog.setContentText("Number of boards:");
+        dialog.showAndWait().ifPresent(text -> {
+            int count;
+            try {
+                count = Integer.parseInt(text.trim());
+            } catch (NumberFormatException e) {
+                return;
+            }
+            if (count < 1 || count > MAX_SESSION_BOARDS) {
+                return;
+            }
+            SessionManager session = new SessionManager(layout);
+            session.setLeaderboard(leaderboard);
+            session.setAnalysisCache(analysisCache);
+            for (int i = 0; i < count; i++) {
+                session.addGame(Board.generate(gridRows, gridColumns, random.nextLong()));
+            }
+
+            Stage stage = new Stage();
+            stage.setTitle("PathMaster 3000 - " + count + " boards");
+            BorderPane sessionRoot = new BorderPane(session.getNode());
+            sessionRoot.setTop(createSessionMenu(session));
+            stage.setScene(new Scene(sessionRoot, 1000, 800));
+            stage.setOnHidden(e -> {
+                session.dispose();
+                sessions.remove(session);
+            });
+            sessions.add(session);
+            stage.show();
+        });
+    }
+
+    // Meni prozora sesije - komande za izabranu tablu i dodavanje nove table
+    private MenuBar createSessionMenu(SessionManager session) {
+        Menu boardMenu = new Menu("Board");
+
+        MenuItem addItem = new MenuItem("Add Board");
+        addItem.setOnAction(e -> session.addGame(Board.generate(gridRows, gridColumns, random.nextLong())));
+
+        MenuItem restartItem = new MenuItem("Restart Board");
+        restartItem.setOnAction(e -> withSelectedGame(session, GameController::resetGame));
+
+        MenuItem undoItem = new MenuItem("Undo Move");
+        undoItem.setAccelerator(KeyCombination.keyCombination("Shortcut+Z"));
+        undoItem.setOnAction(e -> withSelectedGame(session, GameController::undo));
+
+        MenuItem redoItem = new MenuItem("Redo Move");
+        redoItem.setAccelerator(KeyCombination.keyCombination("Shortcut+Y"));
+        redoItem.setOnAction(e -> withSelectedGame(session, GameController::redo));
+
+        MenuItem hintItem = new MenuItem("Hint");
+        hintItem.setAccelerator(KeyCombination.keyCombination("Shortcut+H"));
+        hintItem.setOnAction(e -> withSelectedGame(session, GameController::showHint));
+
+        boardMenu.getItems().addAll(addItem, restartItem, undoItem, redoItem, hintItem);
+        return new MenuBar(boardMenu);
+    }
+
+    private static void withSelectedGame(SessionManager session, Consumer<GameController> action) {
+        SessionGame game = session.getSelectedGame();
+        if (game != null) {
+            action.accept(game.getController());
+        }
+    }
+
+    // Prikazuje najbolje rezultate za trenutnu veličinu table i za trenutnu tablu
+    private void showLeaderboard() {
+        StringBuilder text = new StringBuilder();
+        if (leaderboard == null) {
+            text.append("Leaderboard is not available.");
+        } else {
+            Board board = gameGrid.getBoard();
+            appendResults(text, "Best on " + board.getRows() + "x" + board.getColumns(),
+                    leaderboard.top(board.getRows(), board.getColumns(), LEADERBOARD_SHOWN));
+            if (board.isSeeded()) {
+                appendResults(text, "\nBest on this board",
+                        leaderboard.topForPuzzle(board.getRows(), board.getColumns(), board.getSeed(), LEADERBOARD_SHOWN));
+            }
+        }
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Leaderboard");
+        alert.setHeaderText(null);
+        alert.setContentText(text.toString());
+        alert.showAndWait();
+    }
+
+    private static void appendResults(StringBuilder text, String title, List<LeaderboardEntry> results) {
+        text.append(title).append(':');
+        if (results.isEmpty()) {
+            text.append("\n  no finished games yet");
+        }
+        for (int i = 0; i < results.size(); i++) {
+            LeaderboardEntry entry = results.get(i);
+            text.append(String.format("%n  %d. score %d  (sum %d, %d steps, %ds)", i + 1, entry.getScore(),
+                    entry.getSum(), entry.getSteps(), entry.getTimeSeconds()));
+        }
+        text.append('\n');
+    }
+
+    // Metoda koja restartuje igru - nova random tabla iste veličine
     private void restartGame() {
-        initializeGame();
+        newBoard();
+    }
+
+    // Nova tabla u postojećem prikazu i sa postojećim kontrolerom - restart je samo promena podataka:
+    // dugmići dobijaju nove vrednosti (GameGrid.regenerate), a scena se ne gradi ponovo
+    private void newBoard() {
+        if (gameGrid == null || gameController == null) {
+            initializeGame();
+            return;
+        }
+        gameGrid.regenerate(gridRows, gridColumns);
+        gameController.resetGame();
     }
 
     // Ova metoda menja veličinu mape
@@ -143,8 +490,99 @@ public class HelloApplication extends Application {
             Ove četiri linije koda su zamenjene ternarnim operatorom ? i : , u prevodu
             postavi gridSize na - ako je gridSize jednak broju 5 postavi ga na 7, inace postavi ga na 5
          */
-        gridSize = gridSize == 5 ? 7 : 5;
-        initializeGame();
+        int gridSize = gridRows == 5 ? 7 : 5;
+        gridRows = gridSize;
+        gridColumns = gridSize;
+        newBoard();
+    }
+
+    // Ova metoda pita korisnika za proizvoljnu veličinu mape u obliku "redovi x kolone", npr. 100x100
+    // Za table veće od MAX_GRID_PANE_CELLS polja Canvas Renderer se uključuje sam, pre nego što se tabla napravi
+    private void changeGridSizeCustom() {
+        TextInputDialog dialog = new TextInputDialog(gridRows + "x" + gridColumns);
+        dialog.setTitle("Custom Grid Size");
+        dialog.setHeaderText(null);
+        dialog.setContentText("Rows x Columns:");
+        dialog.showAndWait().ifPresent(text -> {
+            Matcher matcher = GRID_SIZE_PATTERN.matcher(text.trim());
+            if (!matcher.matches()) {
+                return;
+            }
+            int rows = Integer.parseInt(matcher.group(1));
+            int columns = Integer.parseInt(matcher.group(2));
+            if (rows * columns < 2 || rows > MAX_GRID_SIZE || columns > MAX_GRID_SIZE) {
+                return;
+            }
+            if (renderMode == RenderMode.GRID_PANE && isTooLargeForGridPane(rows, columns)) {
+                canvasRendererItem.setSelected(true);
+                changeRenderMode(true);
+            }
+            gridRows = rows;
+            gridColumns = columns;
+            newBoard();
+        });
+    }
+
+    private static boolean isTooLargeForGridPane(int rows, int columns) {
+        return (long) rows * columns > MAX_GRID_PANE_CELLS;
+    }
+
+    // Otvara igru na beskrajnoj tabli u novom prozoru - pita se samo veličina, npr. 1000000x1000000
+    // Delovi table se prave tek kada dođu na ekran, pa veličina ne utiče ni na memoriju ni na vreme pokretanja
+    private void openEndlessBoard() {
+        TextInputDialog dialog = new TextInputDialog(DEFAULT_ENDLESS_SIZE);
+        dialog.setTitle("Endless Board");
+        dialog.setHeaderText(null);
+        dialog.setContentText("Rows x Columns:");
+        dialog.showAndWait().ifPresent(text -> {
+            Matcher matcher = ENDLESS_SIZE_PATTERN.matcher(text.trim());
+            if (!matcher.matches()) {
+                return;
+            }
+            long rows = Long.parseLong(matcher.group(1));
+            long columns = Long.parseLong(matcher.group(2));
+            if (rows < 1 || columns < 1 || rows * columns < 2 || rows > Integer.MAX_VALUE || columns > Integer.MAX_VALUE) {
+                return;
+            }
+            EndlessGameController controller = new EndlessGameController(
+                    new EndlessBoard((int) rows, (int) columns, random.nextLong()));
+
+            Menu boardMenu = new Menu("Board");
+            MenuItem undoItem = new MenuItem("Undo Move");
+            undoItem.setAccelerator(KeyCombination.keyCombination("Shortcut+Z"));
+            undoItem.setOnAction(e -> controller.undo());
+            MenuItem restartItem = new MenuItem("Restart");
+            restartItem.setOnAction(e -> controller.restart());
+            MenuItem centerItem = new MenuItem("Center on Player");
+            centerItem.setAccelerator(KeyCombination.keyCombination("Shortcut+L"));
+            centerItem.setOnAction(e -> controller.centerOnPlayer());
+            boardMenu.getItems().addAll(undoItem, restartItem, centerItem);
+
+            VBox bottomPanel = new VBox(10, controller.getScoreLabel(), controller.getStatsLabel());
+            bottomPanel.setAlignment(Pos.CENTER);
+            BorderPane endlessRoot = new BorderPane(controller.getView().getNode());
+            endlessRoot.setTop(new MenuBar(boardMenu));
+            endlessRoot.setBottom(bottomPanel);
+
+            Stage stage = new Stage();
+            stage.setTitle("PathMaster 3000 - Endless " + rows + "x" + columns);
+            stage.setScene(new Scene(endlessRoot, 900, 750));
+            stage.setOnHidden(e -> controller.dispose());
+            stage.show();
+        });
+    }
+
+    // Ova metoda menja način iscrtavanja table, igra se nastavlja na istoj tabli
+    // Velika tabla ostaje na Canvas-u i kada se Canvas Renderer isključi
+    private void changeRenderMode(boolean canvas) {
+        if (!canvas && isTooLargeForGridPane(gameGrid.getRows(), gameGrid.getColumns())) {
+            canvasRendererItem.setSelected(true);
+            return;
+        }
+        renderMode = canvas ? RenderMode.CANVAS : RenderMode.GRID_PANE;
+        gameGrid.setRenderMode(renderMode);
+        gameController.attachView();
+        root.setCenter(gameGrid.getGrid());
     }
 
     // Metoda koja randomizuje start i end pozivanjem randomizeStartAndEnd metode а koristi se u
@@ -152,8 +590,6 @@ public class HelloApplication extends Application {
     private void randomizeStartAndEnd() {
         gameGrid.randomizeStartAndEnd();
         gameController.resetGame();
-
-        root.setCenter(gameGrid.getGrid());
     }
 
     // Metoda koja randomizuje boju igre
@@ -185,15 +621,31 @@ public class HelloApplication extends Application {
         fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Game Files", "*.game"));
         File file = fileChooser.showSaveDialog(primaryStage);
         if (file != null) {
+            GameEvents.SaveLoadEvent event = new GameEvents.SaveLoadEvent();
+            event.begin();
+            long started = System.nanoTime();
+            //Igra se čuva u binarnom formatu - tabla, putanja, vreme i boje (opis formata je u GameFile klasi)
+            //Na JavaFX niti se pravi samo snimak, a upis na disk radi nit za automatsko čuvanje
+            if (autosaver != null) {
+                autosaver.saveAs(file.toPath(), gameController.snapshot()).whenComplete((result, error) -> {
+                    if (error != null) {
+                        error.printStackTrace();
+                    } else {
+                        event.success = true;
+                    }
+                    recordSaveLoad(event, "save", file, started);
+                });
+                return;
+            }
             //Ovo je obrada izuzetaka
             //Ako čuvanje igre ne uspe i program negde pukne, ulazi se u catch blok i hvata se izuzetak
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file))) {
-                //Ako čuvanje igre uspe, objekti gameGrid i gameController se serijalizuju i čuvaju u fajlu
-                oos.writeObject(gameGrid);
-                oos.writeObject(gameController);
+            try {
+                GameFile.write(file.toPath(), gameController.toSavedGame());
+                event.success = true;
             } catch (IOException e) {
                 e.printStackTrace();
             }
+            recordSaveLoad(event, "save", file, started);
         }
     }
 
@@ -205,24 +657,78 @@ public class HelloApplication extends Application {
         fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Game Files", "*.game"));
         File file = fileChooser.showOpenDialog(primaryStage);
         if (file != null) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                // Čitaju se obekti gameGrid i gameController
-                // Ovo što stoji ispred ois.readObject() (GameGrid) i (GameController) se zove kastovanje
-                // Na primer, ako ovde dodje vrednost kao neki broj, npr 10, on nije instanca GameGrid klase
-                // Kastovanje pokušava da pretvori taj broj u instancu GameGrid klase
-                // S tim da moraš da znaš razliku izmedju primitivnih tipova i objektnih tipova
-                // int i Integer nije isto, int je primitivni tip a Integer je obekat
-                gameGrid = (GameGrid) ois.readObject();
-                gameController = (GameController) ois.readObject();
-
-                // Nakon što se učitaju objekti gameGrid i gameController, inicira se igra
-                gameGrid.reinitializeGrid();
-                gameController.reinitialize(gameGrid);
-
-                initializeLoadedGame();
-            } catch (IOException | ClassNotFoundException e) {
+            GameEvents.SaveLoadEvent event = new GameEvents.SaveLoadEvent();
+            event.begin();
+            long started = System.nanoTime();
+            SavedGame savedGame = null;
+            try {
+                // GameFile čita i nove binarne i stare Java serijalizovane .game fajlove
+                // Putanja iz fajla se ponovo odigrava po pravilima igre, pa se neispravan fajl ne može učitati
+                savedGame = GameFile.read(file.toPath());
+                event.success = true;
+            } catch (IOException e) {
                 e.printStackTrace();
             }
+            //Meri se samo čitanje i provera fajla, pravljenje prikaza table ima svoj događaj (GridBuildEvent)
+            recordSaveLoad(event, "load", file, started);
+
+            if (savedGame != null) {
+                startSavedGame(savedGame);
+            }
+        }
+    }
+
+    // Zagonetka dana iz izabranog paketa (.pack) - svaki dan je druga zagonetka, a istog dana ista za sve
+    // Paket se samo mapira u memoriju, pa se sa diska čita samo zapis izabrane zagonetke, bez obzira na veličinu paketa
+    private void openPuzzleOfTheDay(Stage primaryStage) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Open Puzzle Pack");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Puzzle Packs", "*.pack"));
+        File file = fileChooser.showOpenDialog(primaryStage);
+        if (file == null) {
+            return;
+        }
+        try {
+            PuzzlePack pack = PuzzlePack.read(file.toPath());
+            if (pack.size() == 0) {
+                return;
+            }
+            int index = (int) Math.floorMod(LocalDate.now().toEpochDay(), (long) pack.size());
+            initializeGame(new GameGrid(pack, index, renderMode));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Nakon što se učita tabla, pravi se novi grid i controller koji nastavlja igru
+    private void startSavedGame(SavedGame savedGame) {
+        Board board = savedGame.getBoard();
+        if (renderMode == RenderMode.GRID_PANE && isTooLargeForGridPane(board.getRows(), board.getColumns())) {
+            renderMode = RenderMode.CANVAS;
+            canvasRendererItem.setSelected(true);
+        }
+        gameGrid = new GameGrid(board, renderMode);
+        gameController.dispose();
+        gameController = new GameController(gameGrid, savedGame);
+        gameController.setLeaderboard(leaderboard);
+        gameController.setAnalysisCache(analysisCache);
+        if (autosaver != null) {
+            gameController.setAutosaver(autosaver);
+        }
+
+        initializeLoadedGame();
+    }
+
+    //Beleži trajanje i veličinu fajla pri čuvanju ili učitavanju (GameEvents.SaveLoadEvent, GameMetrics)
+    private void recordSaveLoad(GameEvents.SaveLoadEvent event, String operation, File file, long started) {
+        GameMetrics metrics = GameMetrics.getInstance();
+        metrics.record("file." + operation, System.nanoTime() - started);
+        metrics.increment("file." + operation + (event.success ? ".ok" : ".failed"));
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.file = file.getPath();
+            event.bytes = file.length();
+            event.commit();
         }
     }
 
@@ -0,0 +1,361 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+//Lokalna rang lista završenih partija, bez spoljne baze
+//
+//Na disku je dnevnik u koji se zapisi samo dopisuju (big-endian):
+//  int magic "PMLB", short verzija, short dužina zapisa
+//  zapisi fiksne dužine: int redovi, int kolone, long seed, byte 1 ako tabla ima seed, int rezultat, int zbir,
+//  int koraci, int vreme u sekundama, long vreme završetka, 3 bajta rezerve, int CRC32 prethodnih bajtova zapisa
+//Svaki upis se odmah sinhronizuje na disk (force), pa se završena partija ne gubi ni kada program padne
+//Zapis koji je upisan samo do pola ili ima pogrešan CRC označava kraj dnevnika i odseca se pri otvaranju
+//
+//U memoriji se za svaku veličinu table i za svaku zagonetku (tabla sa seed-om) čuva samo najboljih nekoliko rezultata
+//u TreeSet-u, pa je upis i top-K upit O(log n + K), a memorija raste sa brojem različitih tabli, ne sa brojem partija
+//Zapisi koji su ispali iz svih rang lista ostaju u dnevniku dok ih sažimanje (compact) ne izbaci
+public final class Leaderboard implements Closeable {
+
+    public static final int MAGIC = 0x504D4C42;
+    public static final int VERSION = 1;
+    static final int HEADER_LENGTH = Integer.BYTES + 2 * Short.BYTES;
+    static final int RECORD_LENGTH = 48;
+    private static final int RECORD_DATA_LENGTH = RECORD_LENGTH - Integer.BYTES;
+
+    //Koliko najboljih rezultata se čuva po veličini table, odnosno po zagonetki
+    public static final int SIZE_RETAINED = 1000;
+    public static final int PUZZLE_RETAINED = 20;
+    //Dnevnik se sažima kada je bar ovoliko zapisa, a više od polovine ih više nije ni na jednoj rang listi
+    private static final long COMPACT_MIN_RECORDS = 4096;
+
+    private final Path file;
+    private FileChannel channel;
+    //Kraj dnevnika, tu se dopisuje sledeći zapis
+    private long end;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_LENGTH);
+    private final CRC32 crc = new CRC32();
+
+    private final Map<Long, NavigableSet<LeaderboardEntry>> bySize = new HashMap<>();
+    private final NavigableSet<LeaderboardEntry> byPuzzle = new TreeSet<>(LeaderboardEntry.BY_PUZZLE);
+    //Broj zapisa u dnevniku i broj zapisa koji su na bar jednoj rang listi
+    private long records;
+    private long retained;
+    private long nextSequence;
+
+    private Leaderboard(Path file) {
+        this.file = file;
+    }
+
+    //Otvara dnevnik (pravi ga ako ne postoji) i gradi rang liste iz njega
+    public static Leaderboard open(Path file) throws IOException {
+        Leaderboard leaderboard = new Leaderboard(file);
+        leaderboard.load();
+        return leaderboard;
+    }
+
+    private void load() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < HEADER_LENGTH) {
+            //Nov ili prazan fajl (npr. pad pre nego što je zaglavlje upisano)
+            channel.truncate(0);
+            writeFully(header(), 0);
+            channel.force(true);
+            end = HEADER_LENGTH;
+            return;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        readFully(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a PathMaster leaderboard file: " + file);
+        }
+        int version = header.getShort();
+        if (version > VERSION || header.getShort() != RECORD_LENGTH) {
+            throw new IOException("Unsupported leaderboard version " + version);
+        }
+
+        ByteBuffer block = ByteBuffer.allocate(RECORD_LENGTH * 1024);
+        long position = HEADER_LENGTH;
+        boolean valid = true;
+        while (valid && position + RECORD_LENGTH <= size) {
+            block.clear();
+            block.limit((int) Math.min(block.capacity(), (size - position) / RECORD_LENGTH * RECORD_LENGTH));
+            readFully(block, position);
+            block.flip();
+            while (block.remaining() >= RECORD_LENGTH) {
+                LeaderboardEntry entry = decode(block);
+                if (entry == null) {
+                    valid = false;
+                    break;
+                }
+                index(entry);
+                records++;
+                position += RECORD_LENGTH;
+            }
+        }
+        //Odseca se nepotpun ili oštećen kraj, da bi se novi zapisi nastavili odmah iza poslednjeg ispravnog
+        if (position < size) {
+            channel.truncate(position);
+            channel.force(true);
+        }
+        end = position;
+    }
+
+    //Upisuje rezultat na disk pa ga dodaje u rang liste
+    //Vraća upisani rezultat, sa rednim brojem koji se koristi kao poslednji kriterijum rangiranja
+    public synchronized LeaderboardEntry add(LeaderboardEntry result) throws IOException {
+        LeaderboardEntry entry = result.withSequence(nextSequence);
+        record.clear();
+        encode(entry, record);
+        record.flip();
+        writeFully(record, end);
+        channel.force(false);
+        end += RECORD_LENGTH;
+        index(entry);
+        records++;
+        if (records >= COMPACT_MIN_RECORDS && retained * 2 < records) {
+            compact();
+        }
+        return entry;
+    }
+
+    //Najboljih (najviše) limit rezultata za veličinu table, od najboljeg
+    public synchronized List<LeaderboardEntry> top(int rows, int columns, int limit) {
+        NavigableSet<LeaderboardEntry> set = bySize.get(sizeKey(rows, columns));
+        return set == null ? List.of() : first(set.iterator(), limit);
+    }
+
+    //Najboljih (najviše) limit rezultata na istoj tabli (ista veličina i seed)
+    public synchronized List<LeaderboardEntry> topForPuzzle(int rows, int columns, long seed, int limit) {
+        return first(puzzleRange(rows, columns, seed).iterator(), limit);
+    }
+
+    //Mesto rezultata na rang listi veličine table (1 je najbolji), ili -1 ako nije među SIZE_RETAINED najboljih
+    public synchronized int rank(LeaderboardEntry entry) {
+        NavigableSet<LeaderboardEntry> set = bySize.get(sizeKey(entry.getRows(), entry.getColumns()));
+        if (set == null || !set.contains(entry)) {
+            return -1;
+        }
+        return set.headSet(entry, false).size() + 1;
+    }
+
+    //Mesto rezultata među rezultatima iste zagonetke, ili -1 ako nije među PUZZLE_RETAINED najboljih
+    public synchronized int puzzleRank(LeaderboardEntry entry) {
+        if (!entry.isSeeded() || !byPuzzle.contains(entry)) {
+            return -1;
+        }
+        return puzzleRange(entry.getRows(), entry.getColumns(), entry.getSeed()).headSet(entry, false).size() + 1;
+    }
+
+    //Ukupan broj zapisa u dnevniku, uključujući one koji više nisu na rang listama
+    public synchronized long getRecordCount() {
+        return records;
+    }
+
+    //Broj zapisa koji su na bar jednoj rang listi
+    public synchronized long getRetainedCount() {
+        return retained;
+    }
+
+    //Prepisuje dnevnik tako da ostanu samo rezultati koji su još na nekoj rang listi, redom kojim su upisani
+    //Novi dnevnik se piše u privremeni fajl i tek posle sinhronizacije zamenjuje stari (ATOMIC_MOVE),
+    //pa pad usred sažimanja ostavlja ili stari ili novi dnevnik, nikada mešavinu
+    public synchronized void compact() throws IOException {
+        List<LeaderboardEntry> kept = new ArrayList<>((int) retained);
+        for (NavigableSet<LeaderboardEntry> set : bySize.values()) {
+            kept.addAll(set);
+        }
+        for (LeaderboardEntry entry : byPuzzle) {
+            if (!isInSizeList(entry)) {
+                kept.add(entry);
+            }
+        }
+        kept.sort((a, b) -> Long.compare(a.getSequence(), b.getSequence()));
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_LENGTH * 1024);
+            buffer.put(header());
+            for (LeaderboardEntry entry : kept) {
+                if (buffer.remaining() < RECORD_LENGTH) {
+                    drain(out, buffer);
+                }
+                encode(entry, buffer);
+            }
+            drain(out, buffer);
+            out.force(true);
+        }
+        channel.close();
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            records = kept.size();
+        } finally {
+            //Ako zamena ne uspe, nastavlja se sa starim dnevnikom
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            end = channel.size();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    //Dodaje rezultat u rang listu veličine i u rang listu zagonetke, i izbacuje najslabiji ako je lista puna
+    private void index(LeaderboardEntry entry) {
+        nextSequence = Math.max(nextSequence, entry.getSequence() + 1);
+        NavigableSet<LeaderboardEntry> sizeSet = bySize.computeIfAbsent(sizeKey(entry.getRows(), entry.getColumns()),
+                key -> new TreeSet<>(LeaderboardEntry.RANKING));
+        boolean inSize = offer(sizeSet, entry, SIZE_RETAINED);
+        boolean inPuzzle = false;
+        if (entry.isSeeded()) {
+            NavigableSet<LeaderboardEntry> puzzle = puzzleRange(entry.getRows(), entry.getColumns(), entry.getSeed());
+            if (puzzle.size() < PUZZLE_RETAINED) {
+                byPuzzle.add(entry);
+                inPuzzle = true;
+            } else if (LeaderboardEntry.RANKING.compare(entry, puzzle.last()) < 0) {
+                LeaderboardEntry dropped = puzzle.pollLast();
+                if (!isInSizeList(dropped)) {
+                    retained--;
+                }
+                byPuzzle.add(entry);
+                inPuzzle = true;
+            }
+        }
+        if (inSize || inPuzzle) {
+            retained++;
+        }
+    }
+
+    //Dodaje rezultat u listu ograničene dužine, vraća false ako je rezultat slabiji od svih na punoj listi
+    private boolean offer(NavigableSet<LeaderboardEntry> set, LeaderboardEntry entry, int capacity) {
+        if (set.size() < capacity) {
+            set.add(entry);
+            return true;
+        }
+        if (LeaderboardEntry.RANKING.compare(entry, set.last()) > 0) {
+            return false;
+        }
+        LeaderboardEntry dropped = set.pollLast();
+        set.add(entry);
+        if (!dropped.isSeeded() || !byPuzzle.contains(dropped)) {
+            retained--;
+        }
+        return true;
+    }
+
+    private boolean isInSizeList(LeaderboardEntry entry) {
+        NavigableSet<LeaderboardEntry> set = bySize.get(sizeKey(entry.getRows(), entry.getColumns()));
+        return set != null && set.contains(entry);
+    }
+
+    //Svi rezultati jedne zagonetke - opseg u byPuzzle skupu, od najboljeg
+    private NavigableSet<LeaderboardEntry> puzzleRange(int rows, int columns, long seed) {
+        LeaderboardEntry from = new LeaderboardEntry(rows, columns, seed, true, Integer.MAX_VALUE, Integer.MAX_VALUE,
+                0, Integer.MIN_VALUE, 0, Long.MIN_VALUE);
+        LeaderboardEntry to = new LeaderboardEntry(rows, columns, seed, true, Integer.MIN_VALUE, Integer.MIN_VALUE,
+                0, Integer.MAX_VALUE, 0, Long.MAX_VALUE);
+        return byPuzzle.subSet(from, true, to, true);
+    }
+
+    private static long sizeKey(int rows, int columns) {
+        return (long) rows << 32 | (columns & 0xFFFFFFFFL);
+    }
+
+    private static List<LeaderboardEntry> first(Iterator<LeaderboardEntry> iterator, int limit) {
+        List<LeaderboardEntry> result = new ArrayList<>();
+        while (result.size() < limit && iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    private static ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.putInt(MAGIC);
+        header.putShort((short) VERSION);
+        header.putShort((short) RECORD_LENGTH);
+        header.flip();
+        return header;
+    }
+
+    private void encode(LeaderboardEntry entry, ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putInt(entry.getRows());
+        buffer.putInt(entry.getColumns());
+        buffer.putLong(entry.getSeed());
+        buffer.put((byte) (entry.isSeeded() ? 1 : 0));
+        buffer.putInt(entry.getScore());
+        buffer.putInt(entry.getSum());
+        buffer.putInt(entry.getSteps());
+        buffer.putInt(entry.getTimeSeconds());
+        buffer.putLong(entry.getFinishedAt());
+        buffer.put(new byte[3]);
+        crc.reset();
+        crc.update(buffer.duplicate().position(start).limit(start + RECORD_DATA_LENGTH));
+        buffer.putInt((int) crc.getValue());
+    }
+
+    //Čita jedan zapis, vraća null ako CRC nije ispravan
+    //Redni broj zapisa je njegov redosled u dnevniku
+    private LeaderboardEntry decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        crc.reset();
+        crc.update(buffer.duplicate().limit(start + RECORD_DATA_LENGTH));
+        if ((int) crc.getValue() != buffer.getInt(start + RECORD_DATA_LENGTH)) {
+            return null;
+        }
+        int rows = buffer.getInt();
+        int columns = buffer.getInt();
+        long seed = buffer.getLong();
+        boolean seeded = buffer.get() != 0;
+        int score = buffer.getInt();
+        int sum = buffer.getInt();
+        int steps = buffer.getInt();
+        int time = buffer.getInt();
+        long finishedAt = buffer.getLong();
+        buffer.position(start + RECORD_LENGTH);
+        return new LeaderboardEntry(rows, columns, seed, seeded, score, sum, steps, time, finishedAt, nextSequence);
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of leaderboard file");
+            }
+            position += read;
+        }
+    }
+
+    private static void drain(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+}
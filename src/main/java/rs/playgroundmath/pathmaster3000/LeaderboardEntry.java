@@ -0,0 +1,110 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.util.Comparator;
+
+//Jedna završena partija na rang listi - veličina i seed table, rezultat, broj koraka i vreme
+//Tabla sa seed-om je zagonetka: ista veličina i isti seed daju istu tablu, pa se ti rezultati rangiraju i zajedno
+public final class LeaderboardEntry {
+
+    //Bolji je veći rezultat, pa kraće vreme, pa veći zbir, pa raniji rezultat (redni broj u dnevniku)
+    static final Comparator<LeaderboardEntry> RANKING = Comparator
+            .comparingInt(LeaderboardEntry::getScore).reversed()
+            .thenComparingInt(LeaderboardEntry::getTimeSeconds)
+            .thenComparing(Comparator.comparingInt(LeaderboardEntry::getSum).reversed())
+            .thenComparingLong(LeaderboardEntry::getSequence);
+
+    //Rezultati iste zagonetke jedan do drugog, a unutar zagonetke po RANKING redu
+    static final Comparator<LeaderboardEntry> BY_PUZZLE = Comparator
+            .comparingInt(LeaderboardEntry::getRows)
+            .thenComparingInt(LeaderboardEntry::getColumns)
+            .thenComparingLong(LeaderboardEntry::getSeed)
+            .thenComparing(RANKING);
+
+    private final int rows;
+    private final int columns;
+    private final long seed;
+    private final boolean seeded;
+    private final int score;
+    private final int sum;
+    private final int steps;
+    private final int timeSeconds;
+    private final long finishedAt;
+    //Redni broj upisa u dnevniku rang liste, dodeljuje ga Leaderboard
+    private final long sequence;
+
+    public LeaderboardEntry(int rows, int columns, long seed, boolean seeded, int score, int sum, int steps,
+                            int timeSeconds, long finishedAt) {
+        this(rows, columns, seed, seeded, score, sum, steps, timeSeconds, finishedAt, -1);
+    }
+
+    LeaderboardEntry(int rows, int columns, long seed, boolean seeded, int score, int sum, int steps,
+                     int timeSeconds, long finishedAt, long sequence) {
+        this.rows = rows;
+        this.columns = columns;
+        this.seed = seed;
+        this.seeded = seeded;
+        this.score = score;
+        this.sum = sum;
+        this.steps = steps;
+        this.timeSeconds = timeSeconds;
+        this.finishedAt = finishedAt;
+        this.sequence = sequence;
+    }
+
+    //Rezultat završene partije na datoj tabli
+    public static LeaderboardEntry of(Board board, int timeSeconds) {
+        return new LeaderboardEntry(board.getRows(), board.getColumns(), board.getSeed(), board.isSeeded(),
+                board.calculateScore(), board.getSum(), board.getSteps(), timeSeconds, System.currentTimeMillis());
+    }
+
+    LeaderboardEntry withSequence(long sequence) {
+        return new LeaderboardEntry(rows, columns, seed, seeded, score, sum, steps, timeSeconds, finishedAt, sequence);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getSum() {
+        return sum;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    public int getTimeSeconds() {
+        return timeSeconds;
+    }
+
+    //Vreme završetka partije u milisekundama od 1970 (System.currentTimeMillis)
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%dx%d score=%d sum=%d steps=%d time=%ds%s", rows, columns, score, sum, steps,
+                timeSeconds, seeded ? " seed=" + seed : "");
+    }
+}
@@ -0,0 +1,258 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+//Klijent za merenje GameServer-a na localhost-u
+//Svaki klijent ima svoju vezu i igra nasumične partije: tablu pravi lokalno iz istog seed-a kao server, bira poteze
+//lokalno i šalje ih u paketima (--pipeline poteza bez čekanja), pa proverava da li je server vratio isti rezultat
+//Kada nema više poteza, vraća poslednji potez (UNDO) nekoliko puta, pa počinje novu igru (NEW)
+//
+//  LoadGenerator [--host H] [--port N] [--unix putanja] [--clients N] [--seconds S] [--size 5x5] [--pipeline K]
+public final class LoadGenerator {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int UNDOS_PER_GAME = 3;
+
+    private final SocketAddress address;
+    private final int rows;
+    private final int columns;
+    private final int pipeline;
+    private final long deadlineNanos;
+
+    private LoadGenerator(SocketAddress address, int rows, int columns, int pipeline, long deadlineNanos) {
+        this.address = address;
+        this.rows = rows;
+        this.columns = columns;
+        this.pipeline = pipeline;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    //Rezultat jednog klijenta: broj poteza, broj neslaganja sa serverom, broj paketa, ukupno i najduže čekanje paketa
+    private long[] runClient(long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        long moves = 0;
+        long mismatches = 0;
+        long batches = 0;
+        long waitNanos = 0;
+        long maxWaitNanos = 0;
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            if (address instanceof InetSocketAddress) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+            Connection connection = new Connection(channel);
+            MoveResult[] expected = new MoveResult[pipeline];
+            while (System.nanoTime() < deadlineNanos) {
+                long gameSeed = random.nextLong();
+                connection.send("NEW " + rows + "x" + columns + " " + gameSeed + "\n");
+                if (!connection.readLine().startsWith("OK")) {
+                    mismatches++;
+                    continue;
+                }
+                Board board = Board.generate(rows, columns, gameSeed);
+                int undos = 0;
+                while (!board.isFinished() && System.nanoTime() < deadlineNanos) {
+                    //Paket poteza koje lokalni model prihvata
+                    int count = 0;
+                    while (count < pipeline && !board.isFinished()) {
+                        int next = randomMove(board, random);
+                        if (next == Board.NO_CELL) {
+                            break;
+                        }
+                        expected[count] = board.move(next);
+                        connection.sendMove(next);
+                        count++;
+                    }
+                    if (count == 0) {
+                        if (undos++ == UNDOS_PER_GAME) {
+                            break;
+                        }
+                        board.undo();
+                        connection.send("UNDO\n");
+                        if (!connection.readLine().startsWith("OK")) {
+                            mismatches++;
+                        }
+                        continue;
+                    }
+                    long started = System.nanoTime();
+                    connection.flush();
+                    for (int i = 0; i < count; i++) {
+                        //Rezultat se proverava samo za poslednji potez paketa, lokalni model ima samo trenutni zbir
+                        String response = connection.readLine();
+                        String prefix = "OK " + expected[i].name();
+                        boolean matches = i < count - 1 ? response.startsWith(prefix)
+                                : response.equals(prefix + " " + board.calculateScore());
+                        if (!matches) {
+                            mismatches++;
+                        }
+                    }
+                    long waited = System.nanoTime() - started;
+                    waitNanos += waited;
+                    maxWaitNanos = Math.max(maxWaitNanos, waited);
+                    batches++;
+                    moves += count;
+                }
+                if (board.isFinished()) {
+                    connection.send("FINISH\n");
+                    if (!connection.readLine().startsWith("OK")) {
+                        mismatches++;
+                    }
+                }
+            }
+            connection.send("QUIT\n");
+            connection.readLine();
+        }
+        return new long[]{moves, mismatches, batches, waitNanos, maxWaitNanos};
+    }
+
+    //Nasumično susedno polje na koje je potez dozvoljen, ili Board.NO_CELL
+    private static int randomMove(Board board, SplittableRandom random) {
+        int first = random.nextInt(4);
+        for (int i = 0; i < 4; i++) {
+            int direction = (first + i) & 3;
+            int next = board.neighbor(board.getCurrent(), direction);
+            if (next != Board.NO_CELL && board.canMove(next)) {
+                return next;
+            }
+        }
+        return Board.NO_CELL;
+    }
+
+    //Baferisana veza - komande se skupljaju i šalju jednim upisom, odgovori se čitaju liniju po liniju
+    private static final class Connection {
+
+        private final SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+        private final ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+        private final StringBuilder line = new StringBuilder();
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            in.flip();
+        }
+
+        void sendMove(int cell) throws IOException {
+            if (out.remaining() < ServerSession.MAX_RESPONSE) {
+                flush();
+            }
+            out.put((byte) 'M').put((byte) 'O').put((byte) 'V').put((byte) 'E');
+            ServerSession.putNumber(out, cell);
+            out.put((byte) '\n');
+        }
+
+        void send(String command) throws IOException {
+            out.put(command.getBytes(StandardCharsets.US_ASCII));
+            flush();
+        }
+
+        void flush() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            out.clear();
+        }
+
+        String readLine() throws IOException {
+            line.setLength(0);
+            while (true) {
+                while (in.hasRemaining()) {
+                    byte b = in.get();
+                    if (b == '\n') {
+                        return line.toString();
+                    }
+                    line.append((char) b);
+                }
+                in.clear();
+                if (channel.read(in) < 0) {
+                    throw new IOException("Server closed the connection");
+                }
+                in.flip();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String host = "localhost";
+        int port = GameServer.DEFAULT_PORT;
+        String unix = null;
+        int clients = 100;
+        int seconds = 10;
+        String size = "5x5";
+        int pipeline = 8;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--host":
+                    host = args[i + 1];
+                    break;
+                case "--port":
+                    port = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--unix":
+                    unix = args[i + 1];
+                    break;
+                case "--clients":
+                    clients = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--seconds":
+                    seconds = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--size":
+                    size = args[i + 1];
+                    break;
+                case "--pipeline":
+                    pipeline = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        String[] dimensions = size.split("[xX]");
+        SocketAddress address = unix != null ? UnixDomainSocketAddress.of(unix) : new InetSocketAddress(host, port);
+        long startNanos = System.nanoTime();
+        LoadGenerator generator = new LoadGenerator(address, Integer.parseInt(dimensions[0]),
+                Integer.parseInt(dimensions[1]), Math.max(1, pipeline), startNanos + seconds * 1_000_000_000L);
+
+        ExecutorService executor = GameServer.newConnectionExecutor("pathmaster-load");
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        SplittableRandom seeds = new SplittableRandom();
+        for (int i = 0; i < clients; i++) {
+            long seed = seeds.nextLong();
+            tasks.add(() -> generator.runClient(seed));
+        }
+        long[] total = new long[5];
+        int failed = 0;
+        for (Future<long[]> future : executor.invokeAll(tasks)) {
+            try {
+                long[] result = future.get();
+                for (int i = 0; i < 4; i++) {
+                    total[i] += result[i];
+                }
+                total[4] = Math.max(total[4], result[4]);
+            } catch (ExecutionException e) {
+                failed++;
+                e.getCause().printStackTrace();
+            }
+        }
+        executor.shutdown();
+        double elapsed = (System.nanoTime() - startNanos) / 1e9;
+
+        System.out.printf("%d clients, %d failed, %.1f s%n", clients, failed, elapsed);
+        System.out.printf("moves %d (%.0f moves/s), mismatches %d%n", total[0], total[0] / elapsed, total[1]);
+        System.out.printf("batch round trip: mean %.3f ms, max %.3f ms (pipeline %d)%n",
+                total[2] == 0 ? 0 : total[3] / 1e6 / total[2], total[4] / 1e6, generator.pipeline);
+    }
+}
@@ -0,0 +1,256 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//Dnevnik poteza jedne partije - svaki potez, undo, redo i restart se dopisuje na kraj, ništa se ne briše
+//Događaj je jedan long: gornja 32 bita su milisekunde od početka partije, donja 32 bita su događaj
+//(indeks polja za potez, ili UNDO / REDO / RESET), pa upis ne alocira nikakve objekte
+//
+//U memoriji se čuva u kružnom baferu - kada se napuni, najstariji događaji se prepisuju (isComplete() tada vraća false)
+//Ako je otvoren fajl (openFile), svi događaji se dopisuju i u fajl, pa je fajl uvek kompletan zapis partije
+//Partija se iz dnevnika ponovo odigrava preko GameReplay klase
+public final class MoveJournal implements Closeable {
+
+    public static final int UNDO = -1;
+    public static final int REDO = -2;
+    public static final int RESET = -3;
+
+    //Format fajla (big-endian): int magic "PMJ1", int redovi, int kolone, byte 1 ako tabla ima seed, long seed,
+    //pa događaji kao long vrednosti do kraja fajla
+    public static final int FILE_MAGIC = 0x504D4A31;
+    static final int FILE_HEADER_LENGTH = 3 * Integer.BYTES + 1 + Long.BYTES;
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int FILE_BUFFER_SIZE = 4096;
+
+    private final Board board;
+    private final long startNanos = System.nanoTime();
+
+    //Kružni bafer događaja, kapacitet je stepen dvojke pa se pozicija računa maskom
+    private final long[] events;
+    private final int mask;
+    private long recorded;
+
+    //Polja vraćena sa undo, redom - redo skida poslednje, novi potez briše sve
+    private final int[] redoStack;
+    private int redoSize;
+
+    private FileChannel channel;
+    private ByteBuffer fileBuffer;
+
+    public MoveJournal(Board board) {
+        this(board, DEFAULT_CAPACITY);
+    }
+
+    //Ako tabla već ima putanju (npr. učitana igra), njena polja se upisuju kao potezi u trenutku 0
+    //Tako se i nastavljena partija može ponovo odigrati od početka
+    public MoveJournal(Board board, int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.board = board;
+        this.events = new long[capacity];
+        this.mask = capacity - 1;
+        this.redoStack = new int[board.getCellCount()];
+        for (int i = 1; i < board.getPathLength(); i++) {
+            append(pack(0, board.getPathCell(i)));
+        }
+    }
+
+    //Uključuje upis u fajl - zaglavlje i svi dosadašnji događaji koji su još u baferu se odmah upisuju
+    public void openFile(Path file) throws IOException {
+        if (channel != null) {
+            throw new IllegalStateException("Journal file is already open");
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBuffer = ByteBuffer.allocateDirect(FILE_BUFFER_SIZE);
+        fileBuffer.putInt(FILE_MAGIC);
+        fileBuffer.putInt(board.getRows());
+        fileBuffer.putInt(board.getColumns());
+        fileBuffer.put((byte) (board.isSeeded() ? 1 : 0));
+        fileBuffer.putLong(board.getSeed());
+        for (int i = 0; i < size(); i++) {
+            writeEvent(getEvent(i));
+        }
+    }
+
+    //Potez preko dnevnika - prihvaćen potez se upisuje i briše sve što se moglo vratiti sa redo
+    public MoveResult move(int index) {
+        MoveResult result = board.move(index);
+        if (result.isAccepted()) {
+            redoSize = 0;
+            record(index);
+        }
+        return result;
+    }
+
+    //Niz poteza odjednom (Board.applySegment) - upisuju se samo primenjeni potezi, svi sa istim vremenom
+    //Vraća broj primenjenih poteza
+    public int moveSegment(int[] segment, int offset, int length) {
+        int from = board.getPathLength();
+        int applied = board.applySegment(segment, offset, length);
+        if (applied > 0) {
+            redoSize = 0;
+            long time = (System.nanoTime() - startNanos) / 1_000_000;
+            for (int i = from; i < from + applied; i++) {
+                append(pack(time, board.getPathCell(i)));
+            }
+        }
+        return applied;
+    }
+
+    //Vraća poslednji potez, vraća indeks vraćenog polja ili Board.NO_CELL ako nema šta da se vrati
+    public int undo() {
+        int index = board.undo();
+        if (index != Board.NO_CELL) {
+            redoStack[redoSize++] = index;
+            record(UNDO);
+        }
+        return index;
+    }
+
+    //Ponovo igra poslednji vraćeni potez, vraća indeks polja ili Board.NO_CELL ako nema šta da se ponovi
+    public int redo() {
+        if (redoSize == 0) {
+            return Board.NO_CELL;
+        }
+        int index = redoStack[--redoSize];
+        board.move(index);
+        record(REDO);
+        return index;
+    }
+
+    public void reset() {
+        board.reset();
+        redoSize = 0;
+        record(RESET);
+    }
+
+    public boolean canUndo() {
+        return board.getPathLength() > 1;
+    }
+
+    public boolean canRedo() {
+        return redoSize > 0;
+    }
+
+    private void record(int event) {
+        long time = (System.nanoTime() - startNanos) / 1_000_000;
+        append(pack(time, event));
+    }
+
+    private void append(long event) {
+        events[(int) (recorded & mask)] = event;
+        recorded++;
+        if (channel != null) {
+            writeEvent(event);
+        }
+    }
+
+    //Upis u fajl ide preko bafera, a na disk se piše kada se bafer napuni ili pri flush/close
+    //Greška pri upisu isključuje upis u fajl, igra se nastavlja samo sa dnevnikom u memoriji
+    private void writeEvent(long event) {
+        try {
+            if (fileBuffer.remaining() < Long.BYTES) {
+                drain();
+            }
+            fileBuffer.putLong(event);
+        } catch (IOException e) {
+            e.printStackTrace();
+            closeFile();
+        }
+    }
+
+    private void drain() throws IOException {
+        fileBuffer.flip();
+        while (fileBuffer.hasRemaining()) {
+            channel.write(fileBuffer);
+        }
+        fileBuffer.clear();
+    }
+
+    public void flush() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            drain();
+        } catch (IOException e) {
+            e.printStackTrace();
+            closeFile();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        closeFile();
+    }
+
+    private void closeFile() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            channel = null;
+            fileBuffer = null;
+        }
+    }
+
+    //Broj događaja koji su još u baferu
+    public int size() {
+        return (int) Math.min(recorded, events.length);
+    }
+
+    //Ukupan broj upisanih događaja, uključujući i prepisane
+    public long getRecorded() {
+        return recorded;
+    }
+
+    //Da li bafer sadrži celu partiju od početka, tj. da li se može ponovo odigrati iz memorije
+    public boolean isComplete() {
+        return recorded <= events.length;
+    }
+
+    //i-ti događaj od najstarijeg koji je još u baferu
+    public long getEvent(int i) {
+        return events[(int) ((recorded - size() + i) & mask)];
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    //Kopija dnevnika za ponovno igranje, samo ako je bafer kompletan
+    public GameReplay toReplay() {
+        if (!isComplete()) {
+            throw new IllegalStateException("Journal has overwritten the oldest " + (recorded - events.length) + " events");
+        }
+        long[] copy = new long[size()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = getEvent(i);
+        }
+        return new GameReplay(board.getRows(), board.getColumns(), board.getSeed(), board.isSeeded(), copy);
+    }
+
+    static long pack(long millis, int event) {
+        return millis << 32 | (event & 0xFFFFFFFFL);
+    }
+
+    //Događaj iz spakovane vrednosti - indeks polja ili UNDO / REDO / RESET
+    public static int eventOf(long event) {
+        return (int) event;
+    }
+
+    //Milisekunde od početka partije do događaja
+    public static long timeOf(long event) {
+        return event >>> 32;
+    }
+}
@@ -0,0 +1,22 @@
+package rs.playgroundmath.pathmaster3000;
+
+//Rezultat jednog poteza nad Board modelom
+//Enum vrednosti su singltoni, tako da vraćanje rezultata ne alocira ništa
+public enum MoveResult {
+    //Potez je prihvaćen i igra se nastavlja
+    ACCEPTED,
+    //Potez je prihvaćen i igrač je stigao do End polja
+    FINISHED,
+    //Polje nije susedno trenutnoj poziciji (ne može po dijagonali ni sa razmakom)
+    NOT_ADJACENT,
+    //Polje je već deo putanje
+    ALREADY_VISITED,
+    //Igra je već završena, potezi se više ne primaju
+    GAME_OVER,
+    //Indeks polja je van mreže
+    OUT_OF_BOUNDS;
+
+    public boolean isAccepted() {
+        return this == ACCEPTED || this == FINISHED;
+    }
+}
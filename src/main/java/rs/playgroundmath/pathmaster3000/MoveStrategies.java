@@ -0,0 +1,217 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+//Ugrađene strategije botova, prave se po imenu (npr. iz komandne linije):
+// - "random"      nasumičan dozvoljen potez
+// - "greedy"      polje sa najvećom cifrom; End samo kada nijedan sused ne bi povećao prosek
+// - "lookahead-k" proba sve nizove od k poteza i bira početak najboljeg, izbegavajući poteze posle kojih End nije dostižan
+// - "optimal"     prati najbolju putanju koju nađe PathSolver (samo za table do 64 polja)
+public final class MoveStrategies {
+
+    private static final Duration SOLVER_BUDGET = Duration.ofSeconds(1);
+
+    private MoveStrategies() {
+    }
+
+    //Nova instanca strategije, seed se koristi samo za strategije koje biraju nasumično
+    public static MoveStrategy create(String name, long seed) {
+        switch (name) {
+            case "random":
+                return new RandomStrategy(seed);
+            case "greedy":
+                return new GreedyStrategy();
+            case "optimal":
+                return new OptimalStrategy();
+            default:
+                if (name.startsWith("lookahead-")) {
+                    return new LookaheadStrategy(Integer.parseInt(name.substring("lookahead-".length())));
+                }
+                throw new IllegalArgumentException("Unknown strategy " + name);
+        }
+    }
+
+    //Četiri susedna polja trenutne pozicije - Board.check odbacuje ona van table i ona u drugom redu
+    private static int neighbor(Board board, int cell, int direction) {
+        switch (direction) {
+            case 0:
+                return cell - board.getColumns();
+            case 1:
+                return cell + 1;
+            case 2:
+                return cell + board.getColumns();
+            default:
+                return cell - 1;
+        }
+    }
+
+    private static final class RandomStrategy implements MoveStrategy {
+        private final SplittableRandom random;
+        private final int[] moves = new int[4];
+
+        RandomStrategy(long seed) {
+            this.random = new SplittableRandom(seed);
+        }
+
+        @Override
+        public int nextMove(Board board) {
+            int count = 0;
+            for (int direction = 0; direction < 4; direction++) {
+                int next = neighbor(board, board.getCurrent(), direction);
+                if (board.canMove(next)) {
+                    moves[count++] = next;
+                }
+            }
+            return count == 0 ? Board.NO_CELL : moves[random.nextInt(count)];
+        }
+    }
+
+    private static final class GreedyStrategy implements MoveStrategy {
+        @Override
+        public int nextMove(Board board) {
+            int best = Board.NO_CELL;
+            boolean endAdjacent = false;
+            for (int direction = 0; direction < 4; direction++) {
+                int next = neighbor(board, board.getCurrent(), direction);
+                MoveResult result = board.check(next);
+                if (result == MoveResult.FINISHED) {
+                    endAdjacent = true;
+                } else if (result.isAccepted() && (best == Board.NO_CELL || board.getValue(next) > board.getValue(best))) {
+                    best = next;
+                }
+            }
+            //End se bira kada je sused i sledeća cifra ne bi povećala prosek (cifra * koraci <= zbir)
+            //Pre prvog koraka prosek je 0, pa ga povećava svaka cifra veća od 0
+            if (endAdjacent && (best == Board.NO_CELL || !raisesAverage(board, board.getValue(best)))) {
+                return board.getEnd();
+            }
+            return best;
+        }
+
+        private static boolean raisesAverage(Board board, int value) {
+            if (board.getSteps() == 0) {
+                return value > 0;
+            }
+            return value * board.getSteps() > board.getSum();
+        }
+    }
+
+    private static final class LookaheadStrategy implements MoveStrategy {
+        private static final double DEAD_END = -1;
+
+        private final int depth;
+        //Pomoćni nizovi za BFS - polje je obeleženo ako je stamp[polje] == mark, pa se niz ne briše između pretraga
+        private int[] stamp = new int[0];
+        private int[] queue = new int[0];
+        private int mark;
+
+        LookaheadStrategy(int depth) {
+            if (depth < 1) {
+                throw new IllegalArgumentException("Lookahead depth must be at least 1");
+            }
+            this.depth = depth;
+        }
+
+        @Override
+        public int nextMove(Board board) {
+            if (stamp.length != board.getCellCount()) {
+                stamp = new int[board.getCellCount()];
+                queue = new int[board.getCellCount()];
+            }
+            int best = Board.NO_CELL;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int direction = 0; direction < 4; direction++) {
+                int next = neighbor(board, board.getCurrent(), direction);
+                if (board.canMove(next)) {
+                    double value = evaluate(board, next, depth - 1);
+                    if (value > bestValue) {
+                        bestValue = value;
+                        best = next;
+                    }
+                }
+            }
+            return best;
+        }
+
+        //Vrednost poteza na polje: prosek na kraju najboljeg niza poteza, ili DEAD_END ako se iz njega ne stiže do End
+        private double evaluate(Board board, int cell, int remaining) {
+            MoveResult result = board.move(cell);
+            double value;
+            if (result == MoveResult.FINISHED) {
+                value = average(board);
+            } else if (remaining == 0) {
+                value = canReachEnd(board) ? average(board) : DEAD_END;
+            } else {
+                value = DEAD_END;
+                for (int direction = 0; direction < 4; direction++) {
+                    int next = neighbor(board, cell, direction);
+                    if (board.canMove(next)) {
+                        value = Math.max(value, evaluate(board, next, remaining - 1));
+                    }
+                }
+            }
+            board.undo();
+            return value;
+        }
+
+        private static double average(Board board) {
+            return board.getSteps() > 0 ? (double) board.getSum() / board.getSteps() : 0;
+        }
+
+        //BFS kroz neposećena polja od trenutne pozicije do End polja
+        private boolean canReachEnd(Board board) {
+            if (++mark == 0) {
+                Arrays.fill(stamp, 0);
+                mark = 1;
+            }
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = board.getCurrent();
+            stamp[board.getCurrent()] = mark;
+            while (head < tail) {
+                int cell = queue[head++];
+                for (int direction = 0; direction < 4; direction++) {
+                    int next = neighbor(board, cell, direction);
+                    if (next < 0 || next >= stamp.length || !board.isAdjacent(cell, next) || stamp[next] == mark) {
+                        continue;
+                    }
+                    if (board.isEnd(next)) {
+                        return true;
+                    }
+                    if (!board.isVisited(next)) {
+                        stamp[next] = mark;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    //Putanja se računa jednom po partiji i posle se samo prati
+    private static final class OptimalStrategy implements MoveStrategy {
+        private Board plannedBoard;
+        private int[] plan;
+
+        @Override
+        public int nextMove(Board board) {
+            int position = board.getPathLength();
+            if (plannedBoard != board || plan == null || position >= plan.length
+                    || plan[position - 1] != board.getCurrent()) {
+                plannedBoard = board;
+                //U turniru se solver izvršava u istom pool-u, unutar taska koji igra partiju
+                ForkJoinPool pool = ForkJoinTask.getPool();
+                PathSolver solver = new PathSolver(pool != null ? pool : ForkJoinPool.commonPool());
+                plan = solver.solve(board, SOLVER_BUDGET).getPath();
+                if (plan == null) {
+                    return Board.NO_CELL;
+                }
+            }
+            return plan[position];
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package rs.playgroundmath.pathmaster3000;
+
+//Strategija bota - bira sledeći potez na tabli, po istim pravilima kao igrač (Board.check)
+//Strategija sme da menja tablu tokom razmišljanja (npr. move + undo), ali mora da je vrati u isto stanje
+//Instanca se koristi samo iz jedne niti, pa sme da ima svoje pomoćne nizove i random generator
+public interface MoveStrategy {
+
+    //Vraća indeks polja na koje bot ide, ili Board.NO_CELL ako nema nijedan dozvoljen potez (ćorsokak)
+    int nextMove(Board board);
+}
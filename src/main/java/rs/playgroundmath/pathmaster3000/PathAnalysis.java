@@ -0,0 +1,199 @@
+package rs.playgroundmath.pathmaster3000;
+
+//Rezultat PathAnalyzer-a - koliko različitih putanja od Start do End polja postoji na tabli i kakvi su im rezultati
+//Tačna analiza (isExact) broji sve putanje, a za velike table su brojevi procena iz uzoraka
+//Brojevi su double jer na velikim tablama broj putanja ne staje u long; za ogromne table ostaje samo log10 vrednost
+public final class PathAnalysis {
+
+    //Granice oznaka težine (getDifficultyLabel)
+    private static final double MEDIUM = 15;
+    private static final double HARD = 30;
+    private static final double EXPERT = 45;
+
+    private final int rows;
+    private final int columns;
+    private final boolean exact;
+    private final long samples;
+    private final double log10PathCount;
+    //scoreLog10[s] = log10 broja putanja sa rezultatom s (0-9), -Infinity ako takvih nema
+    private final double[] scoreLog10;
+    //Tačni brojevi putanja po rezultatu, null za procenu
+    private final long[] scoreCounts;
+    private final int bestScore;
+    private final int nearOptimalScore;
+    private final double log10NearOptimal;
+    //Tačna analiza: broj putanja po broju koraka; procena iz uzoraka nema ovaj podatak
+    private final double[] pathsByLength;
+    private final long elapsedNanos;
+
+    //Tačna analiza
+    PathAnalysis(int rows, int columns, long[] scoreCounts, double[] pathsByLength, long elapsedNanos) {
+        this(rows, columns, true, 0, toLog10(scoreCounts), scoreCounts, pathsByLength, elapsedNanos);
+    }
+
+    //Procena iz uzoraka
+    PathAnalysis(int rows, int columns, long samples, double[] scoreLog10, long elapsedNanos) {
+        this(rows, columns, false, samples, scoreLog10, null, null, elapsedNanos);
+    }
+
+    private PathAnalysis(int rows, int columns, boolean exact, long samples, double[] scoreLog10, long[] scoreCounts,
+                         double[] pathsByLength, long elapsedNanos) {
+        this.rows = rows;
+        this.columns = columns;
+        this.exact = exact;
+        this.samples = samples;
+        this.scoreLog10 = scoreLog10;
+        this.scoreCounts = scoreCounts;
+        this.pathsByLength = pathsByLength;
+        this.elapsedNanos = elapsedNanos;
+
+        int best = -1;
+        for (int s = 0; s < scoreLog10.length; s++) {
+            if (scoreLog10[s] != Double.NEGATIVE_INFINITY) {
+                best = s;
+            }
+        }
+        this.bestScore = best;
+        //U 10% od najboljeg - rezultat je ceo broj kao u igri, pa je granica zaokružena naviše
+        this.nearOptimalScore = best < 0 ? 0 : (int) Math.ceil(best * 0.9);
+        this.log10PathCount = log10Sum(scoreLog10, 0);
+        this.log10NearOptimal = log10Sum(scoreLog10, nearOptimalScore);
+    }
+
+    private static double[] toLog10(long[] counts) {
+        double[] log10 = new double[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            log10[i] = Math.log10(counts[i]);
+        }
+        return log10;
+    }
+
+    //Zbir brojeva datih kao log10, od indeksa from do kraja
+    private static double log10Sum(double[] values, int from) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < values.length; i++) {
+            max = Math.max(max, values[i]);
+        }
+        if (max == Double.NEGATIVE_INFINITY) {
+            return max;
+        }
+        double sum = 0;
+        for (int i = from; i < values.length; i++) {
+            sum += Math.pow(10, values[i] - max);
+        }
+        return max + Math.log10(sum);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    //Da li su brojevi tačni ili procena iz uzoraka
+    public boolean isExact() {
+        return exact;
+    }
+
+    //Broj uzoraka za procenu, 0 za tačnu analizu
+    public long getSamples() {
+        return samples;
+    }
+
+    public boolean isSolvable() {
+        return bestScore >= 0;
+    }
+
+    //Broj različitih putanja od Start do End polja (Infinity ako ne staje u double, tada koristiti getLog10PathCount)
+    public double getPathCount() {
+        return scoreCounts != null ? sum(0) : Math.pow(10, log10PathCount);
+    }
+
+    public double getLog10PathCount() {
+        return log10PathCount;
+    }
+
+    //Broj putanja sa rezultatom score (0-9)
+    public double getPathCount(int score) {
+        return scoreCounts != null ? scoreCounts[score] : Math.pow(10, scoreLog10[score]);
+    }
+
+    private double sum(int from) {
+        long sum = 0;
+        for (int s = from; s < scoreCounts.length; s++) {
+            sum += scoreCounts[s];
+        }
+        return sum;
+    }
+
+    //Najbolji mogući rezultat, -1 ako End nije dostižan; kod procene je to najbolji rezultat među uzorcima
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    //Najmanji rezultat koji je u 10% od najboljeg
+    public int getNearOptimalScore() {
+        return nearOptimalScore;
+    }
+
+    //Broj putanja čiji je rezultat u 10% od najboljeg
+    public double getNearOptimalPaths() {
+        return scoreCounts != null ? sum(nearOptimalScore) : Math.pow(10, log10NearOptimal);
+    }
+
+    //Udeo putanja čiji je rezultat u 10% od najboljeg
+    public double getNearOptimalFraction() {
+        return isSolvable() ? Math.pow(10, log10NearOptimal - log10PathCount) : 0;
+    }
+
+    //Broj putanja sa datim brojem koraka, samo za tačnu analizu
+    public double getPathCountByLength(int steps) {
+        return pathsByLength == null || steps < 0 || steps >= pathsByLength.length ? 0 : pathsByLength[steps];
+    }
+
+    public boolean hasLengthDistribution() {
+        return pathsByLength != null;
+    }
+
+    //Težina table: 10 * log10(sve putanje / dobre putanje), tj. 10 poena za svaki red veličine
+    //Tabla na kojoj je svaka deseta putanja dobra ima težinu 10, a tabla sa jednom dobrom od milion putanja 60
+    //Nerešiva tabla ima težinu -1
+    public double getDifficulty() {
+        return isSolvable() ? 10 * (log10PathCount - log10NearOptimal) : -1;
+    }
+
+    public String getDifficultyLabel() {
+        double difficulty = getDifficulty();
+        if (difficulty < 0) {
+            return "unsolvable";
+        }
+        if (difficulty < MEDIUM) {
+            return "easy";
+        }
+        if (difficulty < HARD) {
+            return "medium";
+        }
+        return difficulty < EXPERT ? "hard" : "expert";
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PathAnalysis[%dx%d, %s, paths=%s, best=%d, near-optimal (>=%d)=%s, difficulty=%.1f %s, "
+                        + "time=%.1fms]", rows, columns, exact ? "exact" : "estimated from " + samples + " samples",
+                formatCount(log10PathCount), bestScore, nearOptimalScore, formatCount(log10NearOptimal),
+                getDifficulty(), getDifficultyLabel(), elapsedNanos / 1e6);
+    }
+
+    private static String formatCount(double log10) {
+        if (log10 == Double.NEGATIVE_INFINITY) {
+            return "0";
+        }
+        return log10 < 15 ? String.format("%.0f", Math.pow(10, log10)) : String.format("1e%.1f", log10);
+    }
+}
@@ -0,0 +1,434 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+//Broji putanje od Start do End polja (bez ponavljanja polja) i njihove rezultate, da bi se table ocenile po težini
+//
+//Za table do EXACT_MAX_CELLS polja broji tačno, dinamičkim programiranjem po "frontu" (frontier / plug DP):
+// - polja se obrađuju red po red, a stanje je samo ono što prelazi preko granice između obrađenog i neobrađenog dela:
+//   za svaku kolonu da li putanja ide dole iz obrađenog dela, i kako su ti krajevi međusobno povezani
+//   (parovi zagrada za delove putanje koji su još otvoreni na oba kraja, # za deo koji je vezan za Start ili End)
+// - različite putanje sa istim frontom se dalje ne razlikuju, pa se broje zajedno umesto da se nabrajaju
+//   (nabrajanje eksplodira već posle 6x6, a broj stanja fronta zavisi od širine table, ne od broja putanja)
+// - uz svako stanje se čuva histogram "težine" putanje; za težinu v - s po polju histogram daje koliko putanja
+//   ima zbir >= s * broj koraka, tj. rezultat >= s, pa se raspodela rezultata dobija iz 9 prolaza
+//Za veće table se broj putanja i raspodela rezultata procenjuju slučajnim šetnjama (Rosenbluth uzorkovanje):
+//šetnja bira jedan od poteza koji ne odsecaju End (ReachabilityTracker), a težina šetnje je proizvod broja izbora
+public final class PathAnalyzer {
+
+    //Do ovoliko polja broj putanja staje u long (9x9 ima oko 3e15 putanja između uglova)
+    public static final int EXACT_MAX_CELLS = 81;
+    //Najveća širina fronta - 2 bita po koloni moraju da stanu u long, uz bit za završenu putanju
+    private static final int MAX_WIDTH = 30;
+    //Najviše long vrednosti u histogramima svih stanja jednog reda (oko 256 MB), preko toga se prelazi na uzorke
+    private static final long MAX_EXACT_BINS = 32L << 20;
+    public static final int DEFAULT_SAMPLES = 20_000;
+    //Na ogromnim tablama je jedna šetnja duga, pa se uzorkovanje ograničava i vremenom
+    private static final Duration DEFAULT_SAMPLE_BUDGET = Duration.ofSeconds(5);
+
+    //Oznake na frontu: 0 nema putanje, 1 i 2 otvorena i zatvorena zagrada, 3 deo vezan za Start ili End
+    private static final int OPEN = 1;
+    private static final int CLOSE = 2;
+    private static final int TERMINAL = 3;
+    //Putanja od Start do End je završena, ostala polja moraju ostati neposećena
+    private static final long DONE = 1L << 62;
+
+    //Odgovor kada tačno brojanje ne stane u memoriju
+    private static final class TooLargeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        TooLargeException() {
+            super(null, null, false, false);
+        }
+    }
+
+    //Tačna analiza ako je tabla dovoljno mala i front staje u memoriju,
+    //inače procena iz najviše DEFAULT_SAMPLES uzoraka ili koliko ih stane u DEFAULT_SAMPLE_BUDGET
+    public PathAnalysis analyze(Board board) {
+        if (board.getCellCount() <= EXACT_MAX_CELLS) {
+            try {
+                return analyzeExact(board);
+            } catch (TooLargeException e) {
+                // front je prevelik, prelazi se na uzorke
+            }
+        }
+        return sample(board, DEFAULT_SAMPLES, board.getSeed(), DEFAULT_SAMPLE_BUDGET);
+    }
+
+    //Tačan broj putanja po rezultatu i po broju koraka, od Start polja (putanja na tabli se ne uzima u obzir)
+    public PathAnalysis analyzeExact(Board board) {
+        if (board.getCellCount() > EXACT_MAX_CELLS || Math.min(board.getRows(), board.getColumns()) > MAX_WIDTH) {
+            throw new IllegalArgumentException("Exact analysis supports boards with up to " + EXACT_MAX_CELLS
+                    + " cells, got " + board.getCellCount());
+        }
+        long startNanos = System.nanoTime();
+        Grid grid = new Grid(board);
+        boolean adjacent = board.isAdjacent(board.getStart(), board.getEnd());
+
+        //Prolaz sa težinom 1 po polju daje ukupan broj putanja po broju koraka
+        long[] byLength = grid.count(value -> 1);
+        double[] pathsByLength = new double[byLength.length];
+        long total = 0;
+        for (int steps = 0; steps < byLength.length; steps++) {
+            pathsByLength[steps] = byLength[steps];
+            total += byLength[steps];
+        }
+
+        //atLeast[s] = broj putanja sa rezultatom >= s; putanja bez koraka (Start do End) ima rezultat 0
+        long[] atLeast = new long[11];
+        atLeast[0] = total;
+        for (int s = 1; s <= 9 && atLeast[s - 1] > 0; s++) {
+            int threshold = s;
+            long[] histogram = grid.count(value -> value - threshold);
+            long count = 0;
+            for (int bin = grid.offset; bin < histogram.length; bin++) {
+                count += histogram[bin];
+            }
+            atLeast[s] = adjacent ? count - 1 : count;
+        }
+        long[] scoreCounts = new long[10];
+        for (int s = 0; s < 10; s++) {
+            scoreCounts[s] = atLeast[s] - atLeast[s + 1];
+        }
+        return new PathAnalysis(board.getRows(), board.getColumns(), scoreCounts, pathsByLength,
+                System.nanoTime() - startNanos);
+    }
+
+    //Procena iz uzoraka - svaka šetnja ide od Start polja i bira nasumično jedan od poteza posle kojih je End dostižan
+    //Zato se svaka šetnja završava na End polju, a prosečna težina (proizvod broja izbora) je nepristrasna procena
+    //broja putanja; isto važi za broj putanja sa svakim rezultatom
+    //Staje posle samples šetnji ili kada istekne budget (ako nije null)
+    public PathAnalysis sample(Board board, int samples, long seed, Duration budget) {
+        long startNanos = System.nanoTime();
+        long deadline = budget == null ? Long.MAX_VALUE : startNanos + budget.toNanos();
+        Board walk = board.freshCopy();
+        ReachabilityTracker tracker = new ReachabilityTracker(walk);
+        SplittableRandom random = new SplittableRandom(seed);
+        //Zbir težina po rezultatu, u log10 sa zajedničkim pomerajem da ne bi prekoračio double
+        double[] sums = new double[10];
+        double scale = Double.NEGATIVE_INFINITY;
+        int[] choices = new int[4];
+        long taken = 0;
+        if (tracker.isEndReachable()) {
+            //Vreme se proverava na svakih 64 šetnje
+            while (taken < samples && ((taken & 63) != 0 || System.nanoTime() < deadline)) {
+                walk.reset();
+                double log10Weight = 0;
+                while (!walk.isFinished()) {
+                    int current = walk.getCurrent();
+                    int count = 0;
+                    for (int direction = 0; direction < 4; direction++) {
+                        if (tracker.leadsToEnd(direction)) {
+                            choices[count++] = walk.neighbor(current, direction);
+                        }
+                    }
+                    log10Weight += Math.log10(count);
+                    walk.move(choices[random.nextInt(count)]);
+                }
+                if (log10Weight > scale) {
+                    double shift = Math.pow(10, scale - log10Weight);
+                    for (int s = 0; s < sums.length; s++) {
+                        sums[s] *= shift;
+                    }
+                    scale = log10Weight;
+                }
+                sums[walk.calculateScore()] += Math.pow(10, log10Weight - scale);
+                taken++;
+            }
+        }
+        double[] scoreLog10 = new double[10];
+        for (int s = 0; s < scoreLog10.length; s++) {
+            scoreLog10[s] = sums[s] > 0 ? scale + Math.log10(sums[s] / taken) : Double.NEGATIVE_INFINITY;
+        }
+        return new PathAnalysis(board.getRows(), board.getColumns(), taken, scoreLog10, System.nanoTime() - startNanos);
+    }
+
+    //Težina korišćenog polja u jednom prolazu, po vrednosti polja
+    private interface CellWeight {
+        int of(int value);
+    }
+
+    //Tabla pripremljena za brojanje - okrenuta tako da je front (broj kolona) uži od broja redova
+    private static final class Grid {
+        private final int rows;
+        private final int columns;
+        private final int[] values;
+        private final boolean[] terminal;
+        //Indeks težine 0 u histogramu u poslednjem prolazu
+        private int offset;
+
+        Grid(Board board) {
+            boolean transpose = board.getColumns() > board.getRows();
+            this.rows = transpose ? board.getColumns() : board.getRows();
+            this.columns = transpose ? board.getRows() : board.getColumns();
+            this.values = new int[rows * columns];
+            this.terminal = new boolean[rows * columns];
+            for (int index = 0; index < board.getCellCount(); index++) {
+                int row = board.rowOf(index);
+                int column = board.columnOf(index);
+                int cell = transpose ? column * columns + row : row * columns + column;
+                values[cell] = board.getValue(index);
+                terminal[cell] = board.isStart(index) || board.isEnd(index);
+            }
+        }
+
+        //Broji putanje od Start do End, histogram po zbiru težina korišćenih polja (bez Start i End)
+        //Vraća niz u kom je indeks offset težina 0
+        long[] count(CellWeight weight) {
+            int[] weights = new int[values.length];
+            int minWeight = 0;
+            int maxWeight = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (!terminal[i]) {
+                    weights[i] = weight.of(values[i]);
+                    minWeight += Math.min(0, weights[i]);
+                    maxWeight += Math.max(0, weights[i]);
+                }
+            }
+            offset = -minWeight;
+            int bins = maxWeight - minWeight + 1;
+
+            StateTable current = new StateTable(bins);
+            current.put(0, offset, 1);
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    int cell = row * columns + column;
+                    StateTable next = new StateTable(bins);
+                    for (int i = 0; i < current.size; i++) {
+                        expand(current, i, next, row, column, terminal[cell], weights[cell]);
+                    }
+                    current = next;
+                }
+                //Kraj reda - front se pomera za jedno mesto, levi kraj sledećeg reda je prazan
+                StateTable shifted = new StateTable(bins);
+                for (int i = 0; i < current.size; i++) {
+                    long state = current.keys[i];
+                    long plugs = state & ~DONE;
+                    shifted.add(state & DONE | plugs << 2, current, i, 0);
+                }
+                current = shifted;
+            }
+            long[] histogram = new long[bins];
+            for (int i = 0; i < current.size; i++) {
+                if (current.keys[i] == DONE) {
+                    System.arraycopy(current.pool, i * bins, histogram, 0, bins);
+                }
+            }
+            return histogram;
+        }
+
+        //Svi prelazi jednog stanja preko polja [row, column]
+        //left je kraj putanje koji dolazi sa levog suseda, up kraj koji dolazi odozgo
+        private void expand(StateTable from, int i, StateTable to, int row, int column, boolean isTerminal, int weight) {
+            long state = from.keys[i];
+            int left = plug(state, column);
+            int up = plug(state, column + 1);
+            boolean canDown = row < rows - 1;
+            boolean canRight = column < columns - 1;
+            long cleared = set(set(state, column, 0), column + 1, 0);
+
+            if ((state & DONE) != 0) {
+                //Putanja je završena - polje ostaje neposećeno (ovde su svi krajevi prazni)
+                if (!isTerminal) {
+                    to.add(state, from, i, 0);
+                }
+                return;
+            }
+            if (isTerminal) {
+                //Start i End imaju tačno jednog suseda na putanji
+                if (left == 0 && up == 0) {
+                    if (canDown) {
+                        to.add(set(cleared, column, TERMINAL), from, i, 0);
+                    }
+                    if (canRight) {
+                        to.add(set(cleared, column + 1, TERMINAL), from, i, 0);
+                    }
+                } else if (left == 0 || up == 0) {
+                    int end = left != 0 ? column : column + 1;
+                    close(state, end, cleared, TERMINAL, to, from, i, 0);
+                }
+                return;
+            }
+
+            if (left == 0 && up == 0) {
+                to.add(state, from, i, 0);
+                if (canDown && canRight) {
+                    to.add(set(set(cleared, column, OPEN), column + 1, CLOSE), from, i, weight);
+                }
+            } else if (left == 0 || up == 0) {
+                int plug = left != 0 ? left : up;
+                if (canDown) {
+                    to.add(set(cleared, column, plug), from, i, weight);
+                }
+                if (canRight) {
+                    to.add(set(cleared, column + 1, plug), from, i, weight);
+                }
+            } else if (left == TERMINAL) {
+                close(state, column + 1, cleared, TERMINAL, to, from, i, weight);
+            } else if (up == TERMINAL) {
+                close(state, column, cleared, TERMINAL, to, from, i, weight);
+            } else if (left == OPEN && up == OPEN) {
+                //Spajaju se dva dela, par desnog dela postaje novi početak
+                to.add(set(cleared, match(state, column + 1), OPEN), from, i, weight);
+            } else if (left == CLOSE && up == CLOSE) {
+                to.add(set(cleared, match(state, column), CLOSE), from, i, weight);
+            } else if (left == CLOSE) {
+                to.add(cleared, from, i, weight);
+            }
+            //left == OPEN && up == CLOSE zatvara krug, to nije putanja
+        }
+
+        //Kraj putanje na poziciji end se završava na ovom polju, a polje je vezano za Start ili End (mark je TERMINAL)
+        //Ako je i drugi kraj tog dela vezan za Start ili End, putanja je završena
+        private void close(long state, int end, long cleared, int mark, StateTable to, StateTable from, int i,
+                           int weight) {
+            int plug = plug(state, end);
+            if (plug == TERMINAL) {
+                //Drugi delovi bi ostali nezatvoreni, pa se računa samo ako ih nema
+                if (cleared == 0) {
+                    to.add(DONE, from, i, weight);
+                }
+            } else {
+                to.add(set(cleared, match(state, end), mark), from, i, weight);
+            }
+        }
+
+        //Pozicija para zagrade na poziciji position (TERMINAL se preskače)
+        private int match(long state, int position) {
+            int direction = plug(state, position) == OPEN ? 1 : -1;
+            int depth = 0;
+            for (int p = position; ; p += direction) {
+                int plug = plug(state, p);
+                if (plug == OPEN) {
+                    depth++;
+                } else if (plug == CLOSE) {
+                    depth--;
+                }
+                if (depth == 0) {
+                    return p;
+                }
+            }
+        }
+
+        private static int plug(long state, int position) {
+            return (int) (state >>> (2 * position)) & 3;
+        }
+
+        private static long set(long state, int position, int plug) {
+            return state & ~(3L << (2 * position)) | (long) plug << (2 * position);
+        }
+    }
+
+    //Stanja fronta sa histogramima, otvoreno adresiranje po ključu stanja
+    //Histogrami svih stanja su u jednom long[] nizu, bins vrednosti po stanju
+    private static final class StateTable {
+        private final int bins;
+        private long[] keys = new long[64];
+        private int[] table = new int[128];
+        private long[] pool;
+        private int size;
+
+        StateTable(int bins) {
+            this.bins = bins;
+            this.pool = new long[64 * bins];
+            Arrays.fill(table, -1);
+        }
+
+        //Dodaje histogram i-tog stanja iz from, pomeren za shift, na histogram stanja key
+        void add(long key, StateTable from, int i, int shift) {
+            int base = slotIndex(key) * bins;
+            long[] target = pool;
+            long[] source = from.pool;
+            int sourceBase = i * bins;
+            int first = Math.max(0, -shift);
+            int last = Math.min(bins, bins - shift);
+            for (int b = first; b < last; b++) {
+                target[base + b + shift] += source[sourceBase + b];
+            }
+        }
+
+        void put(long key, int bin, long count) {
+            pool[slotIndex(key) * bins + bin] += count;
+        }
+
+        private int slotIndex(long key) {
+            int mask = table.length - 1;
+            int h = (int) (key * 0x9E3779B97F4A7C15L >>> 40) & mask;
+            while (table[h] >= 0) {
+                if (keys[table[h]] == key) {
+                    return table[h];
+                }
+                h = (h + 1) & mask;
+            }
+            if (size == keys.length) {
+                grow();
+                return slotIndex(key);
+            }
+            keys[size] = key;
+            table[h] = size;
+            return size++;
+        }
+
+        private void grow() {
+            if ((long) keys.length * 2 * bins > MAX_EXACT_BINS) {
+                throw new TooLargeException();
+            }
+            keys = Arrays.copyOf(keys, keys.length * 2);
+            pool = Arrays.copyOf(pool, keys.length * bins);
+            table = new int[keys.length * 2];
+            Arrays.fill(table, -1);
+            int mask = table.length - 1;
+            for (int i = 0; i < size; i++) {
+                int h = (int) (keys[i] * 0x9E3779B97F4A7C15L >>> 40) & mask;
+                while (table[h] >= 0) {
+                    h = (h + 1) & mask;
+                }
+                table[h] = i;
+            }
+        }
+    }
+
+    //Analiza iz komandne linije:
+    //  PathAnalyzer <redovi>x<kolone> <seed> [seed...]   - table iz seed-a, kao u igri
+    //  PathAnalyzer <fajl.pack> [broj]                    - zagonetke iz paketa, sa brojem tabli po oznaci težine
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: PathAnalyzer <rows>x<columns> <seed> [seed...] | PathAnalyzer <file.pack> [count]");
+            System.exit(2);
+        }
+        PathAnalyzer analyzer = new PathAnalyzer();
+        if (args[0].endsWith(".pack")) {
+            PuzzlePack pack = PuzzlePack.read(Paths.get(args[0]));
+            int count = args.length > 1 ? Math.min(pack.size(), Integer.parseInt(args[1])) : pack.size();
+            String[] labels = {"unsolvable", "easy", "medium", "hard", "expert"};
+            long[] perLabel = new long[labels.length];
+            for (int i = 0; i < count; i++) {
+                Puzzle puzzle = pack.get(i);
+                PathAnalysis analysis = analyzer.analyze(pack.board(i));
+                perLabel[Arrays.asList(labels).indexOf(analysis.getDifficultyLabel())]++;
+                System.out.printf("%d seed=%d %s%n", i, puzzle.getSeed(), analysis);
+            }
+            for (int i = 0; i < labels.length; i++) {
+                System.out.printf("%-10s %d%n", labels[i], perLabel[i]);
+            }
+            return;
+        }
+        String[] size = args[0].split("[xX]");
+        int rows = Integer.parseInt(size[0]);
+        int columns = Integer.parseInt(size[1]);
+        for (int i = 1; i < args.length; i++) {
+            long seed = Long.parseLong(args[i]);
+            PathAnalysis analysis = analyzer.analyze(Board.generate(rows, columns, seed));
+            System.out.printf("seed=%d %s%n", seed, analysis);
+            StringBuilder scores = new StringBuilder("  paths by score:");
+            for (int s = 0; s < 10; s++) {
+                scores.append(' ').append(s).append('=').append(String.format("%.4g", analysis.getPathCount(s)));
+            }
+            System.out.println(scores);
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Solver koji traži putanju sa najboljim mogućim rezultatom (zbir / broj koraka) od trenutne pozicije do End polja
+//Koristi branch-and-bound pretragu:
+// - tabla do 64 polja staje u jedan long, pa su posećena polja, regioni i maske cifara bitboard-ovi
+// - za svaki sledeći korak se flood fill-om računa region do kog igrač još može da stigne,
+//   grana se odseca ako iz tog regiona End više nije dostižan
+// - gornja granica rezultata se računa iz najvećih cifara u tom regionu, grana se odseca
+//   ako ni u najboljem slučaju ne može da pobedi do sada najbolju putanju
+// - prvih nekoliko nivoa pretrage se deli na ForkJoin taskove, pa pretraga koristi sva jezgra
+//Ako vreme istekne, vraća se najbolja putanja pronađena do tada
+public final class PathSolver {
+
+    //Najveći broj polja koji staje u bitboard (jedan long)
+    public static final int MAX_CELLS = 64;
+
+    //Do ove dubine se svaki korak deli u poseban task, dublje se pretražuje sekvencijalno
+    private static final int SPLIT_DEPTH = 4;
+    //Na koliko obiđenih čvorova se proverava da li je isteklo vreme
+    private static final int TIME_CHECK_INTERVAL = 4096;
+
+    private final ForkJoinPool pool;
+
+    public PathSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public PathSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    //Traži najbolju putanju od trenutnog stanja table (od Start polja ako je tabla resetovana)
+    //Vraćena putanja uključuje i deo putanje koji je igrač već prešao
+    public SolverResult solve(Board board, Duration budget) {
+        if (board.getCellCount() > MAX_CELLS) {
+            throw new IllegalArgumentException("Solver supports boards with up to " + MAX_CELLS + " cells, got "
+                    + board.getCellCount());
+        }
+        long startNanos = System.nanoTime();
+        Search search = new Search(board, startNanos + budget.toNanos());
+
+        int[] prefix = new int[board.getPathLength()];
+        long visited = 0;
+        for (int i = 0; i < prefix.length; i++) {
+            prefix[i] = board.getPathCell(i);
+            visited |= 1L << prefix[i];
+        }
+
+        if (board.isFinished()) {
+            //Igra je već završena, jedina moguća putanja je ona koju je igrač prešao
+            search.offer(board.getSum(), board.getSteps(), prefix, prefix.length - 1);
+        } else {
+            int[] path = new int[board.getCellCount() + 1];
+            System.arraycopy(prefix, 0, path, 0, prefix.length);
+            SearchTask task = new SearchTask(search, board.getCurrent(), visited, board.getSum(), board.getSteps(),
+                    path, prefix.length, 0);
+            //Ako se solver poziva iz taska istog pool-a (npr. PuzzleGenerator), pretraga se radi u tom tasku
+            if (ForkJoinTask.getPool() == pool) {
+                task.invoke();
+            } else {
+                pool.invoke(task);
+            }
+        }
+        return search.result(System.nanoTime() - startNanos);
+    }
+
+    //Broji različite putanje od trenutnog stanja table do End polja čiji je rezultat bar minScore
+    //Brojanje staje kada se dostigne limit, pa se vraća najviše limit
+    //Vraća -1 ako vreme istekne pre nego što se broj sazna
+    //Radi sekvencijalno u pozivajućoj niti - pozivaoc (npr. PuzzleGenerator) paralelizuje po tablama
+    public long countPaths(Board board, int minScore, long limit, Duration budget) {
+        if (board.getCellCount() > MAX_CELLS) {
+            throw new IllegalArgumentException("Solver supports boards with up to " + MAX_CELLS + " cells, got "
+                    + board.getCellCount());
+        }
+        if (board.isFinished()) {
+            return board.calculateScore() >= minScore ? Math.min(1, limit) : 0;
+        }
+        Search search = new Search(board, System.nanoTime() + budget.toNanos());
+        long visited = 0;
+        for (int i = 0; i < board.getPathLength(); i++) {
+            visited |= 1L << board.getPathCell(i);
+        }
+        PathCounter counter = new PathCounter(search, minScore, limit);
+        counter.count(board.getCurrent(), visited, board.getSum(), board.getSteps());
+        if (search.timedOut && counter.count < limit) {
+            return -1;
+        }
+        return Math.min(counter.count, limit);
+    }
+
+    //Deljeno stanje jedne pretrage - nepromenljivi podaci o tabli i najbolja putanja do sada
+    private static final class Search {
+        private final int cellCount;
+        private final int columns;
+        private final int end;
+        private final long allCells;
+        private final long notFirstColumn;
+        private final long notLastColumn;
+        private final long endBit;
+        //Polja susedna End polju - iz njih se jednim korakom završava igra
+        private final long endNeighbors;
+        private final int[] values;
+        private final long[] digitMasks = new long[10];
+        private final long deadline;
+
+        //Najbolji do sada (zbir, broj koraka), spakovano u jedan long da bi se čitalo bez zaključavanja
+        private volatile long best = pack(-1, 1);
+        private int[] bestPath;
+        private final AtomicLong nodes = new AtomicLong();
+        private volatile boolean timedOut;
+
+        Search(Board board, long deadline) {
+            this.cellCount = board.getCellCount();
+            this.columns = board.getColumns();
+            this.end = board.getEnd();
+            this.allCells = cellCount == 64 ? -1L : (1L << cellCount) - 1;
+            long firstColumn = 0;
+            long lastColumn = 0;
+            for (int row = 0; row < board.getRows(); row++) {
+                firstColumn |= 1L << board.index(row, 0);
+                lastColumn |= 1L << board.index(row, columns - 1);
+            }
+            this.notFirstColumn = allCells & ~firstColumn;
+            this.notLastColumn = allCells & ~lastColumn;
+            this.endBit = 1L << end;
+            this.values = new int[cellCount];
+            for (int i = 0; i < cellCount; i++) {
+                values[i] = board.getValue(i);
+                if (i != end && !board.isStart(i)) {
+                    digitMasks[values[i]] |= 1L << i;
+                }
+            }
+            this.endNeighbors = expand(endBit);
+            this.deadline = deadline;
+        }
+
+        //Sva polja susedna poljima iz maske (gore, dole, levo, desno)
+        long expand(long mask) {
+            return (((mask << 1) & notFirstColumn)
+                    | ((mask >>> 1) & notLastColumn)
+                    | (mask << columns)
+                    | (mask >>> columns)) & allCells;
+        }
+
+        //Flood fill - sva polja iz free do kojih se stiže od seed polja
+        long flood(long seed, long free) {
+            long region = seed;
+            while (true) {
+                long next = (region | expand(region)) & free;
+                if (next == region) {
+                    return region;
+                }
+                region = next;
+            }
+        }
+
+        //Putanja bez koraka (Start odmah pored End) ima rezultat 0, pa se za poređenje pamti kao 0 / 1
+        static long pack(int sum, int steps) {
+            return ((long) sum << 32) | Math.max(steps, 1);
+        }
+
+        //Da li je (sum, steps) strogo bolje od najboljeg rezultata do sada
+        //Razlomci se porede unakrsnim množenjem da ne bi bilo grešaka zaokruživanja
+        boolean beatsBest(int sum, int steps) {
+            long current = best;
+            int bestSum = (int) (current >> 32);
+            int bestSteps = (int) current;
+            return (long) sum * bestSteps > (long) bestSum * Math.max(steps, 1);
+        }
+
+        //Predlaže putanju koja se završava pored End polja, pamti se samo ako je bolja od dosadašnje
+        synchronized void offer(int sum, int steps, int[] path, int length) {
+            if (!beatsBest(sum, steps)) {
+                return;
+            }
+            int[] copy = new int[length + 1];
+            System.arraycopy(path, 0, copy, 0, length);
+            copy[length] = end;
+            bestPath = copy;
+            best = pack(sum, steps);
+        }
+
+        void checkTime() {
+            if (System.nanoTime() > deadline) {
+                timedOut = true;
+            }
+        }
+
+        synchronized SolverResult result(long elapsedNanos) {
+            if (bestPath == null) {
+                return new SolverResult(null, 0, 0, !timedOut, nodes.get(), elapsedNanos);
+            }
+            int sum = 0;
+            for (int i = 1; i < bestPath.length - 1; i++) {
+                sum += values[bestPath[i]];
+            }
+            return new SolverResult(bestPath, sum, bestPath.length - 2, !timedOut, nodes.get(), elapsedNanos);
+        }
+    }
+
+    //Jedan ForkJoin task pretrage - na malim dubinama deli posao na podtaskove, dublje radi običan DFS
+    private static final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Search search;
+        private final int current;
+        private final long visited;
+        private final int sum;
+        private final int steps;
+        private final int[] path;
+        private final int length;
+        private final int depth;
+        private long localNodes;
+
+        SearchTask(Search search, int current, long visited, int sum, int steps, int[] path, int length, int depth) {
+            this.search = search;
+            this.current = current;
+            this.visited = visited;
+            this.sum = sum;
+            this.steps = steps;
+            this.path = path;
+            this.length = length;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth < SPLIT_DEPTH) {
+                split();
+            } else {
+                dfs(current, visited, sum, steps, length);
+            }
+            search.nodes.addAndGet(localNodes);
+        }
+
+        //Isti koraci kao u dfs, ali se svaki obećavajući sledeći korak pretražuje u posebnom tasku
+        private void split() {
+            Search s = search;
+            localNodes++;
+            s.checkTime();
+            if (s.timedOut) {
+                return;
+            }
+            long currentBit = 1L << current;
+            if ((s.endNeighbors & currentBit) != 0) {
+                s.offer(sum, steps, path, length);
+            }
+            long free = s.allCells & ~visited & ~s.endBit;
+            long candidates = s.expand(currentBit) & free;
+            List<SearchTask> tasks = new ArrayList<>(4);
+            long region = 0;
+            for (int digit = 9; digit >= 0 && candidates != 0; digit--) {
+                long byDigit = candidates & s.digitMasks[digit];
+                candidates &= ~byDigit;
+                for (; byDigit != 0; byDigit &= byDigit - 1) {
+                    int next = Long.numberOfTrailingZeros(byDigit);
+                    long nextBit = 1L << next;
+                    if ((region & nextBit) == 0) {
+                        region = s.flood(nextBit, free);
+                    }
+                    if ((region & s.endNeighbors) == 0 || !promising(nextBit, region, sum + digit, steps + 1)) {
+                        continue;
+                    }
+                    int[] childPath = path.clone();
+                    childPath[length] = next;
+                    tasks.add(new SearchTask(s, next, visited | nextBit, sum + digit, steps + 1,
+                            childPath, length + 1, depth + 1));
+                }
+            }
+            invokeAll(tasks);
+        }
+
+        //Sekvencijalni DFS - putanja se upisuje u isti niz, bez alokacija
+        private void dfs(int cell, long visitedMask, int currentSum, int currentSteps, int pathLength) {
+            Search s = search;
+            if ((++localNodes & (TIME_CHECK_INTERVAL - 1)) == 0) {
+                s.checkTime();
+            }
+            if (s.timedOut) {
+                return;
+            }
+            long cellBit = 1L << cell;
+            if ((s.endNeighbors & cellBit) != 0 && s.beatsBest(currentSum, currentSteps)) {
+                s.offer(currentSum, currentSteps, path, pathLength);
+            }
+            long free = s.allCells & ~visitedMask & ~s.endBit;
+            long candidates = s.expand(cellBit) & free;
+            long region = 0;
+            //Prvo se probaju polja sa većim ciframa, da bi se dobra putanja našla što ranije i više grana odseklo
+            for (int digit = 9; digit >= 0 && candidates != 0; digit--) {
+                long byDigit = candidates & s.digitMasks[digit];
+                candidates &= ~byDigit;
+                for (; byDigit != 0; byDigit &= byDigit - 1) {
+                    int next = Long.numberOfTrailingZeros(byDigit);
+                    long nextBit = 1L << next;
+                    //Susedi koji su u istom regionu dele isti flood fill
+                    if ((region & nextBit) == 0) {
+                        region = s.flood(nextBit, free);
+                    }
+                    if ((region & s.endNeighbors) == 0
+                            || !promising(nextBit, region, currentSum + digit, currentSteps + 1)) {
+                        continue;
+                    }
+                    path[pathLength] = next;
+                    dfs(next, visitedMask | nextBit, currentSum + digit, currentSteps + 1, pathLength + 1);
+                }
+            }
+        }
+
+        //Gornja granica za nastavak putanje kroz polje next, sa najboljim prosekom do sada λ = bestSum / bestSteps
+        //Putanja pobeđuje najbolju samo ako je zbir (v - λ) po svim njenim poljima veći od nule, pa je nastavak:
+        // - najviše zbir (v - λ) svih polja iz regiona koja su veća od λ (kao da ih pokupi sve)
+        // - umanjen za polja manja od λ kroz koja mora da prođe da bi stigao do End polja;
+        //   najmanji broj takvih polja se dobija 0-1 BFS-om na bitboard-u, sloj po sloj
+        //Sve je pomnoženo sa bestSteps, pa se računa samo sa celim brojevima
+        private boolean promising(long nextBit, long region, int nextSum, int nextSteps) {
+            Search s = search;
+            long current = s.best;
+            int bestSum = (int) (current >> 32);
+            int bestSteps = (int) current;
+            if (bestSum < 0) {
+                return true;
+            }
+            long gain = (long) nextSum * bestSteps - (long) bestSum * nextSteps;
+            long rest = region & ~nextBit;
+            long passable = nextBit;
+            long badPenalty = 0;
+            for (int digit = 9; digit >= 0; digit--) {
+                long weight = (long) digit * bestSteps - bestSum;
+                long cells = rest & s.digitMasks[digit];
+                if (weight >= 0) {
+                    gain += weight * Long.bitCount(cells);
+                    passable |= cells;
+                } else if (cells != 0) {
+                    badPenalty = -weight;
+                    break;
+                }
+            }
+            if (gain <= 0) {
+                return false;
+            }
+            long reach = s.flood(nextBit, passable);
+            while ((reach & s.endNeighbors) == 0) {
+                gain -= badPenalty;
+                if (gain <= 0) {
+                    return false;
+                }
+                reach |= s.expand(reach) & rest;
+                reach = s.flood(reach, passable | reach);
+            }
+            return true;
+        }
+    }
+
+    //Sekvencijalno brojanje putanja za countPaths
+    //Putanja ima rezultat bar m ako je zbir (v - m) po njenim poljima >= 0, pa se grana odseca kada ni sva
+    //polja regiona sa v > m ne mogu da pokriju ono što do sada nedostaje
+    private static final class PathCounter {
+        private final Search search;
+        private final int minScore;
+        private final long limit;
+        private long count;
+        private long nodes;
+
+        PathCounter(Search search, int minScore, long limit) {
+            this.search = search;
+            this.minScore = minScore;
+            this.limit = limit;
+        }
+
+        void count(int cell, long visitedMask, int sum, int steps) {
+            Search s = search;
+            if ((++nodes & (TIME_CHECK_INTERVAL - 1)) == 0) {
+                s.checkTime();
+            }
+            if (s.timedOut || count >= limit) {
+                return;
+            }
+            long cellBit = 1L << cell;
+            if ((s.endNeighbors & cellBit) != 0 && isGood(sum, steps)) {
+                count++;
+            }
+            long free = s.allCells & ~visitedMask & ~s.endBit;
+            long candidates = s.expand(cellBit) & free;
+            long region = 0;
+            for (; candidates != 0; candidates &= candidates - 1) {
+                int next = Long.numberOfTrailingZeros(candidates);
+                long nextBit = 1L << next;
+                if ((region & nextBit) == 0) {
+                    region = s.flood(nextBit, free);
+                }
+                int nextSum = sum + s.values[next];
+                if ((region & s.endNeighbors) == 0 || potential(region & ~nextBit, nextSum, steps + 1) < 0) {
+                    continue;
+                }
+                count(next, visitedMask | nextBit, nextSum, steps + 1);
+            }
+        }
+
+        private boolean isGood(int sum, int steps) {
+            return steps > 0 ? sum >= (long) minScore * steps : minScore <= 0;
+        }
+
+        //Najveći zbir (v - m) koji putanja može da postigne ako pokupi sva isplativa polja iz regiona
+        private long potential(long region, int sum, int steps) {
+            long potential = sum - (long) minScore * steps;
+            for (int digit = 9; digit > minScore; digit--) {
+                potential += (long) (digit - minScore) * Long.bitCount(region & search.digitMasks[digit]);
+            }
+            return potential;
+        }
+    }
+}
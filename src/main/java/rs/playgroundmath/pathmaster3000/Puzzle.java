@@ -0,0 +1,63 @@
+package rs.playgroundmath.pathmaster3000;
+
+//Jedna ocenjena zagonetka - tabla je potpuno određena seed-om i veličinom (Board.generate),
+//pa se čuvaju samo seed i ocena: najbolji mogući zbir i broj koraka, i broj dobrih putanja
+public final class Puzzle {
+
+    private final int rows;
+    private final int columns;
+    private final long seed;
+    private final int optimalSum;
+    private final int optimalSteps;
+    private final int goodPaths;
+
+    public Puzzle(int rows, int columns, long seed, int optimalSum, int optimalSteps, int goodPaths) {
+        this.rows = rows;
+        this.columns = columns;
+        this.seed = seed;
+        this.optimalSum = optimalSum;
+        this.optimalSteps = optimalSteps;
+        this.goodPaths = goodPaths;
+    }
+
+    //Nova tabla za igru, ista za isti seed
+    public Board toBoard() {
+        return Board.generate(rows, columns, seed);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getOptimalSum() {
+        return optimalSum;
+    }
+
+    public int getOptimalSteps() {
+        return optimalSteps;
+    }
+
+    //Najbolji mogući rezultat, računat isto kao u igri
+    public int getOptimalScore() {
+        return optimalSteps > 0 ? optimalSum / optimalSteps : 0;
+    }
+
+    //Broj dobrih putanja, najviše do granice do koje je generator brojao
+    public int getGoodPaths() {
+        return goodPaths;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Puzzle[%dx%d, seed=%d, best=%d (%d/%d), good paths=%d]",
+                rows, columns, seed, getOptimalScore(), optimalSum, optimalSteps, goodPaths);
+    }
+}
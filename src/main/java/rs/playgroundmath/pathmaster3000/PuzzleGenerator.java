@@ -0,0 +1,188 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+//Generator zagonetki koje ispunjavaju zadate uslove (PuzzleSpec)
+//Kandidati su table iz seed-ova izvedenih iz početnog seed-a, pa isti početni seed uvek daje iste zagonetke
+//Kandidati se ocenjuju paralelno na svim jezgrima, u blokovima, a prihvaćene zagonetke se predaju redom po indeksu kandidata,
+//tako da raspored niti ne utiče na rezultat
+//Svaki kandidat se proverava redom od najjeftinije provere: udaljenost Start-End, pa najbolji rezultat (PathSolver),
+//pa broj dobrih putanja (PathSolver.countPaths)
+public final class PuzzleGenerator {
+
+    //Koliko najviše kandidata sme da se proveri kada se traži jedna zagonetka
+    public static final long DEFAULT_MAX_CANDIDATES = 1L << 20;
+    //Broj kandidata u jednom tasku
+    private static final int CHUNK_SIZE = 32;
+    //Koliko najviše sme da traje ocenjivanje jedne table, tabla koja se ne oceni na vreme se odbacuje
+    private static final Duration RATING_BUDGET = Duration.ofMillis(250);
+    //Korak između seed-ova kandidata (isti kao u SplittableRandom), pa su susedni seed-ovi dobro rasuti
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final PuzzleSpec spec;
+    private final ForkJoinPool pool;
+    private final PathSolver solver;
+
+    public PuzzleGenerator(PuzzleSpec spec) {
+        this(spec, ForkJoinPool.commonPool());
+    }
+
+    public PuzzleGenerator(PuzzleSpec spec, ForkJoinPool pool) {
+        this.spec = spec;
+        this.pool = pool;
+        this.solver = new PathSolver(pool);
+    }
+
+    //Seed i-tog kandidata za dati početni seed
+    static long candidateSeed(long masterSeed, long index) {
+        return new SplittableRandom(masterSeed + index * SEED_GAMMA).nextLong();
+    }
+
+    //Ocenjuje tablu iz seed-a, vraća zagonetku ako ispunjava sve uslove, inače null
+    public Puzzle evaluate(long seed) {
+        Board board = Board.generate(spec.getRows(), spec.getColumns(), seed);
+        int distance = Math.abs(board.rowOf(board.getStart()) - board.rowOf(board.getEnd()))
+                + Math.abs(board.columnOf(board.getStart()) - board.columnOf(board.getEnd()));
+        if (distance < spec.getMinDistance()) {
+            return null;
+        }
+        SolverResult best = solver.solve(board, RATING_BUDGET);
+        if (!best.isSolvable() || !best.isOptimal()
+                || best.getScore() < spec.getMinScore() || best.getScore() > spec.getMaxScore()) {
+            return null;
+        }
+        long goodPaths = solver.countPaths(board, best.getScore() - spec.getGoodMargin(), spec.goodPathLimit(),
+                RATING_BUDGET);
+        if (goodPaths < 0 || goodPaths < spec.getMinGoodPaths() || goodPaths > spec.getMaxGoodPaths()) {
+            return null;
+        }
+        return new Puzzle(spec.getRows(), spec.getColumns(), seed, best.getSum(), best.getSteps(), (int) goodPaths);
+    }
+
+    //Generiše count zagonetki i predaje ih sink-u redom, u niti koja je pozvala metodu
+    //Staje i ranije ako se proveri maxCandidates kandidata, vraća broj proverenih kandidata
+    public long generate(long masterSeed, long count, long maxCandidates, Consumer<Puzzle> sink) {
+        //Jedan talas daje svakom jezgru nekoliko blokova, da se jezgra ne bi čekala na kraju talasa
+        int waveChunks = pool.getParallelism() * 4;
+        long next = 0;
+        long emitted = 0;
+        while (emitted < count && next < maxCandidates) {
+            List<ForkJoinTask<List<Puzzle>>> wave = new ArrayList<>(waveChunks);
+            for (int chunk = 0; chunk < waveChunks && next < maxCandidates; chunk++) {
+                long first = next;
+                long last = Math.min(maxCandidates, first + CHUNK_SIZE);
+                wave.add(pool.submit(() -> evaluateChunk(masterSeed, first, last)));
+                next = last;
+            }
+            for (ForkJoinTask<List<Puzzle>> task : wave) {
+                for (Puzzle puzzle : task.join()) {
+                    if (emitted < count) {
+                        sink.accept(puzzle);
+                        emitted++;
+                    }
+                }
+            }
+        }
+        return next;
+    }
+
+    //Jedna zagonetka na zahtev, npr. za novu igru zadate težine, ili null ako nijedan kandidat ne ispunjava uslove
+    public Puzzle generateOne(long masterSeed) {
+        Puzzle[] found = new Puzzle[1];
+        generate(masterSeed, 1, DEFAULT_MAX_CANDIDATES, puzzle -> found[0] = puzzle);
+        return found[0];
+    }
+
+    private List<Puzzle> evaluateChunk(long masterSeed, long first, long last) {
+        List<Puzzle> accepted = new ArrayList<>();
+        for (long index = first; index < last; index++) {
+            Puzzle puzzle = evaluate(candidateSeed(masterSeed, index));
+            if (puzzle != null) {
+                accepted.add(puzzle);
+            }
+        }
+        return accepted;
+    }
+
+    //Generisanje paketa iz komandne linije:
+    //  PuzzleGenerator <redovi>x<kolone> <broj> <fajl.pack> [--seed N] [--min-distance N] [--score MIN-MAX]
+    //                  [--good-margin N] [--good-paths MIN-MAX] [--max-candidates N]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: PuzzleGenerator <rows>x<columns> <count> <file.pack> [--seed N] [--min-distance N]"
+                    + " [--score MIN-MAX] [--good-margin N] [--good-paths MIN-MAX] [--max-candidates N]");
+            System.exit(2);
+        }
+        String[] size = args[0].split("[xX]");
+        int rows = Integer.parseInt(size[0]);
+        int columns = Integer.parseInt(size[1]);
+        long count = Long.parseLong(args[1]);
+        long seed = System.nanoTime();
+        int minDistance = 0;
+        int[] score = {0, 9};
+        int goodMargin = 0;
+        int[] goodPaths = {1, Integer.MAX_VALUE};
+        long maxCandidates = Long.MAX_VALUE;
+        for (int i = 3; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--seed":
+                    seed = Long.parseLong(args[i + 1]);
+                    break;
+                case "--min-distance":
+                    minDistance = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--score":
+                    score = parseRange(args[i + 1]);
+                    break;
+                case "--good-margin":
+                    goodMargin = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--good-paths":
+                    goodPaths = parseRange(args[i + 1]);
+                    break;
+                case "--max-candidates":
+                    maxCandidates = Long.parseLong(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        PuzzleSpec spec = new PuzzleSpec(rows, columns, minDistance, score[0], score[1], goodMargin,
+                goodPaths[0], goodPaths[1]);
+        PuzzleGenerator generator = new PuzzleGenerator(spec);
+
+        long startNanos = System.nanoTime();
+        long candidates;
+        try (PuzzlePackWriter writer = new PuzzlePackWriter(Paths.get(args[2]), spec, seed)) {
+            candidates = generator.generate(seed, count, maxCandidates, puzzle -> {
+                try {
+                    writer.write(puzzle);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            System.out.printf("%s%nseed=%d puzzles=%d candidates=%d time=%.1fs (%.0f puzzles/s)%n", spec, seed,
+                    writer.getCount(), candidates, seconds, writer.getCount() / seconds);
+        }
+    }
+
+    //Opseg "MIN-MAX" ili jedan broj
+    private static int[] parseRange(String text) {
+        int dash = text.indexOf('-', 1);
+        if (dash < 0) {
+            int value = Integer.parseInt(text);
+            return new int[]{value, value};
+        }
+        return new int[]{Integer.parseInt(text.substring(0, dash)), Integer.parseInt(text.substring(dash + 1))};
+    }
+}
@@ -0,0 +1,245 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+//Fajl sa paketom ocenjenih zagonetki (.pack), koji piše PuzzlePackWriter
+//
+//Raspored (big-endian):
+//  int    magic "PMPK"
+//  short  verzija formata
+//  short  dužina ostatka zaglavlja u bajtovima
+//  int    redovi, kolone, i uslovi iz PuzzleSpec: minDistance, minScore, maxScore, goodMargin, minGoodPaths, maxGoodPaths
+//  long   početni seed generatora, long broj zagonetki
+//  indeks - zapisi fiksne dužine (16 bajtova): long seed, short najbolji zbir, short najbolji broj koraka, int broj dobrih putanja
+//  polja (od verzije 2) - zapisi fiksne dužine, istim redom kao indeks: short Start, short End,
+//         pa vrednosti polja red po red, dve cifre po bajtu (prva u gornja 4 bita)
+//
+//Zapisi su fiksne dužine, pa se i-ta zagonetka čita direktno sa pozicije, bez čitanja prethodnih
+//Fajl se ne učitava nego mapira u memoriju (MappedByteBuffer), pa otvaranje paketa ne zavisi od njegove veličine,
+//a čitanje zagonetke učitava sa diska samo stranice na kojima su njen zapis u indeksu i njena polja
+//Indeks i polja su odvojeni, pa pretraga po oceni (select) prolazi samo kroz gusto spakovan indeks
+public final class PuzzlePack {
+
+    public static final int MAGIC = 0x504D504B;
+    public static final int VERSION = 2;
+    static final int HEADER_LENGTH = 8 + 8 * Integer.BYTES + 2 * Long.BYTES;
+    static final int RECORD_LENGTH = Long.BYTES + 2 * Short.BYTES + Integer.BYTES;
+    //Pozicija broja zagonetki u zaglavlju - upisuje se tek kada se paket zatvori
+    static final int COUNT_OFFSET = HEADER_LENGTH - Long.BYTES;
+    //Najveći mapirani deo fajla - MappedByteBuffer ne može biti veći od 2 GB, pa se veliki paketi mapiraju u delovima
+    private static final int MAX_SEGMENT_BYTES = 1 << 30;
+
+    private final PuzzleSpec spec;
+    private final long masterSeed;
+    private final int size;
+    //Zapisi se čitaju direktno iz mapiranog fajla i dekodiraju tek kada se zagonetka traži
+    private final MappedRecords records;
+    //Polja tabli, null za pakete verzije 1 - tada se tabla generiše iz seed-a
+    private final MappedRecords cells;
+
+    private PuzzlePack(PuzzleSpec spec, long masterSeed, int size, MappedRecords records, MappedRecords cells) {
+        this.spec = spec;
+        this.masterSeed = masterSeed;
+        this.size = size;
+        this.records = records;
+        this.cells = cells;
+    }
+
+    //Dužina zapisa sa poljima jedne table: Start, End i po pola bajta za svako polje
+    static int cellRecordLength(int rows, int columns) {
+        return 2 * Short.BYTES + (rows * columns + 1) / 2;
+    }
+
+    public static PuzzlePack read(Path file) throws IOException {
+        //Kanal može da se zatvori odmah posle mapiranja - mapirani delovi ostaju važeći
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_LENGTH) {
+                throw new IOException("Invalid puzzle pack size: " + fileSize + " bytes");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH);
+            //Čita se samo zaglavlje, zapisi ostaju na disku dok se ne zatraže
+            while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+                // čita se dok se bafer ne popuni
+            }
+            buffer.flip();
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a PathMaster puzzle pack");
+            }
+            int version = buffer.getShort() & 0xFFFF;
+            if (version > VERSION) {
+                throw new IOException("Puzzle pack version " + version + " is newer than supported version " + VERSION);
+            }
+            //Svaka podržana verzija ima isto zaglavlje - druga dužina znači oštećen fajl,
+            //a zapisi bi se čitali sa pogrešne pozicije
+            int headerLength = buffer.getShort() & 0xFFFF;
+            if (headerLength != HEADER_LENGTH - 8) {
+                throw new IOException("Invalid puzzle pack header length: " + headerLength);
+            }
+            long headerEnd = HEADER_LENGTH;
+            PuzzleSpec spec;
+            try {
+                spec = new PuzzleSpec(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                        buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid puzzle pack header: " + e.getMessage(), e);
+            }
+            long masterSeed = buffer.getLong();
+            long count = buffer.getLong();
+            int cellLength = version >= 2 ? cellRecordLength(spec.getRows(), spec.getColumns()) : 0;
+            if (count < 0 || count > Integer.MAX_VALUE
+                    || headerEnd + count * (RECORD_LENGTH + cellLength) != fileSize) {
+                throw new IOException("Puzzle pack length does not match puzzle count " + count);
+            }
+            MappedRecords records = new MappedRecords(channel, headerEnd, (int) count, RECORD_LENGTH);
+            MappedRecords cells = version >= 2
+                    ? new MappedRecords(channel, headerEnd + count * RECORD_LENGTH, (int) count, cellLength)
+                    : null;
+            return new PuzzlePack(spec, masterSeed, (int) count, records, cells);
+        }
+    }
+
+    public PuzzleSpec getSpec() {
+        return spec;
+    }
+
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean hasSize(int rows, int columns) {
+        return spec.getRows() == rows && spec.getColumns() == columns;
+    }
+
+    public Puzzle get(int i) {
+        checkIndex(i);
+        ByteBuffer segment = records.segment(i);
+        int position = records.offset(i);
+        return new Puzzle(spec.getRows(), spec.getColumns(), segment.getLong(position),
+                segment.getShort(position + 8), segment.getShort(position + 10), segment.getInt(position + 12));
+    }
+
+    //Tabla i-te zagonetke, spremna za igru - polja se čitaju iz paketa, bez ponovnog generisanja
+    //Tabla zadržava seed, pa se partija čuva i ponovo igra (replay) isto kao partija na generisanoj tabli
+    //Oštećen zapis (cifra veća od 9, Start ili End van table) baca IllegalStateException
+    public Board board(int i) {
+        checkIndex(i);
+        if (cells == null) {
+            return get(i).toBoard();
+        }
+        long seed = records.segment(i).getLong(records.offset(i));
+        ByteBuffer segment = cells.segment(i);
+        int position = cells.offset(i);
+        int start = segment.getShort(position);
+        int end = segment.getShort(position + 2);
+        byte[] values = new byte[spec.getRows() * spec.getColumns()];
+        for (int c = 0; c < values.length; c += 2) {
+            int packed = segment.get(position + 4 + c / 2);
+            values[c] = cellValue(i, c, (packed >> 4) & 0x0F);
+            if (c + 1 < values.length) {
+                values[c + 1] = cellValue(i, c + 1, packed & 0x0F);
+            }
+        }
+        try {
+            return new Board(spec.getRows(), spec.getColumns(), values, start, end, seed, true);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Puzzle " + i + " has invalid cells: " + e.getMessage(), e);
+        }
+    }
+
+    //Polu-bajt može da sadrži do 15, a polje samo cifru 0-9
+    private static byte cellValue(int puzzle, int cell, int value) {
+        if (value > 9) {
+            throw new IllegalStateException("Puzzle " + puzzle + " has invalid value " + value + " in cell " + cell);
+        }
+        return (byte) value;
+    }
+
+    //Indeksi zagonetki koje ispunjavaju uslove iz filtera, redom:
+    // - veličina table mora biti ista kao u filteru, inače se zapisi ni ne čitaju
+    // - najbolji mogući rezultat u opsegu [minScore, maxScore] i broj dobrih putanja u opsegu [minGoodPaths, maxGoodPaths]
+    // - Manhattan udaljenost između Start i End polja najmanje minDistance (čitaju se samo Start i End iz zapisa polja)
+    //goodMargin iz filtera se ne proverava - broj dobrih putanja je već izbrojan sa marginom paketa
+    //Indeks se pretražuje paralelno - svaka nit čita svoj deo mapiranog fajla, bez kopiranja
+    public int[] select(PuzzleSpec filter) {
+        if (!hasSize(filter.getRows(), filter.getColumns())) {
+            return new int[0];
+        }
+        return IntStream.range(0, size).parallel().filter(i -> matches(i, filter)).toArray();
+    }
+
+    private boolean matches(int i, PuzzleSpec filter) {
+        ByteBuffer segment = records.segment(i);
+        int position = records.offset(i);
+        int optimalSum = segment.getShort(position + 8);
+        int optimalSteps = segment.getShort(position + 10);
+        int score = optimalSteps > 0 ? optimalSum / optimalSteps : 0;
+        int goodPaths = segment.getInt(position + 12);
+        if (score < filter.getMinScore() || score > filter.getMaxScore()
+                || goodPaths < filter.getMinGoodPaths() || goodPaths > filter.getMaxGoodPaths()) {
+            return false;
+        }
+        if (filter.getMinDistance() <= 0) {
+            return true;
+        }
+        int start;
+        int end;
+        if (cells != null) {
+            start = cells.segment(i).getShort(cells.offset(i));
+            end = cells.segment(i).getShort(cells.offset(i) + 2);
+        } else {
+            Board board = Board.generate(spec.getRows(), spec.getColumns(), segment.getLong(position));
+            start = board.getStart();
+            end = board.getEnd();
+        }
+        int columns = spec.getColumns();
+        int distance = Math.abs(start / columns - end / columns) + Math.abs(start % columns - end % columns);
+        return distance >= filter.getMinDistance();
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Puzzle " + i + " of " + size);
+        }
+    }
+
+    //Niz zapisa fiksne dužine mapiran u jedan ili više delova
+    //Svaki deo sadrži ceo broj zapisa, pa se zapis nikada ne deli između dva dela
+    //Čita se samo apsolutnim get metodama (bez pozicije bafera), pa ga više niti mogu čitati istovremeno
+    private static final class MappedRecords {
+
+        private final MappedByteBuffer[] segments;
+        private final int recordsPerSegment;
+        private final int recordLength;
+
+        MappedRecords(FileChannel channel, long offset, int count, int recordLength) throws IOException {
+            this.recordLength = recordLength;
+            this.recordsPerSegment = MAX_SEGMENT_BYTES / recordLength;
+            int segmentCount = (int) ((count + (long) recordsPerSegment - 1) / recordsPerSegment);
+            this.segments = new MappedByteBuffer[segmentCount];
+            for (int s = 0; s < segmentCount; s++) {
+                long first = (long) s * recordsPerSegment;
+                long length = Math.min(recordsPerSegment, count - first) * recordLength;
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, offset + first * recordLength, length);
+            }
+        }
+
+        ByteBuffer segment(int i) {
+            return segments[i / recordsPerSegment];
+        }
+
+        int offset(int i) {
+            return (i % recordsPerSegment) * recordLength;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//Piše zagonetke u .pack fajl (format je opisan u PuzzlePack) redom kako stižu iz generatora
+//Zapisi se skupljaju u bafer i pišu u većim blokovima, a broj zagonetki se upisuje u zaglavlje pri zatvaranju
+//Broj zagonetki se ne zna unapred, pa se polja tabli pišu u privremeni fajl pored paketa
+//i pri zatvaranju prepisuju iza indeksa
+public final class PuzzlePackWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final PuzzleSpec spec;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final FileChannel cellChannel;
+    private final ByteBuffer cellBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final int cellRecordLength;
+    private long count;
+
+    public PuzzlePackWriter(Path file, PuzzleSpec spec, long masterSeed) throws IOException {
+        this.spec = spec;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.cellRecordLength = PuzzlePack.cellRecordLength(spec.getRows(), spec.getColumns());
+        try {
+            this.cellChannel = FileChannel.open(file.resolveSibling(file.getFileName() + ".cells.tmp"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        buffer.putInt(PuzzlePack.MAGIC);
+        buffer.putShort((short) PuzzlePack.VERSION);
+        buffer.putShort((short) (PuzzlePack.HEADER_LENGTH - 8));
+        buffer.putInt(spec.getRows());
+        buffer.putInt(spec.getColumns());
+        buffer.putInt(spec.getMinDistance());
+        buffer.putInt(spec.getMinScore());
+        buffer.putInt(spec.getMaxScore());
+        buffer.putInt(spec.getGoodMargin());
+        buffer.putInt(spec.getMinGoodPaths());
+        buffer.putInt(spec.getMaxGoodPaths());
+        buffer.putLong(masterSeed);
+        buffer.putLong(0);
+    }
+
+    public void write(Puzzle puzzle) throws IOException {
+        if (puzzle.getRows() != spec.getRows() || puzzle.getColumns() != spec.getColumns()) {
+            throw new IllegalArgumentException("Puzzle size does not match the pack");
+        }
+        if (buffer.remaining() < PuzzlePack.RECORD_LENGTH) {
+            drain(channel, buffer);
+        }
+        buffer.putLong(puzzle.getSeed());
+        buffer.putShort((short) puzzle.getOptimalSum());
+        buffer.putShort((short) puzzle.getOptimalSteps());
+        buffer.putInt(puzzle.getGoodPaths());
+        writeCells(puzzle.toBoard());
+        count++;
+    }
+
+    //Start, End i vrednosti polja, dve cifre po bajtu
+    private void writeCells(Board board) throws IOException {
+        if (cellBuffer.remaining() < cellRecordLength) {
+            drain(cellChannel, cellBuffer);
+        }
+        cellBuffer.putShort((short) board.getStart());
+        cellBuffer.putShort((short) board.getEnd());
+        int cellCount = board.getCellCount();
+        for (int c = 0; c < cellCount; c += 2) {
+            int high = board.getValue(c);
+            int low = c + 1 < cellCount ? board.getValue(c + 1) : 0;
+            cellBuffer.put((byte) (high << 4 | low));
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    private static void drain(FileChannel target, ByteBuffer source) throws IOException {
+        source.flip();
+        while (source.hasRemaining()) {
+            target.write(source);
+        }
+        source.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain(channel, buffer);
+            drain(cellChannel, cellBuffer);
+            long cellBytes = cellChannel.size();
+            for (long copied = 0; copied < cellBytes; ) {
+                copied += cellChannel.transferTo(copied, cellBytes - copied, channel);
+            }
+            ByteBuffer countBuffer = ByteBuffer.allocate(Long.BYTES).putLong(0, count);
+            while (countBuffer.hasRemaining()) {
+                channel.write(countBuffer, PuzzlePack.COUNT_OFFSET + countBuffer.position());
+            }
+        } finally {
+            try {
+                cellChannel.close();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
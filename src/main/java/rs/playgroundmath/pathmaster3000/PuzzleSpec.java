@@ -0,0 +1,87 @@
+package rs.playgroundmath.pathmaster3000;
+
+//Uslovi koje generisana zagonetka mora da ispuni (PuzzleGenerator)
+// - najmanja Manhattan udaljenost između Start i End polja
+// - najbolji mogući rezultat table (PathSolver) mora biti u opsegu [minScore, maxScore]
+// - broj različitih "dobrih" putanja mora biti u opsegu [minGoodPaths, maxGoodPaths];
+//   dobra putanja je ona čiji je rezultat najviše goodMargin manji od najboljeg mogućeg
+//Manje dobrih putanja znači težu zagonetku - igrač mora da nađe baš jednu od retkih dobrih putanja
+public final class PuzzleSpec {
+
+    private final int rows;
+    private final int columns;
+    private final int minDistance;
+    private final int minScore;
+    private final int maxScore;
+    private final int goodMargin;
+    private final int minGoodPaths;
+    private final int maxGoodPaths;
+
+    //Bez ograničenja - svaka tabla date veličine je prihvatljiva
+    public PuzzleSpec(int rows, int columns) {
+        this(rows, columns, 0, 0, 9, 0, 1, Integer.MAX_VALUE);
+    }
+
+    public PuzzleSpec(int rows, int columns, int minDistance, int minScore, int maxScore,
+                      int goodMargin, int minGoodPaths, int maxGoodPaths) {
+        if (rows <= 0 || columns <= 0 || rows * columns < 2 || rows * columns > PathSolver.MAX_CELLS) {
+            throw new IllegalArgumentException("Puzzles are rated by PathSolver, board must have 2 to "
+                    + PathSolver.MAX_CELLS + " cells, got " + rows + "x" + columns);
+        }
+        if (minScore > maxScore || minGoodPaths > maxGoodPaths || minGoodPaths < 0 || goodMargin < 0) {
+            throw new IllegalArgumentException("Invalid puzzle constraints");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.minDistance = minDistance;
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+        this.goodMargin = goodMargin;
+        this.minGoodPaths = minGoodPaths;
+        this.maxGoodPaths = maxGoodPaths;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getMinDistance() {
+        return minDistance;
+    }
+
+    public int getMinScore() {
+        return minScore;
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    public int getGoodMargin() {
+        return goodMargin;
+    }
+
+    public int getMinGoodPaths() {
+        return minGoodPaths;
+    }
+
+    public int getMaxGoodPaths() {
+        return maxGoodPaths;
+    }
+
+    //Do kog broja treba brojati dobre putanje - dovoljno je znati da li je broj iznad gornje granice
+    long goodPathLimit() {
+        return maxGoodPaths == Integer.MAX_VALUE ? minGoodPaths : (long) maxGoodPaths + 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PuzzleSpec[%dx%d, distance>=%d, score=%d-%d, good paths (margin %d)=%d-%s]",
+                rows, columns, minDistance, minScore, maxScore, goodMargin, minGoodPaths,
+                maxGoodPaths == Integer.MAX_VALUE ? "any" : String.valueOf(maxGoodPaths));
+    }
+}
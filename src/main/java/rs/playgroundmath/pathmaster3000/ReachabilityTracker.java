@@ -0,0 +1,482 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.util.Arrays;
+
+//Prati da li je End polje još dostižno od trenutne pozicije kroz neposećena polja, posle svakog poteza
+//Za svaku dubinu putanje se pamte 4 bita: da li se od suseda u tom smeru (gore, desno, dole, levo) može stići do End polja
+//Kada igrač stane na polje, to polje postaje zid. Tada:
+// - ako su slobodni susedi polja povezani i oko njega (preko dijagonala), zid ne deli nijedan region,
+//   pa svi susedi nasleđuju odgovor od prethodnog poteza - O(1), bez pretrage
+// - inače se region možda podelio na delove; pretražuje se iz svakog dela naizmenično (BFS, korak po korak)
+//   i staje se čim je poznat odgovor za sve delove, pa je cena srazmerna manjim delovima, a ne celoj tabli
+//Undo samo skida poslednju dubinu, jer su odgovori za kraću putanju već zapamćeni
+//sync() se poziva posle svake promene table (potez, undo, reset), a radi i posle više promena odjednom
+public final class ReachabilityTracker {
+
+    private static final int UP = Board.UP;
+    private static final int RIGHT = Board.RIGHT;
+    private static final int DOWN = Board.DOWN;
+    private static final int LEFT = Board.LEFT;
+    private static final int INITIAL_QUEUE_SIZE = 64;
+
+    private final Board board;
+    private final int columns;
+    private final int cellCount;
+
+    //Za svaku dubinu putanje: polje i bitovi smerova iz kojih je End dostižan
+    private final int[] cellAtDepth;
+    private final byte[] reachFlags;
+    private int depth;
+    //Zobrist heš putanje do dubine depth, isti kao Board.getPositionHash() za tu putanju
+    private long trackedHash;
+
+    //Pomoćni nizovi za pretragu - polje pripada tekućoj pretrazi ako je stamp[polje] == epoch
+    private final int[] stamp;
+    private final byte[] owner;
+    private int epoch;
+    private final int[][] queues = new int[4][INITIAL_QUEUE_SIZE];
+    private final int[] heads = new int[4];
+    private final int[] tails = new int[4];
+    //Delovi regiona koji su se u pretrazi spojili (union-find nad najviše 4 dela)
+    private final int[] parent = new int[4];
+    private final boolean[] foundEnd = new boolean[4];
+
+    //Broj poteza rešenih lokalno i broj poteza za koje je bila potrebna pretraga
+    private long localUpdates;
+    private long searchUpdates;
+
+    public ReachabilityTracker(Board board) {
+        this.board = board;
+        this.columns = board.getColumns();
+        this.cellCount = board.getCellCount();
+        this.cellAtDepth = new int[cellCount];
+        this.reachFlags = new byte[cellCount];
+        this.stamp = new int[cellCount];
+        this.owner = new byte[cellCount];
+        sync();
+    }
+
+    //Usklađuje stanje sa putanjom table - skida dubine koje više nisu na putanji i obrađuje nove poteze
+    //Isto poslednje polje ne znači istu putanju (posle dva undo-a putanja može drugim putem stići na isto polje),
+    //pa se poredi i heš: heš table se vraća unazad do dubine depth, a dubina se skida dok se heševi ne poklope
+    public void sync() {
+        int length = board.getPathLength();
+        while (depth > length) {
+            pop();
+        }
+        long boardHash = board.getPositionHash();
+        for (int i = length - 1; i >= depth; i--) {
+            boardHash = i > 0 ? Board.stepHash(boardHash, board.getPathCell(i - 1), board.getPathCell(i)) : 0;
+        }
+        while (depth > 0 && (cellAtDepth[depth - 1] != board.getPathCell(depth - 1) || trackedHash != boardHash)) {
+            boardHash = depth > 1
+                    ? Board.stepHash(boardHash, board.getPathCell(depth - 2), board.getPathCell(depth - 1)) : 0;
+            pop();
+        }
+        int pending = length - depth;
+        if (pending == 1) {
+            push(board.getPathCell(depth));
+        } else if (pending > 1) {
+            //Odgovor za svaku dubinu mora da vidi tablu kakva je bila posle tog poteza, bez kasnijih poteza,
+            //pa se novi potezi poništavaju i ponovo odigravaju jedan po jedan (tabla je na kraju u istom stanju)
+            int[] moves = new int[pending];
+            for (int i = 0; i < pending; i++) {
+                moves[i] = board.getPathCell(depth + i);
+            }
+            for (int i = 1; i < pending; i++) {
+                board.undo();
+            }
+            push(moves[0]);
+            for (int i = 1; i < pending; i++) {
+                board.move(moves[i]);
+                push(moves[i]);
+            }
+        }
+    }
+
+    //Dodaje dubinu za polje na koje je igrač upravo stao - tabla je u stanju posle tog poteza
+    private void push(int cell) {
+        //Na početku je cela tabla povezana, pa je End dostižan sa Start polja
+        boolean reached = depth == 0
+                || (reachFlags[depth - 1] & (1 << board.direction(cellAtDepth[depth - 1], cell))) != 0;
+        reachFlags[depth] = (byte) update(cell, reached);
+        cellAtDepth[depth] = cell;
+        trackedHash = depth == 0 ? Board.startHash(cell) : Board.stepHash(trackedHash, cellAtDepth[depth - 1], cell);
+        depth++;
+    }
+
+    private void pop() {
+        depth--;
+        trackedHash = depth > 0 ? Board.stepHash(trackedHash, cellAtDepth[depth - 1], cellAtDepth[depth]) : 0;
+    }
+
+    //Da li se od trenutne pozicije još može stići do End polja
+    public boolean isEndReachable() {
+        sync();
+        return board.isFinished() || reachFlags[depth - 1] != 0;
+    }
+
+    //Da li se od trenutne pozicije može stići do End polja preko suseda u datom smeru (0 gore, 1 desno, 2 dole, 3 levo)
+    public boolean leadsToEnd(int direction) {
+        sync();
+        return (reachFlags[depth - 1] & (1 << direction)) != 0;
+    }
+
+    //Da li potez na polje ostavlja End dostižnim - polje mora biti slobodan sused trenutne pozicije
+    public boolean isSafeMove(int index) {
+        int current = board.getCurrent();
+        return board.canMove(index) && leadsToEnd(board.direction(current, index));
+    }
+
+    //Bitovi smerova iz kojih je End dostižan, posle poteza na polje cell (polje je već posećeno)
+    //reached je da li je End bio dostižan iz polja pre nego što je igrač stao na njega
+    private int update(int cell, boolean reached) {
+        if (board.isEnd(cell)) {
+            return 0;
+        }
+        int row = cell / columns;
+        int column = cell - row * columns;
+        int flags = 0;
+        int open = 0;
+        for (int direction = 0; direction < 4; direction++) {
+            int next = neighbor(cell, direction);
+            if (next < 0 || board.isVisited(next)) {
+                continue;
+            }
+            if (board.isEnd(next)) {
+                flags |= 1 << direction;
+            } else {
+                open |= 1 << direction;
+            }
+        }
+        if (open == 0 || !reached) {
+            return flags;
+        }
+
+        //Susedni smerovi su povezani oko polja ako je i dijagonala između njih slobodna
+        int[] group = {UP, RIGHT, DOWN, LEFT};
+        for (int direction = 0; direction < 4; direction++) {
+            int next = (direction + 1) & 3;
+            if ((open & (1 << direction)) != 0 && (open & (1 << next)) != 0
+                    && isOpen(row + diagonalRow(direction), column + diagonalColumn(direction))) {
+                int a = root(group, direction);
+                int b = root(group, next);
+                group[Math.max(a, b)] = Math.min(a, b);
+            }
+        }
+        int groups = 0;
+        for (int direction = 0; direction < 4; direction++) {
+            if ((open & (1 << direction)) != 0 && root(group, direction) == direction) {
+                groups++;
+            }
+        }
+        //Ako je End sused polja, ne zna se da li je dostižan i bez prolaska kroz ovo polje
+        boolean inferable = flags == 0;
+        if (groups == 1 && inferable) {
+            localUpdates++;
+            return flags | open;
+        }
+        searchUpdates++;
+        return flags | search(cell, open, group, inferable);
+    }
+
+    //Naizmenična pretraga iz svakog dela regiona oko polja
+    //Staje kada je za svaki deo poznato da li dodiruje End:
+    // - deo koji je pretražen do kraja dodiruje End samo ako ga je pretraga našla
+    // - ako je ostao samo jedan nepretražen deo, a End je bio dostižan i niko drugi ga nije našao, End je u tom delu
+    private int search(int cell, int open, int[] group, boolean inferable) {
+        if (++epoch == 0) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        for (int direction = 0; direction < 4; direction++) {
+            heads[direction] = 0;
+            tails[direction] = 0;
+            parent[direction] = direction;
+            foundEnd[direction] = false;
+        }
+        for (int direction = 0; direction < 4; direction++) {
+            if ((open & (1 << direction)) != 0) {
+                int g = root(group, direction);
+                int next = neighbor(cell, direction);
+                stamp[next] = epoch;
+                owner[next] = (byte) g;
+                enqueue(g, next);
+            }
+        }
+
+        while (true) {
+            int active = -1;
+            int activeCount = 0;
+            boolean anyFound = false;
+            for (int g = 0; g < 4; g++) {
+                if (parent[g] != g) {
+                    continue;
+                }
+                anyFound |= foundEnd[g];
+                if (hasWork(g)) {
+                    active = g;
+                    activeCount++;
+                }
+            }
+            if (activeCount == 0) {
+                break;
+            }
+            if (activeCount == 1 && (foundEnd[active] || (inferable && !anyFound))) {
+                foundEnd[active] = true;
+                break;
+            }
+            for (int g = 0; g < 4; g++) {
+                if (heads[g] < tails[g]) {
+                    expand(g);
+                }
+            }
+        }
+
+        int flags = 0;
+        for (int direction = 0; direction < 4; direction++) {
+            if ((open & (1 << direction)) != 0 && foundEnd[find(root(group, direction))]) {
+                flags |= 1 << direction;
+            }
+        }
+        return flags;
+    }
+
+    //Jedan korak pretrage dela g - uzima polje iz reda i dodaje njegove slobodne susede
+    private void expand(int g) {
+        int cell = queues[g][heads[g]++];
+        for (int direction = 0; direction < 4; direction++) {
+            int next = neighbor(cell, direction);
+            if (next < 0 || board.isVisited(next)) {
+                continue;
+            }
+            if (board.isEnd(next)) {
+                foundEnd[find(g)] = true;
+            } else if (stamp[next] != epoch) {
+                stamp[next] = epoch;
+                owner[next] = (byte) g;
+                enqueue(g, next);
+            } else {
+                int a = find(g);
+                int b = find(owner[next]);
+                if (a != b) {
+                    parent[Math.max(a, b)] = Math.min(a, b);
+                    foundEnd[Math.min(a, b)] |= foundEnd[Math.max(a, b)];
+                }
+            }
+        }
+    }
+
+    //Da li neki deo koji pripada ovom korenu još ima polja za pretragu
+    private boolean hasWork(int root) {
+        for (int g = 0; g < 4; g++) {
+            if (heads[g] < tails[g] && find(g) == root) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void enqueue(int g, int cell) {
+        if (tails[g] == queues[g].length) {
+            queues[g] = Arrays.copyOf(queues[g], Math.min(cellCount, queues[g].length * 2));
+        }
+        queues[g][tails[g]++] = cell;
+    }
+
+    private int find(int g) {
+        while (parent[g] != g) {
+            g = parent[g];
+        }
+        return g;
+    }
+
+    private static int root(int[] group, int direction) {
+        while (group[direction] != direction) {
+            direction = group[direction];
+        }
+        return direction;
+    }
+
+    private boolean isOpen(int row, int column) {
+        int index = board.index(row, column);
+        return index != Board.NO_CELL && !board.isVisited(index) && !board.isEnd(index);
+    }
+
+    //Dijagonala između smera direction i sledećeg smera u krug (gore-desno, desno-dole, dole-levo, levo-gore)
+    private static int diagonalRow(int direction) {
+        return direction == UP || direction == LEFT ? -1 : 1;
+    }
+
+    private static int diagonalColumn(int direction) {
+        return direction == UP || direction == RIGHT ? 1 : -1;
+    }
+
+    //Susedno polje u smeru, ili -1 ako je van table
+    private int neighbor(int cell, int direction) {
+        switch (direction) {
+            case UP:
+                return cell >= columns ? cell - columns : -1;
+            case RIGHT:
+                return (cell + 1) % columns != 0 ? cell + 1 : -1;
+            case DOWN:
+                return cell + columns < cellCount ? cell + columns : -1;
+            default:
+                return cell % columns != 0 ? cell - 1 : -1;
+        }
+    }
+
+    //Predlog sledećeg poteza: probaju se svi nizovi od najviše lookahead poteza koji ne odsecaju End,
+    //i bira se prvi potez niza sa najboljim prosekom na kraju (ili završetkom igre)
+    //Tabla se privremeno menja (move + undo), a na kraju je u istom stanju
+    //Vraća Board.NO_CELL ako je igra završena ili End više nije dostižan
+    public int hint(int lookahead) {
+        sync();
+        if (board.isFinished()) {
+            return Board.NO_CELL;
+        }
+        int current = board.getCurrent();
+        int best = Board.NO_CELL;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        int flags = reachFlags[depth - 1];
+        for (int direction = 0; direction < 4; direction++) {
+            if ((flags & (1 << direction)) != 0) {
+                int next = neighbor(current, direction);
+                double value = evaluate(next, lookahead - 1);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = next;
+                }
+            }
+        }
+        return best;
+    }
+
+    private double evaluate(int cell, int remaining) {
+        board.move(cell);
+        sync();
+        double value;
+        if (board.isFinished() || remaining <= 0) {
+            value = board.getSteps() > 0 ? (double) board.getSum() / board.getSteps() : 0;
+        } else {
+            value = Double.NEGATIVE_INFINITY;
+            int flags = reachFlags[depth - 1];
+            for (int direction = 0; direction < 4; direction++) {
+                if ((flags & (1 << direction)) != 0) {
+                    value = Math.max(value, evaluate(neighbor(cell, direction), remaining - 1));
+                }
+            }
+        }
+        board.undo();
+        sync();
+        return value;
+    }
+
+    //Slobodna polja do kojih igrač još može da stigne od trenutne pozicije (bez End polja)
+    public CellBitSet reachableRegion() {
+        CellBitSet region = new CellBitSet(cellCount);
+        int[] queue = new int[cellCount];
+        int tail = 0;
+        int current = board.getCurrent();
+        for (int direction = 0; direction < 4; direction++) {
+            int next = neighbor(current, direction);
+            if (next >= 0 && !board.isVisited(next) && !board.isEnd(next) && !region.get(next)) {
+                region.set(next);
+                queue[tail++] = next;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int cell = queue[head];
+            for (int direction = 0; direction < 4; direction++) {
+                int next = neighbor(cell, direction);
+                if (next >= 0 && !board.isVisited(next) && !board.isEnd(next) && !region.get(next)) {
+                    region.set(next);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return region;
+    }
+
+    //Broj odvojenih regiona slobodnih polja na celoj tabli (bez End polja)
+    //Više od jednog regiona znači da je putanja podelila tablu i da neka polja više nisu dostižna
+    public int countRegions() {
+        CellBitSet seen = new CellBitSet(cellCount);
+        int[] queue = new int[cellCount];
+        int regions = 0;
+        for (int start = 0; start < cellCount; start++) {
+            if (board.isVisited(start) || board.isEnd(start) || seen.get(start)) {
+                continue;
+            }
+            regions++;
+            int tail = 0;
+            seen.set(start);
+            queue[tail++] = start;
+            for (int head = 0; head < tail; head++) {
+                int cell = queue[head];
+                for (int direction = 0; direction < 4; direction++) {
+                    int next = neighbor(cell, direction);
+                    if (next >= 0 && !board.isVisited(next) && !board.isEnd(next) && !seen.get(next)) {
+                        seen.set(next);
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        return regions;
+    }
+
+    //Artikulaciona polja regiona dostižnog od trenutne pozicije - polja čijim posećivanjem se region deli na delove
+    //Tarjan-ov algoritam sa DFS-om bez rekurzije (stek je niz), pa radi i na ogromnim tablama
+    public CellBitSet articulationPoints() {
+        CellBitSet points = new CellBitSet(cellCount);
+        int[] discovery = new int[cellCount];
+        int[] low = new int[cellCount];
+        int[] parentCell = new int[cellCount];
+        int[] nextDirection = new int[cellCount];
+        int[] stack = new int[cellCount + 1];
+        int time = 0;
+
+        //Koren DFS-a je trenutna pozicija - ona je već posećena, ali je početak svake buduće putanje
+        int root = board.getCurrent();
+        int top = 0;
+        stack[top++] = root;
+        discovery[root] = low[root] = ++time;
+        parentCell[root] = -1;
+        while (top > 0) {
+            int cell = stack[top - 1];
+            if (nextDirection[cell] < 4) {
+                int next = neighbor(cell, nextDirection[cell]++);
+                if (next < 0 || board.isEnd(next) || (next != root && board.isVisited(next))) {
+                    continue;
+                }
+                if (discovery[next] == 0) {
+                    parentCell[next] = cell;
+                    discovery[next] = low[next] = ++time;
+                    stack[top++] = next;
+                } else if (next != parentCell[cell]) {
+                    low[cell] = Math.min(low[cell], discovery[next]);
+                }
+            } else {
+                top--;
+                int up = parentCell[cell];
+                if (up >= 0) {
+                    low[up] = Math.min(low[up], low[cell]);
+                    if (up != root && low[cell] >= discovery[up]) {
+                        points.set(up);
+                    }
+                }
+            }
+        }
+        //Trenutna pozicija se nikada ne označava - igrač je već na njoj
+        return points;
+    }
+
+    public long getLocalUpdates() {
+        return localUpdates;
+    }
+
+    public long getSearchUpdates() {
+        return searchUpdates;
+    }
+}
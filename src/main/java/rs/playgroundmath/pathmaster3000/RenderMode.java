@@ -0,0 +1,9 @@
+package rs.playgroundmath.pathmaster3000;
+
+//Način iscrtavanja table
+public enum RenderMode {
+    //Jedno dugme po polju u GridPane-u - pogodno za male table
+    GRID_PANE,
+    //Cela tabla se crta na jednom Canvas-u, crta se samo vidljivi deo - pogodno za velike table
+    CANVAS
+}
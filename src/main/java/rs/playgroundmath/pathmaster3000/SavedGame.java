@@ -0,0 +1,34 @@
+package rs.playgroundmath.pathmaster3000;
+
+//Sve što se čuva u .game fajlu - tabla sa putanjom, proteklo vreme i boje
+public final class SavedGame {
+
+    private final Board board;
+    private final int timeElapsed;
+    private final String pathColor;
+    private final String gameColor;
+
+    public SavedGame(Board board, int timeElapsed, String pathColor, String gameColor) {
+        this.board = board;
+        this.timeElapsed = timeElapsed;
+        this.pathColor = pathColor;
+        this.gameColor = gameColor;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public int getTimeElapsed() {
+        return timeElapsed;
+    }
+
+    public String getPathColor() {
+        return pathColor;
+    }
+
+    //null ako korisnik nije menjao boju igre
+    public String getGameColor() {
+        return gameColor;
+    }
+}
@@ -0,0 +1,155 @@
+package rs.playgroundmath.pathmaster3000;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+
+import java.util.Arrays;
+
+//Unos putanje u segmentima - prevlačenje miša preko polja i strelice (ili WASD) na tastaturi
+//Gest ne pravi potez po događaju, nego dodaje polja u segment, a segment se predaje kontroleru jednom po pulsu
+//Kontroler ga primenjuje odjednom (Board.applySegment), pa se polja, rezultat i statistike menjaju jednom po frejmu
+//bez obzira na to koliko je polja miš prešao u tom frejmu
+//Kada miš između dva događaja preskoči više polja (brzo prevlačenje), dodaju se i polja između,
+//pa segment ostaje niz susednih polja
+final class SegmentInput {
+
+    private Board board;
+    private BoardView.SegmentHandler handler;
+    //Poziva se posle predaje segmenta, da prikaz iscrta promenjena polja u istom pulsu
+    private final Runnable afterFlush;
+    private int[] cells = new int[64];
+    private int size;
+    //Polje ispod miša dok je levi taster pritisnut, Board.NO_CELL van gesta
+    private int pointerCell = Board.NO_CELL;
+    private boolean dragged;
+    private boolean scheduled;
+
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            scheduled = false;
+            flush();
+        }
+    };
+
+    SegmentInput(Runnable afterFlush) {
+        this.afterFlush = afterFlush;
+    }
+
+    //Nova tabla u prikazu - započeti gest i segment koji nije predat se odbacuju
+    void bind(Board board) {
+        this.board = board;
+        cancel();
+    }
+
+    void setHandler(BoardView.SegmentHandler handler) {
+        this.handler = handler;
+    }
+
+    //Pritisak levog tastera na polju - potez se pravi tek kada miš pređe na drugo polje,
+    //a klik bez pomeranja ostaje običan klik
+    void press(int cell) {
+        pointerCell = cell;
+        dragged = false;
+    }
+
+    //Miš je sa pritisnutim tasterom na polju cell - dodaju se sva polja od prethodnog do ovog
+    //Ako gest nije počeo na polju igrača, prvo polje gesta je prvi potez
+    void drag(int cell) {
+        if (cell == Board.NO_CELL || pointerCell == Board.NO_CELL || cell == pointerCell) {
+            return;
+        }
+        if (!dragged) {
+            dragged = true;
+            if (pointerCell != board.getCurrent()) {
+                add(pointerCell);
+            }
+        }
+        int row = board.rowOf(pointerCell);
+        int column = board.columnOf(pointerCell);
+        int targetRow = board.rowOf(cell);
+        int targetColumn = board.columnOf(cell);
+        //Korak ide po osi sa većom preostalom razlikom, pa kosi potez miša postaje stepenasta putanja
+        while (row != targetRow || column != targetColumn) {
+            if (Math.abs(targetRow - row) >= Math.abs(targetColumn - column)) {
+                row += Integer.signum(targetRow - row);
+            } else {
+                column += Integer.signum(targetColumn - column);
+            }
+            add(board.index(row, column));
+        }
+        pointerCell = cell;
+    }
+
+    //Kraj gesta, vraća true ako je miš prevlačen - tada otpuštanje tastera nije klik
+    boolean release() {
+        boolean wasDragged = dragged;
+        pointerCell = Board.NO_CELL;
+        dragged = false;
+        return wasDragged;
+    }
+
+    //Strelice i WASD pomeraju putanju za jedno polje od kraja segmenta, odnosno od igrača
+    //Vraća true ako je taster obrađen, da se događaj ne bi koristio i za prelazak fokusa između dugmića
+    boolean keyPressed(KeyEvent event) {
+        if (event.isShortcutDown() || event.isAltDown() || board == null) {
+            return false;
+        }
+        int rowStep = 0;
+        int columnStep = 0;
+        KeyCode code = event.getCode();
+        if (code == KeyCode.UP || code == KeyCode.W) {
+            rowStep = -1;
+        } else if (code == KeyCode.DOWN || code == KeyCode.S) {
+            rowStep = 1;
+        } else if (code == KeyCode.LEFT || code == KeyCode.A) {
+            columnStep = -1;
+        } else if (code == KeyCode.RIGHT || code == KeyCode.D) {
+            columnStep = 1;
+        } else {
+            return false;
+        }
+        int from = size > 0 ? cells[size - 1] : board.getCurrent();
+        int next = board.index(board.rowOf(from) + rowStep, board.columnOf(from) + columnStep);
+        if (next != Board.NO_CELL) {
+            add(next);
+        }
+        return true;
+    }
+
+    //Odbacuje segment koji još nije predat
+    void cancel() {
+        pulse.stop();
+        scheduled = false;
+        size = 0;
+        pointerCell = Board.NO_CELL;
+        dragged = false;
+    }
+
+    //Putanja ne može biti duža od broja polja, pa se segment ne produžava preko toga ni pri ogromnom skoku miša
+    private void add(int cell) {
+        if (size >= board.getCellCount()) {
+            return;
+        }
+        if (size == cells.length) {
+            cells = Arrays.copyOf(cells, size * 2);
+        }
+        cells[size++] = cell;
+        if (!scheduled) {
+            scheduled = true;
+            pulse.start();
+        }
+    }
+
+    private void flush() {
+        int length = size;
+        size = 0;
+        if (length == 0 || handler == null) {
+            return;
+        }
+        handler.accept(cells, length);
+        afterFlush.run();
+    }
+}
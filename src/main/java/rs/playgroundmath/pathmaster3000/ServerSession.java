@@ -0,0 +1,311 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+//Stanje jedne veze na serveru (GameServer) i izvršavanje komandi tekstualnog protokola
+//Igra je samo Board model - polja, posećena polja i putanja su primitivni nizovi, pa sesija na tabli 5x5 zauzima
+//nekoliko stotina bajtova. Komanda se čita direktno iz bafera i odgovor se upisuje direktno u bafer, bez alokacija
+//
+//Protokol - jedna komanda po liniji (ASCII, '\n' na kraju), jedan odgovor po komandi:
+//  NEW <redovi>x<kolone> [seed]  -> OK <seed> <start> <end>          nova igra (seed se bira ako nije zadat)
+//  BOARD                         -> OK <redovi> <kolone> <start> <end> <cifre polja red po red>
+//  MOVE <indeks polja>           -> OK ACCEPTED|FINISHED <rezultat>  ili  NO <razlog iz MoveResult>
+//  UNDO                          -> OK <trenutno polje>              ili  NO
+//  STATE                         -> OK <trenutno polje> <koraci> <zbir> <rezultat> <0|1 završena>
+//  FINISH                        -> OK <rezultat> <koraci> <milisekunde>  i igra se zatvara,  ili  NO NOT_FINISHED
+//  QUIT                          -> OK  i veza se zatvara
+//Greška u komandi (nepoznata komanda, nema igre, loši argumenti) vraća ERR <opis>
+//Klijent ne mora da čeka odgovor pre slanja sledeće komande - odgovori dolaze istim redom
+final class ServerSession {
+
+    //Najduži odgovor osim BOARD
+    static final int MAX_RESPONSE = 128;
+    //Najveća tabla po sesiji, da jedna veza ne bi zauzela mnogo memorije
+    static final int MAX_CELLS = 1 << 16;
+
+    private static final byte[] OK = ascii("OK");
+    private static final byte[] NO = ascii("NO");
+    private static final byte[] ERR = ascii("ERR ");
+    private static final byte[] NOT_FINISHED = ascii("NOT_FINISHED");
+    private static final byte[][] RESULT_NAMES = new byte[MoveResult.values().length][];
+
+    static {
+        for (MoveResult result : MoveResult.values()) {
+            RESULT_NAMES[result.ordinal()] = ascii(result.name());
+        }
+    }
+
+    private final SplittableRandom random = new SplittableRandom();
+    private Board board;
+    private long startedNanos;
+    private boolean closed;
+    private long moves;
+
+    //Pozicija čitanja u liniji koja se trenutno izvršava
+    private ByteBuffer line;
+    private int position;
+    private int end;
+
+    //Izvršava jednu liniju (bajtovi od start do end, bez '\n') i upisuje odgovor u out
+    void execute(ByteBuffer in, int start, int end, ByteBuffer out) {
+        this.line = in;
+        this.position = start;
+        this.end = end > start && in.get(end - 1) == '\r' ? end - 1 : end;
+        skipSpaces();
+        if (command("MOVE")) {
+            move(out);
+        } else if (command("NEW")) {
+            newGame(out);
+        } else if (command("UNDO")) {
+            undo(out);
+        } else if (command("STATE")) {
+            state(out);
+        } else if (command("BOARD")) {
+            board(out);
+        } else if (command("FINISH")) {
+            finish(out);
+        } else if (command("QUIT")) {
+            closed = true;
+            out.put(OK);
+        } else {
+            error(out, "unknown command");
+        }
+        out.put((byte) '\n');
+    }
+
+    private void newGame(ByteBuffer out) {
+        long rows = nextNumber();
+        if (rows <= 0 || position >= end || (line.get(position) | 0x20) != 'x') {
+            error(out, "usage: NEW <rows>x<columns> [seed]");
+            return;
+        }
+        position++;
+        long columns = nextNumber();
+        //Svaka dimenzija se proverava pre množenja, da proizvod ne bi prekoračio long
+        if (columns <= 0 || rows > MAX_CELLS || columns > MAX_CELLS
+                || rows * columns < 2 || rows * columns > MAX_CELLS) {
+            error(out, "board must have between 2 and " + MAX_CELLS + " cells");
+            return;
+        }
+        skipSpaces();
+        long seed;
+        if (position < end) {
+            int first = position;
+            seed = nextSignedNumber();
+            if (position == first || position != end) {
+                error(out, "seed must be a number between " + Long.MIN_VALUE + " and " + Long.MAX_VALUE);
+                return;
+            }
+        } else {
+            seed = random.nextLong();
+        }
+        board = Board.generate((int) rows, (int) columns, seed);
+        startedNanos = System.nanoTime();
+        out.put(OK);
+        putNumber(out, seed);
+        putNumber(out, board.getStart());
+        putNumber(out, board.getEnd());
+    }
+
+    private void move(ByteBuffer out) {
+        if (board == null) {
+            error(out, "no game, send NEW first");
+            return;
+        }
+        //Posle broja sme da ostane samo razmak - "MOVE 5abc" nije potez na polje 5
+        long index = nextNumber();
+        skipSpaces();
+        if (index < 0 || position != end) {
+            error(out, "usage: MOVE <cell index>");
+            return;
+        }
+        MoveResult result = index > Integer.MAX_VALUE ? MoveResult.OUT_OF_BOUNDS : board.move((int) index);
+        moves++;
+        if (result.isAccepted()) {
+            out.put(OK).put((byte) ' ').put(RESULT_NAMES[result.ordinal()]);
+            putNumber(out, board.calculateScore());
+        } else {
+            out.put(NO).put((byte) ' ').put(RESULT_NAMES[result.ordinal()]);
+        }
+    }
+
+    private void undo(ByteBuffer out) {
+        if (board == null) {
+            error(out, "no game, send NEW first");
+            return;
+        }
+        if (board.undo() == Board.NO_CELL) {
+            out.put(NO);
+            return;
+        }
+        out.put(OK);
+        putNumber(out, board.getCurrent());
+    }
+
+    private void state(ByteBuffer out) {
+        if (board == null) {
+            error(out, "no game, send NEW first");
+            return;
+        }
+        out.put(OK);
+        putNumber(out, board.getCurrent());
+        putNumber(out, board.getSteps());
+        putNumber(out, board.getSum());
+        putNumber(out, board.calculateScore());
+        putNumber(out, board.isFinished() ? 1 : 0);
+    }
+
+    //Polja se šalju kao jedna reč od cifara, Start i End su 0 kao u Board modelu
+    private void board(ByteBuffer out) {
+        if (board == null) {
+            error(out, "no game, send NEW first");
+            return;
+        }
+        out.put(OK);
+        putNumber(out, board.getRows());
+        putNumber(out, board.getColumns());
+        putNumber(out, board.getStart());
+        putNumber(out, board.getEnd());
+        out.put((byte) ' ');
+        for (int i = 0; i < board.getCellCount(); i++) {
+            out.put((byte) ('0' + board.getValue(i)));
+        }
+    }
+
+    private void finish(ByteBuffer out) {
+        if (board == null) {
+            error(out, "no game, send NEW first");
+            return;
+        }
+        if (!board.isFinished()) {
+            out.put(NO).put((byte) ' ').put(NOT_FINISHED);
+            return;
+        }
+        out.put(OK);
+        putNumber(out, board.calculateScore());
+        putNumber(out, board.getSteps());
+        putNumber(out, (System.nanoTime() - startedNanos) / 1_000_000);
+        board = null;
+    }
+
+    private void error(ByteBuffer out, String message) {
+        out.put(ERR).put(ascii(message));
+    }
+
+    //Najduži mogući odgovor na sledeću komandu (BOARD šalje sva polja), da bi server znao da li odgovor staje u bafer
+    int maxResponseLength() {
+        return board == null ? MAX_RESPONSE : MAX_RESPONSE + board.getCellCount();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    //Broj MOVE komandi na ovoj vezi
+    long getMoves() {
+        return moves;
+    }
+
+    private boolean command(String name) {
+        int length = name.length();
+        if (end - position < length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (line.get(position + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        if (position + length < end && line.get(position + length) != ' ') {
+            return false;
+        }
+        position += length;
+        return true;
+    }
+
+    private void skipSpaces() {
+        while (position < end && line.get(position) == ' ') {
+            position++;
+        }
+    }
+
+    //Čita nenegativan broj, vraća -1 ako na poziciji nema broja ili je broj prevelik
+    private long nextNumber() {
+        skipSpaces();
+        int first = position;
+        long value = 0;
+        while (position < end) {
+            int digit = line.get(position) - '0';
+            if (digit < 0 || digit > 9 || position - first >= 18) {
+                break;
+            }
+            value = value * 10 + digit;
+            position++;
+        }
+        return position == first ? -1 : value;
+    }
+
+    //Čita broj sa opcionim minusom u opsegu long-a
+    //Ako na poziciji nema broja ili je broj van opsega, pozicija se vraća na početak broja
+    private long nextSignedNumber() {
+        int first = position;
+        boolean negative = position < end && line.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+        int digitsStart = position;
+        //Broj se skuplja kao negativan, jer Long.MIN_VALUE nema pozitivan par
+        long value = 0;
+        while (position < end) {
+            int digit = line.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            if (position - digitsStart >= 19 || value < (Long.MIN_VALUE + digit) / 10) {
+                position = first;
+                return 0;
+            }
+            value = value * 10 - digit;
+            position++;
+        }
+        if (position == digitsStart) {
+            position = first;
+            return 0;
+        }
+        if (!negative && value == Long.MIN_VALUE) {
+            position = first;
+            return 0;
+        }
+        return negative ? value : -value;
+    }
+
+    //Upisuje razmak i broj u ASCII, bez pravljenja String-a
+    static void putNumber(ByteBuffer out, long value) {
+        out.put((byte) ' ');
+        if (value < 0) {
+            out.put((byte) '-');
+            value = -value;
+        }
+        if (value < 0) {
+            //Long.MIN_VALUE nema pozitivan par
+            out.put(ascii(Long.toString(Long.MIN_VALUE).substring(1)));
+            return;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int at = out.position() + digits;
+        for (int i = 1; i <= digits; i++) {
+            out.put(at - i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        out.position(at);
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
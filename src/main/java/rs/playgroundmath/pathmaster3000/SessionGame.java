@@ -0,0 +1,90 @@
+package rs.playgroundmath.pathmaster3000;
+
+import javafx.scene.control.Label;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+
+//Jedna igra u sesiji sa više tabli (SessionManager)
+//Igra je aktivna dok je na ekranu: ima prikaz od dugmića iz zajedničkog skupa i prijavljena je na GameClock
+//Neaktivna igra čuva samo model table i kontroler - nema čvorova polja, ne dobija otkucaje sata i vreme joj stoji
+public final class SessionGame {
+
+    //Razmak između polja i veličina polja, isto kao u GridPaneBoardView
+    private static final double CELL_SIZE = 50;
+    private static final double GAP = 5;
+
+    private final GameGrid gameGrid;
+    private final GameController controller;
+    private final VBox node;
+    //Mesto za prikaz table - ima fiksnu veličinu, pa se raspored ne menja kada se prikaz ukloni
+    private final StackPane slot = new StackPane();
+    private boolean active;
+
+    SessionGame(String title, Board board, CellNodePool nodePool, int journalCapacity) {
+        this.gameGrid = new GameGrid(board, nodePool);
+        this.controller = new GameController(gameGrid, journalCapacity);
+        //Kontroler pokreće vreme pri kreiranju, a igra postaje aktivna tek kada dođe na ekran
+        controller.pause();
+
+        double width = board.getColumns() * (CELL_SIZE + GAP) - GAP;
+        double height = board.getRows() * (CELL_SIZE + GAP) - GAP;
+        slot.setMinSize(width, height);
+        slot.setPrefSize(width, height);
+        slot.setMaxSize(width, height);
+        node = new VBox(5, new Label(title), controller.getScoreLabel(), slot);
+        node.getStyleClass().add("session-tile");
+    }
+
+    //Igra dolazi na ekran - prikaz se pravi od dugmića iz skupa, putanja se ponovo iscrtava i vreme nastavlja
+    void activate() {
+        if (active) {
+            return;
+        }
+        active = true;
+        slot.getChildren().setAll(gameGrid.getGrid());
+        controller.attachView();
+        controller.resume();
+    }
+
+    //Igra odlazi sa ekrana - vreme staje, a dugmići se vraćaju u skup
+    void deactivate() {
+        if (!active) {
+            return;
+        }
+        active = false;
+        controller.pause();
+        slot.getChildren().clear();
+        gameGrid.releaseView();
+    }
+
+    void dispose() {
+        deactivate();
+        controller.dispose();
+    }
+
+    void setSelected(boolean selected) {
+        if (selected) {
+            if (!node.getStyleClass().contains("selected")) {
+                node.getStyleClass().add("selected");
+            }
+        } else {
+            node.getStyleClass().remove("selected");
+        }
+    }
+
+    public VBox getNode() {
+        return node;
+    }
+
+    public GameController getController() {
+        return controller;
+    }
+
+    public Board getBoard() {
+        return gameGrid.getBoard();
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+}
@@ -0,0 +1,196 @@
+package rs.playgroundmath.pathmaster3000;
+
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.geometry.Insets;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.TilePane;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+//Sesija sa više igara u istoj JVM, npr. za trening gde jedna stanica prikazuje mnogo tabli
+//Table se prikazuju u tabovima (TABS) ili kao zid tabli koji se skroluje (WALL)
+//
+//Sve igre dele:
+// - jedan sat (GameClock) - prijavljene su samo igre koje su na ekranu
+// - jedan stil - board.css je jednom na korenu sesije, a ne na svakoj tabli
+// - jedan skup dugmića za polja (CellNodePool) - tabla koja ode sa ekrana vraća dugmiće, a tabla koja dođe ih uzima
+//Tabla koja nije na ekranu (drugi tab, ili van vidljivog dela zida) nema čvorove polja i ne radi ništa po frejmu,
+//a u memoriji su samo model table, kontroler i mali dnevnik poteza (JOURNAL_CAPACITY događaja)
+public final class SessionManager {
+
+    public enum Layout {
+        TABS,
+        WALL
+    }
+
+    //Kapacitet dnevnika poteza za igre u sesiji - 1024 događaja je 8 KB po tabli, umesto 512 KB za jednu igru
+    static final int JOURNAL_CAPACITY = 1024;
+
+    private final Layout layout;
+    private final CellNodePool nodePool = new CellNodePool();
+    private final List<SessionGame> games = new ArrayList<>();
+    private final Region node;
+    private TabPane tabPane;
+    private ScrollPane scrollPane;
+    private TilePane wall;
+    private SessionGame selected;
+    //Više promena skrola ili rasporeda u istom pulsu se obrađuje jednom
+    private boolean visibilityUpdateScheduled;
+    private Leaderboard leaderboard;
+    private AnalysisCache analysisCache;
+
+    public SessionManager(Layout layout) {
+        this.layout = layout;
+        if (layout == Layout.TABS) {
+            tabPane = new TabPane();
+            tabPane.getSelectionModel().selectedItemProperty().addListener((observable, oldTab, newTab) -> {
+                if (oldTab != null) {
+                    ((SessionGame) oldTab.getUserData()).deactivate();
+                }
+                if (newTab != null) {
+                    SessionGame game = (SessionGame) newTab.getUserData();
+                    game.activate();
+                    select(game);
+                }
+            });
+            node = tabPane;
+        } else {
+            wall = new TilePane(10, 10);
+            wall.setPadding(new Insets(10));
+            scrollPane = new ScrollPane(wall);
+            scrollPane.setFitToWidth(true);
+            scrollPane.vvalueProperty().addListener((observable, oldValue, newValue) -> scheduleVisibilityUpdate());
+            scrollPane.hvalueProperty().addListener((observable, oldValue, newValue) -> scheduleVisibilityUpdate());
+            scrollPane.viewportBoundsProperty().addListener((observable, oldValue, newValue) -> scheduleVisibilityUpdate());
+            wall.layoutBoundsProperty().addListener((observable, oldValue, newValue) -> scheduleVisibilityUpdate());
+            node = scrollPane;
+        }
+        node.getStylesheets().add(GridPaneBoardView.STYLESHEET);
+    }
+
+    //Dodaje novu igru na datoj tabli - igra je neaktivna dok ne dođe na ekran
+    public SessionGame addGame(Board board) {
+        SessionGame game = new SessionGame("Board " + (games.size() + 1), board, nodePool, JOURNAL_CAPACITY);
+        game.getController().setLeaderboard(leaderboard);
+        game.getController().setAnalysisCache(analysisCache);
+        games.add(game);
+        if (layout == Layout.TABS) {
+            Tab tab = new Tab("Board " + games.size(), game.getNode());
+            tab.setUserData(game);
+            tab.setOnClosed(event -> removeGame(game));
+            tabPane.getTabs().add(tab);
+        } else {
+            game.getNode().addEventFilter(MouseEvent.MOUSE_PRESSED, event -> select(game));
+            wall.getChildren().add(game.getNode());
+            if (selected == null) {
+                select(game);
+            }
+            scheduleVisibilityUpdate();
+        }
+        return game;
+    }
+
+    //Uklanja igru iz sesije (npr. zatvoren tab) - dugmići se vraćaju u skup, dnevnik se zatvara
+    public void removeGame(SessionGame game) {
+        if (!games.remove(game)) {
+            return;
+        }
+        game.dispose();
+        if (layout == Layout.WALL) {
+            wall.getChildren().remove(game.getNode());
+        }
+        if (selected == game) {
+            selected = null;
+            if (layout == Layout.WALL && !games.isEmpty()) {
+                select(games.get(0));
+            }
+        }
+    }
+
+    //Igra na koju se odnose komande iz menija (undo, redo, hint...) - izabrani tab ili poslednja kliknuta tabla na zidu
+    public SessionGame getSelectedGame() {
+        return selected;
+    }
+
+    private void select(SessionGame game) {
+        if (selected != null) {
+            selected.setSelected(false);
+        }
+        selected = game;
+        game.setSelected(true);
+    }
+
+    //Posle pomeranja zida, table koje su ušle u vidljivi deo se aktiviraju, a one koje su izašle se deaktiviraju
+    private void scheduleVisibilityUpdate() {
+        if (!visibilityUpdateScheduled) {
+            visibilityUpdateScheduled = true;
+            Platform.runLater(this::updateVisibility);
+        }
+    }
+
+    private void updateVisibility() {
+        visibilityUpdateScheduled = false;
+        Bounds viewport = scrollPane.getViewportBounds();
+        Bounds content = wall.getLayoutBounds();
+        double top = scrollPane.getVvalue() * Math.max(0, content.getHeight() - viewport.getHeight());
+        double left = scrollPane.getHvalue() * Math.max(0, content.getWidth() - viewport.getWidth());
+        for (SessionGame game : games) {
+            Bounds bounds = game.getNode().getBoundsInParent();
+            boolean visible = bounds.getMaxY() >= top && bounds.getMinY() <= top + viewport.getHeight()
+                    && bounds.getMaxX() >= left && bounds.getMinX() <= left + viewport.getWidth();
+            if (visible) {
+                game.activate();
+            } else {
+                game.deactivate();
+            }
+        }
+    }
+
+    //Rang lista i keš analiza za igre koje se dodaju posle ovoga
+    public void setLeaderboard(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
+    public void setAnalysisCache(AnalysisCache analysisCache) {
+        this.analysisCache = analysisCache;
+    }
+
+    public Region getNode() {
+        return node;
+    }
+
+    public List<SessionGame> getGames() {
+        return Collections.unmodifiableList(games);
+    }
+
+    public Layout getLayout() {
+        return layout;
+    }
+
+    //Broj igara koje su trenutno na ekranu
+    public int getActiveCount() {
+        int count = 0;
+        for (SessionGame game : games) {
+            if (game.isActive()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    //Gasi sve igre, npr. kada se zatvori prozor sesije
+    public void dispose() {
+        for (SessionGame game : games) {
+            game.dispose();
+        }
+        games.clear();
+        selected = null;
+    }
+}
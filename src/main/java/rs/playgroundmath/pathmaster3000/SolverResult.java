@@ -0,0 +1,70 @@
+package rs.playgroundmath.pathmaster3000;
+
+//Rezultat PathSolver-a - najbolja pronađena putanja od trenutne pozicije do End polja
+//Ako pretraga nije stigla da se završi u zadatom vremenu, isOptimal() vraća false,
+//a putanja je najbolja koja je pronađena do tada
+public final class SolverResult {
+
+    private final int[] path;
+    private final int sum;
+    private final int steps;
+    private final boolean optimal;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    SolverResult(int[] path, int sum, int steps, boolean optimal, long nodes, long elapsedNanos) {
+        this.path = path;
+        this.sum = sum;
+        this.steps = steps;
+        this.optimal = optimal;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    //Da li uopšte postoji putanja do End polja
+    public boolean isSolvable() {
+        return path != null;
+    }
+
+    //Putanja kao niz indeksa polja, od trenutne pozicije (ili Start polja) do End polja uključujući oba
+    public int[] getPath() {
+        return path == null ? null : path.clone();
+    }
+
+    public int getSum() {
+        return sum;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    //Rezultat računat isto kao u igri - zbir / broj koraka, celobrojno
+    public int getScore() {
+        return steps > 0 ? sum / steps : 0;
+    }
+
+    //Tačan prosek bez zaokruživanja, koristi se za ocenjivanje i poređenje tabli
+    public double getRatio() {
+        return steps > 0 ? (double) sum / steps : 0;
+    }
+
+    public boolean isOptimal() {
+        return optimal;
+    }
+
+    //Broj čvorova pretrage koje je solver obišao
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SolverResult[score=%d, sum=%d, steps=%d, optimal=%b, nodes=%d, time=%.1fms]",
+                getScore(), sum, steps, optimal, nodes, elapsedNanos / 1e6);
+    }
+}
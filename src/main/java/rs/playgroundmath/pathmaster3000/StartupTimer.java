@@ -0,0 +1,74 @@
+package rs.playgroundmath.pathmaster3000;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.time.Instant;
+
+//Meri pokretanje aplikacije od starta JVM-a (ProcessHandle) do prvog frejma i do prvog frejma sa tablom (interaktivno)
+//Vremena se ispisuju jednom i beleže u GameMetrics ("startup.*"), a upozorenje se ispisuje ako je prekoračen cilj
+//-Dpathmaster.exitAfterStartup=true zatvara aplikaciju posle merenja, npr. za automatsko merenje ili za
+//trening pokretanje koje pravi CDS arhivu (profil fast-startup u pom.xml)
+final class StartupTimer {
+
+    public static final String TARGET_PROPERTY = "pathmaster.startupTargetMillis";
+    public static final String EXIT_PROPERTY = "pathmaster.exitAfterStartup";
+    private static final long DEFAULT_TARGET_MILLIS = 1000;
+
+    private final long jvmStartMillis;
+    private long stageShownMillis = -1;
+    private long firstFrameMillis = -1;
+
+    StartupTimer() {
+        this.jvmStartMillis = ProcessHandle.current().info().startInstant()
+                .map(Instant::toEpochMilli)
+                .orElse(System.currentTimeMillis());
+    }
+
+    void stageShown() {
+        stageShownMillis = sinceStart();
+    }
+
+    //Poziva se posle prvog frejma (prozor je iscrtan, tabla još nije)
+    void firstFrame() {
+        firstFrameMillis = sinceStart();
+    }
+
+    //Poziva se posle prvog frejma sa tablom - igrač može da klikne
+    void interactive() {
+        long interactiveMillis = sinceStart();
+        long target = Long.getLong(TARGET_PROPERTY, DEFAULT_TARGET_MILLIS);
+        GameMetrics metrics = GameMetrics.getInstance();
+        metrics.record("startup.stageShown", stageShownMillis * 1_000_000);
+        metrics.record("startup.firstFrame", firstFrameMillis * 1_000_000);
+        metrics.record("startup.interactive", interactiveMillis * 1_000_000);
+        System.out.printf("Startup: stage shown %d ms, first frame %d ms, interactive %d ms after JVM start "
+                + "(target %d ms)%s%n", stageShownMillis, firstFrameMillis, interactiveMillis, target,
+                interactiveMillis > target ? " - OVER TARGET" : "");
+        if (Boolean.getBoolean(EXIT_PROPERTY)) {
+            Platform.exit();
+        }
+    }
+
+    private long sinceStart() {
+        return System.currentTimeMillis() - jvmStartMillis;
+    }
+
+    //Izvršava akciju kada se iscrta sledeći frejm
+    //AnimationTimer se poziva na početku pulsa, pre iscrtavanja, pa se akcija izvršava na početku drugog pulsa
+    static void afterNextFrame(Runnable action) {
+        new AnimationTimer() {
+            private boolean first = true;
+
+            @Override
+            public void handle(long now) {
+                if (first) {
+                    first = false;
+                    return;
+                }
+                stop();
+                action.run();
+            }
+        }.start();
+    }
+}
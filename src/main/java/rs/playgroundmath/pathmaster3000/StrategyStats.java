@@ -0,0 +1,102 @@
+package rs.playgroundmath.pathmaster3000;
+
+//Zbirni rezultati jedne strategije u turniru (Tournament)
+//Svaki task puni svoju instancu, a rezultati se na kraju spajaju sa merge, pa niti ne dele stanje
+public final class StrategyStats {
+
+    private final String name;
+    private long games;
+    private long finished;
+    private long deadEnds;
+    private long wins;
+    private long ties;
+    private long moves;
+    private long scoreSum;
+    //Broj partija po rezultatu 0-9, samo za završene partije
+    private final long[] scores = new long[10];
+
+    public StrategyStats(String name) {
+        this.name = name;
+    }
+
+    void recordGame(Board board) {
+        games++;
+        moves += board.getPathLength() - 1;
+        if (board.isFinished()) {
+            finished++;
+            int score = board.calculateScore();
+            scoreSum += score;
+            scores[score]++;
+        } else {
+            deadEnds++;
+        }
+    }
+
+    void recordWin(boolean tie) {
+        if (tie) {
+            ties++;
+        } else {
+            wins++;
+        }
+    }
+
+    void merge(StrategyStats other) {
+        games += other.games;
+        finished += other.finished;
+        deadEnds += other.deadEnds;
+        wins += other.wins;
+        ties += other.ties;
+        moves += other.moves;
+        scoreSum += other.scoreSum;
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] += other.scores[i];
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getFinished() {
+        return finished;
+    }
+
+    public long getDeadEnds() {
+        return deadEnds;
+    }
+
+    //Partije u kojima je strategija imala strogo najbolji rezultat
+    public long getWins() {
+        return wins;
+    }
+
+    //Partije u kojima je delila najbolji rezultat sa drugim strategijama
+    public long getTies() {
+        return ties;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+
+    public double getWinRate() {
+        return games > 0 ? (double) wins / games : 0;
+    }
+
+    public double getDeadEndRate() {
+        return games > 0 ? (double) deadEnds / games : 0;
+    }
+
+    //Prosečan rezultat završenih partija
+    public double getMeanScore() {
+        return finished > 0 ? (double) scoreSum / finished : 0;
+    }
+
+    public long getScoreCount(int score) {
+        return scores[score];
+    }
+}
@@ -0,0 +1,336 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+//Provera prijavljenih rezultata - svaka prijava se ponovo odigrava po pravilima igre (Board), bez JavaFX-a
+//Rezultat koji je izračunao klijent se ne uzima zdravo za gotovo: tabla se pravi iz seed-a, potezi se primenjuju redom,
+//a prijava se odbacuje ako ima nedozvoljen potez, ponovno posećeno polje, ne stiže do End polja,
+//ima nemoguće kratko vreme ili prijavljeni rezultat nije onaj koji daju potezi
+//
+//Fajl sa prijavama je tekstualni, jedna prijava po liniji (prazne linije i linije sa # se preskaču):
+//  <id> <redovi>x<kolone> <seed> <prijavljeni rezultat> <vreme u ms> <potezi>
+//potezi su indeksi polja odvojeni zarezom, redom posle Start polja, npr. "17,18,25", ili "-" ako poteza nema
+//
+//Fajl se čita u paketima linija koji idu kroz ograničen red (BlockingQueue) do niti koje proveravaju,
+//pa memorija ne zavisi od veličine fajla, a sve niti rade dok čitanje ne stigne do kraja
+public final class SubmissionVerifier {
+
+    //Ishod provere jedne prijave - prijava dobija prvi ishod koji nije VALID, redom kako su ovde navedeni
+    public enum Verdict {
+        //Prijava je ispravna
+        VALID,
+        //Linija ne može da se pročita (polje nedostaje, nije broj, tabla je nemoguće veličine...)
+        MALFORMED,
+        //Potez van table, na nesusedno polje ili posle End polja
+        INVALID_MOVE,
+        //Potez na polje koje je već deo putanje
+        REVISIT,
+        //Putanja se ne završava na End polju
+        UNFINISHED,
+        //Vreme je negativno ili kraće nego što je potrebno za dati broj poteza
+        IMPOSSIBLE_TIME,
+        //Prijavljeni rezultat nije rezultat putanje
+        SCORE_MISMATCH
+    }
+
+    //Najkraće vreme po potezu koje igrač može da postigne klikom (20 poteza u sekundi)
+    public static final long DEFAULT_MIN_MOVE_MILLIS = 50;
+    //Broj linija u jednom paketu - nit uzima ceo paket, pa se red ne zaključava za svaku liniju
+    private static final int BATCH_SIZE = 1024;
+    //Oznaka kraja ulaza, po jedna za svaku nit
+    private static final List<String> END_OF_INPUT = new ArrayList<>();
+
+    private final int threads;
+    private final long minMoveMillis;
+    private final LongAdder[] counts = new LongAdder[Verdict.values().length];
+
+    public SubmissionVerifier(int threads, long minMoveMillis) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required");
+        }
+        this.threads = threads;
+        this.minMoveMillis = minMoveMillis;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    //Proverava sve prijave iz ulaza; prijave koje nisu ispravne se upisuju u izveštaj kao "<id> <ishod> <detalj>"
+    //Redosled linija u izveštaju nije isti kao u ulazu, jer niti završavaju pakete različitim redom
+    //Brojevi po ishodu se sabiraju kroz više poziva (getCount)
+    public void verify(BufferedReader in, Writer report) throws IOException, InterruptedException {
+        BlockingQueue<List<String>> queue = new ArrayBlockingQueue<>(threads * 2);
+        List<Thread> workers = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(queue, report);
+            Thread thread = new Thread(() -> {
+                try {
+                    worker.run();
+                } catch (IOException | InterruptedException | RuntimeException e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                    //Red se prazni do kraja, da čitanje ne bi čekalo na nit koja više ne radi
+                    worker.drain();
+                }
+            }, "submission-verifier-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            workers.add(thread);
+        }
+        try {
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            String line;
+            while ((line = in.readLine()) != null) {
+                batch.add(line);
+                if (batch.size() == BATCH_SIZE) {
+                    queue.put(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                queue.put(batch);
+            }
+        } finally {
+            for (int i = 0; i < threads; i++) {
+                queue.put(END_OF_INPUT);
+            }
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (!failures.isEmpty()) {
+            throw new IOException("Verification failed", failures.get(0));
+        }
+    }
+
+    public long getCount(Verdict verdict) {
+        return counts[verdict.ordinal()].sum();
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (LongAdder count : counts) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    //Nit koja proverava pakete - ima svoju tablu i svoj izveštaj, pa ne deli promenljivo stanje sa drugim nitima
+    private final class Worker {
+        private final BlockingQueue<List<String>> queue;
+        private final Writer report;
+        private final StringBuilder flagged = new StringBuilder();
+        //Poslednja tabla - mnogo prijava je za istu tablu (npr. zagonetka dana), pa se tabla samo vraća na početak
+        private Board board;
+        private String line;
+        private int position;
+        private String detail;
+        //Rezultat prvog poteza koji pravila nisu dozvolila
+        private MoveResult rejected;
+
+        Worker(BlockingQueue<List<String>> queue, Writer report) {
+            this.queue = queue;
+            this.report = report;
+        }
+
+        void run() throws IOException, InterruptedException {
+            List<String> batch;
+            while ((batch = queue.take()) != END_OF_INPUT) {
+                for (String submission : batch) {
+                    if (submission.isBlank() || submission.charAt(0) == '#') {
+                        continue;
+                    }
+                    detail = "";
+                    Verdict verdict;
+                    try {
+                        verdict = check(submission);
+                    } catch (IllegalArgumentException e) {
+                        verdict = Verdict.MALFORMED;
+                        detail = e.getMessage();
+                    }
+                    counts[verdict.ordinal()].increment();
+                    if (verdict != Verdict.VALID) {
+                        int end = submission.indexOf(' ');
+                        flagged.append(end < 0 ? submission : submission.substring(0, end))
+                                .append(' ').append(verdict).append(' ').append(detail).append('\n');
+                    }
+                }
+                if (flagged.length() > 0) {
+                    synchronized (report) {
+                        report.append(flagged);
+                    }
+                    flagged.setLength(0);
+                }
+            }
+        }
+
+        void drain() {
+            try {
+                while (queue.take() != END_OF_INPUT) {
+                    // paketi se odbacuju
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private Verdict check(String submission) {
+            line = submission;
+            position = 0;
+            nextField();
+            String size = nextField();
+            int separator = size.indexOf('x');
+            if (separator < 0) {
+                throw new IllegalArgumentException("board size " + size);
+            }
+            int rows = Integer.parseInt(size.substring(0, separator));
+            int columns = Integer.parseInt(size.substring(separator + 1));
+            if (rows <= 0 || columns <= 0 || (long) rows * columns < 2 || (long) rows * columns > GameFile.MAX_CELLS) {
+                throw new IllegalArgumentException("board size " + size);
+            }
+            long seed = Long.parseLong(nextField());
+            int claimedScore = Integer.parseInt(nextField());
+            long millis = Long.parseLong(nextField());
+
+            if (board != null && board.getRows() == rows && board.getColumns() == columns && board.getSeed() == seed) {
+                board.reset();
+            } else {
+                board = Board.generate(rows, columns, seed);
+            }
+
+            int moves = playMoves();
+            if (moves < 0) {
+                return rejected == MoveResult.ALREADY_VISITED ? Verdict.REVISIT : Verdict.INVALID_MOVE;
+            }
+            if (!board.isFinished()) {
+                detail = "path ends at " + board.getCurrent() + " after " + moves + " moves";
+                return Verdict.UNFINISHED;
+            }
+            if (millis < 0 || millis < moves * minMoveMillis) {
+                detail = moves + " moves in " + millis + "ms";
+                return Verdict.IMPOSSIBLE_TIME;
+            }
+            if (claimedScore != board.calculateScore()) {
+                detail = "claimed " + claimedScore + ", path scores " + board.calculateScore();
+                return Verdict.SCORE_MISMATCH;
+            }
+            return Verdict.VALID;
+        }
+
+        //Odigrava poteze iz poslednjeg polja linije direktno iz teksta, bez deljenja na podstringove
+        //Vraća broj odigranih poteza, ili -1 na prvom potezu koji pravila ne dozvoljavaju (detalj kaže koji)
+        private int playMoves() {
+            String moves = nextField();
+            if (position < line.length() && !line.substring(position).isBlank()) {
+                throw new IllegalArgumentException("unexpected text after moves");
+            }
+            if (moves.equals("-")) {
+                return 0;
+            }
+            int count = 0;
+            int i = 0;
+            while (i <= moves.length()) {
+                long index = 0;
+                int digits = 0;
+                while (i < moves.length() && moves.charAt(i) != ',') {
+                    char c = moves.charAt(i++);
+                    if (c < '0' || c > '9' || ++digits > 10) {
+                        throw new IllegalArgumentException("move " + (count + 1) + " is not a cell index");
+                    }
+                    index = index * 10 + (c - '0');
+                }
+                if (digits == 0) {
+                    throw new IllegalArgumentException("move " + (count + 1) + " is empty");
+                }
+                count++;
+                MoveResult result = board.move(index > Integer.MAX_VALUE ? Board.NO_CELL : (int) index);
+                if (!result.isAccepted()) {
+                    rejected = result;
+                    detail = result + " at move " + count + " (cell " + index + ")";
+                    return -1;
+                }
+                i++;
+            }
+            return count;
+        }
+
+        private String nextField() {
+            while (position < line.length() && line.charAt(position) == ' ') {
+                position++;
+            }
+            int start = position;
+            while (position < line.length() && line.charAt(position) != ' ') {
+                position++;
+            }
+            if (start == position) {
+                throw new IllegalArgumentException("missing field");
+            }
+            return line.substring(start, position);
+        }
+    }
+
+    //Provera iz komandne linije:
+    //  SubmissionVerifier <prijave.txt> [--threads N] [--min-move-millis N] [--report fajl]
+    //Neispravne prijave se ispisuju (ili upisuju u izveštaj), a na kraju broj prijava po ishodu
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: SubmissionVerifier <submissions.txt> [--threads N] [--min-move-millis N]"
+                    + " [--report file]");
+            System.exit(2);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        long minMoveMillis = DEFAULT_MIN_MOVE_MILLIS;
+        String reportFile = null;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--min-move-millis":
+                    minMoveMillis = Long.parseLong(args[i + 1]);
+                    break;
+                case "--report":
+                    reportFile = args[i + 1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        SubmissionVerifier verifier = new SubmissionVerifier(threads, minMoveMillis);
+        long startNanos = System.nanoTime();
+        //Standardni izlaz se ne zatvara, na njega se posle ispisuje i zbir
+        Writer report = reportFile != null
+                ? Files.newBufferedWriter(Paths.get(reportFile), StandardCharsets.UTF_8)
+                : new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            verifier.verify(in, report);
+        } finally {
+            if (reportFile != null) {
+                report.close();
+            } else {
+                report.flush();
+            }
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long total = verifier.getTotal();
+        System.out.printf("submissions=%d threads=%d time=%.1fs (%.0f submissions/s)%n", total, threads, seconds,
+                total / seconds);
+        for (Verdict verdict : Verdict.values()) {
+            System.out.printf("%-16s %d%n", verdict, verifier.getCount(verdict));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package rs.playgroundmath.pathmaster3000;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+//Turnir botova bez JavaFX-a - sve strategije igraju iste table i porede se po rezultatu
+//Partije se dele na ForkJoin taskove (work-stealing), svaki task pravi svoje table i svoje instance strategija,
+//a rezultati se spajaju na kraju, pa niti ne dele nikakvo promenljivo stanje
+//Table i seed-ovi strategija su izvedeni iz početnog seed-a, pa isti turnir uvek daje iste rezultate
+public final class Tournament {
+
+    //Broj partija koje jedan task igra sam, bez daljeg deljenja
+    private static final int GAMES_PER_TASK = 256;
+
+    private final List<String> strategies;
+    private final ForkJoinPool pool;
+
+    public Tournament(List<String> strategies) {
+        this(strategies, ForkJoinPool.commonPool());
+    }
+
+    public Tournament(List<String> strategies, ForkJoinPool pool) {
+        //Provera imena odmah, a ne tek u nekom od taskova
+        for (String name : strategies) {
+            MoveStrategies.create(name, 0);
+        }
+        this.strategies = new ArrayList<>(strategies);
+        this.pool = pool;
+    }
+
+    public List<StrategyStats> run(int rows, int columns, long games, long masterSeed) {
+        if (strategies.contains("optimal") && (long) rows * columns > PathSolver.MAX_CELLS) {
+            throw new IllegalArgumentException("Strategy optimal supports boards with up to " + PathSolver.MAX_CELLS
+                    + " cells");
+        }
+        StrategyStats[] stats = pool.invoke(new GamesTask(rows, columns, masterSeed, 0, games));
+        return Arrays.asList(stats);
+    }
+
+    //Igra partiju do kraja ili do ćorsokaka; potez koji pravila ne dozvoljavaju se računa kao ćorsokak
+    static void play(Board board, MoveStrategy strategy) {
+        while (!board.isFinished()) {
+            int next = strategy.nextMove(board);
+            if (next == Board.NO_CELL || !board.move(next).isAccepted()) {
+                return;
+            }
+        }
+    }
+
+    private final class GamesTask extends RecursiveTask<StrategyStats[]> {
+        private static final long serialVersionUID = 1L;
+        private final int rows;
+        private final int columns;
+        private final long masterSeed;
+        private final long first;
+        private final long last;
+
+        GamesTask(int rows, int columns, long masterSeed, long first, long last) {
+            this.rows = rows;
+            this.columns = columns;
+            this.masterSeed = masterSeed;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected StrategyStats[] compute() {
+            if (last - first > GAMES_PER_TASK) {
+                long middle = (first + last) >>> 1;
+                GamesTask right = new GamesTask(rows, columns, masterSeed, middle, last);
+                right.fork();
+                StrategyStats[] stats = new GamesTask(rows, columns, masterSeed, first, middle).compute();
+                StrategyStats[] rightStats = right.join();
+                for (int i = 0; i < stats.length; i++) {
+                    stats[i].merge(rightStats[i]);
+                }
+                return stats;
+            }
+
+            int count = strategies.size();
+            StrategyStats[] stats = new StrategyStats[count];
+            MoveStrategy[] players = new MoveStrategy[count];
+            for (int i = 0; i < count; i++) {
+                stats[i] = new StrategyStats(strategies.get(i));
+                players[i] = MoveStrategies.create(strategies.get(i), PuzzleGenerator.candidateSeed(~masterSeed, first + i));
+            }
+            int[] scores = new int[count];
+            for (long game = first; game < last; game++) {
+                Board board = Board.generate(rows, columns, PuzzleGenerator.candidateSeed(masterSeed, game));
+                int best = -1;
+                for (int i = 0; i < count; i++) {
+                    board.reset();
+                    play(board, players[i]);
+                    stats[i].recordGame(board);
+                    scores[i] = board.isFinished() ? board.calculateScore() : -1;
+                    best = Math.max(best, scores[i]);
+                }
+                //Pobednik je strategija sa najboljim rezultatom, ćorsokak nikada ne pobeđuje
+                if (best >= 0) {
+                    int winners = 0;
+                    for (int score : scores) {
+                        if (score == best) {
+                            winners++;
+                        }
+                    }
+                    for (int i = 0; i < count; i++) {
+                        if (scores[i] == best) {
+                            stats[i].recordWin(winners > 1);
+                        }
+                    }
+                }
+            }
+            return stats;
+        }
+    }
+
+    //Turnir iz komandne linije:
+    //  Tournament <redovi>x<kolone> <broj partija> [--seed N] [--strategies greedy,random,lookahead-3,optimal] [--threads N]
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: Tournament <rows>x<columns> <games> [--seed N] [--strategies a,b,...] [--threads N]");
+            System.exit(2);
+        }
+        String[] size = args[0].split("[xX]");
+        int rows = Integer.parseInt(size[0]);
+        int columns = Integer.parseInt(size[1]);
+        long games = Long.parseLong(args[1]);
+        long seed = System.nanoTime();
+        String strategyList = rows * columns <= PathSolver.MAX_CELLS
+                ? "random,greedy,lookahead-3,optimal" : "random,greedy,lookahead-3";
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--seed":
+                    seed = Long.parseLong(args[i + 1]);
+                    break;
+                case "--strategies":
+                    strategyList = args[i + 1];
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Tournament tournament = new Tournament(Arrays.asList(strategyList.split(",")), pool);
+        long startNanos = System.nanoTime();
+        List<StrategyStats> results = tournament.run(rows, columns, games, seed);
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        pool.shutdown();
+
+        long moves = 0;
+        System.out.printf("%-14s %7s %7s %7s %7s  %s%n", "strategy", "win%", "tie%", "dead%", "score", "scores 0-9");
+        for (StrategyStats stats : results) {
+            moves += stats.getMoves();
+            StringBuilder histogram = new StringBuilder();
+            for (int score = 0; score < 10; score++) {
+                histogram.append(score == 0 ? "" : " ").append(stats.getScoreCount(score));
+            }
+            System.out.printf("%-14s %6.2f%% %6.2f%% %6.2f%% %7.3f  %s%n", stats.getName(),
+                    stats.getWinRate() * 100, (double) stats.getTies() / stats.getGames() * 100,
+                    stats.getDeadEndRate() * 100, stats.getMeanScore(), histogram);
+        }
+        System.out.printf("%dx%d seed=%d games=%d threads=%d time=%.2fs moves=%d (%.1fM moves/s)%n", rows, columns,
+                seed, games, threads, seconds, moves, moves / seconds / 1e6);
+    }
+}
@@ -0,0 +1,19 @@
+package rs.playgroundmath.pathmaster3000.legacy;
+
+import java.io.Serializable;
+import java.util.Set;
+
+//Oblik stare GameController klase kakav je zapisan u starim .game fajlovima (Java serijalizacija)
+//Koristi se samo za čitanje starih fajlova, zato ime klase i serialVersionUID moraju biti isti kao nekada
+final class GameController implements Serializable {
+
+    private static final long serialVersionUID = -3529946157490941232L;
+
+    GameGrid gameGrid;
+    int currentX, currentY;
+    int score;
+    int steps;
+    Set<int[]> visitedCells;
+    String pathColor;
+    int timeElapsed;
+}
@@ -0,0 +1,14 @@
+package rs.playgroundmath.pathmaster3000.legacy;
+
+import java.io.Serializable;
+
+//Oblik stare GameGrid klase kakav je zapisan u starim .game fajlovima (Java serijalizacija)
+//Koristi se samo za čitanje starih fajlova, zato ime klase i serialVersionUID moraju biti isti kao nekada
+final class GameGrid implements Serializable {
+
+    private static final long serialVersionUID = 971650566979213249L;
+
+    int gridSize;
+    String[][] buttonStates;
+    int startX, startY, endX, endY;
+}
@@ -0,0 +1,179 @@
+package rs.playgroundmath.pathmaster3000.legacy;
+
+import rs.playgroundmath.pathmaster3000.Board;
+import rs.playgroundmath.pathmaster3000.SavedGame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+//Čita stare .game fajlove koji su pisani Java serijalizacijom (ObjectOutputStream)
+//Klase iz fajla se preusmeravaju na GameGrid i GameController iz ovog paketa, koje imaju stari oblik,
+//a filter dozvoljava samo klase koje su se tada zaista nalazile u fajlu - sve ostalo se odbija
+public final class LegacyGameReader {
+
+    private static final String OLD_PACKAGE = "rs.playgroundmath.pathmaster3000.";
+
+    private static final Map<String, Class<?>> LEGACY_CLASSES = Map.of(
+            OLD_PACKAGE + "GameGrid", GameGrid.class,
+            OLD_PACKAGE + "GameController", GameController.class);
+
+    private static final Set<Class<?>> ALLOWED_CLASSES = Set.of(
+            GameGrid.class, GameController.class, String.class, String[].class, String[][].class,
+            HashSet.class, Map.Entry[].class, int[].class);
+
+    //Stari fajlovi su mali (tabla 5x5 ili 7x7), pa su granice stroge
+    private static final ObjectInputFilter FILTER = info -> {
+        if (info.depth() > 5 || info.references() > 10_000 || info.streamBytes() > 1 << 20
+                || info.arrayLength() > 10_000) {
+            return ObjectInputFilter.Status.REJECTED;
+        }
+        Class<?> type = info.serialClass();
+        if (type == null || ALLOWED_CLASSES.contains(type)) {
+            return ObjectInputFilter.Status.ALLOWED;
+        }
+        return ObjectInputFilter.Status.REJECTED;
+    };
+
+    private LegacyGameReader() {
+    }
+
+    public static SavedGame read(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file); ObjectInputStream ois = new LegacyInputStream(in)) {
+            ois.setObjectInputFilter(FILTER);
+            Object grid = ois.readObject();
+            Object controller = ois.readObject();
+            if (!(grid instanceof GameGrid) || !(controller instanceof GameController)) {
+                throw new IOException("Not a PathMaster game file");
+            }
+            return migrate((GameGrid) grid, (GameController) controller);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unsupported legacy game file", e);
+        }
+    }
+
+    //Prebacuje stari oblik u Board model
+    //Zbir, broj koraka i pozicija se ne prepisuju iz fajla, nego se ponovo računaju odigravanjem putanje
+    private static SavedGame migrate(GameGrid grid, GameController controller) throws IOException {
+        int size = grid.gridSize;
+        String[][] states = grid.buttonStates;
+        if (size <= 1 || states == null || states.length != size) {
+            throw new IOException("Invalid legacy board");
+        }
+        byte[] cells = new byte[size * size];
+        for (int i = 0; i < size; i++) {
+            if (states[i] == null || states[i].length != size) {
+                throw new IOException("Invalid legacy board");
+            }
+            for (int j = 0; j < size; j++) {
+                String state = states[i][j];
+                if ("Start".equals(state) || "End".equals(state)) {
+                    continue;
+                }
+                if (state == null || state.length() != 1 || !Character.isDigit(state.charAt(0))) {
+                    throw new IOException("Invalid legacy cell value " + state);
+                }
+                cells[i * size + j] = (byte) (state.charAt(0) - '0');
+            }
+        }
+
+        Board board;
+        try {
+            board = new Board(size, size, cells, index(size, grid.startX, grid.startY), index(size, grid.endX, grid.endY));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid legacy board: " + e.getMessage(), e);
+        }
+
+        int[] path = orderPath(board, controller.visitedCells, board.index(controller.currentX, controller.currentY));
+        for (int cell : path) {
+            board.move(cell);
+        }
+        return new SavedGame(board, Math.max(0, controller.timeElapsed), controller.pathColor, null);
+    }
+
+    private static int index(int size, int x, int y) throws IOException {
+        if (x < 0 || x >= size || y < 0 || y >= size) {
+            throw new IOException("Invalid legacy position " + x + ", " + y);
+        }
+        return x * size + y;
+    }
+
+    //Stari fajl čuva posećena polja kao neuređen skup, pa se redosled rekonstruiše:
+    //traži se putanja od Start polja koja prolazi kroz sva posećena polja i završava se na trenutnoj poziciji
+    private static int[] orderPath(Board board, Set<int[]> visitedCells, int current) throws IOException {
+        if (visitedCells == null || visitedCells.isEmpty()) {
+            return new int[0];
+        }
+        boolean[] visited = new boolean[board.getCellCount()];
+        int count = 0;
+        for (int[] cell : visitedCells) {
+            if (cell == null || cell.length != 2) {
+                throw new IOException("Invalid legacy path");
+            }
+            int index = board.index(cell[0], cell[1]);
+            if (index == Board.NO_CELL) {
+                throw new IOException("Invalid legacy path cell " + cell[0] + ", " + cell[1]);
+            }
+            if (!visited[index] && !board.isStart(index)) {
+                visited[index] = true;
+                count++;
+            }
+        }
+        int[] path = new int[count];
+        if (current == Board.NO_CELL || !visited[current] || !extend(board, visited, path, 0, board.getStart(), current)) {
+            throw new IOException("Legacy path cannot be reconstructed");
+        }
+        return path;
+    }
+
+    private static boolean extend(Board board, boolean[] visited, int[] path, int length, int from, int current) {
+        if (length == path.length) {
+            return from == current;
+        }
+        int row = board.rowOf(from);
+        int column = board.columnOf(from);
+        int[] neighbors = {board.index(row - 1, column), board.index(row, column + 1),
+                board.index(row + 1, column), board.index(row, column - 1)};
+        for (int next : neighbors) {
+            //End može biti samo poslednje polje putanje
+            if (next == Board.NO_CELL || !visited[next] || (board.isEnd(next) && length != path.length - 1)) {
+                continue;
+            }
+            visited[next] = false;
+            path[length] = next;
+            if (extend(board, visited, path, length + 1, next, current)) {
+                return true;
+            }
+            visited[next] = true;
+        }
+        return false;
+    }
+
+    //Preusmerava stare klase iz fajla na klase iz ovog paketa
+    private static final class LegacyInputStream extends ObjectInputStream {
+
+        LegacyInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass descriptor) throws IOException, ClassNotFoundException {
+            Class<?> legacy = LEGACY_CLASSES.get(descriptor.getName());
+            if (legacy != null) {
+                return legacy;
+            }
+            if (descriptor.getName().startsWith(OLD_PACKAGE)) {
+                throw new InvalidClassException(descriptor.getName(), "Unexpected class in legacy game file");
+            }
+            return super.resolveClass(descriptor);
+        }
+    }
+}
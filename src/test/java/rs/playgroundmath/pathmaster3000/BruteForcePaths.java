@@ -0,0 +1,72 @@
+package rs.playgroundmath.pathmaster3000;
+
+//Nabraja sve putanje od trenutnog polja do End polja potezima kroz Board.move i Board.undo,
+//pa je referenca za solver i analizator nezavisna od njihovih bitboard-ova i fronta
+//Upotrebljivo samo na malim tablama - broj putanja raste eksponencijalno
+final class BruteForcePaths {
+
+    //Broj putanja po rezultatu (0-9) i po broju koraka
+    final long[] byScore = new long[10];
+    final long[] byLength;
+    //Najbolji zbir i broj koraka (zbir / koraci najveći), -1 ako End nije dostižan
+    int bestSum = -1;
+    int bestSteps = 1;
+    long total;
+
+    private BruteForcePaths(Board board) {
+        byLength = new long[board.getCellCount()];
+    }
+
+    static BruteForcePaths of(Board board) {
+        BruteForcePaths paths = new BruteForcePaths(board);
+        paths.extend(board);
+        return paths;
+    }
+
+    //Pravi do steps poteza, na svakom koraku prvi dozvoljen sused koji nije End
+    static void walk(Board board, int steps) {
+        for (int step = 0; step < steps; step++) {
+            int next = Board.NO_CELL;
+            for (int direction = Board.UP; direction <= Board.LEFT && next == Board.NO_CELL; direction++) {
+                int cell = board.neighbor(board.getCurrent(), direction);
+                if (cell != Board.NO_CELL && !board.isEnd(cell) && board.canMove(cell)) {
+                    next = cell;
+                }
+            }
+            if (next == Board.NO_CELL) {
+                return;
+            }
+            board.move(next);
+        }
+    }
+
+    //Broj putanja sa rezultatom bar minScore
+    long atLeast(int minScore) {
+        long count = 0;
+        for (int score = Math.max(minScore, 0); score < byScore.length; score++) {
+            count += byScore[score];
+        }
+        return count;
+    }
+
+    private void extend(Board board) {
+        if (board.isFinished()) {
+            total++;
+            byScore[board.calculateScore()]++;
+            byLength[board.getSteps()]++;
+            int steps = Math.max(board.getSteps(), 1);
+            if ((long) board.getSum() * bestSteps > (long) bestSum * steps) {
+                bestSum = board.getSum();
+                bestSteps = steps;
+            }
+            return;
+        }
+        for (int direction = Board.UP; direction <= Board.LEFT; direction++) {
+            int next = board.neighbor(board.getCurrent(), direction);
+            if (next != Board.NO_CELL && board.move(next).isAccepted()) {
+                extend(board);
+                board.undo();
+            }
+        }
+    }
+}
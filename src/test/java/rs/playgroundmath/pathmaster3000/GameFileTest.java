@@ -0,0 +1,129 @@
+package rs.playgroundmath.pathmaster3000;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void seededBoardSurvivesWriteAndRead() throws IOException {
+        Board board = Board.generate(7, 9, 42);
+        BruteForcePaths.walk(board, 20);
+        Path file = directory.resolve("seeded.game");
+
+        GameFile.write(file, new SavedGame(board, 95, "#ff0000", "#00ff00"));
+        SavedGame loaded = GameFile.read(file);
+
+        assertSameGame(board, loaded.getBoard());
+        assertTrue(loaded.getBoard().isSeeded());
+        assertEquals(42, loaded.getBoard().getSeed());
+        assertEquals(95, loaded.getTimeElapsed());
+        assertEquals("#ff0000", loaded.getPathColor());
+        assertEquals("#00ff00", loaded.getGameColor());
+    }
+
+    //Neparan broj polja i broj koraka koji nije deljiv sa 4 - poslednji bajt polja i putanje nije pun
+    @Test
+    void unseededBoardWithPartialBytesSurvivesWriteAndRead() throws IOException {
+        byte[] cells = {0, 3, 5, 1, 9, 2, 8, 4, 6, 7, 1, 2, 3, 4, 0};
+        Board board = new Board(3, 5, cells, 0, 14);
+        BruteForcePaths.walk(board, 5);
+        Path file = directory.resolve("unseeded.game");
+
+        GameFile.write(file, new SavedGame(board, 0, null, null));
+        SavedGame loaded = GameFile.read(file);
+
+        assertSameGame(board, loaded.getBoard());
+        assertFalse(loaded.getBoard().isSeeded());
+        assertNull(loaded.getPathColor());
+        assertNull(loaded.getGameColor());
+    }
+
+    @Test
+    void corruptedByteIsRejectedByChecksum() throws IOException {
+        Board board = Board.generate(5, 5, 7);
+        BruteForcePaths.walk(board, 6);
+        byte[] bytes = bytes(GameFile.encode(new SavedGame(board, 10, null, null)));
+        Path file = directory.resolve("corrupted.game");
+
+        bytes[bytes.length / 2] ^= 0x10;
+        Files.write(file, bytes);
+
+        IOException error = assertThrows(IOException.class, () -> GameFile.read(file));
+        assertEquals("Game file checksum mismatch", error.getMessage());
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Board board = Board.generate(5, 5, 7);
+        BruteForcePaths.walk(board, 6);
+        byte[] bytes = bytes(GameFile.encode(new SavedGame(board, 10, null, null)));
+
+        for (int length : new int[]{0, 1, 12, bytes.length / 2, bytes.length - 1}) {
+            Path file = directory.resolve("truncated-" + length + ".game");
+            Files.write(file, Arrays.copyOf(bytes, length));
+            assertThrows(IOException.class, () -> GameFile.read(file), "length " + length);
+        }
+    }
+
+    //Dužina zaglavlja je promenjena, a CRC ponovo izračunat - fajl mora biti odbijen sa IOException, bez drugih izuzetaka
+    @Test
+    void tamperedHeaderLengthIsRejected() throws IOException {
+        Board board = Board.generate(5, 5, 7);
+        BruteForcePaths.walk(board, 6);
+        byte[] bytes = bytes(GameFile.encode(new SavedGame(board, 10, "#ff0000", "#00ff00")));
+        int headerLength = ByteBuffer.wrap(bytes).getShort(6) & 0xFFFF;
+
+        for (int tampered : new int[]{0xFFFF, 0, 10, 26, headerLength - 9, headerLength + 1}) {
+            Path file = directory.resolve("header-" + tampered + ".game");
+            Files.write(file, withHeaderLength(bytes, tampered));
+            assertThrows(IOException.class, () -> GameFile.read(file), "header length " + tampered);
+        }
+    }
+
+    private static void assertSameGame(Board expected, Board actual) {
+        assertEquals(expected.getRows(), actual.getRows());
+        assertEquals(expected.getColumns(), actual.getColumns());
+        assertEquals(expected.getStart(), actual.getStart());
+        assertEquals(expected.getEnd(), actual.getEnd());
+        for (int i = 0; i < expected.getCellCount(); i++) {
+            assertEquals(expected.getValue(i), actual.getValue(i), "cell " + i);
+        }
+        assertArrayEquals(expected.copyPath(), actual.copyPath());
+        assertEquals(expected.getCurrent(), actual.getCurrent());
+        assertEquals(expected.calculateScore(), actual.calculateScore());
+    }
+
+    private static byte[] withHeaderLength(byte[] bytes, int headerLength) {
+        byte[] copy = bytes.clone();
+        ByteBuffer buffer = ByteBuffer.wrap(copy);
+        buffer.putShort(6, (short) headerLength);
+        CRC32 crc = new CRC32();
+        crc.update(copy, 0, copy.length - Integer.BYTES);
+        buffer.putInt(copy.length - Integer.BYTES, (int) crc.getValue());
+        return copy;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
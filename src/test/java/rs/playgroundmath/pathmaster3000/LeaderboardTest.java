@@ -0,0 +1,127 @@
+package rs.playgroundmath.pathmaster3000;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LeaderboardTest {
+
+    private static final int ENTRIES = 40;
+    private static final int TOP = 10;
+
+    @TempDir
+    Path directory;
+
+    //Pad usred upisa - na disku je samo prva polovina poslednjeg zapisa
+    @Test
+    void tornLastRecordIsDroppedOnReopen() throws IOException {
+        Path file = directory.resolve("torn.pml");
+        List<LeaderboardEntry> written = fill(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - Leaderboard.RECORD_LENGTH / 2);
+        }
+
+        assertReopenedWith(file, written.subList(0, ENTRIES - 1));
+    }
+
+    @Test
+    void lastRecordWithBadChecksumIsDroppedOnReopen() throws IOException {
+        Path file = directory.resolve("corrupted.pml");
+        List<LeaderboardEntry> written = fill(file);
+        flipByte(file, Files.size(file) - Leaderboard.RECORD_LENGTH + 12);
+
+        assertReopenedWith(file, written.subList(0, ENTRIES - 1));
+    }
+
+    //Oštećen zapis je kraj dnevnika - zapisi posle njega se ne čitaju, ali svi pre njega ostaju
+    @Test
+    void recordsAfterACorruptedRecordAreDropped() throws IOException {
+        Path file = directory.resolve("middle.pml");
+        List<LeaderboardEntry> written = fill(file);
+        int corrupted = ENTRIES / 2;
+        flipByte(file, Leaderboard.HEADER_LENGTH + (long) corrupted * Leaderboard.RECORD_LENGTH + 20);
+
+        assertReopenedWith(file, written.subList(0, corrupted));
+    }
+
+    //Upisuje ENTRIES rezultata na 5x5 tablama, neki su na istoj zagonetki (seed 3), i vraća ih redom upisa
+    private static List<LeaderboardEntry> fill(Path file) throws IOException {
+        SplittableRandom random = new SplittableRandom(17);
+        List<LeaderboardEntry> written = new ArrayList<>();
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            for (int i = 0; i < ENTRIES; i++) {
+                boolean seeded = i % 3 == 0;
+                //Mali opseg rezultata i vremena, da bi se rangiralo i po zbiru i po rednom broju
+                LeaderboardEntry entry = new LeaderboardEntry(5, 5, seeded ? 3 : 0, seeded, random.nextInt(4),
+                        random.nextInt(3) * 10, 8, random.nextInt(3), 1_000 + i);
+                written.add(leaderboard.add(entry));
+            }
+        }
+        return written;
+    }
+
+    //Posle ponovnog otvaranja dnevnik ima tačno kept zapise, rang liste su iste kao da su upisani samo oni,
+    //a novi zapis se nastavlja odmah iza poslednjeg ispravnog
+    private static void assertReopenedWith(Path file, List<LeaderboardEntry> kept) throws IOException {
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            assertEquals(kept.size(), leaderboard.getRecordCount());
+            assertEquals(Leaderboard.HEADER_LENGTH + (long) kept.size() * Leaderboard.RECORD_LENGTH, Files.size(file));
+
+            List<LeaderboardEntry> ranked = new ArrayList<>(kept);
+            ranked.sort(LeaderboardEntry.RANKING);
+            List<LeaderboardEntry> top = leaderboard.top(5, 5, TOP);
+            assertEquals(finishTimes(ranked.subList(0, TOP)), finishTimes(top));
+            for (int i = 0; i < top.size(); i++) {
+                assertEquals(i + 1, leaderboard.rank(top.get(i)));
+            }
+
+            List<LeaderboardEntry> puzzle = new ArrayList<>();
+            for (LeaderboardEntry entry : ranked) {
+                if (entry.isSeeded()) {
+                    puzzle.add(entry);
+                }
+            }
+            List<LeaderboardEntry> puzzleTop = leaderboard.topForPuzzle(5, 5, 3, TOP);
+            assertEquals(finishTimes(puzzle.subList(0, Math.min(TOP, puzzle.size()))), finishTimes(puzzleTop));
+            for (int i = 0; i < puzzleTop.size(); i++) {
+                assertEquals(i + 1, leaderboard.puzzleRank(puzzleTop.get(i)));
+            }
+
+            leaderboard.add(new LeaderboardEntry(5, 5, 0, false, 100, 0, 8, 0, 5_000));
+        }
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            assertEquals(kept.size() + 1, leaderboard.getRecordCount());
+            assertEquals(5_000, leaderboard.top(5, 5, 1).get(0).getFinishedAt());
+        }
+    }
+
+    //Vreme završetka je različito za svaki upisan rezultat, pa određuje rezultat i posle ponovnog čitanja
+    private static List<Long> finishTimes(List<LeaderboardEntry> entries) {
+        List<Long> times = new ArrayList<>();
+        for (LeaderboardEntry entry : entries) {
+            times.add(entry.getFinishedAt());
+        }
+        return times;
+    }
+
+    private static void flipByte(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer single = ByteBuffer.allocate(1);
+            channel.read(single, position);
+            single.put(0, (byte) (single.get(0) ^ 0x40));
+            single.rewind();
+            channel.write(single, position);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package rs.playgroundmath.pathmaster3000;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoveJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void eventPackingKeepsTimeAndEvent() {
+        for (int event : new int[]{0, 17, Integer.MAX_VALUE, MoveJournal.UNDO, MoveJournal.REDO, MoveJournal.RESET}) {
+            long packed = MoveJournal.pack(123_456_789L, event);
+            assertEquals(event, MoveJournal.eventOf(packed));
+            assertEquals(123_456_789L, MoveJournal.timeOf(packed));
+        }
+    }
+
+    //Pun bafer prepisuje najstarije događaje - ostaje poslednjih capacity događaja, a replay iz memorije nije moguć
+    @Test
+    void fullBufferKeepsTheNewestEvents() {
+        Board board = new Board(1, 12, new byte[12], 0, 11);
+        MoveJournal journal = new MoveJournal(board, 8);
+        for (int cell = 1; cell <= 8; cell++) {
+            journal.move(cell);
+        }
+        assertTrue(journal.isComplete());
+        journal.undo();
+        journal.redo();
+        journal.move(9);
+
+        assertEquals(11, journal.getRecorded());
+        assertEquals(8, journal.size());
+        assertFalse(journal.isComplete());
+        int[] newest = {4, 5, 6, 7, 8, MoveJournal.UNDO, MoveJournal.REDO, 9};
+        for (int i = 0; i < newest.length; i++) {
+            assertEquals(newest[i], MoveJournal.eventOf(journal.getEvent(i)), "event " + i);
+        }
+        assertThrows(IllegalStateException.class, journal::toReplay);
+    }
+
+    @Test
+    void newMoveClearsRedo() {
+        Board board = new Board(3, 3, new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 0}, 0, 8);
+        MoveJournal journal = new MoveJournal(board, 16);
+        journal.move(1);
+        journal.move(2);
+        assertEquals(2, journal.undo());
+        assertTrue(journal.canRedo());
+
+        assertTrue(journal.move(4).isAccepted());
+
+        assertFalse(journal.canRedo());
+        assertEquals(Board.NO_CELL, journal.redo());
+        assertArrayEquals(new int[]{0, 1, 4}, board.copyPath());
+    }
+
+    //Odbijen potez se ne upisuje i ne briše redo
+    @Test
+    void rejectedMoveKeepsRedo() {
+        Board board = new Board(3, 3, new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 0}, 0, 8);
+        MoveJournal journal = new MoveJournal(board, 16);
+        journal.move(1);
+        journal.undo();
+
+        assertFalse(journal.move(7).isAccepted());
+
+        assertTrue(journal.canRedo());
+        assertEquals(2, journal.size());
+        assertEquals(1, journal.redo());
+    }
+
+    @Test
+    void segmentClearsRedoAndRecordsOnlyAppliedMoves() {
+        Board board = new Board(3, 3, new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 0}, 0, 8);
+        MoveJournal journal = new MoveJournal(board, 16);
+        journal.move(3);
+        journal.undo();
+
+        //4 nije susedno sa 2, pa se segment prekida posle dva poteza
+        assertEquals(2, journal.moveSegment(new int[]{1, 2, 4}, 0, 3));
+
+        assertFalse(journal.canRedo());
+        assertEquals(4, journal.size());
+        assertEquals(1, MoveJournal.eventOf(journal.getEvent(2)));
+        assertEquals(2, MoveJournal.eventOf(journal.getEvent(3)));
+    }
+
+    //Nasumični potezi, undo, redo i restart - replay iz memorije i iz fajla daje istu tablu i isti Zobrist heš
+    @Test
+    void replayReproducesTheBoard() throws IOException {
+        SplittableRandom random = new SplittableRandom(5);
+        for (int game = 0; game < 30; game++) {
+            Board board = Board.generate(7, 7, random.nextLong());
+            MoveJournal journal = new MoveJournal(board);
+            Path file = directory.resolve("game-" + game + ".pmj");
+            journal.openFile(file);
+            for (int step = 0; step < 300; step++) {
+                int choice = random.nextInt(100);
+                if (choice < 20) {
+                    journal.undo();
+                } else if (choice < 35) {
+                    journal.redo();
+                } else if (choice < 37) {
+                    journal.reset();
+                } else {
+                    journal.move(board.neighbor(board.getCurrent(), random.nextInt(4)));
+                }
+            }
+            journal.close();
+
+            assertSameState(board, journal.toReplay().play(), "memory " + game);
+            assertSameState(board, GameReplay.read(file).play(), "file " + game);
+        }
+    }
+
+    //Dnevnik table koja već ima putanju (nastavljena partija) počinje tom putanjom
+    @Test
+    void replayOfResumedGameStartsFromThePlayedPath() {
+        Board board = Board.generate(5, 5, 8);
+        BruteForcePaths.walk(board, 4);
+        MoveJournal journal = new MoveJournal(board, 16);
+        journal.undo();
+
+        assertSameState(board, journal.toReplay().play(), "resumed");
+    }
+
+    private static void assertSameState(Board expected, Board actual, String label) {
+        assertArrayEquals(expected.copyPath(), actual.copyPath(), label);
+        assertEquals(expected.getSum(), actual.getSum(), label);
+        assertEquals(expected.getSteps(), actual.getSteps(), label);
+        assertEquals(expected.isFinished(), actual.isFinished(), label);
+        assertEquals(expected.getPositionHash(), actual.getPositionHash(), label);
+    }
+}
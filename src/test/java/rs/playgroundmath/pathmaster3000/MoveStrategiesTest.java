@@ -0,0 +1,49 @@
+package rs.playgroundmath.pathmaster3000;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoveStrategiesTest {
+
+    //  Start End
+    //  5     3
+    //End je odmah pored Start polja, ali putanja kroz 5 i 3 ima prosek 4, a direktan završetak 0
+    @Test
+    void greedyDoesNotFinishOnFirstMoveWhenADigitScores() {
+        Board board = new Board(2, 2, new byte[]{0, 0, 5, 3}, 0, 1);
+        MoveStrategy greedy = MoveStrategies.create("greedy", 0);
+
+        assertEquals(2, greedy.nextMove(board));
+        play(board, greedy);
+
+        assertEquals(4, board.calculateScore());
+    }
+
+    //Sused sa cifrom 0 ne povećava prosek, pa greedy odmah završava
+    @Test
+    void greedyFinishesOnFirstMoveWhenNoDigitScores() {
+        Board board = new Board(1, 3, new byte[]{0, 0, 0}, 1, 2);
+
+        assertEquals(2, MoveStrategies.create("greedy", 0).nextMove(board));
+    }
+
+    //Posle prvog koraka End se bira kada sledeća cifra ne bi povećala prosek
+    @Test
+    void greedyFinishesWhenTheNextDigitWouldLowerTheAverage() {
+        //  Start 7 End
+        //  .     4 .
+        Board board = new Board(2, 3, new byte[]{0, 7, 0, 0, 4, 0}, 0, 2);
+        board.move(1);
+
+        assertEquals(2, MoveStrategies.create("greedy", 0).nextMove(board));
+    }
+
+    private static void play(Board board, MoveStrategy strategy) {
+        while (!board.isFinished()) {
+            int next = strategy.nextMove(board);
+            assertTrue(board.move(next).isAccepted(), "move to " + next);
+        }
+    }
+}
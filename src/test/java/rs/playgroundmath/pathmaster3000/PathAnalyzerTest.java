@@ -0,0 +1,51 @@
+package rs.playgroundmath.pathmaster3000;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathAnalyzerTest {
+
+    private static final int[][] SIZES = {{1, 5}, {2, 2}, {2, 6}, {3, 3}, {3, 5}, {4, 4}, {6, 3}, {4, 5}, {5, 5}};
+    private static final int SEEDS = 12;
+
+    private final PathAnalyzer analyzer = new PathAnalyzer();
+
+    //Front se gradi red po red, pa se proveravaju i uske i široke table, i Start i End na svim mestima
+    @Test
+    void exactCountsMatchExhaustiveSearch() {
+        for (int[] size : SIZES) {
+            for (long seed = 0; seed < SEEDS; seed++) {
+                Board board = Board.generate(size[0], size[1], seed);
+                BruteForcePaths expected = BruteForcePaths.of(board.freshCopy());
+                String label = size[0] + "x" + size[1] + " seed " + seed;
+
+                PathAnalysis analysis = analyzer.analyzeExact(board);
+
+                assertTrue(analysis.isExact(), label);
+                assertEquals(expected.total, analysis.getPathCount(), label);
+                for (int score = 0; score <= 9; score++) {
+                    assertEquals(expected.byScore[score], analysis.getPathCount(score), label + " score " + score);
+                }
+                for (int steps = 0; steps < board.getCellCount(); steps++) {
+                    assertEquals(expected.byLength[steps], analysis.getPathCountByLength(steps), label + " steps " + steps);
+                }
+            }
+        }
+    }
+
+    //Analiza uvek broji od Start polja, bez obzira na putanju koja je već odigrana na tabli
+    @Test
+    void playedPathDoesNotChangeExactCounts() {
+        Board board = Board.generate(4, 5, 9);
+        PathAnalysis fresh = analyzer.analyzeExact(board);
+        BruteForcePaths.walk(board, 4);
+
+        PathAnalysis played = analyzer.analyzeExact(board);
+
+        for (int score = 0; score <= 9; score++) {
+            assertEquals(fresh.getPathCount(score), played.getPathCount(score), "score " + score);
+        }
+    }
+}
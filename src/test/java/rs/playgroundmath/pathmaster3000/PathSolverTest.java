@@ -0,0 +1,86 @@
+package rs.playgroundmath.pathmaster3000;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathSolverTest {
+
+    private static final int[][] SIZES = {{1, 6}, {2, 5}, {3, 3}, {3, 4}, {4, 4}, {4, 5}, {5, 4}, {5, 5}};
+    private static final int SEEDS = 12;
+    private static final Duration BUDGET = Duration.ofSeconds(30);
+
+    private final PathSolver solver = new PathSolver();
+
+    @Test
+    void bestPathMatchesExhaustiveSearch() {
+        for (int[] size : SIZES) {
+            for (long seed = 0; seed < SEEDS; seed++) {
+                Board board = Board.generate(size[0], size[1], seed);
+                assertBestPath(board, BruteForcePaths.of(board.freshCopy()), size[0] + "x" + size[1] + " seed " + seed);
+            }
+        }
+    }
+
+    //Solver kreće od trenutne pozicije, a vraćena putanja počinje delom koji je igrač već prešao
+    @Test
+    void bestPathFromMidGameMatchesExhaustiveSearch() {
+        for (long seed = 0; seed < SEEDS; seed++) {
+            Board board = Board.generate(5, 5, seed);
+            BruteForcePaths.walk(board, 3);
+            int[] played = board.copyPath();
+            String label = "5x5 seed " + seed + " after " + (played.length - 1) + " moves";
+
+            SolverResult result = assertBestPath(board, BruteForcePaths.of(board), label);
+
+            if (result.isSolvable()) {
+                int[] prefix = new int[played.length];
+                System.arraycopy(result.getPath(), 0, prefix, 0, prefix.length);
+                assertArrayEquals(played, prefix, label);
+            }
+        }
+    }
+
+    @Test
+    void pathCountsMatchExhaustiveSearch() {
+        for (int[] size : SIZES) {
+            for (long seed = 0; seed < SEEDS; seed++) {
+                Board board = Board.generate(size[0], size[1], seed);
+                BruteForcePaths expected = BruteForcePaths.of(board.freshCopy());
+                for (int minScore = 0; minScore <= 9; minScore++) {
+                    assertEquals(expected.atLeast(minScore), solver.countPaths(board, minScore, Long.MAX_VALUE, BUDGET),
+                            size[0] + "x" + size[1] + " seed " + seed + " min score " + minScore);
+                }
+                long all = expected.atLeast(0);
+                assertEquals(Math.min(all, 3), solver.countPaths(board, 0, 3, BUDGET));
+            }
+        }
+    }
+
+    //Proverava da je rezultat optimalan kao najbolja nabrojana putanja i da se putanja može odigrati
+    private SolverResult assertBestPath(Board board, BruteForcePaths expected, String label) {
+        SolverResult result = solver.solve(board, BUDGET);
+        assertTrue(result.isOptimal(), label);
+        assertEquals(expected.bestSum >= 0, result.isSolvable(), label);
+        if (!result.isSolvable()) {
+            return result;
+        }
+        int steps = Math.max(result.getSteps(), 1);
+        assertEquals((long) expected.bestSum * steps, (long) result.getSum() * expected.bestSteps, label);
+
+        int[] path = result.getPath();
+        Board replay = board.freshCopy();
+        assertEquals(replay.getStart(), path[0], label);
+        for (int i = 1; i < path.length; i++) {
+            assertTrue(replay.move(path[i]).isAccepted(), label + " move " + i);
+        }
+        assertTrue(replay.isFinished(), label);
+        assertEquals(result.getSum(), replay.getSum(), label);
+        assertEquals(result.getSteps(), replay.getSteps(), label);
+        return result;
+    }
+}
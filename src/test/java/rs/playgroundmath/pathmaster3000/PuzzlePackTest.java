@@ -0,0 +1,104 @@
+package rs.playgroundmath.pathmaster3000;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuzzlePackTest {
+
+    private static final int ROWS = 5;
+    private static final int COLUMNS = 7;
+    private static final int COUNT = 3;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void boardsAreReadFromCells() throws IOException {
+        PuzzlePack pack = PuzzlePack.read(write("pack.pack"));
+
+        assertEquals(COUNT, pack.size());
+        assertEquals(99, pack.getMasterSeed());
+        for (int i = 0; i < COUNT; i++) {
+            Board expected = Board.generate(ROWS, COLUMNS, 10 + i);
+            Board board = pack.board(i);
+            assertEquals(expected.getStart(), board.getStart());
+            assertEquals(expected.getEnd(), board.getEnd());
+            for (int c = 0; c < expected.getCellCount(); c++) {
+                assertEquals(expected.getValue(c), board.getValue(c), "puzzle " + i + " cell " + c);
+            }
+            assertEquals(10 + i, board.getSeed());
+            assertArrayEquals(new int[]{board.getStart()}, board.copyPath());
+        }
+    }
+
+    //Dužina zaglavlja određuje gde počinju zapisi - svaka druga vrednost od one koju piše PuzzlePackWriter se odbija
+    @Test
+    void tamperedHeaderLengthIsRejected() throws IOException {
+        byte[] bytes = Files.readAllBytes(write("pack.pack"));
+        for (int tampered : new int[]{0, 1, PuzzlePack.HEADER_LENGTH - 9, PuzzlePack.HEADER_LENGTH - 7,
+                PuzzlePack.HEADER_LENGTH - 8 + PuzzlePack.RECORD_LENGTH, 65535}) {
+            byte[] copy = bytes.clone();
+            ByteBuffer.wrap(copy).putShort(6, (short) tampered);
+            Path file = directory.resolve("header-" + tampered + ".pack");
+            Files.write(file, copy);
+
+            IOException e = assertThrows(IOException.class, () -> PuzzlePack.read(file), "header length " + tampered);
+            assertTrue(e.getMessage().contains("header length"), e.getMessage());
+        }
+    }
+
+    //Polu-bajt polja može da sadrži 10-15 - takva tabla se ne pravi, a ostale zagonetke u paketu se i dalje čitaju
+    @Test
+    void cellValueAboveNineIsRejected() throws IOException {
+        Path file = write("pack.pack");
+        byte[] bytes = Files.readAllBytes(file);
+        int recordLength = PuzzlePack.cellRecordLength(ROWS, COLUMNS);
+        int cells = PuzzlePack.HEADER_LENGTH + COUNT * PuzzlePack.RECORD_LENGTH;
+        //Prva zagonetka: gornji polu-bajt prvog bajta (polje 0)
+        bytes[cells + 4] = (byte) (bytes[cells + 4] & 0x0F | 0xA0);
+        //Druga zagonetka: broj polja je neparan, pa je poslednje polje sam u gornjem polu-bajtu poslednjeg bajta
+        int last = cells + 2 * recordLength - 1;
+        bytes[last] = (byte) (bytes[last] & 0x0F | 0xF0);
+        Files.write(file, bytes);
+        PuzzlePack pack = PuzzlePack.read(file);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> pack.board(0));
+        assertEquals("Puzzle 0 has invalid value 10 in cell 0", e.getMessage());
+        e = assertThrows(IllegalStateException.class, () -> pack.board(1));
+        assertEquals("Puzzle 1 has invalid value 15 in cell " + (ROWS * COLUMNS - 1), e.getMessage());
+        assertEquals(10, pack.get(0).getSeed());
+        assertEquals(Board.generate(ROWS, COLUMNS, 12).getStart(), pack.board(2).getStart());
+    }
+
+    @Test
+    void startOutsideTheBoardIsRejected() throws IOException {
+        Path file = write("pack.pack");
+        byte[] bytes = Files.readAllBytes(file);
+        int cells = PuzzlePack.HEADER_LENGTH + COUNT * PuzzlePack.RECORD_LENGTH;
+        ByteBuffer.wrap(bytes).putShort(cells, (short) (ROWS * COLUMNS));
+        Files.write(file, bytes);
+        PuzzlePack pack = PuzzlePack.read(file);
+
+        assertThrows(IllegalStateException.class, () -> pack.board(0));
+    }
+
+    private Path write(String name) throws IOException {
+        Path file = directory.resolve(name);
+        try (PuzzlePackWriter writer = new PuzzlePackWriter(file, new PuzzleSpec(ROWS, COLUMNS), 99)) {
+            for (int i = 0; i < COUNT; i++) {
+                writer.write(new Puzzle(ROWS, COLUMNS, 10 + i, 20, 4, 1));
+            }
+        }
+        return file;
+    }
+}
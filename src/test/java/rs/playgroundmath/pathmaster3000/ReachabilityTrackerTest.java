@@ -0,0 +1,117 @@
+package rs.playgroundmath.pathmaster3000;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReachabilityTrackerTest {
+
+    private static final int[][] SIZES = {{1, 8}, {2, 7}, {3, 3}, {4, 6}, {6, 6}, {8, 5}, {10, 10}};
+    private static final int SEQUENCES = 40;
+    private static final int STEPS = 200;
+
+    //Nasumični potezi (i oni koji odsecaju End) i undo, a posle svake promene se tracker poredi sa BFS-om
+    @Test
+    void matchesBreadthFirstSearchAfterEveryMoveAndUndo() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int[] size : SIZES) {
+            for (int sequence = 0; sequence < SEQUENCES; sequence++) {
+                Board board = Board.generate(size[0], size[1], random.nextLong());
+                ReachabilityTracker tracker = new ReachabilityTracker(board);
+                for (int step = 0; step < STEPS; step++) {
+                    change(board, random);
+                    assertMatchesSearch(board, tracker, size[0] + "x" + size[1] + " step " + step);
+                }
+            }
+        }
+    }
+
+    //Više promena između dva upita - tracker mora da prepozna i putanju koja je posle undo-a otišla drugim putem
+    @Test
+    void matchesBreadthFirstSearchAfterSeveralChangesBetweenQueries() {
+        SplittableRandom random = new SplittableRandom(12);
+        for (int[] size : SIZES) {
+            for (int sequence = 0; sequence < SEQUENCES; sequence++) {
+                Board board = Board.generate(size[0], size[1], random.nextLong());
+                ReachabilityTracker tracker = new ReachabilityTracker(board);
+                for (int step = 0; step < STEPS; step++) {
+                    for (int changes = 1 + random.nextInt(6); changes > 0; changes--) {
+                        change(board, random);
+                    }
+                    assertMatchesSearch(board, tracker, size[0] + "x" + size[1] + " step " + step);
+                }
+            }
+        }
+    }
+
+    //  Start 1 2
+    //  3     4 5
+    //  6     7 End
+    //Putanja Start -> 1 -> 4 se posle dva undo-a zamenjuje putanjom Start -> 3 -> 4: ista dužina i isto poslednje polje
+    @Test
+    void detectsReroutedPathWithTheSameLastCell() {
+        Board board = new Board(3, 3, new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 0}, 0, 8);
+        ReachabilityTracker tracker = new ReachabilityTracker(board);
+        board.move(1);
+        board.move(4);
+        assertMatchesSearch(board, tracker, "first path");
+
+        board.undo();
+        board.undo();
+        board.move(3);
+        board.move(4);
+
+        assertMatchesSearch(board, tracker, "rerouted path");
+    }
+
+    //Potez na nasumičnog suseda (ako je dozvoljen), undo ili, retko, reset
+    private static void change(Board board, SplittableRandom random) {
+        int choice = random.nextInt(100);
+        if (choice < 2) {
+            board.reset();
+        } else if (choice < 30 || board.isFinished()) {
+            board.undo();
+        } else {
+            board.move(board.neighbor(board.getCurrent(), random.nextInt(4)));
+        }
+    }
+
+    private static void assertMatchesSearch(Board board, ReachabilityTracker tracker, String label) {
+        assertEquals(board.isFinished() || reachesEnd(board, board.getCurrent()), tracker.isEndReachable(), label);
+        if (board.isFinished()) {
+            return;
+        }
+        for (int direction = Board.UP; direction <= Board.LEFT; direction++) {
+            int next = board.neighbor(board.getCurrent(), direction);
+            boolean expected = next != Board.NO_CELL && !board.isVisited(next)
+                    && (board.isEnd(next) || reachesEnd(board, next));
+            assertEquals(expected, tracker.leadsToEnd(direction), label + " direction " + direction);
+        }
+    }
+
+    //Običan BFS od polja from kroz neposećena polja do End polja
+    private static boolean reachesEnd(Board board, int from) {
+        boolean[] seen = new boolean[board.getCellCount()];
+        int[] queue = new int[board.getCellCount()];
+        int tail = 0;
+        queue[tail++] = from;
+        seen[from] = true;
+        for (int head = 0; head < tail; head++) {
+            int cell = queue[head];
+            for (int direction = Board.UP; direction <= Board.LEFT; direction++) {
+                int next = board.neighbor(cell, direction);
+                if (next == Board.NO_CELL || seen[next] || (board.isVisited(next) && !board.isEnd(next))) {
+                    continue;
+                }
+                if (board.isEnd(next)) {
+                    return true;
+                }
+                seen[next] = true;
+                queue[tail++] = next;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,177 @@
+package rs.playgroundmath.pathmaster3000;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerSessionTest {
+
+    private static final String MOVE_USAGE = "ERR usage: MOVE <cell index>";
+
+    @Test
+    void newChecksBoardBounds() {
+        assertTrue(single("NEW 1x2 5").startsWith("OK 5 "));
+        assertTrue(single("NEW 256x256 5").startsWith("OK 5 "));
+        assertTrue(single("NEW 3X3 5").startsWith("OK 5 "));
+        for (String command : new String[]{"NEW 1x1", "NEW 5x0", "NEW 256x257", "NEW 65537x1",
+                "NEW 999999999999999999x999999999999999999"}) {
+            assertEquals("ERR board must have between 2 and " + ServerSession.MAX_CELLS + " cells", single(command), command);
+        }
+        for (String command : new String[]{"NEW", "NEW 5", "NEW 5y5", "NEW x5", "NEW 0x5"}) {
+            assertEquals("ERR usage: NEW <rows>x<columns> [seed]", single(command), command);
+        }
+    }
+
+    @Test
+    void newAcceptsOnlySeedsInLongRange() {
+        assertEquals(header(Board.generate(3, 3, Long.MAX_VALUE)), single("NEW 3x3 " + Long.MAX_VALUE));
+        assertEquals(header(Board.generate(3, 3, Long.MIN_VALUE)), single("NEW 3x3 " + Long.MIN_VALUE));
+        assertEquals(header(Board.generate(3, 3, -7)), single("NEW 3x3 -7"));
+        String error = "ERR seed must be a number between " + Long.MIN_VALUE + " and " + Long.MAX_VALUE;
+        for (String seed : new String[]{"9223372036854775808", "-9223372036854775809", "99999999999999999999", "12a", "-", "x"}) {
+            assertEquals(error, single("NEW 3x3 " + seed), seed);
+        }
+    }
+
+    //Više komandi u jednom baferu dobija odgovore istim redom, a posle QUIT se ništa više ne izvršava
+    @Test
+    void pipelinedLinesAreAnsweredInOrder() {
+        Board board = Board.generate(4, 4, 11);
+        int next = firstMove(board);
+
+        List<String> responses = run(new ServerSession(),
+                "NEW 4x4 11\nMOVE " + next + "\nUNDO\nUNDO\nSTATE\nQUIT\nSTATE\n");
+
+        assertEquals(List.of(
+                header(board),
+                "OK ACCEPTED " + scoreAfter(board, next),
+                "OK " + board.getStart(),
+                "NO",
+                "OK " + board.getStart() + " 0 0 0 0",
+                "OK"), responses);
+    }
+
+    @Test
+    void carriageReturnIsIgnored() {
+        String commands = "NEW 4x4 11\nMOVE 1\nSTATE\nBOARD\nFOO\n";
+
+        assertEquals(run(new ServerSession(), commands), run(new ServerSession(), commands.replace("\n", "\r\n")));
+    }
+
+    @Test
+    void moveRejectsTrailingGarbage() {
+        Board board = Board.generate(4, 4, 11);
+        int next = firstMove(board);
+        ServerSession session = new ServerSession();
+
+        List<String> responses = run(session, "NEW 4x4 11\nMOVE " + next + "abc\nMOVE " + next + "x\nMOVE\nMOVE -1\n"
+                + "MOVE 1234567890123456789\nSTATE\nMOVE " + next + " \n");
+
+        assertEquals(List.of(
+                header(board),
+                MOVE_USAGE,
+                MOVE_USAGE,
+                MOVE_USAGE,
+                MOVE_USAGE,
+                MOVE_USAGE,
+                "OK " + board.getStart() + " 0 0 0 0",
+                "OK ACCEPTED " + scoreAfter(board, next)), responses);
+        assertEquals(1, session.getMoves());
+    }
+
+    @Test
+    void moveReportsRejectedMoves() {
+        List<String> responses = run(new ServerSession(), "MOVE 1\nNEW 4x4 11\nMOVE 16\nMOVE 999999999999\n");
+
+        assertEquals("ERR no game, send NEW first", responses.get(0));
+        assertEquals("NO OUT_OF_BOUNDS", responses.get(2));
+        assertEquals("NO OUT_OF_BOUNDS", responses.get(3));
+    }
+
+    @Test
+    void finishClosesTheGame() {
+        Board board = Board.generate(1, 2, 3);
+        List<String> responses = run(new ServerSession(), "NEW 1x2 3\nFINISH\nMOVE " + board.getEnd() + "\nFINISH\nSTATE\n");
+
+        assertEquals("NO NOT_FINISHED", responses.get(1));
+        assertEquals("OK FINISHED 0", responses.get(2));
+        assertTrue(responses.get(3).startsWith("OK 0 0 "), responses.get(3));
+        assertEquals("ERR no game, send NEW first", responses.get(4));
+    }
+
+    //BOARD je jedini odgovor čija dužina zavisi od table - mora da stane u maxResponseLength i na najvećoj tabli
+    @Test
+    void boardResponseFitsMaxResponseLength() {
+        for (String size : new String[]{"1x2", "5x5", "256x256", "1x65536"}) {
+            ServerSession session = new ServerSession();
+            run(session, "NEW " + size + " 1\n");
+
+            String response = run(session, "BOARD\n").get(0);
+
+            String[] parts = response.split(" ");
+            assertEquals("OK", parts[0]);
+            int cells = Integer.parseInt(parts[1]) * Integer.parseInt(parts[2]);
+            assertEquals(cells, parts[5].length(), size);
+            assertTrue(response.length() + 1 <= session.maxResponseLength(), size);
+        }
+    }
+
+    @Test
+    void unknownCommandsAreErrors() {
+        assertEquals(List.of("ERR unknown command", "ERR unknown command", "ERR unknown command", "ERR no game, send NEW first"),
+                run(new ServerSession(), "\nMOVES 1\nmove 1\n  STATE\n"));
+    }
+
+    //Izvršava linije kao GameServer - jedna linija po '\n', izlazni bafer ima tačno maxResponseLength() mesta
+    //Odgovor koji ne staje baca BufferOverflowException
+    private static List<String> run(ServerSession session, String input) {
+        ByteBuffer in = ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII));
+        List<String> responses = new ArrayList<>();
+        int lineStart = 0;
+        for (int i = 0; i < in.limit() && !session.isClosed(); i++) {
+            if (in.get(i) != '\n') {
+                continue;
+            }
+            ByteBuffer out = ByteBuffer.allocate(session.maxResponseLength());
+            session.execute(in, lineStart, i, out);
+            out.flip();
+            String response = StandardCharsets.US_ASCII.decode(out).toString();
+            assertTrue(response.endsWith("\n"), response);
+            assertFalse(response.substring(0, response.length() - 1).contains("\n"), response);
+            responses.add(response.substring(0, response.length() - 1));
+            lineStart = i + 1;
+        }
+        return responses;
+    }
+
+    private static String single(String command) {
+        return run(new ServerSession(), command + "\n").get(0);
+    }
+
+    private static String header(Board board) {
+        return "OK " + board.getSeed() + " " + board.getStart() + " " + board.getEnd();
+    }
+
+    private static int firstMove(Board board) {
+        for (int direction = Board.UP; direction <= Board.LEFT; direction++) {
+            int next = board.neighbor(board.getStart(), direction);
+            if (next != Board.NO_CELL && !board.isEnd(next)) {
+                return next;
+            }
+        }
+        throw new AssertionError("no move from Start");
+    }
+
+    private static int scoreAfter(Board board, int next) {
+        Board copy = board.freshCopy();
+        copy.move(next);
+        return copy.calculateScore();
+    }
+}
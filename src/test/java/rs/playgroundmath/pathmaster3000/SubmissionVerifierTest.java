@@ -0,0 +1,130 @@
+package rs.playgroundmath.pathmaster3000;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubmissionVerifierTest {
+
+    private static final long MIN_MOVE_MILLIS = 50;
+
+    //Tabla sa jednim redom ima tačno jednu putanju od Start do End polja, pa se prijave lako sastavljaju
+    private long seed;
+    private Board board;
+    private int direction;
+    private String path;
+    private int moves;
+    private int score;
+
+    @BeforeEach
+    void findBoard() {
+        do {
+            board = Board.generate(1, 8, seed++);
+        } while (Math.abs(board.getEnd() - board.getStart()) < 4);
+        seed--;
+        direction = board.getEnd() > board.getStart() ? 1 : -1;
+        StringBuilder moves = new StringBuilder();
+        for (int cell = board.getStart() + direction; cell != board.getEnd() + direction; cell += direction) {
+            moves.append(moves.length() > 0 ? "," : "").append(cell);
+            board.move(cell);
+        }
+        path = moves.toString();
+        this.moves = board.getSteps() + 1;
+        score = board.calculateScore();
+    }
+
+    @Test
+    void everyVerdictIsCountedAndReported() throws IOException, InterruptedException {
+        int start = board.getStart();
+        int first = start + direction;
+        String game = " 1x8 " + seed + " ";
+        String time = " " + moves * MIN_MOVE_MILLIS + " ";
+        String input = String.join("\n",
+                "# komentar",
+                "valid" + game + score + time + path,
+                "",
+                "valid-spaces  1x8  " + seed + "  " + score + time + path + "  ",
+                "missing" + game + score + time,
+                "size 1y8 " + seed + " " + score + time + path,
+                "tiny 1x1 " + seed + " " + score + time + path,
+                "seed 1x8 abc " + score + time + path,
+                "empty" + game + score + time + first + ",," + path,
+                "comma" + game + score + time + path + ",",
+                "digits" + game + score + time + "12345678901",
+                "extra" + game + score + time + path + " 5",
+                "jump" + game + score + time + (start + 2 * direction),
+                "huge" + game + score + time + "9999999999",
+                "after-end" + game + score + time + path + "," + first,
+                "revisit" + game + score + time + first + "," + start,
+                "dash" + game + score + time + "-",
+                "partial" + game + score + time + first,
+                "fast" + game + score + " " + (moves * MIN_MOVE_MILLIS - 1) + " " + path,
+                "negative" + game + score + " -1 " + path,
+                "score" + game + (score + 1) + time + path);
+        SubmissionVerifier verifier = new SubmissionVerifier(2, MIN_MOVE_MILLIS);
+        StringWriter report = new StringWriter();
+
+        verifier.verify(new BufferedReader(new StringReader(input)), report);
+
+        Map<String, String> lines = new TreeMap<>();
+        for (String line : report.toString().split("\n")) {
+            lines.put(line.substring(0, line.indexOf(' ')), line.substring(line.indexOf(' ') + 1));
+        }
+        assertEquals("MALFORMED missing field", lines.remove("missing"));
+        assertEquals("MALFORMED board size 1y8", lines.remove("size"));
+        assertEquals("MALFORMED board size 1x1", lines.remove("tiny"));
+        assertTrue(lines.remove("seed").startsWith("MALFORMED "));
+        assertEquals("MALFORMED move 2 is empty", lines.remove("empty"));
+        assertEquals("MALFORMED move " + (moves + 1) + " is empty", lines.remove("comma"));
+        assertEquals("MALFORMED move 1 is not a cell index", lines.remove("digits"));
+        assertEquals("MALFORMED unexpected text after moves", lines.remove("extra"));
+        assertEquals("INVALID_MOVE NOT_ADJACENT at move 1 (cell " + (start + 2 * direction) + ")", lines.remove("jump"));
+        assertEquals("INVALID_MOVE OUT_OF_BOUNDS at move 1 (cell 9999999999)", lines.remove("huge"));
+        assertEquals("INVALID_MOVE GAME_OVER at move " + (moves + 1) + " (cell " + first + ")", lines.remove("after-end"));
+        assertEquals("REVISIT ALREADY_VISITED at move 2 (cell " + start + ")", lines.remove("revisit"));
+        assertEquals("UNFINISHED path ends at " + start + " after 0 moves", lines.remove("dash"));
+        assertEquals("UNFINISHED path ends at " + first + " after 1 moves", lines.remove("partial"));
+        assertEquals("IMPOSSIBLE_TIME " + moves + " moves in " + (moves * MIN_MOVE_MILLIS - 1) + "ms", lines.remove("fast"));
+        assertEquals("IMPOSSIBLE_TIME " + moves + " moves in -1ms", lines.remove("negative"));
+        assertEquals("SCORE_MISMATCH claimed " + (score + 1) + ", path scores " + score, lines.remove("score"));
+        assertEquals(Map.of(), lines);
+
+        assertEquals(2, verifier.getCount(SubmissionVerifier.Verdict.VALID));
+        assertEquals(8, verifier.getCount(SubmissionVerifier.Verdict.MALFORMED));
+        assertEquals(3, verifier.getCount(SubmissionVerifier.Verdict.INVALID_MOVE));
+        assertEquals(1, verifier.getCount(SubmissionVerifier.Verdict.REVISIT));
+        assertEquals(2, verifier.getCount(SubmissionVerifier.Verdict.UNFINISHED));
+        assertEquals(2, verifier.getCount(SubmissionVerifier.Verdict.IMPOSSIBLE_TIME));
+        assertEquals(1, verifier.getCount(SubmissionVerifier.Verdict.SCORE_MISMATCH));
+        assertEquals(19, verifier.getTotal());
+    }
+
+    //Brojevi se sabiraju kroz više poziva, a paketi veći od jednog reda prolaze kroz sve niti
+    @Test
+    void countsAddUpAcrossCallsAndBatches() throws IOException, InterruptedException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            input.append(i).append(" 1x8 ").append(seed).append(' ').append(i % 7 == 0 ? score + 1 : score)
+                    .append(' ').append(moves * MIN_MOVE_MILLIS).append(' ').append(path).append('\n');
+        }
+        SubmissionVerifier verifier = new SubmissionVerifier(3, MIN_MOVE_MILLIS);
+        StringWriter report = new StringWriter();
+
+        verifier.verify(new BufferedReader(new StringReader(input.toString())), report);
+        verifier.verify(new BufferedReader(new StringReader(input.toString())), report);
+
+        assertEquals(2 * 715, verifier.getCount(SubmissionVerifier.Verdict.SCORE_MISMATCH));
+        assertEquals(2 * (5000 - 715), verifier.getCount(SubmissionVerifier.Verdict.VALID));
+        assertEquals(10_000, verifier.getTotal());
+        assertEquals(2 * 715, report.toString().split("\n").length);
+    }
+}
@@ -0,0 +1,139 @@
+package rs.playgroundmath.pathmaster3000.legacy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import rs.playgroundmath.pathmaster3000.Board;
+import rs.playgroundmath.pathmaster3000.GameFile;
+import rs.playgroundmath.pathmaster3000.SavedGame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LegacyGameReaderTest {
+
+    private static final String OLD_PACKAGE = "rs.playgroundmath.pathmaster3000.";
+
+    @TempDir
+    Path directory;
+
+    //Stari fajl sa tablom 3x3, Start u gornjem levom i End u donjem desnom uglu:
+    //  Start 4 2
+    //  1     7 3
+    //  5     6 End
+    //Putanja Start -> 4 -> 7 je zapisana kao neuređen skup posećenih polja
+    @Test
+    void javaSerializedGameIsMigratedThroughGameFile() throws IOException {
+        GameGrid grid = legacyGrid();
+        GameController controller = new GameController();
+        controller.gameGrid = grid;
+        controller.currentX = 1;
+        controller.currentY = 1;
+        controller.score = 5;
+        controller.steps = 2;
+        controller.visitedCells = new HashSet<>(List.of(new int[]{1, 1}, new int[]{0, 1}));
+        controller.pathColor = "#ff8800";
+        controller.timeElapsed = 37;
+        Path file = directory.resolve("legacy.game");
+        Files.write(file, serialize(grid, controller));
+
+        SavedGame loaded = GameFile.read(file);
+
+        Board board = loaded.getBoard();
+        assertEquals(3, board.getRows());
+        assertEquals(3, board.getColumns());
+        assertEquals(0, board.getStart());
+        assertEquals(8, board.getEnd());
+        assertEquals(7, board.getValue(4));
+        assertArrayEquals(new int[]{0, 1, 4}, board.copyPath());
+        assertEquals(board.index(1, 1), board.getCurrent());
+        assertEquals(11, board.getSum());
+        assertFalse(board.isSeeded());
+        assertEquals(37, loaded.getTimeElapsed());
+        assertEquals("#ff8800", loaded.getPathColor());
+        assertNull(loaded.getGameColor());
+    }
+
+    //Posećena polja koja ne čine putanju od Start polja do trenutne pozicije
+    @Test
+    void brokenLegacyPathIsRejected() throws IOException {
+        GameGrid grid = legacyGrid();
+        GameController controller = new GameController();
+        controller.gameGrid = grid;
+        controller.currentX = 2;
+        controller.currentY = 1;
+        controller.visitedCells = new HashSet<>(List.of(new int[]{2, 1}));
+        Path file = directory.resolve("broken.game");
+        Files.write(file, serialize(grid, controller));
+
+        assertThrows(IOException.class, () -> GameFile.read(file));
+    }
+
+    private static GameGrid legacyGrid() {
+        GameGrid grid = new GameGrid();
+        grid.gridSize = 3;
+        grid.buttonStates = new String[][]{
+                {"Start", "4", "2"},
+                {"1", "7", "3"},
+                {"5", "6", "End"}};
+        grid.endX = 2;
+        grid.endY = 2;
+        return grid;
+    }
+
+    //Klase iz ovog paketa imaju oblik i serialVersionUID starih klasa, pa je tok isti kao stari fajl
+    //kada se imena klasa vrate na stara (u toku su zapisana kao writeUTF - dužina pa bajtovi)
+    private static byte[] serialize(GameGrid grid, GameController controller) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(grid);
+            out.writeObject(controller);
+        }
+        byte[] stream = bytes.toByteArray();
+        stream = replace(stream, utf(GameGrid.class.getName()), utf(OLD_PACKAGE + "GameGrid"));
+        return replace(stream, utf(GameController.class.getName()), utf(OLD_PACKAGE + "GameController"));
+    }
+
+    private static byte[] utf(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new DataOutputStream(bytes).writeUTF(text);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] replace(byte[] source, byte[] from, byte[] to) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        int i = 0;
+        while (i < source.length) {
+            if (startsWith(source, i, from)) {
+                result.write(to, 0, to.length);
+                i += from.length;
+            } else {
+                result.write(source[i++]);
+            }
+        }
+        return result.toByteArray();
+    }
+
+    private static boolean startsWith(byte[] source, int offset, byte[] prefix) {
+        if (offset + prefix.length > source.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (source[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}